@@ -0,0 +1,126 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.blocking;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.HermiT.existentials.CreationOrderStrategy;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.tableau.DependencySet;
+import org.semanticweb.HermiT.tableau.ExtensionManager;
+import org.semanticweb.HermiT.tableau.InterruptFlag;
+import org.semanticweb.HermiT.tableau.Node;
+import org.semanticweb.HermiT.tableau.Tableau;
+
+/**
+ * Measures BlockingSignatureCache.addNode() and BlockingSignatureCache.containsSignature() on tree nodes whose labels
+ * are random sets of atomic concepts. The signature cache is filled with the first half of the nodes, so roughly half
+ * of the lookups hit the cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5,time=1)
+@Measurement(iterations=10,time=1)
+@Fork(2)
+@State(Scope.Thread)
+public class BlockingSignatureCacheBenchmark {
+    protected static final int NUMBER_OF_NODES=20000;
+
+    @Param({ "single","pairwise" })
+    public String directBlockingType;
+
+    protected DirectBlockingChecker m_directBlockingChecker;
+    protected Tableau m_tableau;
+    protected Node[] m_nodes;
+    protected BlockingSignatureCache m_filledCache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        m_directBlockingChecker="single".equals(directBlockingType) ? new SingleDirectBlockingChecker() : new PairWiseDirectBlockingChecker();
+        Set<DLClause> noDLClauses=Collections.emptySet();
+        Set<Atom> noFacts=Collections.emptySet();
+        DLOntology dlOntology=new DLOntology("opaque:benchmark",noDLClauses,noFacts,noFacts,null,null,null,null,null,null,null,true,false,false,false);
+        BlockingStrategy blockingStrategy=new AnywhereBlocking(m_directBlockingChecker,new BlockingSignatureCache(m_directBlockingChecker));
+        m_tableau=new Tableau(new InterruptFlag(-1),null,new CreationOrderStrategy(blockingStrategy),false,dlOntology,null,new HashMap<String,Object>());
+        AtomicConcept[] atomicConcepts=new AtomicConcept[20];
+        for (int index=0;index<atomicConcepts.length;index++)
+            atomicConcepts[index]=AtomicConcept.create("http://benchmark.org/C"+index);
+        AtomicRole[] atomicRoles=new AtomicRole[4];
+        for (int index=0;index<atomicRoles.length;index++)
+            atomicRoles[index]=AtomicRole.create("http://benchmark.org/R"+index);
+        Random random=new Random(1234567L);
+        ExtensionManager extensionManager=m_tableau.getExtensionManager();
+        DependencySet emptySet=m_tableau.getDependencySetFactory().emptySet();
+        Node root=m_tableau.createNewNINode(emptySet);
+        Node[] parents=new Node[100];
+        for (int index=0;index<parents.length;index++) {
+            parents[index]=m_tableau.createNewTreeNode(emptySet,root);
+            addRandomLabel(extensionManager,random,atomicConcepts,atomicRoles,root,parents[index]);
+        }
+        m_nodes=new Node[NUMBER_OF_NODES];
+        for (int index=0;index<NUMBER_OF_NODES;index++) {
+            Node parent=parents[random.nextInt(parents.length)];
+            m_nodes[index]=m_tableau.createNewTreeNode(emptySet,parent);
+            addRandomLabel(extensionManager,random,atomicConcepts,atomicRoles,parent,m_nodes[index]);
+        }
+        m_filledCache=new BlockingSignatureCache(m_directBlockingChecker);
+        for (int index=0;index<NUMBER_OF_NODES/2;index++)
+            m_filledCache.addNode(m_nodes[index]);
+    }
+    protected void addRandomLabel(ExtensionManager extensionManager,Random random,AtomicConcept[] atomicConcepts,AtomicRole[] atomicRoles,Node parent,Node node) {
+        DependencySet emptySet=m_tableau.getDependencySetFactory().emptySet();
+        for (int index=0;index<3;index++)
+            extensionManager.addConceptAssertion(atomicConcepts[random.nextInt(atomicConcepts.length)],node,emptySet,true);
+        extensionManager.addRoleAssertion(atomicRoles[random.nextInt(atomicRoles.length)],parent,node,emptySet,true);
+    }
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_NODES)
+    public void addNode(Blackhole blackhole) {
+        BlockingSignatureCache cache=new BlockingSignatureCache(m_directBlockingChecker);
+        for (int index=0;index<NUMBER_OF_NODES;index++)
+            blackhole.consume(cache.addNode(m_nodes[index]));
+    }
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_NODES)
+    public void containsSignature(Blackhole blackhole) {
+        for (int index=0;index<NUMBER_OF_NODES;index++)
+            blackhole.consume(m_filledCache.containsSignature(m_nodes[index]));
+    }
+}
@@ -0,0 +1,94 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+import org.semanticweb.owlapi.reasoner.Node;
+
+/**
+ * Measures the end-to-end reasoning tasks of HermiT on the test ontologies: each invocation creates a fresh reasoner
+ * (which includes preprocessing and clausification) and classifies the classes or realises the individuals. The
+ * numberOfWorkerThreads parameter can be raised on the command line to measure parallel classification, and the
+ * groundDisjunctionScheduling parameter can be set to any Configuration.GroundDisjunctionSchedulingType.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3)
+@Measurement(iterations=10)
+@Fork(2)
+@State(Scope.Thread)
+public class ReasoningTaskBenchmark {
+
+    @Param({ "objects","ints" })
+    public String storage;
+    @Param({ "1" })
+    public int numberOfWorkerThreads;
+    @Param({ "INSERTION_ORDER" })
+    public String groundDisjunctionScheduling;
+    @Param({ "false" })
+    public boolean compileToBytecode;
+    @Param({ "false","true" })
+    public boolean costBasedJoinOrdering;
+
+    protected Configuration createConfiguration() {
+        Configuration configuration=new Configuration();
+        configuration.parameters.put("ExtensionTable.storage",storage);
+        configuration.parameters.put("DLClauseEvaluator.compileToBytecode",Boolean.valueOf(compileToBytecode));
+        configuration.parameters.put("HyperresolutionManager.costBasedJoinOrdering",Boolean.valueOf(costBasedJoinOrdering));
+        configuration.numberOfWorkerThreads=numberOfWorkerThreads;
+        configuration.groundDisjunctionSchedulingType=Configuration.GroundDisjunctionSchedulingType.valueOf(groundDisjunctionScheduling);
+        return configuration;
+    }
+    @Benchmark
+    public Node<OWLClass> classifyClasses(TestOntologyState ontologyState) {
+        Reasoner reasoner=new Reasoner(createConfiguration(),ontologyState.getOntology());
+        try {
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            return reasoner.getBottomClassNode();
+        }
+        finally {
+            reasoner.dispose();
+        }
+    }
+    @Benchmark
+    public boolean realise(TestOntologyState ontologyState) {
+        Reasoner reasoner=new Reasoner(createConfiguration(),ontologyState.getOntology());
+        try {
+            reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+            return reasoner.isPrecomputed(InferenceType.CLASS_ASSERTIONS);
+        }
+        finally {
+            reasoner.dispose();
+        }
+    }
+}
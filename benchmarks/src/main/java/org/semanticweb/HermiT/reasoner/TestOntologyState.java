@@ -0,0 +1,60 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.reasoner;
+
+import java.io.InputStream;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+/**
+ * Loads one of the ontologies that are shipped with the tests of HermiT. The ontology is loaded once per trial, so
+ * that the benchmarks measure reasoning only. Larger ontologies, such as galen-ians-full-undoctored.xml, can be
+ * selected on the command line with -p ontology=...
+ */
+@State(Scope.Benchmark)
+public class TestOntologyState {
+    protected static final String RESOURCE_DIRECTORY="/org/semanticweb/HermiT/reasoner/res/";
+
+    @Param({ "pizza.xml","wine.xml","dolce_all.xml","propreo.xml" })
+    public String ontology;
+
+    protected OWLOntology m_ontology;
+
+    @Setup(Level.Trial)
+    public void loadOntology() throws Exception {
+        OWLOntologyManager ontologyManager=OWLManager.createOWLOntologyManager();
+        try (InputStream input=TestOntologyState.class.getResourceAsStream(RESOURCE_DIRECTORY+ontology)) {
+            if (input==null)
+                throw new IllegalArgumentException("The ontology '"+ontology+"' is not one of the test ontologies.");
+            m_ontology=ontologyManager.loadOntologyFromOntologyDocument(input);
+        }
+    }
+    /**
+     * @return the loaded ontology
+     */
+    public OWLOntology getOntology() {
+        return m_ontology;
+    }
+}
@@ -0,0 +1,58 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.structural;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.reasoner.TestOntologyState;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Measures the throughput of the structural transformation of the test ontologies: the normalization alone, and the
+ * complete preprocessing and clausification that the reasoner performs when it is created.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=5,time=2)
+@Measurement(iterations=10,time=2)
+@Fork(2)
+public class ClausificationBenchmark {
+
+    @Benchmark
+    public OWLAxioms normalize(TestOntologyState ontologyState) {
+        OWLOntology ontology=ontologyState.getOntology();
+        OWLAxioms axioms=new OWLAxioms();
+        OWLNormalization normalization=new OWLNormalization(ontology.getOWLOntologyManager().getOWLDataFactory(),axioms,0);
+        normalization.processOntology(ontology);
+        return axioms;
+    }
+    @Benchmark
+    public Object[] preprocessAndClausify(TestOntologyState ontologyState) {
+        OWLClausification clausification=new OWLClausification(new Configuration());
+        return clausification.preprocessAndClausify(ontologyState.getOntology(),Collections.emptySet());
+    }
+}
@@ -0,0 +1,136 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.HermiT.blocking.AnywhereBlocking;
+import org.semanticweb.HermiT.blocking.BlockingSignatureCache;
+import org.semanticweb.HermiT.blocking.BlockingStrategy;
+import org.semanticweb.HermiT.blocking.PairWiseDirectBlockingChecker;
+import org.semanticweb.HermiT.existentials.CreationOrderStrategy;
+import org.semanticweb.HermiT.existentials.ExistentialExpansionStrategy;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.Variable;
+
+/**
+ * Measures one round of HyperresolutionManager.applyDLClauses(), that is, the execution of the compiled DL clause
+ * evaluator workers over the delta-old tuples of a tableau. The tableau contains random role and concept assertions
+ * between NI nodes, and the DL clauses contain a join over two roles and a clause guarded by an atomic concept. The
+ * workers are either interpreted or compiled into JVM classes by DLClauseBytecodeGenerator.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5,time=1)
+@Measurement(iterations=10,time=1)
+@Fork(2)
+@State(Scope.Thread)
+public class DLClauseEvaluatorBenchmark {
+    protected static final AtomicRole R=AtomicRole.create("http://benchmark.org/R");
+    protected static final AtomicRole S=AtomicRole.create("http://benchmark.org/S");
+    protected static final AtomicRole U=AtomicRole.create("http://benchmark.org/U");
+    protected static final AtomicConcept A=AtomicConcept.create("http://benchmark.org/A");
+    protected static final AtomicConcept B=AtomicConcept.create("http://benchmark.org/B");
+
+    @Param({ "objects","ints" })
+    public String storage;
+    @Param({ "1000","10000" })
+    public int numberOfNodes;
+    @Param({ "false","true" })
+    public boolean compileToBytecode;
+
+    protected Tableau m_tableau;
+    protected ExtensionManager m_extensionManager;
+    protected HyperresolutionManager m_hyperresolutionManager;
+    protected int[][] m_roleAssertions;
+    protected int[] m_conceptAssertions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Variable X=Variable.create("X");
+        Variable Y=Variable.create("Y");
+        Variable Z=Variable.create("Z");
+        Set<DLClause> dlClauses=new HashSet<>();
+        dlClauses.add(DLClause.create(new Atom[] { Atom.create(U,X,Z) },new Atom[] { Atom.create(R,X,Y),Atom.create(S,Y,Z) }));
+        dlClauses.add(DLClause.create(new Atom[] { Atom.create(B,X) },new Atom[] { Atom.create(R,X,Y),Atom.create(A,Y) }));
+        Set<Atom> noFacts=Collections.emptySet();
+        DLOntology dlOntology=new DLOntology("opaque:benchmark",dlClauses,noFacts,noFacts,null,null,null,null,null,null,null,true,false,false,false);
+        PairWiseDirectBlockingChecker directBlockingChecker=new PairWiseDirectBlockingChecker();
+        BlockingStrategy blockingStrategy=new AnywhereBlocking(directBlockingChecker,new BlockingSignatureCache(directBlockingChecker));
+        ExistentialExpansionStrategy existentialExpansionStrategy=new CreationOrderStrategy(blockingStrategy);
+        Map<String,Object> parameters=new HashMap<>();
+        parameters.put("ExtensionTable.storage",storage);
+        parameters.put("DLClauseEvaluator.compileToBytecode",Boolean.valueOf(compileToBytecode));
+        m_tableau=new Tableau(new InterruptFlag(-1),null,existentialExpansionStrategy,false,dlOntology,null,parameters);
+        m_extensionManager=m_tableau.getExtensionManager();
+        m_hyperresolutionManager=m_tableau.getPermanentHyperresolutionManager();
+        Random random=new Random(1234567L);
+        m_roleAssertions=new int[4*numberOfNodes][];
+        for (int index=0;index<m_roleAssertions.length;index++)
+            m_roleAssertions[index]=new int[] { random.nextInt(2),random.nextInt(numberOfNodes),random.nextInt(numberOfNodes) };
+        m_conceptAssertions=new int[numberOfNodes/4];
+        for (int index=0;index<m_conceptAssertions.length;index++)
+            m_conceptAssertions[index]=random.nextInt(numberOfNodes);
+    }
+    @Setup(Level.Invocation)
+    public void loadAssertions() {
+        m_tableau.clear();
+        DependencySet emptySet=m_tableau.getDependencySetFactory().emptySet();
+        Node[] nodes=new Node[numberOfNodes];
+        for (int index=0;index<numberOfNodes;index++)
+            nodes[index]=m_tableau.createNewNINode(emptySet);
+        for (int[] roleAssertion : m_roleAssertions)
+            m_extensionManager.addRoleAssertion(roleAssertion[0]==0 ? R : S,nodes[roleAssertion[1]],nodes[roleAssertion[2]],emptySet,true);
+        for (int conceptAssertion : m_conceptAssertions)
+            m_extensionManager.addConceptAssertion(A,nodes[conceptAssertion],emptySet,true);
+        m_extensionManager.propagateDeltaNew();
+    }
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        m_tableau.clear();
+        m_extensionManager.dispose();
+    }
+    @Benchmark
+    public boolean applyDLClauses() {
+        m_hyperresolutionManager.applyDLClauses();
+        return m_extensionManager.containsClash();
+    }
+}
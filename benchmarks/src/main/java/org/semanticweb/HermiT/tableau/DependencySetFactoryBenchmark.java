@@ -0,0 +1,93 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures DependencySetFactory.unionWith() on random dependency sets. The first benchmark unions sets whose union
+ * already exists, which is the common case in a deterministic part of a tableau run; the second one also discards the
+ * unions afterwards, as happens when the tableau backtracks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5,time=1)
+@Measurement(iterations=10,time=1)
+@Fork(2)
+@State(Scope.Thread)
+public class DependencySetFactoryBenchmark {
+    protected static final int NUMBER_OF_SETS=1000;
+    protected static final int NUMBER_OF_UNIONS=10000;
+
+    @Param({ "4","16" })
+    public int branchingPointsPerSet;
+
+    protected DependencySetFactory m_dependencySetFactory;
+    protected PermanentDependencySet[] m_dependencySets;
+    protected int[] m_firstArguments;
+    protected int[] m_secondArguments;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random=new Random(1234567L);
+        m_dependencySetFactory=new DependencySetFactory();
+        m_dependencySets=new PermanentDependencySet[NUMBER_OF_SETS];
+        for (int index=0;index<NUMBER_OF_SETS;index++) {
+            PermanentDependencySet dependencySet=m_dependencySetFactory.emptySet();
+            for (int branchingPointIndex=0;branchingPointIndex<branchingPointsPerSet;branchingPointIndex++)
+                dependencySet=m_dependencySetFactory.addBranchingPoint(dependencySet,random.nextInt(10*branchingPointsPerSet));
+            m_dependencySetFactory.addUsage(dependencySet);
+            m_dependencySets[index]=dependencySet;
+        }
+        m_firstArguments=new int[NUMBER_OF_UNIONS];
+        m_secondArguments=new int[NUMBER_OF_UNIONS];
+        for (int index=0;index<NUMBER_OF_UNIONS;index++) {
+            m_firstArguments[index]=random.nextInt(NUMBER_OF_SETS);
+            m_secondArguments[index]=random.nextInt(NUMBER_OF_SETS);
+        }
+    }
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_UNIONS)
+    public void unionWithExistingSets(Blackhole blackhole) {
+        for (int index=0;index<NUMBER_OF_UNIONS;index++)
+            blackhole.consume(m_dependencySetFactory.unionWith(m_dependencySets[m_firstArguments[index]],m_dependencySets[m_secondArguments[index]]));
+    }
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_UNIONS)
+    public void unionWithAndRemoveUnusedSets(Blackhole blackhole) {
+        for (int index=0;index<NUMBER_OF_UNIONS;index++)
+            blackhole.consume(m_dependencySetFactory.unionWith(m_dependencySets[m_firstArguments[index]],m_dependencySets[m_secondArguments[index]]));
+        m_dependencySetFactory.removeUnusedSets();
+    }
+}
@@ -0,0 +1,174 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.HermiT.blocking.AnywhereBlocking;
+import org.semanticweb.HermiT.blocking.SingleDirectBlockingChecker;
+import org.semanticweb.HermiT.existentials.CreationOrderStrategy;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.model.Variable;
+import org.semanticweb.HermiT.monitor.TableauMonitorAdapter;
+
+/**
+ * Measures the satisfiability tests of a random ABox with many ground disjunctions under the different ground
+ * disjunction scheduling strategies. Every concept implies a disjunction of three concepts and a disjunction of two
+ * concepts on its role successors, and every third concept is disjoint with another one. Each invocation checks whether
+ * the ABox together with an assertion C(i) is satisfiable, for a fixed sequence of concepts C and individuals i. The
+ * number of disjunct choices made by the tableau is reported as a secondary result, since it shows the effect of a
+ * strategy on the search independently of its overhead.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=5,time=1)
+@Measurement(iterations=10,time=1)
+@Fork(2)
+@State(Scope.Thread)
+public class GroundDisjunctionSchedulingBenchmark {
+    protected static final String NS="http://benchmark.org/";
+    protected static final AtomicRole R=AtomicRole.create(NS+"R");
+    protected static final int DISJOINTNESS_RATIO=3;
+
+    @Param({ "INSERTION_ORDER","FEWEST_DISJUNCTS","MOST_CONSTRAINED","ACTIVITY" })
+    public String scheduling;
+    @Param({ "20" })
+    public int numberOfConcepts;
+    @Param({ "40" })
+    public int numberOfIndividuals;
+
+    protected Tableau m_tableau;
+    protected DisjunctCounter m_disjunctCounter;
+    protected Set<Atom>[] m_tests;
+
+    @SuppressWarnings("unchecked")
+    @Setup(Level.Trial)
+    public void setUp() {
+        Variable X=Variable.create("X");
+        Variable Y=Variable.create("Y");
+        Random random=new Random(1234567L);
+        Set<DLClause> dlClauses=new HashSet<>();
+        for (int index=0;index<numberOfConcepts;index++) {
+            dlClauses.add(DLClause.create(new Atom[] { Atom.create(concept(random.nextInt(numberOfConcepts)),X),Atom.create(concept(random.nextInt(numberOfConcepts)),X),Atom.create(concept(random.nextInt(numberOfConcepts)),X) },new Atom[] { Atom.create(concept(index),X) }));
+            dlClauses.add(DLClause.create(new Atom[] { Atom.create(concept(random.nextInt(numberOfConcepts)),Y),Atom.create(concept(random.nextInt(numberOfConcepts)),Y) },new Atom[] { Atom.create(R,X,Y),Atom.create(concept(index),X) }));
+            if (index%DISJOINTNESS_RATIO==0) {
+                int disjointConcept=(index+1+random.nextInt(numberOfConcepts-1))%numberOfConcepts;
+                dlClauses.add(DLClause.create(new Atom[0],new Atom[] { Atom.create(concept(index),X),Atom.create(concept(disjointConcept),X) }));
+            }
+        }
+        Set<Atom> positiveFacts=new HashSet<>();
+        for (int index=0;index<numberOfIndividuals;index++) {
+            positiveFacts.add(Atom.create(concept(random.nextInt(numberOfConcepts)),individual(index)));
+            positiveFacts.add(Atom.create(R,individual(index),individual(random.nextInt(numberOfIndividuals))));
+        }
+        Set<Atom> noFacts=new HashSet<>();
+        DLOntology dlOntology=new DLOntology("opaque:benchmark",dlClauses,positiveFacts,noFacts,null,null,null,null,null,null,null,false,false,false,false);
+        GroundDisjunctionSchedulingStrategy schedulingStrategy;
+        switch (scheduling) {
+        case "INSERTION_ORDER":
+            schedulingStrategy=new InsertionOrderSchedulingStrategy();
+            break;
+        case "FEWEST_DISJUNCTS":
+            schedulingStrategy=new FewestDisjunctsSchedulingStrategy();
+            break;
+        case "MOST_CONSTRAINED":
+            schedulingStrategy=new MostConstrainedSchedulingStrategy();
+            break;
+        case "ACTIVITY":
+            schedulingStrategy=new ActivitySchedulingStrategy();
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown scheduling strategy: "+scheduling);
+        }
+        m_disjunctCounter=new DisjunctCounter();
+        m_tableau=new Tableau(new InterruptFlag(-1),m_disjunctCounter,new CreationOrderStrategy(new AnywhereBlocking(new SingleDirectBlockingChecker(),null)),schedulingStrategy,true,dlOntology,null,new HashMap<String,Object>());
+        m_tests=new Set[32];
+        for (int index=0;index<m_tests.length;index++) {
+            m_tests[index]=new HashSet<>();
+            m_tests[index].add(Atom.create(concept(random.nextInt(numberOfConcepts)),individual(random.nextInt(numberOfIndividuals))));
+        }
+    }
+    protected static AtomicConcept concept(int index) {
+        return AtomicConcept.create(NS+"C"+index);
+    }
+    protected static Individual individual(int index) {
+        return Individual.create(NS+"i"+index);
+    }
+    @Benchmark
+    public int isSatisfiable(SearchCounters searchCounters) {
+        m_disjunctCounter.m_numberOfDisjuncts=0;
+        int numberOfSatisfiableTests=0;
+        for (Set<Atom> test : m_tests)
+            if (m_tableau.isSatisfiable(true,true,null,null,test,null,new HashMap<>(),null,ReasoningTaskDescription.isABoxSatisfiable()))
+                numberOfSatisfiableTests++;
+        searchCounters.disjunctChoices+=m_disjunctCounter.m_numberOfDisjuncts;
+        return numberOfSatisfiableTests;
+    }
+
+    /**
+     * Counts the disjuncts that the tableau chooses.
+     */
+    protected static class DisjunctCounter extends TableauMonitorAdapter {
+        private static final long serialVersionUID=-8318226271418340352L;
+
+        protected long m_numberOfDisjuncts;
+
+        @Override
+        public void disjunctProcessingStarted(GroundDisjunction groundDisjunction,int disjunct) {
+            m_numberOfDisjuncts++;
+        }
+    }
+
+    /**
+     * Reports the number of disjunct choices of the measured invocations.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SearchCounters {
+        /**the number of disjuncts chosen by the tableau*/
+        public long disjunctChoices;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            disjunctChoices=0;
+        }
+    }
+}
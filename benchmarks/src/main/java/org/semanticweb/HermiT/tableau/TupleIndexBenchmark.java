@@ -0,0 +1,105 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+
+/**
+ * Measures TupleIndex.addTuple() and TupleIndex.getTupleIndex() on ternary tuples that look like role assertions.
+ * The tuples are built from interned model objects, so that the int-encoded storage can assign them IDs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5,time=1)
+@Measurement(iterations=10,time=1)
+@Fork(2)
+@State(Scope.Thread)
+public class TupleIndexBenchmark {
+    protected static final int NUMBER_OF_TUPLES=100000;
+
+    @Param({ "objects","ints","offheap" })
+    public String storage;
+
+    protected Object[][] m_tuples;
+    protected OffHeapStorage m_offHeapStorage;
+    protected TupleIndex m_emptyIndex;
+    protected TupleIndex m_filledIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random=new Random(1234567L);
+        AtomicRole[] roles=new AtomicRole[50];
+        for (int index=0;index<roles.length;index++)
+            roles[index]=AtomicRole.create("http://benchmark.org/R"+index);
+        AtomicConcept[] objects=new AtomicConcept[5000];
+        for (int index=0;index<objects.length;index++)
+            objects[index]=AtomicConcept.create("http://benchmark.org/o"+index);
+        m_tuples=new Object[NUMBER_OF_TUPLES][];
+        for (int index=0;index<NUMBER_OF_TUPLES;index++)
+            m_tuples[index]=new Object[] { roles[random.nextInt(roles.length)],objects[random.nextInt(objects.length)],objects[random.nextInt(objects.length)] };
+        m_offHeapStorage="offheap".equals(storage) ? new OffHeapStorage(null) : null;
+        m_emptyIndex=createTupleIndex();
+        m_filledIndex=createTupleIndex();
+        for (int index=0;index<NUMBER_OF_TUPLES;index++)
+            m_filledIndex.addTuple(m_tuples[index],index);
+    }
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (m_offHeapStorage!=null)
+            m_offHeapStorage.dispose();
+    }
+    protected TupleIndex createTupleIndex() {
+        int[] indexingSequence=new int[] { 0,1,2 };
+        if ("objects".equals(storage))
+            return new TupleIndex(indexingSequence);
+        else
+            return new TupleIndex(indexingSequence,new TupleObjectEncoder(),m_offHeapStorage);
+    }
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_TUPLES)
+    public void addTuple(Blackhole blackhole) {
+        m_emptyIndex.clear();
+        for (int index=0;index<NUMBER_OF_TUPLES;index++)
+            blackhole.consume(m_emptyIndex.addTuple(m_tuples[index],index));
+    }
+    @Benchmark
+    @OperationsPerInvocation(NUMBER_OF_TUPLES)
+    public void getTupleIndex(Blackhole blackhole) {
+        for (int index=0;index<NUMBER_OF_TUPLES;index++)
+            blackhole.consume(m_filledIndex.getTupleIndex(m_tuples[index]));
+    }
+}
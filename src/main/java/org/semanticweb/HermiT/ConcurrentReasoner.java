@@ -0,0 +1,394 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.semanticweb.HermiT.hierarchy.CompressedBitmap;
+import org.semanticweb.HermiT.hierarchy.Hierarchy;
+import org.semanticweb.HermiT.hierarchy.HierarchyNode;
+import org.semanticweb.HermiT.hierarchy.HierarchySearch;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.tableau.DisjunctOrderingStatistics;
+import org.semanticweb.HermiT.tableau.InterruptFlag;
+import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
+import org.semanticweb.HermiT.tableau.Tableau;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.reasoner.InconsistentOntologyException;
+import org.semanticweb.owlapi.reasoner.Node;
+import org.semanticweb.owlapi.reasoner.NodeSet;
+import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
+import org.semanticweb.owlapi.reasoner.impl.OWLClassNode;
+import org.semanticweb.owlapi.reasoner.impl.OWLClassNodeSet;
+import org.semanticweb.owlapi.reasoner.impl.OWLNamedIndividualNodeSet;
+
+/**
+ * A thread-safe query front-end over a classified and realised reasoner. When it is created, the front-end takes an
+ * immutable snapshot of the class hierarchy and of the direct instances of its nodes, so the hierarchy and instance
+ * queries for named classes are answered without locking. Queries over complex class expressions borrow one of a pool
+ * of tableaux for the ontology of the reasoner, so that at most as many of them run in parallel as there are tableaux.
+ * The front-end does not see changes of the ontology that are flushed later; a new front-end has to be created for
+ * them.
+ */
+public class ConcurrentReasoner {
+    protected static final String QUERY_CONCEPT_IRI="internal:query-concept";
+
+    protected final Reasoner m_reasoner;
+    protected final Configuration m_configuration;
+    protected final OWLDataFactory m_dataFactory;
+    protected final DLOntology m_dlOntology;
+    protected final Prefixes m_prefixes;
+    protected final Hierarchy<AtomicConcept> m_atomicConceptHierarchy;
+    protected final Map<HierarchyNode<AtomicConcept>,Node<OWLClass>> m_classNodes;
+    protected final List<Node<OWLNamedIndividual>> m_individualNodes;
+    protected final Individual[] m_individuals;
+    protected final CompressedBitmap m_allIndividuals;
+    protected final Map<HierarchyNode<AtomicConcept>,CompressedBitmap> m_directInstances;
+    protected final Tableau[] m_tableaux;
+    protected final BlockingQueue<Tableau> m_idleTableaux;
+
+    /**
+     * Creates a front-end with as many tableaux as the configuration of the reasoner has worker threads.
+     *
+     * @param reasoner the reasoner, which is classified and realised if necessary
+     */
+    public ConcurrentReasoner(Reasoner reasoner) {
+        this(reasoner,Math.max(1,reasoner.getConfiguration().numberOfWorkerThreads));
+    }
+    /**
+     * @param reasoner the reasoner, which is classified and realised if necessary
+     * @param numberOfTableaux the number of tableaux for the tests of complex class expressions
+     * @throws InconsistentOntologyException if the ontology of the reasoner is inconsistent
+     */
+    public ConcurrentReasoner(Reasoner reasoner,int numberOfTableaux) throws InconsistentOntologyException {
+        if (numberOfTableaux<1)
+            throw new IllegalArgumentException("The front-end needs at least one tableau.");
+        m_reasoner=reasoner;
+        m_configuration=reasoner.getConfiguration();
+        m_dataFactory=reasoner.getDataFactory();
+        reasoner.flushChangesIfRequired();
+        if (!reasoner.isConsistent())
+            throw new InconsistentOntologyException();
+        reasoner.classifyClasses();
+        reasoner.realise();
+        // the automata for complex properties are created lazily, so this must happen before the front-end is shared
+        reasoner.getObjectPropertyInclusionManager();
+        m_dlOntology=reasoner.getDLOntology();
+        m_prefixes=reasoner.getPrefixes();
+        m_atomicConceptHierarchy=reasoner.m_atomicConceptHierarchy;
+        m_classNodes=new HashMap<>();
+        for (HierarchyNode<AtomicConcept> node : m_atomicConceptHierarchy.getAllNodesSet())
+            m_classNodes.put(node,reasoner.atomicConceptHierarchyNodeToNode(node));
+        m_individualNodes=new ArrayList<>();
+        m_allIndividuals=new CompressedBitmap();
+        m_directInstances=new HashMap<>();
+        Map<Node<OWLNamedIndividual>,Integer> individualNodeIDs=new HashMap<>();
+        for (HierarchyNode<AtomicConcept> node : m_atomicConceptHierarchy.getAllNodesSet()) {
+            if (node==m_atomicConceptHierarchy.getBottomNode())
+                continue;
+            CompressedBitmap directInstances=new CompressedBitmap();
+            OWLClass owlClass=m_dataFactory.getOWLClass(IRI.create(node.getRepresentative().getIRI()));
+            for (Node<OWLNamedIndividual> individualNode : reasoner.getInstances(owlClass,true)) {
+                Integer individualNodeID=individualNodeIDs.get(individualNode);
+                if (individualNodeID==null) {
+                    individualNodeID=Integer.valueOf(m_individualNodes.size());
+                    individualNodeIDs.put(individualNode,individualNodeID);
+                    m_individualNodes.add(individualNode);
+                }
+                directInstances.add(individualNodeID.intValue());
+            }
+            m_allIndividuals.addAll(directInstances);
+            m_directInstances.put(node,directInstances);
+        }
+        m_individuals=new Individual[m_individualNodes.size()];
+        for (int individual=0;individual<m_individuals.length;individual++)
+            m_individuals[individual]=Individual.create(m_individualNodes.get(individual).getRepresentativeElement().getIRI().toString());
+        m_tableaux=new Tableau[numberOfTableaux];
+        m_idleTableaux=new ArrayBlockingQueue<>(numberOfTableaux);
+        DisjunctOrderingStatistics disjunctOrderingStatistics=reasoner.getDisjunctOrderingStatistics();
+        for (int index=0;index<numberOfTableaux;index++) {
+            m_tableaux[index]=Reasoner.createTableau(new InterruptFlag(m_configuration.individualTaskTimeout),m_configuration,m_dlOntology,null,m_prefixes,reasoner.getBlockingSignatureCache());
+            if (!disjunctOrderingStatistics.isEmpty())
+                m_tableaux[index].importDisjunctOrderingStatistics(disjunctOrderingStatistics);
+            m_idleTableaux.add(m_tableaux[index]);
+        }
+    }
+    /**
+     * Interrupts the tests that are currently running on the tableaux of the front-end.
+     */
+    public void interrupt() {
+        for (Tableau tableau : m_tableaux)
+            tableau.getInterruptFlag().interrupt();
+    }
+    /**
+     * Releases the tableaux of the front-end. The front-end must not be used afterwards.
+     */
+    public void dispose() {
+        for (Tableau tableau : m_tableaux) {
+            tableau.getInterruptFlag().dispose();
+            tableau.getExtensionManager().dispose();
+        }
+    }
+    /**
+     * @return the reasoner that the front-end has been created for
+     */
+    public Reasoner getReasoner() {
+        return m_reasoner;
+    }
+
+    // Class inferences
+
+    /**
+     * @param classExpression classExpression
+     * @return true if the class expression is satisfiable
+     */
+    public boolean isSatisfiable(OWLClassExpression classExpression) {
+        if (classExpression instanceof OWLClass)
+            return getHierarchyNode(classExpression)!=m_atomicConceptHierarchy.getBottomNode();
+        OWLIndividual freshIndividual=m_dataFactory.getOWLAnonymousIndividual("fresh-individual");
+        return runWithTableau(tableau->tableau.isSatisfiable(true,null,null,null,null,null,ReasoningTaskDescription.isConceptSatisfiable(classExpression)),m_dataFactory.getOWLClassAssertionAxiom(classExpression,freshIndividual)).booleanValue();
+    }
+    /**
+     * @param subClassExpression subClassExpression
+     * @param superClassExpression superClassExpression
+     * @return true if the first class expression is subsumed by the second one
+     */
+    public boolean isSubClassOf(OWLClassExpression subClassExpression,OWLClassExpression superClassExpression) {
+        if (subClassExpression.isOWLNothing() || superClassExpression.isOWLThing())
+            return true;
+        if (subClassExpression instanceof OWLClass && superClassExpression instanceof OWLClass) {
+            HierarchyNode<AtomicConcept> subNode=m_atomicConceptHierarchy.getNodeForElement(Reasoner.H((OWLClass)subClassExpression));
+            AtomicConcept superConcept=Reasoner.H((OWLClass)superClassExpression);
+            if (subNode!=null && m_atomicConceptHierarchy.getNodeForElement(superConcept)!=null)
+                return subNode.isEquivalentElement(superConcept) || subNode.isAncestorElement(superConcept);
+        }
+        OWLIndividual freshIndividual=m_dataFactory.getOWLAnonymousIndividual("fresh-individual");
+        OWLAxiom assertSubClassExpression=m_dataFactory.getOWLClassAssertionAxiom(subClassExpression,freshIndividual);
+        OWLAxiom assertNotSuperClassExpression=m_dataFactory.getOWLClassAssertionAxiom(superClassExpression.getObjectComplementOf(),freshIndividual);
+        return !runWithTableau(tableau->tableau.isSatisfiable(true,null,null,null,null,null,ReasoningTaskDescription.isConceptSubsumedBy(subClassExpression,superClassExpression)),assertSubClassExpression,assertNotSuperClassExpression).booleanValue();
+    }
+    /**
+     * @param classExpression classExpression
+     * @return the classes that are equivalent to the class expression
+     */
+    public Node<OWLClass> getEquivalentClasses(OWLClassExpression classExpression) {
+        return getClassNode(getHierarchyNode(classExpression));
+    }
+    /**
+     * @param classExpression classExpression
+     * @param direct direct
+     * @return the superclasses of the class expression
+     */
+    public NodeSet<OWLClass> getSuperClasses(OWLClassExpression classExpression,boolean direct) {
+        HierarchyNode<AtomicConcept> node=getHierarchyNode(classExpression);
+        Set<HierarchyNode<AtomicConcept>> result;
+        if (direct)
+            result=node.getParentNodes();
+        else {
+            result=new HashSet<>(node.getAncestorNodes());
+            result.remove(node);
+        }
+        return getClassNodeSet(result);
+    }
+    /**
+     * @param classExpression classExpression
+     * @param direct direct
+     * @return the subclasses of the class expression
+     */
+    public NodeSet<OWLClass> getSubClasses(OWLClassExpression classExpression,boolean direct) {
+        HierarchyNode<AtomicConcept> node=getHierarchyNode(classExpression);
+        Set<HierarchyNode<AtomicConcept>> result;
+        if (direct)
+            result=node.getChildNodes();
+        else {
+            result=new HashSet<>(node.getDescendantNodes());
+            result.remove(node);
+        }
+        return getClassNodeSet(result);
+    }
+    protected HierarchyNode<AtomicConcept> getHierarchyNode(OWLClassExpression classExpression) {
+        if (classExpression instanceof OWLClass) {
+            AtomicConcept atomicConcept=Reasoner.H((OWLClass)classExpression);
+            HierarchyNode<AtomicConcept> node=m_atomicConceptHierarchy.getNodeForElement(atomicConcept);
+            if (node==null)
+                node=new HierarchyNode<>(atomicConcept,Collections.singleton(atomicConcept),Collections.singleton(m_atomicConceptHierarchy.getTopNode()),Collections.singleton(m_atomicConceptHierarchy.getBottomNode()));
+            return node;
+        }
+        OWLClass queryClass=m_dataFactory.getOWLClass(IRI.create(QUERY_CONCEPT_IRI));
+        return runWithTableau(tableau->{
+            HierarchySearch.Relation<AtomicConcept> hierarchyRelation=(parent,child)->{
+                Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+                return !tableau.isSatisfiable(true,Collections.singleton(Atom.create(child,freshIndividual)),null,null,Collections.singleton(Atom.create(parent,freshIndividual)),null,ReasoningTaskDescription.isConceptSubsumedBy(child,parent));
+            };
+            return HierarchySearch.findPosition(hierarchyRelation,AtomicConcept.create(QUERY_CONCEPT_IRI),m_atomicConceptHierarchy.getTopNode(),m_atomicConceptHierarchy.getBottomNode());
+        },m_dataFactory.getOWLEquivalentClassesAxiom(queryClass,classExpression));
+    }
+
+    // Individual inferences
+
+    /**
+     * @param classExpression classExpression
+     * @param direct direct
+     * @return the instances of the class expression, grouped as configured by the individual node set policy of the reasoner
+     */
+    public NodeSet<OWLNamedIndividual> getInstances(OWLClassExpression classExpression,boolean direct) {
+        HierarchyNode<AtomicConcept> node=getHierarchyNode(classExpression);
+        CompressedBitmap result;
+        if (m_directInstances.containsKey(node)) {
+            if (direct)
+                result=m_directInstances.get(node);
+            else
+                result=getInstances(node);
+        }
+        else if (node==m_atomicConceptHierarchy.getBottomNode() || classExpression instanceof OWLClass)
+            result=new CompressedBitmap();
+        else
+            result=getInstancesOfComplexClassExpression(classExpression,node,direct);
+        Set<Node<OWLNamedIndividual>> individualNodes=new HashSet<>();
+        result.forEach(individual->individualNodes.add(m_individualNodes.get(individual)));
+        return new OWLNamedIndividualNodeSet(individualNodes);
+    }
+    protected CompressedBitmap getInstances(HierarchyNode<AtomicConcept> node) {
+        if (node==m_atomicConceptHierarchy.getTopNode())
+            return m_allIndividuals;
+        CompressedBitmap result=new CompressedBitmap();
+        for (HierarchyNode<AtomicConcept> descendant : node.getDescendantNodes()) {
+            CompressedBitmap directInstances=m_directInstances.get(descendant);
+            if (directInstances!=null)
+                result.addAll(directInstances);
+        }
+        return result;
+    }
+    /**
+     * The node of a complex class expression is not part of the hierarchy. The instances of its child nodes are its
+     * instances, and the remaining instances of all its parent nodes are checked on a tableau.
+     */
+    protected CompressedBitmap getInstancesOfComplexClassExpression(OWLClassExpression classExpression,HierarchyNode<AtomicConcept> node,boolean direct) {
+        CompressedBitmap knownInstances=new CompressedBitmap();
+        for (HierarchyNode<AtomicConcept> child : node.getChildNodes())
+            knownInstances.addAll(getInstances(child));
+        CompressedBitmap candidates=null;
+        for (HierarchyNode<AtomicConcept> parent : node.getParentNodes()) {
+            if (candidates==null)
+                candidates=new CompressedBitmap(getInstances(parent));
+            else
+                candidates.retainAll(getInstances(parent));
+        }
+        candidates.removeAll(knownInstances);
+        CompressedBitmap result=(direct ? new CompressedBitmap() : knownInstances);
+        if (!candidates.isEmpty()) {
+            OWLClass queryClass=m_dataFactory.getOWLClass(IRI.create(QUERY_CONCEPT_IRI));
+            AtomicConcept queryConcept=AtomicConcept.create(QUERY_CONCEPT_IRI);
+            final CompressedBitmap finalCandidates=candidates;
+            runWithTableau(tableau->{
+                finalCandidates.forEach(individual->{
+                    if (!tableau.isSatisfiable(true,true,Collections.singleton(Atom.create(queryConcept,m_individuals[individual])),null,null,null,null,ReasoningTaskDescription.isInstanceOf(m_individuals[individual],classExpression)))
+                        result.add(individual);
+                });
+                return null;
+            },m_dataFactory.getOWLSubClassOfAxiom(queryClass,classExpression.getObjectComplementOf()));
+        }
+        return result;
+    }
+
+    // Tableau pool
+
+    /**
+     * A test that is run on a tableau of the pool.
+     */
+    protected static interface TableauTask<T> {
+        T run(Tableau tableau);
+    }
+    /**
+     * Borrows a tableau from the pool, loads the given additional axioms into it and runs the given task on it. If the
+     * additional axioms are not supported by the tableaux of the pool, the task is run on a fresh tableau.
+     */
+    protected <T> T runWithTableau(TableauTask<T> task,OWLAxiom... additionalAxioms) {
+        DLOntology deltaDLOntology=m_reasoner.getDeltaDLOntology(m_dlOntology,additionalAxioms);
+        Tableau tableau;
+        try {
+            tableau=m_idleTableaux.take();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReasonerInterruptedException(e);
+        }
+        try {
+            if (tableau.supportsAdditionalDLOntology(deltaDLOntology)) {
+                tableau.setAdditionalDLOntology(deltaDLOntology);
+                try {
+                    return task.run(tableau);
+                }
+                finally {
+                    tableau.clearAdditionalDLOntology();
+                }
+            }
+        }
+        finally {
+            m_idleTableaux.add(tableau);
+        }
+        Tableau freshTableau=Reasoner.createTableau(new InterruptFlag(m_configuration.individualTaskTimeout),m_configuration,m_dlOntology,deltaDLOntology,m_prefixes);
+        try {
+            return task.run(freshTableau);
+        }
+        finally {
+            freshTableau.getInterruptFlag().dispose();
+            freshTableau.getExtensionManager().dispose();
+        }
+    }
+
+    // Conversion to the OWL API
+
+    protected Node<OWLClass> getClassNode(HierarchyNode<AtomicConcept> hierarchyNode) {
+        Node<OWLClass> node=m_classNodes.get(hierarchyNode);
+        if (node!=null)
+            return node;
+        Set<OWLClass> result=new HashSet<>();
+        for (AtomicConcept concept : hierarchyNode.getEquivalentElements())
+            if (!Prefixes.isInternalIRI(concept.getIRI()))
+                result.add(m_dataFactory.getOWLClass(IRI.create(concept.getIRI())));
+        return new OWLClassNode(result);
+    }
+    protected NodeSet<OWLClass> getClassNodeSet(Collection<HierarchyNode<AtomicConcept>> hierarchyNodes) {
+        Set<Node<OWLClass>> result=new HashSet<>();
+        for (HierarchyNode<AtomicConcept> hierarchyNode : hierarchyNodes) {
+            Node<OWLClass> node=getClassNode(hierarchyNode);
+            if (node.getSize()!=0)
+                result.add(node);
+        }
+        return new OWLClassNodeSet(result);
+    }
+}
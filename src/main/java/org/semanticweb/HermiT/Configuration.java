@@ -29,6 +29,7 @@ import java.util.Set;
 
 import org.semanticweb.HermiT.model.AtomicConcept;
 import org.semanticweb.HermiT.monitor.TableauMonitor;
+import org.semanticweb.HermiT.tableau.DisjunctOrderingStatistics;
 import org.semanticweb.owlapi.reasoner.FreshEntityPolicy;
 import org.semanticweb.owlapi.reasoner.IndividualNodeSetPolicy;
 import org.semanticweb.owlapi.reasoner.OWLReasonerConfiguration;
@@ -166,6 +167,54 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
         EL
     }
 
+    /**
+     * Determines which ground disjunction HermiT branches on next. The choice order can strongly affect how deeply HermiT
+     * has to backtrack.
+     */
+    public enum GroundDisjunctionSchedulingType {
+        /**
+         * Branches on the ground disjunctions in the order in which they have been derived. This is the default.
+         */
+        INSERTION_ORDER,
+        /**
+         * Branches first on the ground disjunctions with the fewest disjuncts.
+         */
+        FEWEST_DISJUNCTS,
+        /**
+         * Branches first on the ground disjunctions with the fewest disjuncts whose negation is not already in the model,
+         * so that ground disjunctions with a single remaining disjunct are processed before the others.
+         */
+        MOST_CONSTRAINED,
+        /**
+         * Branches first on the ground disjunctions whose kind of disjunction has been involved in the most recent clashes,
+         * starting from the backtracking counts of disjunction learning.
+         */
+        ACTIVITY
+    }
+
+    /**
+     * Determines how HermiT stores the tuples of the binary and ternary extension tables.
+     */
+    public enum ExtensionTableStorageType {
+        /**
+         * Stores the tuples as object references. This is the default.
+         */
+        OBJECTS,
+        /**
+         * Stores the tuples as integer IDs rather than as object references.
+         */
+        INTS,
+        /**
+         * Stores the tuples as integer IDs and keeps these IDs and the tuple indexes outside of the Java heap in direct buffers.
+         */
+        OFF_HEAP,
+        /**
+         * Stores the tuples as integer IDs and keeps these IDs and the tuple indexes outside of the Java heap in a memory-mapped
+         * temporary file in the mappedFileDirectory.
+         */
+        MAPPED
+    }
+
     /**
      * One can implement an instance of this class and pass it to HermiT. HermiT will then print warning with the
      * warning() method of the interface, e.g., if it ignores an unsupported datatype. HermiT does not provide an
@@ -185,8 +234,15 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
     public BlockingStrategyType blockingStrategyType;
     /**blocking signature cache type*/
     public BlockingSignatureCacheType blockingSignatureCacheType;
+    /**
+     * The maximal number of blocking signatures that HermiT caches; the default value is 100000. When the cache is full, signatures
+     * that have not blocked a node recently are evicted. The cache is shared by the tableau of the reasoner and its worker tableaux.
+     */
+    public int blockingSignatureCacheCapacity;
     /**existential strategy type*/
     public ExistentialStrategyType existentialStrategyType;
+    /**ground disjunction scheduling type*/
+    public GroundDisjunctionSchedulingType groundDisjunctionSchedulingType;
     /**
      * If HermiT encounters a non-OWL2 datatype, it normally throws an error. If set to true, axioms containing unsupported
      * datatypes will be ignored.
@@ -197,7 +253,9 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
      */
     public TableauMonitor monitor;
     /**
-     * The parameters are passed to the Tableau class instance, but currently no parameters are used.
+     * The parameters are passed to the Tableau class instance. Apart from the individual reuse parameters,
+     * "Tableau.disjunctOrderingStatistics" can hold a DisjunctOrderingStatistics object that orders the disjuncts of new
+     * tableaux as in an earlier run (see loadDisjunctOrderingStatistics()).
      */
     public Map<String,Object> parameters;
     /**
@@ -212,7 +270,9 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
     /**
      * If set to true, then each disjunct of a disjunction is associated with a punish factor and whenever a disjunct causes
      * a clash, the punish factor is increased. Whenever HermiT has to pick a disjunction, it picks the disjunction with
-     * the least punish factor that has not yet been tried for that node and disjunction.
+     * the least punish factor that has not yet been tried for that node and disjunction. In addition, if
+     * maximumNumberOfNogoods is positive, combinations of disjuncts that have caused a clash are remembered as
+     * nogoods for the rest of the test.
      */
     public boolean useDisjunctionLearning;
     /**
@@ -239,6 +299,88 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
      */
     public final boolean forceQuasiOrderClassification;
 
+    /**
+     * The default value is 1 and HermiT performs all tests on the single tableau of the reasoner. If set to a larger value, HermiT creates that many
+     * independent tableaux for the loaded ontology and distributes the tests of the Quasi Ordering Classification of classes and the checks of possible
+     * class instances during realisation over them. Worker tableaux are only used if no tableau monitor is configured.
+     */
+    public int numberOfWorkerThreads;
+
+    /**
+     * The default value is false and HermiT classifies the classes from scratch whenever a change that is not an ABox change is flushed. If set
+     * to true, then HermiT keeps the class hierarchy computed before the change and classifies again only the classes whose subsumers may have
+     * been affected by the changed axioms; the subsumers of all other classes are copied from the previous hierarchy.
+     */
+    public boolean incrementalClassification;
+
+    /**
+     * The default value is false and HermiT checks the satisfiability of complex class expressions and subsumptions between them on the
+     * single tableau of the reasoner. If set to true and numberOfWorkerThreads is larger than 1, then HermiT runs such a test on that many
+     * fresh tableaux, which explore different disjuncts of the ground disjunctions over named individuals in parallel; the test ends as soon
+     * as one tableau finds a model. This mode pays off only for hard tests, since each of the tableaux is created for the test.
+     */
+    public boolean orParallelSatisfiabilityTests;
+
+    /**
+     * The maximal number of complex class expression queries whose compiled axioms HermiT caches; the default value is 0. A query
+     * whose axioms are in the cache reuses their DL-ontology and the DL clauses compiled for the tableau of the reasoner, so only the
+     * satisfiability test is repeated. The queries that have not been asked recently are evicted first, and the cache is cleared when
+     * the ontology changes. The value 0 disables the cache.
+     */
+    public int queryCompilationCacheCapacity;
+
+    /**
+     * The maximal number of answers to queries that HermiT caches; the default value is 0. The positions of complex class expressions in
+     * the class hierarchy, the instances of complex class expressions and the entailment of axioms are cached by the structure of the query, so a
+     * repeated query is answered without tableau tests. The answers that have not been used recently are evicted first, and the cache is
+     * cleared when changes of the ontology take effect. The value 0 disables the cache.
+     */
+    public int queryResultCacheCapacity;
+
+    /**
+     * The default value is OBJECTS and HermiT stores the tuples of the binary and ternary extension tables as object references. The other
+     * values store them as integer IDs, which takes less memory for large ABoxes, and OFF_HEAP and MAPPED keep them outside of the Java heap.
+     */
+    public ExtensionTableStorageType extensionTableStorageType;
+
+    /**
+     * The directory of the temporary files that HermiT creates if extensionTableStorageType is MAPPED; the default value is null, in which
+     * case the files are created in the directory given by the system property java.io.tmpdir.
+     */
+    public File mappedFileDirectory;
+
+    /**
+     * The default value is false and HermiT derives the deterministic consequences of the ABox in each test that loads the ABox. If set to
+     * true, then these consequences are derived only once and restored for each such test, e.g., for the instance checks during realisation.
+     * The saturated ABox is only cached if the ontology contains no nominals and the existential strategy is deterministic.
+     */
+    public boolean cacheSaturatedABox;
+
+    /**
+     * The default value is 0 and HermiT learns no nogoods. If set to a positive number and disjunction learning is used, then HermiT learns up
+     * to that many nogoods from clashes between the disjuncts chosen for ABox individuals within one test and raises a clash as soon as all
+     * disjuncts of a nogood have been chosen again.
+     */
+    public int maximumNumberOfNogoods;
+
+    /**
+     * The maximal number of disjuncts in a nogood; the default value is 8. Clashes that depend on more disjuncts are not learned.
+     */
+    public int maximumNogoodSize;
+
+    /**
+     * The default value is false and HermiT interprets the compiled bodies of the DL clauses. If set to true, then the bodies are turned into
+     * JVM classes that the JIT can inline; each tableau loads its classes with its own class loader.
+     */
+    public boolean compileToBytecode;
+
+    /**
+     * The default value is false and HermiT orders the body atoms of the DL clauses by their structure only. If set to true, then the body
+     * atoms are ordered by the number of tuples in the extension tables, and the DL clauses are compiled again whenever the tables have grown
+     * considerably, e.g., after a large ABox has been loaded.
+     */
+    public boolean costBasedJoinOrdering;
+
     /**Create configuration.*/
     public Configuration() {
         warningMonitor=null;
@@ -247,7 +389,9 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
         directBlockingType=Configuration.DirectBlockingType.OPTIMAL;
         blockingStrategyType=Configuration.BlockingStrategyType.OPTIMAL;
         blockingSignatureCacheType=Configuration.BlockingSignatureCacheType.CACHED;
+        blockingSignatureCacheCapacity=100000;
         existentialStrategyType=Configuration.ExistentialStrategyType.CREATION_ORDER;
+        groundDisjunctionSchedulingType=Configuration.GroundDisjunctionSchedulingType.INSERTION_ORDER;
         ignoreUnsupportedDatatypes=false;
         monitor=null;
         parameters=new HashMap<>();
@@ -259,6 +403,18 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
         throwInconsistentOntologyException=true;
         prepareReasonerInferences=null;
         forceQuasiOrderClassification=false;
+        numberOfWorkerThreads=1;
+        incrementalClassification=false;
+        orParallelSatisfiabilityTests=false;
+        queryCompilationCacheCapacity=0;
+        queryResultCacheCapacity=0;
+        extensionTableStorageType=Configuration.ExtensionTableStorageType.OBJECTS;
+        mappedFileDirectory=null;
+        cacheSaturatedABox=false;
+        maximumNumberOfNogoods=0;
+        maximumNogoodSize=8;
+        compileToBytecode=false;
+        costBasedJoinOrdering=false;
     }
     protected void setIndividualReuseStrategyReuseAlways(Set<? extends AtomicConcept> concepts) {
         parameters.put("IndividualReuseStrategy.reuseAlways",concepts);
@@ -282,6 +438,13 @@ public class Configuration implements Serializable,Cloneable,OWLReasonerConfigur
         Set<AtomicConcept> concepts=loadConceptsFromFile(file);
         setIndividualReuseStrategyReuseNever(concepts);
     }
+    /**
+     * @param file a file that has been written by DisjunctOrderingStatistics.save(), e.g., with the statistics of Reasoner.getDisjunctOrderingStatistics()
+     * @throws IOException if an error occurs reading the file
+     */
+    public void loadDisjunctOrderingStatistics(File file) throws IOException {
+        parameters.put("Tableau.disjunctOrderingStatistics",DisjunctOrderingStatistics.load(file));
+    }
     protected Set<AtomicConcept> loadConceptsFromFile(File file) throws IOException {
         Set<AtomicConcept> result=new HashSet<>();
         
@@ -156,8 +156,13 @@ public class EntailmentChecker implements OWLAxiomVisitorEx<Boolean> {
                 return false;
         for (OWLAxiom ax : anonIndChecker.getAnonNoNamedIndAxioms()) {
             Tableau t=reasoner.getTableau(ax);
-            if (t.isSatisfiable(true,true,null,null,null,null,null,new ReasoningTaskDescription(false,"Anonymous individual check: "+ax.toString())))
-                return false;
+            try {
+                if (t.isSatisfiable(true,true,null,null,null,null,null,new ReasoningTaskDescription(false,"Anonymous individual check: "+ax.toString())))
+                    return false;
+            }
+            finally {
+                reasoner.releaseTableau(t);
+            }
         }
         return true;
     }
@@ -471,7 +476,12 @@ public class EntailmentChecker implements OWLAxiomVisitorEx<Boolean> {
             OWLClassExpression c=df.getOWLDataSomeValuesFrom(freshDataProperty,union);
             OWLClassAssertionAxiom ax=df.getOWLClassAssertionAxiom(c,freshIndividual);
             Tableau tableau=reasoner.getTableau(ax);
-            return Boolean.valueOf(!tableau.isSatisfiable(true,true,null,null,null,null,null,ReasoningTaskDescription.isAxiomEntailed(axiom)));
+            try {
+                return Boolean.valueOf(!tableau.isSatisfiable(true,true,null,null,null,null,null,ReasoningTaskDescription.isAxiomEntailed(axiom)));
+            }
+            finally {
+                reasoner.releaseTableau(tableau);
+            }
         }
         else
             return Boolean.FALSE;
@@ -515,7 +525,12 @@ public class EntailmentChecker implements OWLAxiomVisitorEx<Boolean> {
         }
         axioms.add(df.getOWLDifferentIndividualsAxiom(individualA,individualB));
         Tableau tableau=reasoner.getTableau(axioms.toArray(new OWLAxiom[axioms.size()]));
-        return Boolean.valueOf(!tableau.isSatisfiable(true,true,null,null,null,null,null,ReasoningTaskDescription.isAxiomEntailed(axiom)));
+        try {
+            return Boolean.valueOf(!tableau.isSatisfiable(true,true,null,null,null,null,null,ReasoningTaskDescription.isAxiomEntailed(axiom)));
+        }
+        finally {
+            reasoner.releaseTableau(tableau);
+        }
     }
 
     protected class AnonymousIndividualForestBuilder implements OWLAxiomVisitor {
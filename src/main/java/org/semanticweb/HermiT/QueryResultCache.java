@@ -0,0 +1,149 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.semanticweb.owlapi.model.OWLObject;
+
+/**
+ * A bounded cache of the answers to queries, which the reasoner uses to answer repeated queries about complex class
+ * expressions and entailments without tableau tests. The keys are compared by structural equality of the queried OWL
+ * objects. When the cache is full, the least recently used answer is evicted. The reasoner clears the cache whenever the
+ * changes of the ontology take effect, so a cached answer is always the one the reasoner would compute.
+ */
+public class QueryResultCache {
+    /**The kinds of queries whose answers are cached.*/
+    public static enum QueryType {
+        /**the position of a class expression in the class hierarchy*/
+        HIERARCHY_NODE,
+        /**the instances of a class expression*/
+        INSTANCES,
+        /**the direct instances of a class expression*/
+        DIRECT_INSTANCES,
+        /**the entailment of an axiom*/
+        ENTAILMENT
+    }
+
+    protected final int m_capacity;
+    protected final Map<Object,Object> m_results;
+    protected final LongAdder m_numberOfHits;
+    protected final LongAdder m_numberOfMisses;
+    protected final LongAdder m_numberOfEvictions;
+    protected final LongAdder m_numberOfInvalidations;
+
+    /**
+     * @param capacity the maximal number of cached answers; 0 disables the cache
+     */
+    public QueryResultCache(int capacity) {
+        if (capacity<0)
+            throw new IllegalArgumentException("The capacity of a query result cache must not be negative.");
+        m_capacity=capacity;
+        m_results=new LinkedHashMap<>(16,0.75f,true);
+        m_numberOfHits=new LongAdder();
+        m_numberOfMisses=new LongAdder();
+        m_numberOfEvictions=new LongAdder();
+        m_numberOfInvalidations=new LongAdder();
+    }
+    /**
+     * @return the maximal number of cached answers
+     */
+    public int getCapacity() {
+        return m_capacity;
+    }
+    /**
+     * @return the number of cached answers
+     */
+    public synchronized int size() {
+        return m_results.size();
+    }
+    /**
+     * @param queryType the kind of the query
+     * @param query the queried class expression or axiom
+     * @return the cached answer to the query, or null if it is not cached
+     */
+    public synchronized Object get(QueryType queryType,OWLObject query) {
+        Object result=m_results.get(Arrays.asList(queryType,query));
+        if (result==null)
+            m_numberOfMisses.increment();
+        else
+            m_numberOfHits.increment();
+        return result;
+    }
+    /**
+     * @param queryType the kind of the query
+     * @param query the queried class expression or axiom
+     * @param result the answer to the query
+     */
+    public synchronized void put(QueryType queryType,OWLObject query,Object result) {
+        if (m_capacity>0) {
+            m_results.put(Arrays.asList(queryType,query),result);
+            Iterator<Object> iterator=m_results.keySet().iterator();
+            while (m_results.size()>m_capacity) {
+                iterator.next();
+                iterator.remove();
+                m_numberOfEvictions.increment();
+            }
+        }
+    }
+    /**
+     * Removes all answers because the ontology has changed; the counters are not reset.
+     */
+    public synchronized void clear() {
+        if (!m_results.isEmpty()) {
+            m_results.clear();
+            m_numberOfInvalidations.increment();
+        }
+    }
+    /**
+     * @return the number of queries that have been answered from the cache
+     */
+    public long getNumberOfHits() {
+        return m_numberOfHits.sum();
+    }
+    /**
+     * @return the number of queries whose answer was not cached
+     */
+    public long getNumberOfMisses() {
+        return m_numberOfMisses.sum();
+    }
+    /**
+     * @return the fraction of the queries that have been answered from the cache, or 0 if no query has been asked
+     */
+    public double getHitRate() {
+        long hits=getNumberOfHits();
+        long queries=hits+getNumberOfMisses();
+        return queries==0 ? 0.0 : (double)hits/queries;
+    }
+    /**
+     * @return the number of answers that have been evicted to make room for new ones
+     */
+    public long getNumberOfEvictions() {
+        return m_numberOfEvictions.sum();
+    }
+    /**
+     * @return the number of times that cached answers have been removed because the ontology has changed
+     */
+    public long getNumberOfInvalidations() {
+        return m_numberOfInvalidations.sum();
+    }
+}
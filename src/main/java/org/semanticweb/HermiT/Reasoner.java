@@ -20,6 +20,8 @@ package org.semanticweb.HermiT;
 
 import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.*;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -27,11 +29,15 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.semanticweb.HermiT.Configuration.BlockingStrategyType;
+import org.semanticweb.HermiT.Configuration.TableauMonitorType;
+import org.semanticweb.HermiT.QueryResultCache.QueryType;
 import org.semanticweb.HermiT.blocking.AncestorBlocking;
 import org.semanticweb.HermiT.blocking.AnywhereBlocking;
 import org.semanticweb.HermiT.blocking.AnywhereValidatedBlocking;
@@ -53,32 +59,46 @@ import org.semanticweb.HermiT.hierarchy.HierarchyDumperFSS;
 import org.semanticweb.HermiT.hierarchy.HierarchyNode;
 import org.semanticweb.HermiT.hierarchy.HierarchyPrinterFSS;
 import org.semanticweb.HermiT.hierarchy.HierarchySearch;
+import org.semanticweb.HermiT.hierarchy.IncrementalQuasiOrderClassification;
 import org.semanticweb.HermiT.hierarchy.InstanceManager;
+import org.semanticweb.HermiT.hierarchy.ParallelQuasiOrderClassification;
 import org.semanticweb.HermiT.hierarchy.QuasiOrderClassification;
 import org.semanticweb.HermiT.hierarchy.QuasiOrderClassificationForRoles;
+import org.semanticweb.HermiT.hierarchy.QueryConceptPlacement;
 import org.semanticweb.HermiT.model.Atom;
 import org.semanticweb.HermiT.model.AtomicConcept;
 import org.semanticweb.HermiT.model.AtomicRole;
 import org.semanticweb.HermiT.model.Constant;
+import org.semanticweb.HermiT.model.DLClause;
 import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.DLPredicate;
 import org.semanticweb.HermiT.model.DescriptionGraph;
 import org.semanticweb.HermiT.model.Equality;
 import org.semanticweb.HermiT.model.Individual;
 import org.semanticweb.HermiT.model.Inequality;
 import org.semanticweb.HermiT.model.InverseRole;
 import org.semanticweb.HermiT.model.Role;
+import org.semanticweb.HermiT.model.Variable;
 import org.semanticweb.HermiT.monitor.TableauMonitor;
 import org.semanticweb.HermiT.monitor.TableauMonitorFork;
 import org.semanticweb.HermiT.monitor.Timer;
 import org.semanticweb.HermiT.monitor.TimerWithPause;
 import org.semanticweb.HermiT.structural.BuiltInPropertyManager;
+import org.semanticweb.HermiT.structural.ClassificationChangeAnalysis;
 import org.semanticweb.HermiT.structural.OWLAxioms;
 import org.semanticweb.HermiT.structural.OWLAxiomsExpressivity;
 import org.semanticweb.HermiT.structural.OWLClausification;
 import org.semanticweb.HermiT.structural.OWLNormalization;
 import org.semanticweb.HermiT.structural.ObjectPropertyInclusionManager;
 import org.semanticweb.HermiT.structural.ReducedABoxOnlyClausification;
+import org.semanticweb.HermiT.tableau.ActivitySchedulingStrategy;
+import org.semanticweb.HermiT.tableau.DisjunctOrderingStatistics;
+import org.semanticweb.HermiT.tableau.FewestDisjunctsSchedulingStrategy;
+import org.semanticweb.HermiT.tableau.GroundDisjunctionSchedulingStrategy;
+import org.semanticweb.HermiT.tableau.InsertionOrderSchedulingStrategy;
 import org.semanticweb.HermiT.tableau.InterruptFlag;
+import org.semanticweb.HermiT.tableau.MostConstrainedSchedulingStrategy;
+import org.semanticweb.HermiT.tableau.OrParallelSatisfiabilityChecker;
 import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
 import org.semanticweb.HermiT.tableau.Tableau;
 import org.semanticweb.owlapi.formats.PrefixDocumentFormat;
@@ -153,10 +173,13 @@ public class Reasoner implements OWLReasoner {
     protected final List<OWLOntologyChange> m_pendingChanges;
     protected final Collection<DescriptionGraph> m_descriptionGraphs;
     protected final InterruptFlag m_interruptFlag;
+    protected final Map<Set<OWLAxiom>,DLOntology> m_deltaDLOntologyCache;
+    protected final QueryResultCache m_queryResultCache;
     protected ObjectPropertyInclusionManager m_objectPropertyInclusionManager;
     protected DLOntology m_dlOntology;
     protected Prefixes m_prefixes;
     protected Tableau m_tableau;
+    protected BlockingSignatureCache m_blockingSignatureCache;
     protected Boolean m_isConsistent;
     protected Hierarchy<AtomicConcept> m_atomicConceptHierarchy;
     protected Hierarchy<Role> m_objectRoleHierarchy;
@@ -166,6 +189,9 @@ public class Reasoner implements OWLReasoner {
     protected Map<AtomicRole,Set<HierarchyNode<AtomicConcept>>> m_directDataRoleDomains;
     protected Map<HierarchyNode<AtomicConcept>,Set<HierarchyNode<AtomicConcept>>> m_directDisjointClasses;
     protected InstanceManager m_instanceManager;
+    protected Hierarchy<AtomicConcept> m_previousAtomicConceptHierarchy;
+    protected Set<AtomicConcept> m_affectedAtomicConcepts;
+    protected int m_numberOfOrParallelSplits;
 
     /**
      * Creates a new reasoner object with the parameters for blocking, expansion strategy etc as specified in the given configuration object. A default configuration can be obtained by just passing new Configuration(). Then the given manager is used to find all required imports for the given ontology and the ontology with the imports is loaded into the reasoner and the data factory of the manager is used to create fresh concepts during the preprocessing phase if necessary.
@@ -190,6 +216,26 @@ public class Reasoner implements OWLReasoner {
      *            - a set of description graphs
      */
     public Reasoner(Configuration configuration,OWLOntology rootOntology,Collection<DescriptionGraph> descriptionGraphs) {
+        this(configuration,rootOntology,descriptionGraphs,null,null);
+    }
+
+    /**
+     * Creates a new reasoner object that uses the given DL ontology and prefixes, which must have been obtained from
+     * the given ontology, instead of preprocessing and clausifying the ontology. If the DL ontology is null, the
+     * ontology is loaded as usual.
+     *
+     * @param configuration
+     *            - a configuration in which parameters can be defined such as the blocking strategy to be used etc
+     * @param rootOntology
+     *            - the ontology that should be loaded by the reasoner
+     * @param descriptionGraphs
+     *            - a set of description graphs
+     * @param dlOntology
+     *            - the DL ontology of the root ontology or null
+     * @param prefixes
+     *            - the prefixes for the DL ontology
+     */
+    protected Reasoner(Configuration configuration,OWLOntology rootOntology,Collection<DescriptionGraph> descriptionGraphs,DLOntology dlOntology,Prefixes prefixes) {
         m_ontologyChangeListener=new OntologyChangeListener();
         m_configuration=configuration;
         m_rootOntology=rootOntology;
@@ -201,13 +247,47 @@ public class Reasoner implements OWLReasoner {
         else
             m_descriptionGraphs=descriptionGraphs;
         m_interruptFlag=new InterruptFlag(configuration.individualTaskTimeout);
+        m_deltaDLOntologyCache=new LinkedHashMap<>(16,0.75f,true);
+        m_queryResultCache=new QueryResultCache(configuration.queryResultCacheCapacity);
         m_directDisjointClasses=new HashMap<>();
-        loadOntology();
+        if (dlOntology==null)
+            loadOntology();
+        else {
+            clearState();
+            m_dlOntology=dlOntology;
+            m_prefixes=prefixes;
+            m_blockingSignatureCache=createBlockingSignatureCache(m_configuration,m_dlOntology.hasNominals());
+            m_tableau=createTableau(m_interruptFlag,m_configuration,m_dlOntology,null,m_prefixes,m_blockingSignatureCache);
+        }
+    }
+    /**
+     * Restores a reasoner from a snapshot that has been written by saveSnapshot(). This skips the preprocessing and
+     * clausification of the ontology and the inferences that have been precomputed before the snapshot was written.
+     * The snapshot can only be restored with a configuration that clausifies the ontology in the same way as the one it has
+     * been written with, i.e., with the same value of ignoreUnsupportedDatatypes.
+     *
+     * @param configuration
+     *            - a configuration in which parameters can be defined such as the blocking strategy to be used etc
+     * @param rootOntology
+     *            - the ontology from which the snapshot has been created
+     * @param file
+     *            - the snapshot file
+     * @return the restored reasoner
+     * @throws IOException
+     *             if the snapshot cannot be read
+     * @throws IllegalArgumentException
+     *             if the snapshot has been created for a different version of the ontology or with a different value of
+     *             ignoreUnsupportedDatatypes
+     */
+    public static Reasoner loadSnapshot(Configuration configuration,OWLOntology rootOntology,File file) throws IOException {
+        return ReasonerSnapshot.load(configuration,rootOntology,file);
     }
 
     // Life-cycle management methods
 
     protected void loadOntology() {
+        // the disjunct orderings learned for the previous version of the ontology are carried over to the new tableau
+        DisjunctOrderingStatistics disjunctOrderingStatistics=(m_tableau==null ? null : m_tableau.exportDisjunctOrderingStatistics());
         clearState();
         // Convert OWLOntology into DLOntology
         OWLClausification clausifier=new OWLClausification(m_configuration);
@@ -216,7 +296,10 @@ public class Reasoner implements OWLReasoner {
         m_dlOntology=(DLOntology)result[1];
         // Load the DLOntology
         createPrefixes();
-        m_tableau=createTableau(m_interruptFlag,m_configuration,m_dlOntology,null,m_prefixes);
+        m_blockingSignatureCache=createBlockingSignatureCache(m_configuration,m_dlOntology.hasNominals());
+        m_tableau=createTableau(m_interruptFlag,m_configuration,m_dlOntology,null,m_prefixes,m_blockingSignatureCache);
+        if (disjunctOrderingStatistics!=null && !disjunctOrderingStatistics.isEmpty())
+            m_tableau.importDisjunctOrderingStatistics(disjunctOrderingStatistics);
         m_instanceManager=null;
     }
     protected void createPrefixes() {
@@ -255,6 +338,36 @@ public class Reasoner implements OWLReasoner {
             }
         }
     }
+    /**
+     * Writes a snapshot of the current state of the reasoner, that is, of the DL ontology and of the inferences that
+     * have been precomputed so far, from which the reasoner can be restored using loadSnapshot().
+     *
+     * @param file
+     *            - the snapshot file
+     * @throws IOException
+     *             if the snapshot cannot be written
+     */
+    public void saveSnapshot(File file) throws IOException {
+        flushChangesIfRequired();
+        if (!m_pendingChanges.isEmpty())
+            throw new IllegalStateException("The reasoner has pending changes; call flush() before writing a snapshot.");
+        ReasonerSnapshot.save(this,file);
+    }
+    /**
+     * @return the object property inclusion manager, which is recreated from the ontology if the reasoner has been restored from a snapshot
+     */
+    protected ObjectPropertyInclusionManager getObjectPropertyInclusionManager() {
+        if (m_objectPropertyInclusionManager==null) {
+            // the automata are not part of a snapshot, but only the normalized property axioms are needed to build them
+            OWLAxioms axioms=new OWLAxioms();
+            OWLNormalization normalization=new OWLNormalization(df,axioms,0);
+            normalization.processOntology(m_rootOntology);
+            BuiltInPropertyManager builtInPropertyManager=new BuiltInPropertyManager(df);
+            builtInPropertyManager.axiomatizeBuiltInPropertiesAsNeeded(axioms);
+            m_objectPropertyInclusionManager=new ObjectPropertyInclusionManager(axioms);
+        }
+        return m_objectPropertyInclusionManager;
+    }
     @Override
     protected void finalize() {
         dispose();
@@ -268,8 +381,13 @@ public class Reasoner implements OWLReasoner {
     protected void clearState() {
         m_pendingChanges.clear();
         m_dlOntology=null;
+        clearDeltaDLOntologyCache();
+        m_queryResultCache.clear();
         m_prefixes=null;
+        if (m_tableau!=null)
+            m_tableau.getExtensionManager().dispose();
         m_tableau=null;
+        m_blockingSignatureCache=null;
         m_isConsistent=null;
         m_atomicConceptHierarchy=null;
         m_objectRoleHierarchy=null;
@@ -279,6 +397,8 @@ public class Reasoner implements OWLReasoner {
         m_directDataRoleDomains=new HashMap<>();
         m_directDisjointClasses=new HashMap<>();
         m_instanceManager=null;
+        m_previousAtomicConceptHierarchy=null;
+        m_affectedAtomicConcepts=null;
     }
     @Override
     public void interrupt() {
@@ -332,6 +452,12 @@ public class Reasoner implements OWLReasoner {
     public DLOntology getDLOntology() {
         return m_dlOntology;
     }
+    /**
+     * @return the cache of the answers to queries, which provides the hit rate of the cache
+     */
+    public QueryResultCache getQueryResultCache() {
+        return m_queryResultCache;
+    }
     /**
      * @return configuration
      */
@@ -347,6 +473,9 @@ public class Reasoner implements OWLReasoner {
             for (OWLOntologyChange change : changes)
                 if (!(change instanceof RemoveOntologyAnnotation || change instanceof AddOntologyAnnotation))
                     m_pendingChanges.add(change);
+            // without buffering, the changes take effect immediately, so the cached answers are outdated
+            if (!m_configuration.bufferChanges && !m_pendingChanges.isEmpty())
+                m_queryResultCache.clear();
         }
     }
 
@@ -377,6 +506,7 @@ public class Reasoner implements OWLReasoner {
     @Override
     public void flush() {
         if (!m_pendingChanges.isEmpty()) {
+            m_queryResultCache.clear();
             // check if we can only reload the ABox
             if (canProcessPendingChangesIncrementally()) {
                 Set<OWLOntology> rootOntologyImportsClosure=asSet(m_rootOntology.importsClosure());
@@ -386,12 +516,17 @@ public class Reasoner implements OWLReasoner {
                 Set<AtomicConcept> allAtomicConcepts=m_dlOntology.getAllAtomicConcepts();
                 Set<AtomicRole> allAtomicObjectRoles=m_dlOntology.getAllAtomicObjectRoles();
                 Set<AtomicRole> allAtomicDataRoles=m_dlOntology.getAllAtomicDataRoles();
+                Set<Individual> changedIndividuals=new HashSet<>();
                 ReducedABoxOnlyClausification aboxFactClausifier=new ReducedABoxOnlyClausification(m_configuration,allAtomicConcepts,allAtomicObjectRoles,allAtomicDataRoles);
                 for (OWLOntologyChange change : m_pendingChanges) {
                     if (rootOntologyImportsClosure.contains(change.getOntology())) {
                         OWLAxiom axiom=change.getAxiom();
                         if (axiom.isLogicalAxiom()) {
                             aboxFactClausifier.clausify((OWLIndividualAxiom)axiom);
+                            for (Atom atom : aboxFactClausifier.getPositiveFacts())
+                                atom.getIndividuals(changedIndividuals);
+                            for (Atom atom : aboxFactClausifier.getNegativeFacts())
+                                atom.getIndividuals(changedIndividuals);
                             if (change instanceof AddAxiom) {
                                 positiveFacts.addAll(aboxFactClausifier.getPositiveFacts());
                                 negativeFacts.addAll(aboxFactClausifier.getNegativeFacts());
@@ -407,16 +542,77 @@ public class Reasoner implements OWLReasoner {
                     atom.getIndividuals(allIndividuals);
                 for (Atom atom : negativeFacts)
                     atom.getIndividuals(allIndividuals);
+                for (Individual individual : allIndividuals)
+                    if (!m_dlOntology.getAllIndividuals().contains(individual))
+                        changedIndividuals.add(individual);
                 m_dlOntology=new DLOntology(m_dlOntology.getOntologyIRI(),m_dlOntology.getDLClauses(),positiveFacts,negativeFacts,allAtomicConcepts,allAtomicObjectRoles,m_dlOntology.getAllComplexObjectRoles(),allAtomicDataRoles,m_dlOntology.getAllUnknownDatatypeRestrictions(),m_dlOntology.getDefinedDatatypeIRIs(),allIndividuals,m_dlOntology.hasInverseRoles(),m_dlOntology.hasAtMostRestrictions(),m_dlOntology.hasNominals(),m_dlOntology.hasDatatypes());
-                m_tableau=new Tableau(m_interruptFlag,m_tableau.getTableauMonitor(),m_tableau.getExistentialsExpansionStrategy(),m_configuration.useDisjunctionLearning,m_dlOntology,null,m_configuration.parameters);
+                clearDeltaDLOntologyCache();
+                // the DL clauses have not been changed, so the tableau is kept and only its ABox is replaced
+                m_tableau.setPermanentABox(m_dlOntology);
+                InstanceManager previousInstanceManager=m_instanceManager;
+                boolean wasConsistent=Boolean.TRUE.equals(m_isConsistent);
                 m_instanceManager=null;
                 m_isConsistent=null;
+                if (wasConsistent && previousInstanceManager!=null && previousInstanceManager.areClassesInitialised() && previousInstanceManager.usesClassifiedConceptHierarchy() && hasIndependentABoxComponents())
+                    initialiseClassInstanceManager(previousInstanceManager,changedIndividuals);
             }
+            else if (m_configuration.incrementalClassification)
+                reloadOntologyKeepingClassHierarchy();
             else
                 loadOntology();
             m_pendingChanges.clear();
         }
     }
+    /**
+     * Loads the changed ontology, but keeps the class hierarchy of the ontology before the change together with the
+     * classes that are affected by the change, so that classifyClasses() needs to classify the affected classes only.
+     * If the hierarchy has not been computed since the last flush, the changes of both flushes are accumulated.
+     */
+    protected void reloadOntologyKeepingClassHierarchy() {
+        Hierarchy<AtomicConcept> previousAtomicConceptHierarchy=m_previousAtomicConceptHierarchy;
+        Set<AtomicConcept> affectedAtomicConcepts=m_affectedAtomicConcepts;
+        if (m_atomicConceptHierarchy!=null && Boolean.TRUE.equals(m_isConsistent)) {
+            previousAtomicConceptHierarchy=m_atomicConceptHierarchy;
+            affectedAtomicConcepts=new HashSet<>();
+        }
+        boolean hadNominals=m_dlOntology.hasNominals();
+        List<OWLOntologyChange> changes=new ArrayList<>(m_pendingChanges);
+        loadOntology();
+        if (previousAtomicConceptHierarchy!=null && m_dlOntology.getAllDescriptionGraphs().isEmpty()) {
+            Set<AtomicConcept> newlyAffectedAtomicConcepts=getAffectedAtomicConcepts(changes,hadNominals || m_dlOntology.hasNominals());
+            if (newlyAffectedAtomicConcepts!=null) {
+                affectedAtomicConcepts.addAll(newlyAffectedAtomicConcepts);
+                m_previousAtomicConceptHierarchy=previousAtomicConceptHierarchy;
+                m_affectedAtomicConcepts=affectedAtomicConcepts;
+            }
+        }
+    }
+    /**
+     * @param changes the changes that have been applied to the ontology
+     * @param hasNominals true if the ontology contains nominals before or after the changes
+     * @return the atomic concepts whose subsumers may have been changed, or null if this cannot be restricted
+     */
+    protected Set<AtomicConcept> getAffectedAtomicConcepts(List<OWLOntologyChange> changes,boolean hasNominals) {
+        Set<OWLOntology> rootOntologyImportsClosure=asSet(m_rootOntology.importsClosure());
+        Set<OWLAxiom> changedAxioms=new HashSet<>();
+        Set<OWLAxiom> axioms=new HashSet<>();
+        for (OWLOntologyChange change : changes) {
+            if (rootOntologyImportsClosure.contains(change.getOntology())) {
+                // a change of the imports may add or remove any number of axioms
+                if (!change.isAxiomChange())
+                    return null;
+                OWLAxiom axiom=change.getAxiom();
+                if (axiom.isLogicalAxiom()) {
+                    changedAxioms.add(axiom);
+                    if (change instanceof RemoveAxiom)
+                        axioms.add(axiom);
+                }
+            }
+        }
+        for (OWLOntology ontology : rootOntologyImportsClosure)
+            ontology.logicalAxioms().forEach(axioms::add);
+        return new ClassificationChangeAnalysis(axioms,hasNominals).getAffectedAtomicConcepts(changedAxioms);
+    }
     /**
      * @return true if incremental
      */
@@ -643,20 +839,24 @@ public class Reasoner implements OWLReasoner {
                 boolean moreWork=true;
                 while (moreWork) {
                     Tableau tableau=getTableau(additionalAxioms);
-                    completedSteps+=stepsRewritingAdditionalAxioms;
-                    if (m_configuration.reasonerProgressMonitor!=null)
-                        m_configuration.reasonerProgressMonitor.reasonerTaskProgressChanged(completedSteps,steps);
-                    isConsistent=tableau.isSatisfiable(true,true,null,null,null,null,m_instanceManager.getNodesForIndividuals(),new ReasoningTaskDescription(false,"Initial consistency check plus reading-off known and possible class and property instances (individual "+startIndividualIndex+" to "+m_instanceManager.getCurrentIndividualIndex()+")."));
-                    completedSteps+=stepsTableauExpansion;
-                    if (m_configuration.reasonerProgressMonitor!=null)
-                        m_configuration.reasonerProgressMonitor.reasonerTaskProgressChanged(completedSteps,steps);
-                    if (!isConsistent) {
-                        m_instanceManager.setInconsistent();
-                        break;
+                    try {
+                        completedSteps+=stepsRewritingAdditionalAxioms;
+                        if (m_configuration.reasonerProgressMonitor!=null)
+                            m_configuration.reasonerProgressMonitor.reasonerTaskProgressChanged(completedSteps,steps);
+                        isConsistent=tableau.isSatisfiable(true,true,null,null,null,null,m_instanceManager.getNodesForIndividuals(),new ReasoningTaskDescription(false,"Initial consistency check plus reading-off known and possible class and property instances (individual "+startIndividualIndex+" to "+m_instanceManager.getCurrentIndividualIndex()+")."));
+                        completedSteps+=stepsTableauExpansion;
+                        if (m_configuration.reasonerProgressMonitor!=null)
+                            m_configuration.reasonerProgressMonitor.reasonerTaskProgressChanged(completedSteps,steps);
+                        if (!isConsistent) {
+                            m_instanceManager.setInconsistent();
+                            break;
+                        }
+                        else
+                            completedSteps=m_instanceManager.initializeKnowAndPossiblePropertyInstances(m_configuration.reasonerProgressMonitor,startIndividualIndex,completedSteps,steps);
+                    }
+                    finally {
+                        releaseTableau(tableau);
                     }
-                    else
-                        completedSteps=m_instanceManager.initializeKnowAndPossiblePropertyInstances(m_configuration.reasonerProgressMonitor,startIndividualIndex,completedSteps,steps);
-                    tableau.clearAdditionalDLOntology();
                     startIndividualIndex=m_instanceManager.getCurrentIndividualIndex();
                     additionalAxioms=m_instanceManager.getAxiomsForReadingOffCompexProperties(getDataFactory(),m_configuration.reasonerProgressMonitor,completedSteps,steps);
                     completedSteps+=stepsAdditionalAxioms/chunks;
@@ -669,6 +869,131 @@ public class Reasoner implements OWLReasoner {
                 m_configuration.reasonerProgressMonitor.reasonerTaskStopped();
         }
     }
+    /**
+     * Initialises the class instances after a change of the ABox by testing only the ABox components of the changed
+     * individuals; the instances of all other individuals are copied from the previous instance manager. Since the
+     * ABox was consistent before the change and the components do not interact, the ABox is consistent if and only if
+     * the changed components are consistent.
+     *
+     * @param previousInstanceManager the instance manager of the ABox before the change
+     * @param changedIndividuals the individuals that occur in the changed assertions
+     */
+    protected void initialiseClassInstanceManager(InstanceManager previousInstanceManager,Set<Individual> changedIndividuals) {
+        Set<Individual> affectedIndividuals=getABoxComponents(changedIndividuals);
+        Set<Atom> positiveFacts=new HashSet<>();
+        for (Atom atom : m_dlOntology.getPositiveFacts())
+            if (isInABoxComponents(atom,affectedIndividuals))
+                positiveFacts.add(atom);
+        Set<Atom> negativeFacts=new HashSet<>();
+        for (Atom atom : m_dlOntology.getNegativeFacts())
+            if (isInABoxComponents(atom,affectedIndividuals))
+                negativeFacts.add(atom);
+        Map<Individual,org.semanticweb.HermiT.tableau.Node> nodesForIndividuals=new HashMap<>();
+        for (Individual individual : affectedIndividuals)
+            if (m_dlOntology.getAllIndividuals().contains(individual))
+                nodesForIndividuals.put(individual,null);
+        InstanceManager instanceManager=new InstanceManager(m_interruptFlag,this,m_atomicConceptHierarchy,m_objectRoleHierarchy);
+        boolean isConsistent=getTableau().isSatisfiable(false,false,positiveFacts,negativeFacts,null,null,nodesForIndividuals,new ReasoningTaskDescription(false,"Reading-off known and possible class instances of the individuals affected by a change of the ABox."));
+        if (isConsistent) {
+            instanceManager.getNodesForIndividuals().putAll(nodesForIndividuals);
+            instanceManager.initializeKnowAndPossibleClassInstances(previousInstanceManager,affectedIndividuals);
+            m_instanceManager=instanceManager;
+        }
+        m_isConsistent=Boolean.valueOf(isConsistent);
+    }
+    /**
+     * @param individuals individuals
+     * @return the individuals that are connected to the given ones by role, equality or inequality assertions
+     */
+    protected Set<Individual> getABoxComponents(Set<Individual> individuals) {
+        Map<Individual,Set<Individual>> neighbours=new HashMap<>();
+        addABoxEdges(m_dlOntology.getPositiveFacts(),neighbours);
+        addABoxEdges(m_dlOntology.getNegativeFacts(),neighbours);
+        Set<Individual> component=new HashSet<>(individuals);
+        List<Individual> toVisit=new ArrayList<>(individuals);
+        while (!toVisit.isEmpty()) {
+            Set<Individual> adjacentIndividuals=neighbours.get(toVisit.remove(toVisit.size()-1));
+            if (adjacentIndividuals!=null)
+                for (Individual individual : adjacentIndividuals)
+                    if (component.add(individual))
+                        toVisit.add(individual);
+        }
+        return component;
+    }
+    protected static void addABoxEdges(Set<Atom> facts,Map<Individual,Set<Individual>> neighbours) {
+        for (Atom atom : facts)
+            if (atom.getArity()==2 && atom.getArgument(0) instanceof Individual && atom.getArgument(1) instanceof Individual) {
+                Individual individual0=(Individual)atom.getArgument(0);
+                Individual individual1=(Individual)atom.getArgument(1);
+                neighbours.computeIfAbsent(individual0,individual->new HashSet<>()).add(individual1);
+                neighbours.computeIfAbsent(individual1,individual->new HashSet<>()).add(individual0);
+            }
+    }
+    protected static boolean isInABoxComponents(Atom atom,Set<Individual> component) {
+        for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++)
+            if (component.contains(atom.getArgument(argumentIndex)))
+                return true;
+        return false;
+    }
+    /**
+     * Checks whether the types of an individual depend only on the assertions about the individuals that are connected
+     * to it. This is the case if the ontology contains no nominals, description graphs or top object property and if
+     * the variables in the body of each DL clause are connected by object property, equality or inequality atoms.
+     *
+     * @return true if the ABox components can be tested independently
+     */
+    protected boolean hasIndependentABoxComponents() {
+        if (m_dlOntology.hasNominals() || !m_dlOntology.getAllDescriptionGraphs().isEmpty() || m_dlOntology.containsObjectRole(AtomicRole.TOP_OBJECT_ROLE))
+            return false;
+        for (DLClause dlClause : m_dlOntology.getDLClauses())
+            if (!hasConnectedBody(dlClause))
+                return false;
+        return true;
+    }
+    protected boolean hasConnectedBody(DLClause dlClause) {
+        Set<Individual> individuals=new HashSet<>();
+        for (Atom atom : dlClause.getHeadAtoms())
+            atom.getIndividuals(individuals);
+        Set<Variable> variables=new HashSet<>();
+        for (Atom atom : dlClause.getBodyAtoms()) {
+            atom.getIndividuals(individuals);
+            atom.getVariables(variables);
+        }
+        if (!individuals.isEmpty())
+            return false;
+        if (variables.size()<=1)
+            return true;
+        // a data value connects individuals (as in keys) if it occurs in more than one data property atom
+        Set<AtomicRole> dataRoles=m_dlOntology.getAllAtomicDataRoles();
+        Map<Variable,Integer> dataValueOccurrences=new HashMap<>();
+        for (Atom atom : dlClause.getBodyAtoms())
+            if (dataRoles.contains(atom.getDLPredicate()) && atom.getArgumentVariable(1)!=null)
+                dataValueOccurrences.merge(atom.getArgumentVariable(1),1,Integer::sum);
+        Set<Variable> connectedVariables=new HashSet<>();
+        connectedVariables.add(variables.iterator().next());
+        boolean changed=true;
+        while (changed) {
+            changed=false;
+            for (Atom atom : dlClause.getBodyAtoms()) {
+                DLPredicate dlPredicate=atom.getDLPredicate();
+                Variable variable0=atom.getArity()==2 ? atom.getArgumentVariable(0) : null;
+                Variable variable1=atom.getArity()==2 ? atom.getArgumentVariable(1) : null;
+                if (variable0!=null && variable1!=null && connectedVariables.contains(variable0)!=connectedVariables.contains(variable1)) {
+                    boolean connects;
+                    if (dataRoles.contains(dlPredicate))
+                        connects=dataValueOccurrences.get(variable1).intValue()==1;
+                    else
+                        connects=dlPredicate instanceof AtomicRole || Equality.INSTANCE.equals(dlPredicate) || Inequality.INSTANCE.equals(dlPredicate);
+                    if (connects) {
+                        connectedVariables.add(variable0);
+                        connectedVariables.add(variable1);
+                        changed=true;
+                    }
+                }
+            }
+        }
+        return connectedVariables.size()==variables.size();
+    }
     protected void initialiseClassInstanceManager() {
         if (m_instanceManager==null || !m_instanceManager.areClassesInitialised()) {
             if (m_configuration.reasonerProgressMonitor!=null)
@@ -718,8 +1043,14 @@ public class Reasoner implements OWLReasoner {
         checkPreConditions(axiom);
         if (!isConsistent())
             return true;
+        OWLAxiom query=axiom.getAxiomWithoutAnnotations();
+        Boolean cachedResult=(Boolean)m_queryResultCache.get(QueryType.ENTAILMENT,query);
+        if (cachedResult!=null)
+            return cachedResult.booleanValue();
         EntailmentChecker checker=new EntailmentChecker(this,getDataFactory());
-        return checker.entails(axiom);
+        boolean result=checker.entails(axiom);
+        m_queryResultCache.put(QueryType.ENTAILMENT,query,Boolean.valueOf(result));
+        return result;
     }
     @Override
     public boolean isEntailed(Set<? extends OWLAxiom> axioms) {
@@ -760,7 +1091,10 @@ public class Reasoner implements OWLReasoner {
                                 m_configuration.reasonerProgressMonitor.reasonerTaskProgressChanged(m_processedConcepts,numRelevantConcepts);
                         }
                     };
-                    m_atomicConceptHierarchy=classifyAtomicConcepts(getTableau(),progressMonitor,AtomicConcept.THING,AtomicConcept.NOTHING,relevantAtomicConcepts,m_configuration.forceQuasiOrderClassification);
+                    if (m_previousAtomicConceptHierarchy!=null)
+                        m_atomicConceptHierarchy=new IncrementalQuasiOrderClassification(getTableau(),progressMonitor,AtomicConcept.THING,AtomicConcept.NOTHING,relevantAtomicConcepts,m_previousAtomicConceptHierarchy,m_affectedAtomicConcepts).classify();
+                    else
+                        m_atomicConceptHierarchy=classifyAtomicConcepts(getTableau(),progressMonitor,AtomicConcept.THING,AtomicConcept.NOTHING,relevantAtomicConcepts,m_configuration.forceQuasiOrderClassification);
                     if (m_instanceManager!=null)
                         m_instanceManager.setToClassifiedConceptHierarchy(m_atomicConceptHierarchy);
                 }
@@ -769,6 +1103,8 @@ public class Reasoner implements OWLReasoner {
                         m_configuration.reasonerProgressMonitor.reasonerTaskStopped();
                 }
             }
+            m_previousAtomicConceptHierarchy=null;
+            m_affectedAtomicConcepts=null;
         }
     }
     @Override
@@ -796,9 +1132,50 @@ public class Reasoner implements OWLReasoner {
             OWLIndividual freshIndividual=factory.getOWLAnonymousIndividual("fresh-individual");
             OWLClassAssertionAxiom assertClassExpression=factory.getOWLClassAssertionAxiom(classExpression,freshIndividual);
             Tableau tableau=getTableau(assertClassExpression);
-            return tableau.isSatisfiable(true,null,null,null,null,null,ReasoningTaskDescription.isConceptSatisfiable(classExpression));
+            try {
+                return isSatisfiable(tableau,ReasoningTaskDescription.isConceptSatisfiable(classExpression));
+            }
+            finally {
+                releaseTableau(tableau);
+            }
         }
     }
+    /**
+     * Checks the satisfiability of the additional DL-ontology of the tableau, possibly exploring the disjunctions
+     * or-parallel on fresh tableaux.
+     */
+    protected boolean isSatisfiable(Tableau tableau,ReasoningTaskDescription reasoningTaskDescription) {
+        if (m_configuration.orParallelSatisfiabilityTests && m_configuration.numberOfWorkerThreads>1 && m_configuration.tableauMonitorType==TableauMonitorType.NONE && m_configuration.monitor==null) {
+            Tableau[] workerTableaux=new Tableau[m_configuration.numberOfWorkerThreads];
+            try {
+                for (int index=0;index<workerTableaux.length;index++)
+                    workerTableaux[index]=createTableau(new InterruptFlag(m_configuration.individualTaskTimeout),m_configuration,tableau.getPermanentDLOntology(),tableau.getAdditionalDLOntology(),m_prefixes,m_blockingSignatureCache);
+                OrParallelSatisfiabilityChecker orParallelSatisfiabilityChecker=new OrParallelSatisfiabilityChecker(m_interruptFlag,workerTableaux);
+                try {
+                    return orParallelSatisfiabilityChecker.isSatisfiable(true,null,null,null,null,reasoningTaskDescription);
+                }
+                finally {
+                    m_numberOfOrParallelSplits+=orParallelSatisfiabilityChecker.getNumberOfSplits();
+                }
+            }
+            finally {
+                for (Tableau workerTableau : workerTableaux)
+                    if (workerTableau!=null) {
+                        workerTableau.getInterruptFlag().dispose();
+                        workerTableau.getExtensionManager().dispose();
+                    }
+            }
+        }
+        else
+            return tableau.isSatisfiable(true,null,null,null,null,null,reasoningTaskDescription);
+    }
+    /**
+     * @return the number of ground disjunctions that or-parallel satisfiability tests have split among the worker
+     *         tableaux since the reasoner has been created
+     */
+    public int getNumberOfOrParallelSplits() {
+        return m_numberOfOrParallelSplits;
+    }
     protected boolean isSubClassOf(OWLClassExpression subClassExpression,OWLClassExpression superClassExpression) {
         checkPreConditions(subClassExpression,superClassExpression);
         if (!isConsistent() || subClassExpression.isOWLNothing() || superClassExpression.isOWLThing())
@@ -824,9 +1201,12 @@ public class Reasoner implements OWLReasoner {
             OWLClassAssertionAxiom assertSubClassExpression=factory.getOWLClassAssertionAxiom(subClassExpression,freshIndividual);
             OWLClassAssertionAxiom assertNotSuperClassExpression=factory.getOWLClassAssertionAxiom(superClassExpression.getObjectComplementOf(),freshIndividual);
             Tableau tableau=getTableau(assertSubClassExpression,assertNotSuperClassExpression);
-            boolean result=tableau.isSatisfiable(true,null,null,null,null,null,ReasoningTaskDescription.isConceptSubsumedBy(subClassExpression,superClassExpression));
-            tableau.clearAdditionalDLOntology();
-            return !result;
+            try {
+                return !isSatisfiable(tableau,ReasoningTaskDescription.isConceptSubsumedBy(subClassExpression,superClassExpression));
+            }
+            finally {
+                releaseTableau(tableau);
+            }
         }
     }
     @Override
@@ -858,6 +1238,62 @@ public class Reasoner implements OWLReasoner {
         }
         return atomicConceptHierarchyNodesToNodeSet(result);
     }
+    /**
+     * Answers getEquivalentClasses(OWLClassExpression) for several class expressions at once; see getHierarchyNodes(Collection).
+     *
+     * @param classExpressions the class expressions
+     * @return the equivalent classes of each class expression
+     */
+    public Map<OWLClassExpression,Node<OWLClass>> getEquivalentClasses(Collection<? extends OWLClassExpression> classExpressions) {
+        Map<OWLClassExpression,Node<OWLClass>> result=new HashMap<>();
+        for (Map.Entry<OWLClassExpression,HierarchyNode<AtomicConcept>> entry : getHierarchyNodes(classExpressions).entrySet())
+            result.put(entry.getKey(),atomicConceptHierarchyNodeToNode(entry.getValue()));
+        return result;
+    }
+    /**
+     * Answers getSuperClasses(OWLClassExpression,boolean) for several class expressions at once; see getHierarchyNodes(Collection).
+     *
+     * @param classExpressions the class expressions
+     * @param direct direct
+     * @return the superclasses of each class expression
+     */
+    public Map<OWLClassExpression,NodeSet<OWLClass>> getSuperClasses(Collection<? extends OWLClassExpression> classExpressions,boolean direct) {
+        Map<OWLClassExpression,NodeSet<OWLClass>> result=new HashMap<>();
+        for (Map.Entry<OWLClassExpression,HierarchyNode<AtomicConcept>> entry : getHierarchyNodes(classExpressions).entrySet()) {
+            HierarchyNode<AtomicConcept> node=entry.getValue();
+            Set<HierarchyNode<AtomicConcept>> superNodes;
+            if (direct)
+                superNodes=node.getParentNodes();
+            else {
+                superNodes=new HashSet<>(node.getAncestorNodes());
+                superNodes.remove(node);
+            }
+            result.put(entry.getKey(),atomicConceptHierarchyNodesToNodeSet(superNodes));
+        }
+        return result;
+    }
+    /**
+     * Answers getSubClasses(OWLClassExpression,boolean) for several class expressions at once; see getHierarchyNodes(Collection).
+     *
+     * @param classExpressions the class expressions
+     * @param direct direct
+     * @return the subclasses of each class expression
+     */
+    public Map<OWLClassExpression,NodeSet<OWLClass>> getSubClasses(Collection<? extends OWLClassExpression> classExpressions,boolean direct) {
+        Map<OWLClassExpression,NodeSet<OWLClass>> result=new HashMap<>();
+        for (Map.Entry<OWLClassExpression,HierarchyNode<AtomicConcept>> entry : getHierarchyNodes(classExpressions).entrySet()) {
+            HierarchyNode<AtomicConcept> node=entry.getValue();
+            Set<HierarchyNode<AtomicConcept>> subNodes;
+            if (direct)
+                subNodes=node.getChildNodes();
+            else {
+                subNodes=new HashSet<>(node.getDescendantNodes());
+                subNodes.remove(node);
+            }
+            result.put(entry.getKey(),atomicConceptHierarchyNodesToNodeSet(subNodes));
+        }
+        return result;
+    }
     @Override
     public Node<OWLClass> getUnsatisfiableClasses() {
         classifyClasses();
@@ -962,6 +1398,10 @@ public class Reasoner implements OWLReasoner {
             return node;
         }
         else {
+            @SuppressWarnings("unchecked")
+            HierarchyNode<AtomicConcept> cachedNode=(HierarchyNode<AtomicConcept>)m_queryResultCache.get(QueryType.HIERARCHY_NODE,classExpression);
+            if (cachedNode!=null)
+                return copyHierarchyNode(cachedNode);
             OWLDataFactory factory=getDataFactory();
             OWLClass queryConcept=factory.getOWLClass(IRI.create("internal:query-concept"));
             OWLAxiom classDefinitionAxiom=factory.getOWLEquivalentClassesAxiom(queryConcept,classExpression);
@@ -970,11 +1410,91 @@ public class Reasoner implements OWLReasoner {
                     Individual freshIndividual=Individual.createAnonymous("fresh-individual");
                     return !tableau.isSatisfiable(true,Collections.singleton(Atom.create(child,freshIndividual)),null,null,Collections.singleton(Atom.create(parent,freshIndividual)),null,ReasoningTaskDescription.isConceptSubsumedBy(child,parent));
             };
-            HierarchyNode<AtomicConcept> extendedHierarchy=HierarchySearch.findPosition(hierarchyRelation,AtomicConcept.create("internal:query-concept"),m_atomicConceptHierarchy.getTopNode(),m_atomicConceptHierarchy.getBottomNode());
-            tableau.clearAdditionalDLOntology();
+            HierarchyNode<AtomicConcept> extendedHierarchy;
+            try {
+                extendedHierarchy=HierarchySearch.findPosition(hierarchyRelation,AtomicConcept.create("internal:query-concept"),m_atomicConceptHierarchy.getTopNode(),m_atomicConceptHierarchy.getBottomNode());
+            }
+            finally {
+                releaseTableau(tableau);
+            }
+            m_queryResultCache.put(QueryType.HIERARCHY_NODE,classExpression,copyHierarchyNode(extendedHierarchy));
             return extendedHierarchy;
         }
     }
+    /**
+     * Places several class expressions into the class hierarchy in one pass. Each complex class expression gets a query concept
+     * that is subsumed by it and a complement concept that is subsumed by its complement, and all these axioms are clausified into
+     * one additional DL-ontology, which is set once on the tableau of the reasoner or, if the reasoner has several worker threads,
+     * on as many worker tableaux that place the query concepts in parallel. The tests for the query concepts share the subsumers
+     * and non-subsumers that their models reveal.
+     *
+     * @param classExpressions the class expressions
+     * @return the hierarchy node of each class expression
+     */
+    protected Map<OWLClassExpression,HierarchyNode<AtomicConcept>> getHierarchyNodes(Collection<? extends OWLClassExpression> classExpressions) {
+        checkPreConditions(classExpressions.toArray(new OWLObject[0]));
+        classifyClasses();
+        Map<OWLClassExpression,HierarchyNode<AtomicConcept>> result=new HashMap<>();
+        Map<AtomicConcept,OWLClassExpression> queryConcepts=new HashMap<>();
+        Map<AtomicConcept,AtomicConcept> complementConcepts=new HashMap<>();
+        List<OWLAxiom> classDefinitionAxioms=new ArrayList<>();
+        Set<OWLClassExpression> queriedClassExpressions=new HashSet<>();
+        OWLDataFactory factory=getDataFactory();
+        for (OWLClassExpression classExpression : classExpressions) {
+            if (queriedClassExpressions.add(classExpression)) {
+                if (classExpression instanceof OWLClass || !isConsistent())
+                    result.put(classExpression,getHierarchyNode(classExpression));
+                else {
+                    @SuppressWarnings("unchecked")
+                    HierarchyNode<AtomicConcept> cachedNode=(HierarchyNode<AtomicConcept>)m_queryResultCache.get(QueryType.HIERARCHY_NODE,classExpression);
+                    if (cachedNode!=null)
+                        result.put(classExpression,copyHierarchyNode(cachedNode));
+                    else {
+                        AtomicConcept queryConcept=AtomicConcept.create("internal:query-concept#"+queryConcepts.size());
+                        AtomicConcept complementConcept=AtomicConcept.create("internal:query-complement#"+queryConcepts.size());
+                        queryConcepts.put(queryConcept,classExpression);
+                        complementConcepts.put(queryConcept,complementConcept);
+                        classDefinitionAxioms.add(factory.getOWLSubClassOfAxiom(factory.getOWLClass(IRI.create(queryConcept.getIRI())),classExpression));
+                        classDefinitionAxioms.add(factory.getOWLSubClassOfAxiom(factory.getOWLClass(IRI.create(complementConcept.getIRI())),classExpression.getObjectComplementOf()));
+                    }
+                }
+            }
+        }
+        if (!queryConcepts.isEmpty()) {
+            DLOntology deltaDLOntology=getDeltaDLOntology(m_dlOntology,classDefinitionAxioms.toArray(new OWLAxiom[0]));
+            Tableau[] tableaux;
+            if (!m_tableau.supportsAdditionalDLOntology(deltaDLOntology))
+                tableaux=new Tableau[] { createTableau(m_interruptFlag,m_configuration,m_dlOntology,deltaDLOntology,m_prefixes) };
+            else {
+                tableaux=(queryConcepts.size()>1 && canUseWorkerTableaux(m_tableau) ? createWorkerTableaux(m_tableau) : new Tableau[] { m_tableau });
+                for (Tableau tableau : tableaux)
+                    tableau.setAdditionalDLOntology(deltaDLOntology);
+            }
+            try {
+                Map<AtomicConcept,HierarchyNode<AtomicConcept>> placements=new QueryConceptPlacement(tableaux,m_atomicConceptHierarchy).placeQueryConcepts(complementConcepts);
+                for (Map.Entry<AtomicConcept,HierarchyNode<AtomicConcept>> entry : placements.entrySet()) {
+                    OWLClassExpression classExpression=queryConcepts.get(entry.getKey());
+                    result.put(classExpression,entry.getValue());
+                    m_queryResultCache.put(QueryType.HIERARCHY_NODE,classExpression,copyHierarchyNode(entry.getValue()));
+                }
+            }
+            finally {
+                releaseTableau(tableaux[0]);
+                if (tableaux.length>1)
+                    disposeWorkerTableaux(tableaux);
+            }
+        }
+        return result;
+    }
+    /**
+     * Copies a node of a query concept so that the query result cache and its callers never share a node.
+     *
+     * @param node the node
+     * @return a node with the same elements, parents and children
+     */
+    protected static HierarchyNode<AtomicConcept> copyHierarchyNode(HierarchyNode<AtomicConcept> node) {
+        return new HierarchyNode<>(node.getRepresentative(),new HashSet<>(node.getEquivalentElements()),new HashSet<>(node.getParentNodes()),new HashSet<>(node.getChildNodes()));
+    }
 
     // Object property inferences
 
@@ -1063,7 +1583,7 @@ public class Reasoner implements OWLReasoner {
                         m_instanceManager.setToClassifiedRoleHierarchy(m_objectRoleHierarchy);
                 }
                 finally {
-                    tableau.clearAdditionalDLOntology();
+                    releaseTableau(tableau);
                     if (m_configuration.reasonerProgressMonitor!=null)
                         m_configuration.reasonerProgressMonitor.reasonerTaskStopped();
                 }
@@ -1100,9 +1620,12 @@ public class Reasoner implements OWLReasoner {
             OWLAxiom pseudoNominalAssertion=factory.getOWLClassAssertionAxiom(pseudoNominal,freshIndividualB);
             OWLAxiom allSuperNotPseudoNominalAssertion=factory.getOWLClassAssertionAxiom(allSuperNotPseudoNominal,freshIndividualA);
             Tableau tableau=getTableau(subObjectPropertyAssertion,pseudoNominalAssertion,allSuperNotPseudoNominalAssertion);
-            boolean result=tableau.isSatisfiable(true,null,null,null,null,null,ReasoningTaskDescription.isRoleSubsumedBy(subrole,superrole,true));
-            tableau.clearAdditionalDLOntology();
-            return !result;
+            try {
+                return !tableau.isSatisfiable(true,null,null,null,null,null,ReasoningTaskDescription.isRoleSubsumedBy(subrole,superrole,true));
+            }
+            finally {
+                releaseTableau(tableau);
+            }
         }
     }
     protected boolean isSubObjectPropertyExpressionOf(List<OWLObjectPropertyExpression> subPropertyChain,OWLObjectPropertyExpression superObjectPropertyExpression) {
@@ -1129,7 +1652,12 @@ public class Reasoner implements OWLReasoner {
             additionalAxioms[axiomIndex++]=factory.getOWLClassAssertionAxiom(pseudoNominal,freshIndividualN);
             additionalAxioms[axiomIndex++]=factory.getOWLClassAssertionAxiom(allSuperNotPseudoNominal,freshIndividual0);
             Tableau tableau=getTableau(additionalAxioms);
-            return !tableau.isSatisfiable(true,null,null,null,null,null,new ReasoningTaskDescription(true,"subproperty chain subsumption"));
+            try {
+                return !tableau.isSatisfiable(true,null,null,null,null,null,new ReasoningTaskDescription(true,"subproperty chain subsumption"));
+            }
+            finally {
+                releaseTableau(tableau);
+            }
         }
     }
     @Override
@@ -1333,9 +1861,12 @@ public class Reasoner implements OWLReasoner {
         OWLAxiom pseudoNominalAssertion=factory.getOWLClassAssertionAxiom(pseudoNominal,freshIndividual);
         OWLAxiom allNotPseudoNominalAssertion=factory.getOWLClassAssertionAxiom(allNotPseudoNominal,freshIndividual);
         Tableau tableau=getTableau(pseudoNominalAssertion,allNotPseudoNominalAssertion);
-        boolean result=tableau.isSatisfiable(true,null,null,null,null,null,new ReasoningTaskDescription(true,"symmetry of {0}",H(propertyExpression)));
-        tableau.clearAdditionalDLOntology();
-        return !result;
+        try {
+            return !tableau.isSatisfiable(true,null,null,null,null,null,new ReasoningTaskDescription(true,"symmetry of {0}",H(propertyExpression)));
+        }
+        finally {
+            releaseTableau(tableau);
+        }
     }
     protected boolean isAsymmetric(OWLObjectPropertyExpression propertyExpression) {
         checkPreConditions(propertyExpression);
@@ -1347,9 +1878,12 @@ public class Reasoner implements OWLReasoner {
         OWLAxiom assertion1=factory.getOWLObjectPropertyAssertionAxiom(propertyExpression,freshIndividualA,freshIndividualB);
         OWLAxiom assertion2=factory.getOWLObjectPropertyAssertionAxiom(propertyExpression.getInverseProperty(),freshIndividualA,freshIndividualB);
         Tableau tableau=getTableau(assertion1,assertion2);
-        boolean result=tableau.isSatisfiable(true,null,null,null,null,null,new ReasoningTaskDescription(true,"asymmetry of {0}",H(propertyExpression)));
-        tableau.clearAdditionalDLOntology();
-        return !result;
+        try {
+            return !tableau.isSatisfiable(true,null,null,null,null,null,new ReasoningTaskDescription(true,"asymmetry of {0}",H(propertyExpression)));
+        }
+        finally {
+            releaseTableau(tableau);
+        }
     }
     protected boolean isSymmetric(OWLObjectPropertyExpression propertyExpression) {
         checkPreConditions(propertyExpression);
@@ -1364,9 +1898,12 @@ public class Reasoner implements OWLReasoner {
         OWLAxiom assertion2=factory.getOWLClassAssertionAxiom(allNotPseudoNominal,freshIndividualB);
         OWLAxiom assertion3=factory.getOWLClassAssertionAxiom(pseudoNominal,freshIndividualA);
         Tableau tableau=getTableau(assertion1,assertion2,assertion3);
-        boolean result=tableau.isSatisfiable(true,null,null,null,null,null,new ReasoningTaskDescription(true,"symmetry of {0}",propertyExpression));
-        tableau.clearAdditionalDLOntology();
-        return !result;
+        try {
+            return !tableau.isSatisfiable(true,null,null,null,null,null,new ReasoningTaskDescription(true,"symmetry of {0}",propertyExpression));
+        }
+        finally {
+            releaseTableau(tableau);
+        }
     }
     protected boolean isTransitive(OWLObjectPropertyExpression propertyExpression) {
         checkPreConditions(propertyExpression);
@@ -1383,9 +1920,12 @@ public class Reasoner implements OWLReasoner {
         OWLAxiom assertion3=factory.getOWLClassAssertionAxiom(allNotPseudoNominal,freshIndividualA);
         OWLAxiom assertion4=factory.getOWLClassAssertionAxiom(pseudoNominal,freshIndividualC);
         Tableau tableau=getTableau(assertion1,assertion2,assertion3,assertion4);
-        boolean result=tableau.isSatisfiable(true,null,null,null,null,null,new ReasoningTaskDescription(true,"transitivity of {0}",H(propertyExpression)));
-        tableau.clearAdditionalDLOntology();
-        return !result;
+        try {
+            return !tableau.isSatisfiable(true,null,null,null,null,null,new ReasoningTaskDescription(true,"transitivity of {0}",H(propertyExpression)));
+        }
+        finally {
+            releaseTableau(tableau);
+        }
     }
     protected HierarchyNode<Role> getHierarchyNode(OWLObjectPropertyExpression propertyExpression) {
         checkPreConditions(propertyExpression);
@@ -1470,7 +2010,7 @@ public class Reasoner implements OWLReasoner {
                         m_dataRoleHierarchy=atomicConceptHierarchyForRoles.transform(transformer,null);
                     }
                     finally {
-                        tableau.clearAdditionalDLOntology();
+                        releaseTableau(tableau);
                         if (m_configuration.reasonerProgressMonitor!=null)
                             m_configuration.reasonerProgressMonitor.reasonerTaskStopped();
                     }
@@ -1509,9 +2049,12 @@ public class Reasoner implements OWLReasoner {
             OWLAxiom negatedSuperpropertyAssertion=factory.getOWLDataPropertyAssertionAxiom(negatedSuperDataProperty,individual,freshConstant);
             OWLAxiom superpropertyAxiomatization=factory.getOWLDisjointDataPropertiesAxiom(superDataProperty,negatedSuperDataProperty);
             Tableau tableau=getTableau(subpropertyAssertion,negatedSuperpropertyAssertion,superpropertyAxiomatization);
-            boolean result=tableau.isSatisfiable(true,null,null,null,null,null,ReasoningTaskDescription.isRoleSubsumedBy(subrole,superrole,false));
-            tableau.clearAdditionalDLOntology();
-            return !result;
+            try {
+                return !tableau.isSatisfiable(true,null,null,null,null,null,ReasoningTaskDescription.isRoleSubsumedBy(subrole,superrole,false));
+            }
+            finally {
+                releaseTableau(tableau);
+            }
         }
     }
     @Override
@@ -1681,7 +2224,17 @@ public class Reasoner implements OWLReasoner {
         if (!m_dlOntology.getAllIndividuals().isEmpty()) {
             classifyClasses();
             initialiseClassInstanceManager();
-            m_instanceManager.realize(m_configuration.reasonerProgressMonitor);
+            if (!m_instanceManager.realizationCompleted() && canUseWorkerTableaux(getTableau())) {
+                Tableau[] workerTableaux=createWorkerTableaux(getTableau());
+                try {
+                    m_instanceManager.realize(m_configuration.reasonerProgressMonitor,workerTableaux);
+                }
+                finally {
+                    disposeWorkerTableaux(workerTableaux);
+                }
+            }
+            else
+                m_instanceManager.realize(m_configuration.reasonerProgressMonitor);
         }
     }
     /**
@@ -1749,9 +2302,12 @@ public class Reasoner implements OWLReasoner {
                 OWLDataFactory factory=getDataFactory();
                 OWLAxiom negatedAssertionAxiom=factory.getOWLClassAssertionAxiom(type.getObjectComplementOf(),namedIndividual);
                 Tableau tableau=getTableau(negatedAssertionAxiom);
-                boolean result=tableau.isSatisfiable(true,true,null,null,null,null,null,ReasoningTaskDescription.isInstanceOf(namedIndividual,type));
-                tableau.clearAdditionalDLOntology();
-                return !result;
+                try {
+                    return !tableau.isSatisfiable(true,true,null,null,null,null,null,ReasoningTaskDescription.isInstanceOf(namedIndividual,type));
+                }
+                finally {
+                    releaseTableau(tableau);
+                }
             }
         }
     }
@@ -1763,6 +2319,15 @@ public class Reasoner implements OWLReasoner {
                 Node<OWLNamedIndividual> node=new OWLNamedIndividualNode(getAllNamedIndividuals());
                 return new OWLNamedIndividualNodeSet(Collections.singleton(node));
             }
+            QueryType queryType=(direct ? QueryType.DIRECT_INSTANCES : QueryType.INSTANCES);
+            if (!(classExpression instanceof OWLClass)) {
+                // the instances of classes are read from the instance manager anyway, so only complex class expressions are cached;
+                // the cache holds an unmodifiable set of individuals, and each caller gets its own node set
+                @SuppressWarnings("unchecked")
+                Set<Individual> cachedResult=(Set<Individual>)m_queryResultCache.get(queryType,classExpression);
+                if (cachedResult!=null)
+                    return sortBySameAsIfNecessary(new HashSet<>(cachedResult));
+            }
             if (direct || !(classExpression instanceof OWLClass))
                 classifyClasses();
             initialiseClassInstanceManager();
@@ -1784,15 +2349,20 @@ public class Reasoner implements OWLReasoner {
                         Set<Individual> realizationForNodeConcept=m_instanceManager.getInstances(node,true);
                         if (realizationForNodeConcept!=null) {
                             Tableau tableau=getTableau(queryClassDefinition);
-                            for (Individual individual : realizationForNodeConcept)
-                                if (isResultRelevantIndividual(individual))
-                                    if (!tableau.isSatisfiable(true,true,Collections.singleton(Atom.create(queryConcept,individual)),null,null,null,null,ReasoningTaskDescription.isInstanceOf(individual,classExpression)))
-                                        result.add(individual);
-                            tableau.clearAdditionalDLOntology();
+                            try {
+                                for (Individual individual : realizationForNodeConcept)
+                                    if (isResultRelevantIndividual(individual))
+                                        if (!tableau.isSatisfiable(true,true,Collections.singleton(Atom.create(queryConcept,individual)),null,null,null,null,ReasoningTaskDescription.isInstanceOf(individual,classExpression)))
+                                            result.add(individual);
+                            }
+                            finally {
+                                releaseTableau(tableau);
+                            }
                         }
                         toVisit.addAll(node.getChildNodes());
                     }
                 }
+                m_queryResultCache.put(queryType,classExpression,Collections.unmodifiableSet(new HashSet<>(result)));
             }
             return sortBySameAsIfNecessary(result);
         }
@@ -1970,9 +2540,12 @@ public class Reasoner implements OWLReasoner {
         OWLDataFactory factory=getDataFactory();
         OWLAxiom notAssertion=factory.getOWLNegativeDataPropertyAssertionAxiom(property,subject,object);
         Tableau tableau=getTableau(notAssertion);
-        boolean result=tableau.isSatisfiable(true,true,null,null,null,null,null,new ReasoningTaskDescription(true,"is {0} connected to {1} via {2}",H(subject),object,H(property)));
-        tableau.clearAdditionalDLOntology();
-        return !result;
+        try {
+            return !tableau.isSatisfiable(true,true,null,null,null,null,null,new ReasoningTaskDescription(true,"is {0} connected to {1} via {2}",H(subject),object,H(property)));
+        }
+        finally {
+            releaseTableau(tableau);
+        }
     }
     protected Set<HierarchyNode<AtomicConcept>> getDirectSuperConceptNodes(final Individual individual) {
         HierarchySearch.SearchPredicate<HierarchyNode<AtomicConcept>> predicate=new HierarchySearch.SearchPredicate<HierarchyNode<AtomicConcept>>() {
@@ -2038,6 +2611,26 @@ public class Reasoner implements OWLReasoner {
         m_tableau.clearAdditionalDLOntology();
         return m_tableau;
     }
+    /**
+     * @return the blocking signature cache shared by the tableau of the reasoner and its worker tableaux, or null if
+     *         blocking signatures are not cached for the loaded ontology
+     */
+    public BlockingSignatureCache getBlockingSignatureCache() {
+        return m_blockingSignatureCache;
+    }
+    /**
+     * @return the number of backtrackings of the disjuncts of the ground disjunctions in the tableau of the reasoner,
+     *         which can be saved and loaded into the configuration of a later reasoner for the same ontology
+     */
+    public DisjunctOrderingStatistics getDisjunctOrderingStatistics() {
+        return m_tableau.exportDisjunctOrderingStatistics();
+    }
+    /**
+     * @param statistics statistics that have been obtained by getDisjunctOrderingStatistics() for the same ontology
+     */
+    public void importDisjunctOrderingStatistics(DisjunctOrderingStatistics statistics) {
+        m_tableau.importDisjunctOrderingStatistics(statistics);
+    }
 
     /**
      * A mostly internal method. Can be used to retrieve a tableau for axioms in the given ontology manager plus an additional set of axioms.
@@ -2052,7 +2645,7 @@ public class Reasoner implements OWLReasoner {
         if (additionalAxioms==null || additionalAxioms.length==0)
             return getTableau();
         else {
-            DLOntology deltaDLOntology=createDeltaDLOntology(m_configuration,m_dlOntology,additionalAxioms);
+            DLOntology deltaDLOntology=getDeltaDLOntology(m_dlOntology,additionalAxioms);
             if (m_tableau.supportsAdditionalDLOntology(deltaDLOntology)) {
                 m_tableau.setAdditionalDLOntology(deltaDLOntology);
                 return m_tableau;
@@ -2061,9 +2654,43 @@ public class Reasoner implements OWLReasoner {
                 return createTableau(m_interruptFlag,m_configuration,m_dlOntology,deltaDLOntology,m_prefixes);
         }
     }
+    /**
+     * Releases a tableau that has been returned by getTableau(OWLAxiom...) once it is no longer needed: the tableau of the
+     * reasoner forgets the additional axioms, whereas a fresh tableau is disposed so that its off-heap or memory-mapped
+     * storage is released.
+     *
+     * @param tableau the tableau
+     */
+    public void releaseTableau(Tableau tableau) {
+        if (tableau==m_tableau)
+            m_tableau.clearAdditionalDLOntology();
+        else
+            tableau.getExtensionManager().dispose();
+    }
     protected static Tableau createTableau(InterruptFlag interruptFlag,Configuration configuration,DLOntology permanentDLOntology,DLOntology additionalDLOntology,Prefixes prefixes) throws IllegalArgumentException {
-        boolean hasInverseRoles=(permanentDLOntology.hasInverseRoles() || (additionalDLOntology!=null && additionalDLOntology.hasInverseRoles()));
         boolean hasNominals=(permanentDLOntology.hasNominals() || (additionalDLOntology!=null && additionalDLOntology.hasNominals()));
+        return createTableau(interruptFlag,configuration,permanentDLOntology,additionalDLOntology,prefixes,createBlockingSignatureCache(configuration,hasNominals));
+    }
+    /**
+     * @return a new blocking signature cache, or null if the configuration or the nominals of the ontology do not allow caching
+     */
+    protected static BlockingSignatureCache createBlockingSignatureCache(Configuration configuration,boolean hasNominals) {
+        if (hasNominals || configuration.blockingStrategyType==BlockingStrategyType.SIMPLE_CORE || configuration.blockingStrategyType==BlockingStrategyType.COMPLEX_CORE)
+            return null;
+        switch (configuration.blockingSignatureCacheType) {
+        case CACHED:
+            return new BlockingSignatureCache(configuration.blockingSignatureCacheCapacity);
+        case NOT_CACHED:
+            return null;
+        default:
+            throw new IllegalArgumentException("Unknown blocking cache type.");
+        }
+    }
+    /**
+     * The blocking signature cache may be shared only by tableaux that have been created for the same DL-ontology.
+     */
+    protected static Tableau createTableau(InterruptFlag interruptFlag,Configuration configuration,DLOntology permanentDLOntology,DLOntology additionalDLOntology,Prefixes prefixes,BlockingSignatureCache blockingSignatureCache) throws IllegalArgumentException {
+        boolean hasInverseRoles=(permanentDLOntology.hasInverseRoles() || (additionalDLOntology!=null && additionalDLOntology.hasInverseRoles()));
 
         TableauMonitor wellKnownTableauMonitor=null;
         switch (configuration.tableauMonitorType) {
@@ -2119,19 +2746,6 @@ public class Reasoner implements OWLReasoner {
             throw new IllegalArgumentException("Unknown direct blocking type.");
         }
 
-        BlockingSignatureCache blockingSignatureCache=null;
-        if (!hasNominals && !(configuration.blockingStrategyType==BlockingStrategyType.SIMPLE_CORE || configuration.blockingStrategyType==BlockingStrategyType.COMPLEX_CORE)) {
-            switch (configuration.blockingSignatureCacheType) {
-            case CACHED:
-                blockingSignatureCache=new BlockingSignatureCache(directBlockingChecker);
-                break;
-            case NOT_CACHED:
-                break;
-            default:
-                throw new IllegalArgumentException("Unknown blocking cache type.");
-            }
-        }
-
         BlockingStrategy blockingStrategy=null;
         switch (configuration.blockingStrategyType) {
         case ANCESTOR:
@@ -2168,20 +2782,142 @@ public class Reasoner implements OWLReasoner {
             throw new IllegalArgumentException("Unknown expansion strategy type.");
         }
 
-        return new Tableau(interruptFlag,tableauMonitor,existentialsExpansionStrategy,configuration.useDisjunctionLearning,permanentDLOntology,additionalDLOntology,configuration.parameters);
+        GroundDisjunctionSchedulingStrategy groundDisjunctionSchedulingStrategy=null;
+        switch (configuration.groundDisjunctionSchedulingType) {
+        case INSERTION_ORDER:
+            groundDisjunctionSchedulingStrategy=new InsertionOrderSchedulingStrategy();
+            break;
+        case FEWEST_DISJUNCTS:
+            groundDisjunctionSchedulingStrategy=new FewestDisjunctsSchedulingStrategy();
+            break;
+        case MOST_CONSTRAINED:
+            groundDisjunctionSchedulingStrategy=new MostConstrainedSchedulingStrategy();
+            break;
+        case ACTIVITY:
+            groundDisjunctionSchedulingStrategy=new ActivitySchedulingStrategy();
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown ground disjunction scheduling type.");
+        }
+
+        Tableau tableau=new Tableau(interruptFlag,tableauMonitor,existentialsExpansionStrategy,groundDisjunctionSchedulingStrategy,configuration.useDisjunctionLearning,permanentDLOntology,additionalDLOntology,getTableauParameters(configuration));
+        tableau.setCompiledAdditionalDLOntologiesCapacity(configuration.queryCompilationCacheCapacity);
+        return tableau;
+    }
+    protected static Map<String,Object> getTableauParameters(Configuration configuration) {
+        Map<String,Object> parameters=new HashMap<>(configuration.parameters);
+        switch (configuration.extensionTableStorageType) {
+        case OBJECTS:
+            break;
+        case INTS:
+            parameters.put("ExtensionTable.storage","ints");
+            break;
+        case OFF_HEAP:
+            parameters.put("ExtensionTable.storage","offheap");
+            break;
+        case MAPPED:
+            parameters.put("ExtensionTable.storage","mapped");
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown extension table storage type.");
+        }
+        if (configuration.mappedFileDirectory!=null)
+            parameters.put("ExtensionTable.mappedFileDirectory",configuration.mappedFileDirectory);
+        if (configuration.cacheSaturatedABox)
+            parameters.put("Tableau.cacheSaturatedABox",Boolean.TRUE);
+        parameters.put("Tableau.maximumNumberOfNogoods",Integer.valueOf(configuration.maximumNumberOfNogoods));
+        parameters.put("Tableau.maximumNogoodSize",Integer.valueOf(configuration.maximumNogoodSize));
+        if (configuration.compileToBytecode)
+            parameters.put("DLClauseEvaluator.compileToBytecode",Boolean.TRUE);
+        if (configuration.costBasedJoinOrdering)
+            parameters.put("HyperresolutionManager.costBasedJoinOrdering",Boolean.TRUE);
+        return parameters;
     }
     protected Hierarchy<AtomicConcept> classifyAtomicConcepts(Tableau tableau,ClassificationProgressMonitor progressMonitor,AtomicConcept topElement,AtomicConcept bottomElement,Set<AtomicConcept> elements,boolean forceQuasiOrder) {
         if (tableau.isDeterministic() && !forceQuasiOrder)
             return new DeterministicClassification(tableau,progressMonitor,topElement,bottomElement,elements).classify();
+        else if (canUseWorkerTableaux(tableau)) {
+            Tableau[] workerTableaux=createWorkerTableaux(tableau);
+            try {
+                return new ParallelQuasiOrderClassification(workerTableaux,progressMonitor,topElement,bottomElement,elements).classify();
+            }
+            finally {
+                disposeWorkerTableaux(workerTableaux);
+            }
+        }
         else
             return new QuasiOrderClassification(tableau,progressMonitor,topElement,bottomElement,elements).classify();
     }
+    /**
+     * Worker tableaux are created only for the permanent DL-ontology; furthermore, tableau monitors are not thread-safe.
+     */
+    protected boolean canUseWorkerTableaux(Tableau tableau) {
+        return m_configuration.numberOfWorkerThreads>1 && tableau.getAdditionalDLOntology()==null && m_configuration.tableauMonitorType==TableauMonitorType.NONE && m_configuration.monitor==null;
+    }
+    /**
+     * @param tableau the tableau that becomes the first worker tableau
+     * @return worker tableaux for the permanent DL-ontology, each with its own interrupt flag, which share the blocking signature cache of the reasoner
+     */
+    protected Tableau[] createWorkerTableaux(Tableau tableau) {
+        Tableau[] workerTableaux=new Tableau[m_configuration.numberOfWorkerThreads];
+        workerTableaux[0]=tableau;
+        DisjunctOrderingStatistics disjunctOrderingStatistics=tableau.exportDisjunctOrderingStatistics();
+        for (int index=1;index<workerTableaux.length;index++) {
+            workerTableaux[index]=createTableau(new InterruptFlag(m_configuration.individualTaskTimeout),m_configuration,m_dlOntology,null,m_prefixes,m_blockingSignatureCache);
+            if (!disjunctOrderingStatistics.isEmpty())
+                workerTableaux[index].importDisjunctOrderingStatistics(disjunctOrderingStatistics);
+        }
+        return workerTableaux;
+    }
+    protected static void disposeWorkerTableaux(Tableau[] workerTableaux) {
+        for (int index=1;index<workerTableaux.length;index++) {
+            workerTableaux[index].getInterruptFlag().dispose();
+            workerTableaux[index].getExtensionManager().dispose();
+        }
+    }
     protected Hierarchy<AtomicConcept> classifyAtomicConceptsForRoles(Tableau tableau,ClassificationProgressMonitor progressMonitor,AtomicConcept topElement,AtomicConcept bottomElement,Set<AtomicConcept> elements,boolean hasInverses,Map<Role,AtomicConcept> conceptsForRoles,Map<AtomicConcept,Role> rolesForConcepts,boolean forceQuasiOrder) {
         if (tableau.isDeterministic() && !forceQuasiOrder)
             return new DeterministicClassification(tableau,progressMonitor,topElement,bottomElement,elements).classify();
         else
             return new QuasiOrderClassificationForRoles(tableau,progressMonitor,topElement,bottomElement,elements,hasInverses,conceptsForRoles,rolesForConcepts).classify();
     }
+    /**
+     * Returns the DL-ontology for the additional axioms of a query. The DL-ontologies of the most recent queries over the
+     * current DL-ontology of the reasoner are cached by their axioms without annotations, so a repeated query is neither
+     * normalized nor clausified again, and the tableaux that have compiled the DL clauses of a cached DL-ontology reuse them.
+     * The cache may be accessed by several threads.
+     */
+    protected DLOntology getDeltaDLOntology(DLOntology permanentDLOntology,OWLAxiom... additionalAxioms) throws IllegalArgumentException {
+        if (m_configuration.queryCompilationCacheCapacity<=0 || permanentDLOntology!=m_dlOntology)
+            return createDeltaDLOntology(m_configuration,permanentDLOntology,additionalAxioms);
+        Set<OWLAxiom> key=new HashSet<>();
+        for (OWLAxiom axiom : additionalAxioms)
+            key.add(axiom.getAxiomWithoutAnnotations());
+        synchronized (m_deltaDLOntologyCache) {
+            DLOntology deltaDLOntology=m_deltaDLOntologyCache.get(key);
+            if (deltaDLOntology!=null)
+                return deltaDLOntology;
+        }
+        DLOntology deltaDLOntology=createDeltaDLOntology(m_configuration,permanentDLOntology,additionalAxioms);
+        synchronized (m_deltaDLOntologyCache) {
+            if (permanentDLOntology==m_dlOntology) {
+                DLOntology cachedDeltaDLOntology=m_deltaDLOntologyCache.putIfAbsent(key,deltaDLOntology);
+                if (cachedDeltaDLOntology!=null)
+                    return cachedDeltaDLOntology;
+                Iterator<Set<OWLAxiom>> iterator=m_deltaDLOntologyCache.keySet().iterator();
+                while (m_deltaDLOntologyCache.size()>m_configuration.queryCompilationCacheCapacity) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+        }
+        return deltaDLOntology;
+    }
+    protected void clearDeltaDLOntologyCache() {
+        synchronized (m_deltaDLOntologyCache) {
+            m_deltaDLOntologyCache.clear();
+        }
+    }
     protected DLOntology createDeltaDLOntology(Configuration configuration,DLOntology originalDLOntology,OWLAxiom... additionalAxioms) throws IllegalArgumentException {
         Set<OWLAxiom> additionalAxiomsSet=new HashSet<>();
         for (OWLAxiom axiom : additionalAxioms) {
@@ -2197,8 +2933,9 @@ public class Reasoner implements OWLReasoner {
         BuiltInPropertyManager builtInPropertyManager=new BuiltInPropertyManager(dataFactory);
         builtInPropertyManager.axiomatizeBuiltInPropertiesAsNeeded(axioms,originalDLOntology.getAllAtomicObjectRoles().contains(AtomicRole.TOP_OBJECT_ROLE),originalDLOntology.getAllAtomicObjectRoles().contains(AtomicRole.BOTTOM_OBJECT_ROLE),originalDLOntology.getAllAtomicObjectRoles().contains(AtomicRole.TOP_DATA_ROLE),originalDLOntology.getAllAtomicObjectRoles().contains(AtomicRole.BOTTOM_DATA_ROLE));
 
-        int currentReplacementIndex=m_objectPropertyInclusionManager.rewriteNegativeObjectPropertyAssertions(dataFactory,axioms,originalDLOntology.getAllAtomicConcepts().size());
-        m_objectPropertyInclusionManager.rewriteAxioms(dataFactory,axioms,currentReplacementIndex);
+        ObjectPropertyInclusionManager objectPropertyInclusionManager=getObjectPropertyInclusionManager();
+        int currentReplacementIndex=objectPropertyInclusionManager.rewriteNegativeObjectPropertyAssertions(dataFactory,axioms,originalDLOntology.getAllAtomicConcepts().size());
+        objectPropertyInclusionManager.rewriteAxioms(dataFactory,axioms,currentReplacementIndex);
         OWLAxiomsExpressivity axiomsExpressivity=new OWLAxiomsExpressivity(axioms);
         axiomsExpressivity.m_hasAtMostRestrictions|=originalDLOntology.hasAtMostRestrictions();
         axiomsExpressivity.m_hasInverseRoles|=originalDLOntology.hasInverseRoles();
@@ -0,0 +1,286 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.semanticweb.HermiT.hierarchy.Hierarchy;
+import org.semanticweb.HermiT.hierarchy.InstanceManager;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.DescriptionGraph;
+import org.semanticweb.HermiT.model.Role;
+import org.semanticweb.HermiT.tableau.DisjunctOrderingStatistics;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.NodeID;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+
+/**
+ * Saves and restores the state of a reasoner, so that a service can be restarted without preprocessing and classifying
+ * its ontology again. A snapshot consists of an uncompressed header and a compressed body. The header contains a magic
+ * number, the format version, a fingerprint of the ontology and the settings of the configuration that determine how the
+ * ontology is clausified; the body contains the DL ontology, the prefixes, the
+ * class, object property and data property hierarchies (in the compact encoding of Hierarchy.writeTo()), the known
+ * and possible instances of the instance manager and the disjunct ordering statistics of the tableau. The file is mapped into memory when it is restored, so a stale
+ * snapshot or a snapshot that has been written with an incompatible configuration is rejected after reading the header only.
+ */
+public class ReasonerSnapshot {
+    protected static final int MAGIC_NUMBER=0x48655254;
+    protected static final int FORMAT_VERSION=3;
+
+    /**
+     * Computes a fingerprint of the given ontology: the SHA-256 digest of the ontology IRI and version IRI and of the
+     * structure of the logical axioms and declarations (without annotations) in the imports closure of the ontology, which
+     * are digested in the order of OWLObject.compareTo(). Changes to the annotations of an ontology therefore do not make
+     * a snapshot stale.
+     *
+     * @param rootOntology rootOntology
+     * @return the fingerprint
+     */
+    public static byte[] computeFingerprint(OWLOntology rootOntology) {
+        SortedSet<OWLAxiom> axioms=new TreeSet<>();
+        rootOntology.importsClosure().forEach(ontology->ontology.axioms().filter(axiom->axiom.isLogicalAxiom() || axiom.isOfType(AxiomType.DECLARATION)).forEach(axiom->axioms.add(axiom.getAxiomWithoutAnnotations())));
+        MessageDigest digest;
+        try {
+            digest=MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("The SHA-256 algorithm is not available.",e);
+        }
+        OWLOntologyID ontologyID=rootOntology.getOntologyID();
+        updateDigest(digest,ontologyID.getOntologyIRI());
+        updateDigest(digest,ontologyID.getVersionIRI());
+        for (OWLAxiom axiom : axioms)
+            updateDigest(digest,axiom);
+        return digest.digest();
+    }
+    /**
+     * Digests an OWL object by its type and its components, so the fingerprint does not depend on how the object is printed.
+     */
+    protected static void updateDigest(MessageDigest digest,Object object) {
+        if (object instanceof IRI)
+            updateDigest(digest,'I',((IRI)object).getIRIString());
+        else if (object instanceof NodeID)
+            updateDigest(digest,'N',((NodeID)object).getID());
+        else if (object instanceof OWLObject) {
+            OWLObject owlObject=(OWLObject)object;
+            updateDigest(digest,'T',Integer.toString(owlObject.typeIndex()));
+            digest.update((byte)'(');
+            owlObject.components().forEach(component->updateDigest(digest,component));
+            digest.update((byte)')');
+        }
+        else if (object instanceof Collection) {
+            digest.update((byte)'[');
+            for (Object element : (Collection<?>)object)
+                updateDigest(digest,element);
+            digest.update((byte)']');
+        }
+        else if (object instanceof Optional) {
+            Optional<?> optional=(Optional<?>)object;
+            if (optional.isPresent())
+                updateDigest(digest,optional.get());
+            else
+                digest.update((byte)'-');
+        }
+        else if (object instanceof Enum)
+            updateDigest(digest,'E',((Enum<?>)object).name());
+        else
+            updateDigest(digest,'V',String.valueOf(object));
+    }
+    protected static void updateDigest(MessageDigest digest,char tag,String value) {
+        byte[] bytes=value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte)tag);
+        digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+    /**
+     * Writes a snapshot of the given reasoner. The snapshot is first written to a temporary file, which then replaces
+     * the given file, so a concurrent restart never sees a partially written snapshot.
+     *
+     * @param reasoner reasoner
+     * @param file file
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static void save(Reasoner reasoner,File file) throws IOException {
+        File temporaryFile=new File(file.getPath()+".tmp");
+        try (OutputStream output=new BufferedOutputStream(Files.newOutputStream(temporaryFile.toPath()))) {
+            byte[] fingerprint=computeFingerprint(reasoner.m_rootOntology);
+            DataOutputStream header=new DataOutputStream(output);
+            header.writeInt(MAGIC_NUMBER);
+            header.writeInt(FORMAT_VERSION);
+            header.writeInt(fingerprint.length);
+            header.write(fingerprint);
+            header.writeBoolean(reasoner.m_configuration.ignoreUnsupportedDatatypes);
+            header.flush();
+            try (ObjectOutputStream body=new ObjectOutputStream(new GZIPOutputStream(output))) {
+                writeBody(reasoner,body);
+            }
+        }
+        catch (IOException|RuntimeException e) {
+            Files.deleteIfExists(temporaryFile.toPath());
+            throw e;
+        }
+        Files.move(temporaryFile.toPath(),file.toPath(),StandardCopyOption.REPLACE_EXISTING);
+    }
+    protected static void writeBody(Reasoner reasoner,ObjectOutput output) throws IOException {
+        output.writeObject(new ArrayList<>(reasoner.m_descriptionGraphs));
+        output.writeObject(reasoner.m_dlOntology);
+        output.writeObject(reasoner.m_prefixes);
+        output.writeObject(reasoner.m_isConsistent);
+        writeHierarchy(reasoner.m_atomicConceptHierarchy,output);
+        writeHierarchy(reasoner.m_objectRoleHierarchy,output);
+        writeHierarchy(reasoner.m_dataRoleHierarchy,output);
+        InstanceManager instanceManager=reasoner.m_instanceManager;
+        output.writeBoolean(instanceManager!=null);
+        if (instanceManager!=null) {
+            output.writeBoolean(instanceManager.usesClassifiedConceptHierarchy());
+            instanceManager.writeInstanceData(output);
+        }
+        output.writeObject(reasoner.m_tableau.exportDisjunctOrderingStatistics());
+    }
+    protected static void writeHierarchy(Hierarchy<?> hierarchy,ObjectOutput output) throws IOException {
+        output.writeBoolean(hierarchy!=null);
+        if (hierarchy!=null)
+            hierarchy.writeTo(output);
+    }
+    /**
+     * Restores a reasoner for the given ontology from a snapshot.
+     *
+     * @param configuration configuration
+     * @param rootOntology rootOntology
+     * @param file file
+     * @return the restored reasoner
+     * @throws IOException if the snapshot cannot be read or is not a snapshot of this version
+     * @throws IllegalArgumentException if the snapshot has been written for a different ontology or with a configuration that
+     *             clausifies the ontology differently
+     */
+    public static Reasoner load(Configuration configuration,OWLOntology rootOntology,File file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel=FileChannel.open(file.toPath(),StandardOpenOption.READ)) {
+            buffer=channel.map(FileChannel.MapMode.READ_ONLY,0,channel.size());
+        }
+        try {
+            if (buffer.getInt()!=MAGIC_NUMBER)
+                throw new IOException("The file '"+file+"' is not a HermiT snapshot.");
+            int formatVersion=buffer.getInt();
+            if (formatVersion!=FORMAT_VERSION)
+                throw new IOException("The snapshot '"+file+"' has format version "+formatVersion+", but this version of HermiT reads only format version "+FORMAT_VERSION+".");
+            byte[] fingerprint=new byte[buffer.getInt()];
+            buffer.get(fingerprint);
+            if (!MessageDigest.isEqual(fingerprint,computeFingerprint(rootOntology)))
+                throw new IllegalArgumentException("The snapshot '"+file+"' is stale: it has been created for a different version of the ontology.");
+            boolean ignoreUnsupportedDatatypes=(buffer.get()!=0);
+            if (ignoreUnsupportedDatatypes!=configuration.ignoreUnsupportedDatatypes)
+                throw new IllegalArgumentException("The snapshot '"+file+"' has been created with ignoreUnsupportedDatatypes set to "+ignoreUnsupportedDatatypes+", but the configuration sets it to "+configuration.ignoreUnsupportedDatatypes+".");
+        }
+        catch (BufferUnderflowException|NegativeArraySizeException e) {
+            throw new IOException("The header of the snapshot '"+file+"' is truncated.",e);
+        }
+        try (ObjectInputStream body=new ObjectInputStream(new GZIPInputStream(new ByteBufferInputStream(buffer)))) {
+            return readBody(configuration,rootOntology,body);
+        }
+        catch (ClassNotFoundException e) {
+            throw new IOException("The snapshot '"+file+"' contains an unknown class.",e);
+        }
+    }
+    @SuppressWarnings("unchecked")
+    protected static Reasoner readBody(Configuration configuration,OWLOntology rootOntology,ObjectInput input) throws IOException,ClassNotFoundException {
+        Collection<DescriptionGraph> descriptionGraphs=(Collection<DescriptionGraph>)input.readObject();
+        DLOntology dlOntology=(DLOntology)input.readObject();
+        Prefixes prefixes=(Prefixes)input.readObject();
+        Reasoner reasoner=new Reasoner(configuration,rootOntology,descriptionGraphs,dlOntology,prefixes);
+        reasoner.m_isConsistent=(Boolean)input.readObject();
+        reasoner.m_atomicConceptHierarchy=ReasonerSnapshot.<AtomicConcept>readHierarchy(input);
+        reasoner.m_objectRoleHierarchy=ReasonerSnapshot.<Role>readHierarchy(input);
+        reasoner.m_dataRoleHierarchy=ReasonerSnapshot.<AtomicRole>readHierarchy(input);
+        if (input.readBoolean()) {
+            boolean usesClassifiedConceptHierarchy=input.readBoolean();
+            reasoner.m_instanceManager=new InstanceManager(reasoner.m_interruptFlag,reasoner,usesClassifiedConceptHierarchy ? reasoner.m_atomicConceptHierarchy : null,reasoner.m_objectRoleHierarchy);
+            reasoner.m_instanceManager.readInstanceData(input);
+        }
+        DisjunctOrderingStatistics disjunctOrderingStatistics=(DisjunctOrderingStatistics)input.readObject();
+        if (!disjunctOrderingStatistics.isEmpty())
+            reasoner.m_tableau.importDisjunctOrderingStatistics(disjunctOrderingStatistics);
+        return reasoner;
+    }
+    protected static <T> Hierarchy<T> readHierarchy(ObjectInput input) throws IOException,ClassNotFoundException {
+        if (input.readBoolean())
+            return Hierarchy.readFrom(input);
+        else
+            return null;
+    }
+
+    /**
+     * Reads the remaining bytes of a (mapped) byte buffer.
+     */
+    protected static class ByteBufferInputStream extends InputStream {
+        protected final ByteBuffer m_buffer;
+
+        public ByteBufferInputStream(ByteBuffer buffer) {
+            m_buffer=buffer;
+        }
+        @Override
+        public int read() {
+            return m_buffer.hasRemaining() ? m_buffer.get() & 0xFF : -1;
+        }
+        @Override
+        public int read(byte[] bytes,int offset,int length) {
+            if (length==0)
+                return 0;
+            if (!m_buffer.hasRemaining())
+                return -1;
+            int count=Math.min(length,m_buffer.remaining());
+            m_buffer.get(bytes,offset,count);
+            return count;
+        }
+        @Override
+        public int available() {
+            return m_buffer.remaining();
+        }
+    }
+}
@@ -79,7 +79,7 @@ public class AncestorBlocking implements BlockingStrategy,Serializable {
                     node.setBlocked(null,false);
                 else if (parent.isBlocked())
                     node.setBlocked(parent,false);
-                else if (m_useBlockingSignatureCache && m_blockingSignatureCache!=null && m_blockingSignatureCache.containsSignature(node))
+                else if (m_useBlockingSignatureCache && m_blockingSignatureCache!=null && m_blockingSignatureCache.containsSignature(m_directBlockingChecker,node))
                     node.setBlocked(Node.SIGNATURE_CACHE_BLOCKER,true);
                 else
                     checkParentBlocking(node);
@@ -165,7 +165,7 @@ public class AncestorBlocking implements BlockingStrategy,Serializable {
             Node node=m_tableau.getFirstTableauNode();
             while (node!=null) {
                 if (node.isActive() && !node.isBlocked() && m_directBlockingChecker.canBeBlocker(node))
-                    m_blockingSignatureCache.addNode(node);
+                    m_blockingSignatureCache.addNode(m_directBlockingChecker,node);
                 node=node.getNextTableauNode();
             }
         }
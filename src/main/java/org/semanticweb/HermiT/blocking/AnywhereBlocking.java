@@ -91,7 +91,7 @@ public class AnywhereBlocking implements BlockingStrategy,Serializable {
                         else if (parent.isBlocked())
                             node.setBlocked(parent,false);
                         else if (checkBlockingSignatureCache) {
-                            if (m_blockingSignatureCache.containsSignature(node))
+                            if (m_blockingSignatureCache.containsSignature(m_directBlockingChecker,node))
                                 node.setBlocked(Node.SIGNATURE_CACHE_BLOCKER,true);
                             else {
                                 Node blocker=m_currentBlockersCache.getBlocker(node);
@@ -188,7 +188,7 @@ public class AnywhereBlocking implements BlockingStrategy,Serializable {
             Node node=m_tableau.getFirstTableauNode();
             while (node!=null) {
                 if (node.isActive() && !node.isBlocked() && m_directBlockingChecker.canBeBlocker(node))
-                    m_blockingSignatureCache.addNode(node);
+                    m_blockingSignatureCache.addNode(m_directBlockingChecker,node);
                 node=node.getNextTableauNode();
             }
         }
@@ -18,85 +18,156 @@
 package org.semanticweb.HermiT.blocking;
 
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.semanticweb.HermiT.tableau.Node;
-/**Blocking signature cache*/
+/**
+ * Blocking signature cache. The cache holds at most about as many signatures as its capacity; when it is full, adding a
+ * signature evicts one that has not been used for blocking since the clock hand last passed it. Signatures match nodes
+ * by the contents of their labels, so one cache can be shared by all tableaux for the same DL-ontology (such as the worker
+ * tableaux of a reasoner) and it is kept across satisfiability tests. Lookups take no lock; additions lock one segment.
+ * An evicted signature is handed back to the blocking checker that created it, which releases its sets when it is next
+ * cleared, so the sets kept for the cache are bounded by the capacity as well.
+ */
 public class BlockingSignatureCache implements Serializable {
-    private static final long serialVersionUID=-7692825443489644667L;
+    private static final long serialVersionUID=-3016957128530671554L;
+    /**default capacity*/
+    public static final int DEFAULT_CAPACITY=100000;
+    protected static final int SEGMENT_BITS=4;
+    protected static final int NUMBER_OF_SEGMENTS=1 << SEGMENT_BITS;
 
     protected final DirectBlockingChecker m_directBlockingChecker;
-    protected BlockingSignature[] m_buckets;
-    protected int m_numberOfElements;
-    protected int m_threshold;
+    protected final int m_capacity;
+    protected final Segment[] m_segments;
+    protected final LongAdder m_numberOfHits;
+    protected final LongAdder m_numberOfMisses;
+    protected final LongAdder m_numberOfEvictions;
 
     /**
-     * @param directBlockingChecker directBlockingChecker
+     * Creates a cache with the default capacity for the tableau of the given blocking checker.
+     *
+     * @param directBlockingChecker the blocking checker used by addNode(Node) and containsSignature(Node)
      */
     public BlockingSignatureCache(DirectBlockingChecker directBlockingChecker) {
+        this(directBlockingChecker,DEFAULT_CAPACITY);
+    }
+    /**
+     * Creates a cache that can be shared by several tableaux, each of which passes its own blocking checker.
+     *
+     * @param capacity the maximal number of cached signatures
+     */
+    public BlockingSignatureCache(int capacity) {
+        this(null,capacity);
+    }
+    protected BlockingSignatureCache(DirectBlockingChecker directBlockingChecker,int capacity) {
+        if (capacity<=0)
+            throw new IllegalArgumentException("The capacity of a blocking signature cache must be positive.");
         m_directBlockingChecker=directBlockingChecker;
-        m_buckets=new BlockingSignature[1024];
-        m_threshold=(int)(m_buckets.length*0.75);
-        m_numberOfElements=0;
+        m_capacity=capacity;
+        m_numberOfHits=new LongAdder();
+        m_numberOfMisses=new LongAdder();
+        m_numberOfEvictions=new LongAdder();
+        m_segments=new Segment[NUMBER_OF_SEGMENTS];
+        int segmentCapacity=(capacity+NUMBER_OF_SEGMENTS-1)/NUMBER_OF_SEGMENTS;
+        for (int segmentIndex=0;segmentIndex<NUMBER_OF_SEGMENTS;segmentIndex++)
+            m_segments[segmentIndex]=new Segment(segmentCapacity,m_numberOfEvictions);
     }
     /**
      * @return true if empty
      */
     public boolean isEmpty() {
-        return m_numberOfElements==0;
+        for (Segment segment : m_segments)
+            if (segment.m_size!=0)
+                return false;
+        return true;
+    }
+    /**
+     * @return the number of cached signatures
+     */
+    public int size() {
+        int size=0;
+        for (Segment segment : m_segments)
+            size+=segment.m_size;
+        return size;
+    }
+    /**
+     * @return the maximal number of cached signatures
+     */
+    public int getCapacity() {
+        return m_capacity;
+    }
+    /**
+     * @return the number of nodes that have been blocked by a cached signature
+     */
+    public long getNumberOfHits() {
+        return m_numberOfHits.sum();
+    }
+    /**
+     * @return the number of nodes that could have been blocked but no cached signature blocks them
+     */
+    public long getNumberOfMisses() {
+        return m_numberOfMisses.sum();
+    }
+    /**
+     * @return the number of signatures that have been evicted to make room for new ones
+     */
+    public long getNumberOfEvictions() {
+        return m_numberOfEvictions.sum();
+    }
+    /**
+     * Removes all signatures and hands them back to their blocking checkers; the counters are not reset.
+     */
+    public void clear() {
+        for (Segment segment : m_segments)
+            segment.clear();
     }
     /**
      * @param node node
      * @return true if node added
      */
     public boolean addNode(Node node) {
-        int hashCode=m_directBlockingChecker.blockingHashCode(node);
-        int bucketIndex=getIndexFor(hashCode,m_buckets.length);
-        BlockingSignature entry=m_buckets[bucketIndex];
-        while (entry!=null) {
-            if (hashCode==entry.hashCode() && entry.blocksNode(node))
-                return false;
-            entry=entry.m_nextEntry;
-        }
-        entry=m_directBlockingChecker.getBlockingSignatureFor(node);
-        entry.m_nextEntry=m_buckets[bucketIndex];
-        m_buckets[bucketIndex]=entry;
-        m_numberOfElements++;
-        if (m_numberOfElements>=m_threshold)
-            resize(m_buckets.length*2);
-        return true;
+        return addNode(getDirectBlockingChecker(),node);
     }
-    protected void resize(int newCapacity) {
-        BlockingSignature[] newBuckets=new BlockingSignature[newCapacity];
-        for (int i=0;i<m_buckets.length;i++) {
-            BlockingSignature entry=m_buckets[i];
-            while (entry!=null) {
-                BlockingSignature nextEntry=entry.m_nextEntry;
-                int newIndex=getIndexFor(entry.hashCode(),newCapacity);
-                entry.m_nextEntry=newBuckets[newIndex];
-                newBuckets[newIndex]=entry;
-                entry=nextEntry;
-            }
-        }
-        m_buckets=newBuckets;
-        m_threshold=(int)(newCapacity*0.75);
+    /**
+     * @param directBlockingChecker the blocking checker of the tableau that contains the node
+     * @param node node
+     * @return true if node added
+     */
+    public boolean addNode(DirectBlockingChecker directBlockingChecker,Node node) {
+        int hashCode=directBlockingChecker.blockingHashCode(node);
+        return m_segments[getSegmentIndexFor(hashCode)].add(directBlockingChecker,node,hashCode);
     }
     /**
      * @param node node
      * @return true if contains in signature
      */
     public boolean containsSignature(Node node) {
-        if (m_directBlockingChecker.canBeBlocked(node)) {
-            int hashCode=m_directBlockingChecker.blockingHashCode(node);
-            int bucketIndex=getIndexFor(hashCode,m_buckets.length);
-            BlockingSignature entry=m_buckets[bucketIndex];
-            while (entry!=null) {
-                if (hashCode==entry.hashCode() && entry.blocksNode(node))
-                    return true;
-                entry=entry.m_nextEntry;
+        return containsSignature(getDirectBlockingChecker(),node);
+    }
+    /**
+     * @param directBlockingChecker the blocking checker of the tableau that contains the node
+     * @param node node
+     * @return true if contains in signature
+     */
+    public boolean containsSignature(DirectBlockingChecker directBlockingChecker,Node node) {
+        if (directBlockingChecker.canBeBlocked(node)) {
+            int hashCode=directBlockingChecker.blockingHashCode(node);
+            Entry entry=m_segments[getSegmentIndexFor(hashCode)].get(node,hashCode);
+            if (entry!=null) {
+                entry.m_referenced=true;
+                m_numberOfHits.increment();
+                return true;
             }
+            m_numberOfMisses.increment();
         }
         return false;
     }
+    protected DirectBlockingChecker getDirectBlockingChecker() {
+        if (m_directBlockingChecker==null)
+            throw new IllegalStateException("The blocking signature cache is shared, so the blocking checker of the tableau must be given.");
+        return m_directBlockingChecker;
+    }
     protected static int getIndexFor(int _hashCode,int tableLength) {
         int hashCode=_hashCode;
         hashCode+=~(hashCode << 9);
@@ -105,4 +176,139 @@ public class BlockingSignatureCache implements Serializable {
         hashCode^=(hashCode >>> 10);
         return hashCode & (tableLength-1);
     }
+    protected static int getSegmentIndexFor(int hashCode) {
+        return (hashCode*0x9E3779B9) >>> (32-SEGMENT_BITS);
+    }
+
+    /**
+     * A part of the cache. Readers traverse the buckets without locking; all modifications are made while holding the
+     * lock of the segment. A reader that runs concurrently with a modification can at worst miss a signature, which
+     * only means that the node is not blocked from the cache.
+     */
+    protected static final class Segment implements Serializable {
+        private static final long serialVersionUID=2893570263617398264L;
+
+        protected final int m_capacity;
+        protected final LongAdder m_numberOfEvictions;
+        protected volatile AtomicReferenceArray<Entry> m_buckets;
+        protected volatile int m_size;
+        protected int m_resizeThreshold;
+        protected Entry[] m_clock;
+        protected int m_clockHand;
+
+        protected Segment(int capacity,LongAdder numberOfEvictions) {
+            m_capacity=capacity;
+            m_numberOfEvictions=numberOfEvictions;
+            clear();
+        }
+        protected synchronized void clear() {
+            if (m_clock!=null)
+                for (int entryIndex=0;entryIndex<m_size;entryIndex++)
+                    m_clock[entryIndex].release();
+            m_buckets=new AtomicReferenceArray<>(16);
+            m_size=0;
+            m_resizeThreshold=12;
+            m_clock=new Entry[Math.min(m_capacity,16)];
+            m_clockHand=0;
+        }
+        protected Entry get(Node node,int hashCode) {
+            AtomicReferenceArray<Entry> buckets=m_buckets;
+            Entry entry=buckets.get(getIndexFor(hashCode,buckets.length()));
+            while (entry!=null) {
+                if (hashCode==entry.m_hashCode && entry.m_signature.blocksNode(node))
+                    return entry;
+                entry=entry.m_nextEntry;
+            }
+            return null;
+        }
+        protected synchronized boolean add(DirectBlockingChecker directBlockingChecker,Node node,int hashCode) {
+            if (get(node,hashCode)!=null)
+                return false;
+            Entry entry=new Entry(directBlockingChecker,directBlockingChecker.getBlockingSignatureFor(node),hashCode);
+            if (m_size==m_capacity) {
+                // the clock hand skips and unmarks the signatures that have been used since it last passed them
+                while (m_clock[m_clockHand].m_referenced) {
+                    m_clock[m_clockHand].m_referenced=false;
+                    m_clockHand=(m_clockHand+1) % m_capacity;
+                }
+                removeEntry(m_clock[m_clockHand]);
+                m_clock[m_clockHand].release();
+                m_numberOfEvictions.increment();
+                m_clock[m_clockHand]=entry;
+                m_clockHand=(m_clockHand+1) % m_capacity;
+            }
+            else {
+                if (m_size==m_clock.length) {
+                    Entry[] newClock=new Entry[Math.min(m_capacity,m_clock.length*2)];
+                    System.arraycopy(m_clock,0,newClock,0,m_clock.length);
+                    m_clock=newClock;
+                }
+                m_clock[m_size]=entry;
+                if (m_size>=m_resizeThreshold)
+                    resize();
+            }
+            AtomicReferenceArray<Entry> buckets=m_buckets;
+            int bucketIndex=getIndexFor(hashCode,buckets.length());
+            entry.m_nextEntry=buckets.get(bucketIndex);
+            buckets.set(bucketIndex,entry);
+            m_size++;
+            return true;
+        }
+        protected void removeEntry(Entry entry) {
+            AtomicReferenceArray<Entry> buckets=m_buckets;
+            int bucketIndex=getIndexFor(entry.m_hashCode,buckets.length());
+            Entry previousEntry=null;
+            for (Entry current=buckets.get(bucketIndex);current!=null;current=current.m_nextEntry) {
+                if (current==entry) {
+                    if (previousEntry==null)
+                        buckets.set(bucketIndex,current.m_nextEntry);
+                    else
+                        previousEntry.m_nextEntry=current.m_nextEntry;
+                    m_size--;
+                    return;
+                }
+                previousEntry=current;
+            }
+        }
+        protected void resize() {
+            AtomicReferenceArray<Entry> buckets=m_buckets;
+            int newCapacity=buckets.length()*2;
+            AtomicReferenceArray<Entry> newBuckets=new AtomicReferenceArray<>(newCapacity);
+            for (int bucketIndex=0;bucketIndex<buckets.length();bucketIndex++) {
+                Entry entry=buckets.get(bucketIndex);
+                while (entry!=null) {
+                    Entry nextEntry=entry.m_nextEntry;
+                    int newIndex=getIndexFor(entry.m_hashCode,newCapacity);
+                    entry.m_nextEntry=newBuckets.get(newIndex);
+                    newBuckets.set(newIndex,entry);
+                    entry=nextEntry;
+                }
+            }
+            m_buckets=newBuckets;
+            m_resizeThreshold=(int)(newCapacity*0.75);
+        }
+    }
+
+    /**
+     * A cached signature. The referenced flag is set without synchronization: a lost update only affects which
+     * signature is evicted next.
+     */
+    protected static final class Entry implements Serializable {
+        private static final long serialVersionUID=-1420960725468296531L;
+
+        protected final DirectBlockingChecker m_directBlockingChecker;
+        protected final BlockingSignature m_signature;
+        protected final int m_hashCode;
+        protected volatile Entry m_nextEntry;
+        protected boolean m_referenced;
+
+        protected Entry(DirectBlockingChecker directBlockingChecker,BlockingSignature signature,int hashCode) {
+            m_directBlockingChecker=directBlockingChecker;
+            m_signature=signature;
+            m_hashCode=hashCode;
+        }
+        protected void release() {
+            m_directBlockingChecker.releaseBlockingSignature(m_signature);
+        }
+    }
 }
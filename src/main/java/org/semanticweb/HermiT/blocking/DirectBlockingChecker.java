@@ -141,4 +141,11 @@ public interface DirectBlockingChecker {
      * @return blocking signature
      */
     BlockingSignature getBlockingSignatureFor(Node node);
+    /**
+     * Releases a signature that a blocking signature cache has evicted. The cache may be shared, so this can be called
+     * by the thread of another tableau; the sets of the signature stop being permanent when this checker is next cleared.
+     *
+     * @param signature a signature returned by getBlockingSignatureFor(Node)
+     */
+    void releaseBlockingSignature(BlockingSignature signature);
 }
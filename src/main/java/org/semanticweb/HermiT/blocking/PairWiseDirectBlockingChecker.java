@@ -19,7 +19,9 @@ package org.semanticweb.HermiT.blocking;
 
 import java.io.Serializable;
 import java.util.LinkedHashSet;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.semanticweb.HermiT.model.AtomicConcept;
 import org.semanticweb.HermiT.model.AtomicRole;
@@ -35,6 +37,7 @@ public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Seri
 
     protected final SetFactory<AtomicConcept> m_atomicConceptsSetFactory=new SetFactory<>();
     protected final SetFactory<AtomicRole> m_atomicRolesSetFactory=new SetFactory<>();
+    protected final Queue<BlockingSignature> m_releasedBlockingSignatures=new ConcurrentLinkedQueue<>();
     protected final Set<AtomicConcept> m_atomicConceptsBuffer=new LinkedHashSet<>();
     protected final Set<AtomicRole> m_atomicRolesBuffer=new LinkedHashSet<>();
     protected ExtensionTable.Retrieval m_binaryTableSearch1Bound;
@@ -47,6 +50,9 @@ public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Seri
     }
     @Override
     public void clear() {
+        BlockingSignature signature;
+        while ((signature=m_releasedBlockingSignatures.poll())!=null)
+            ((PairWiseBlockingSignature)signature).release(this);
         m_atomicConceptsSetFactory.clearNonpermanent();
         m_atomicRolesSetFactory.clearNonpermanent();
         m_binaryTableSearch1Bound.clear();
@@ -174,6 +180,10 @@ public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Seri
     public BlockingSignature getBlockingSignatureFor(Node node) {
         return new PairWiseBlockingSignature(this,node);
     }
+    @Override
+    public void releaseBlockingSignature(BlockingSignature signature) {
+        m_releasedBlockingSignatures.add(signature);
+    }
     protected Set<AtomicConcept> fetchAtomicConceptsLabel(Node node) {
         m_atomicConceptsBuffer.clear();
         m_binaryTableSearch1Bound.getBindingsBuffer()[1]=node;
@@ -354,14 +364,20 @@ public class PairWiseDirectBlockingChecker implements DirectBlockingChecker,Seri
             checker.m_atomicRolesSetFactory.makePermanent(m_fromParentLabel);
             checker.m_atomicRolesSetFactory.makePermanent(m_toParentLabel);
         }
+        protected void release(PairWiseDirectBlockingChecker checker) {
+            checker.m_atomicConceptsSetFactory.releasePermanent(m_atomicConceptLabel);
+            checker.m_atomicConceptsSetFactory.releasePermanent(m_parentAtomicConceptLabel);
+            checker.m_atomicRolesSetFactory.releasePermanent(m_fromParentLabel);
+            checker.m_atomicRolesSetFactory.releasePermanent(m_toParentLabel);
+        }
         @Override
         public boolean blocksNode(Node node) {
             PairWiseBlockingObject nodeBlockingObject=(PairWiseBlockingObject)node.getBlockingObject();
             return
-                nodeBlockingObject.getAtomicConceptsLabel()==m_atomicConceptLabel &&
-                ((PairWiseBlockingObject)node.getParent().getBlockingObject()).getAtomicConceptsLabel()==m_parentAtomicConceptLabel &&
-                nodeBlockingObject.getFromParentLabel()==m_fromParentLabel &&
-                nodeBlockingObject.getToParentLabel()==m_toParentLabel;
+                SetFactory.containSameElements(nodeBlockingObject.getAtomicConceptsLabel(),m_atomicConceptLabel) &&
+                SetFactory.containSameElements(((PairWiseBlockingObject)node.getParent().getBlockingObject()).getAtomicConceptsLabel(),m_parentAtomicConceptLabel) &&
+                SetFactory.containSameElements(nodeBlockingObject.getFromParentLabel(),m_fromParentLabel) &&
+                SetFactory.containSameElements(nodeBlockingObject.getToParentLabel(),m_toParentLabel);
         }
         @Override
         public int hashCode() {
@@ -45,7 +45,7 @@ public class SetFactory<E> implements Serializable {
             Entry entry=m_entries[i];
             while (entry!=null) {
                 Entry nextEntry=entry.m_nextEntry;
-                if (!entry.m_permanent) {
+                if (entry.m_permanentCount==0) {
                     removeEntry(entry);
                     leaveEntry(entry);
                 }
@@ -65,7 +65,7 @@ public class SetFactory<E> implements Serializable {
     public void removeReference(Set<E> set) {
         Entry entry=(Entry)set;
         entry.m_referenceCount--;
-        if (entry.m_referenceCount==0 && !entry.m_permanent) {
+        if (entry.m_referenceCount==0 && entry.m_permanentCount==0) {
             removeEntry(entry);
             leaveEntry(entry);
         }
@@ -74,7 +74,27 @@ public class SetFactory<E> implements Serializable {
      * @param set set
      */
     public void makePermanent(Set<E> set) {
-        ((Entry)set).m_permanent=true;
+        ((Entry)set).m_permanentCount++;
+    }
+    /**
+     * Undoes one call of makePermanent(Set); once no call remains, the set is removed by the next clearNonpermanent().
+     *
+     * @param set set
+     */
+    public void releasePermanent(Set<E> set) {
+        ((Entry)set).m_permanentCount--;
+    }
+    /**
+     * Compares two sets that may have been created by different factories; sets of the same factory are equal only if
+     * they are the same object.
+     *
+     * @param set1 a set created by a set factory
+     * @param set2 a set created by a set factory
+     * @param <E> element type
+     * @return true if the sets contain the same elements
+     */
+    public static <E> boolean containSameElements(Set<E> set1,Set<E> set2) {
+        return set1==set2 || (set1.hashCode()==set2.hashCode() && ((Entry<E>)set1).equalsTo(set2));
     }
     /**
      * @param elements elements
@@ -165,7 +185,7 @@ public class SetFactory<E> implements Serializable {
         protected Entry<T> m_previousEntry;
         protected Entry<T> m_nextEntry;
         protected int m_referenceCount;
-        protected boolean m_permanent;
+        protected int m_permanentCount;
 
         public Entry(int size) {
             m_hashCode=0;
@@ -19,7 +19,9 @@ package org.semanticweb.HermiT.blocking;
 
 import java.io.Serializable;
 import java.util.LinkedHashSet;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.semanticweb.HermiT.model.AtomicConcept;
 import org.semanticweb.HermiT.model.AtomicRole;
@@ -34,6 +36,7 @@ public class SingleDirectBlockingChecker implements DirectBlockingChecker,Serial
     private static final long serialVersionUID=9093753046859877016L;
 
     protected final SetFactory<AtomicConcept> m_atomicConceptsSetFactory=new SetFactory<>();
+    protected final Queue<BlockingSignature> m_releasedBlockingSignatures=new ConcurrentLinkedQueue<>();
     protected final Set<AtomicConcept> m_atomicConceptsBuffer=new LinkedHashSet<>();
     protected ExtensionTable.Retrieval m_binaryTableSearch1Bound;
 
@@ -43,6 +46,9 @@ public class SingleDirectBlockingChecker implements DirectBlockingChecker,Serial
     }
     @Override
     public void clear() {
+        BlockingSignature signature;
+        while ((signature=m_releasedBlockingSignatures.poll())!=null)
+            ((SingleBlockingSignature)signature).release(this);
         m_atomicConceptsSetFactory.clearNonpermanent();
         m_binaryTableSearch1Bound.clear();
     }
@@ -130,6 +136,10 @@ public class SingleDirectBlockingChecker implements DirectBlockingChecker,Serial
     public BlockingSignature getBlockingSignatureFor(Node node) {
         return new SingleBlockingSignature(this,node);
     }
+    @Override
+    public void releaseBlockingSignature(BlockingSignature signature) {
+        m_releasedBlockingSignatures.add(signature);
+    }
     protected Set<AtomicConcept> fetchAtomicConceptsLabel(Node node) {
         m_atomicConceptsBuffer.clear();
         m_binaryTableSearch1Bound.getBindingsBuffer()[1]=node;
@@ -212,9 +222,12 @@ public class SingleDirectBlockingChecker implements DirectBlockingChecker,Serial
             m_atomicConceptsLabel=((SingleBlockingObject)node.getBlockingObject()).getAtomicConceptsLabel();
             checker.m_atomicConceptsSetFactory.makePermanent(m_atomicConceptsLabel);
         }
+        protected void release(SingleDirectBlockingChecker checker) {
+            checker.m_atomicConceptsSetFactory.releasePermanent(m_atomicConceptsLabel);
+        }
         @Override
         public boolean blocksNode(Node node) {
-            return ((SingleBlockingObject)node.getBlockingObject()).getAtomicConceptsLabel()==m_atomicConceptsLabel;
+            return SetFactory.containSameElements(((SingleBlockingObject)node.getBlockingObject()).getAtomicConceptsLabel(),m_atomicConceptsLabel);
         }
         @Override
         public int hashCode() {
@@ -19,7 +19,9 @@ package org.semanticweb.HermiT.blocking;
 
 import java.io.Serializable;
 import java.util.LinkedHashSet;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.semanticweb.HermiT.blocking.ValidatedSingleDirectBlockingChecker.ValidatedBlockingObject;
 import org.semanticweb.HermiT.model.AtomicConcept;
@@ -36,6 +38,7 @@ public class ValidatedPairwiseDirectBlockingChecker implements DirectBlockingChe
 
     protected final SetFactory<AtomicConcept> m_atomicConceptsSetFactory=new SetFactory<>();
     protected final SetFactory<AtomicRole> m_atomicRolesSetFactory=new SetFactory<>();
+    protected final Queue<BlockingSignature> m_releasedBlockingSignatures=new ConcurrentLinkedQueue<>();
     protected final Set<AtomicConcept> m_atomicConceptsBuffer=new LinkedHashSet<>();
     protected final Set<AtomicRole> m_atomicRolesBuffer=new LinkedHashSet<>();
     protected final boolean m_hasInverses;
@@ -55,6 +58,9 @@ public class ValidatedPairwiseDirectBlockingChecker implements DirectBlockingChe
     }
     @Override
     public void clear() {
+        BlockingSignature signature;
+        while ((signature=m_releasedBlockingSignatures.poll())!=null)
+            ((ValidatedBlockingSignature)signature).release(this);
         m_atomicConceptsSetFactory.clearNonpermanent();
         m_atomicRolesSetFactory.clearNonpermanent();
         m_binaryTableSearch1Bound.clear();
@@ -188,6 +194,10 @@ public class ValidatedPairwiseDirectBlockingChecker implements DirectBlockingChe
     public BlockingSignature getBlockingSignatureFor(Node node) {
         return new ValidatedBlockingSignature(this,node);
     }
+    @Override
+    public void releaseBlockingSignature(BlockingSignature signature) {
+        m_releasedBlockingSignatures.add(signature);
+    }
 
     protected final class ValidatedPairwiseBlockingObject implements ValidatedBlockingObject {
         protected final Node m_node;
@@ -350,6 +360,12 @@ public class ValidatedPairwiseDirectBlockingChecker implements DirectBlockingChe
             checker.m_atomicRolesSetFactory.makePermanent(m_fromParentLabel);
             checker.m_atomicRolesSetFactory.makePermanent(m_toParentLabel);
         }
+        protected void release(ValidatedPairwiseDirectBlockingChecker checker) {
+            checker.m_atomicConceptsSetFactory.releasePermanent(m_fullAtomicConceptsLabel);
+            checker.m_atomicConceptsSetFactory.releasePermanent(m_parentFullAtomicConceptsLabel);
+            checker.m_atomicRolesSetFactory.releasePermanent(m_fromParentLabel);
+            checker.m_atomicRolesSetFactory.releasePermanent(m_toParentLabel);
+        }
         @Override
         public boolean blocksNode(Node node) {
             ValidatedPairwiseBlockingObject nodeBlockingObject = (ValidatedPairwiseBlockingObject) node.getBlockingObject();
@@ -19,7 +19,9 @@ package org.semanticweb.HermiT.blocking;
 
 import java.io.Serializable;
 import java.util.LinkedHashSet;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.semanticweb.HermiT.model.AtomicConcept;
 import org.semanticweb.HermiT.model.AtomicRole;
@@ -35,6 +37,7 @@ public class ValidatedSingleDirectBlockingChecker implements DirectBlockingCheck
 
     protected final SetFactory<AtomicConcept> m_atomicConceptsSetFactory=new SetFactory<>();
     protected final SetFactory<AtomicRole> m_atomicRolesSetFactory=new SetFactory<>();
+    protected final Queue<BlockingSignature> m_releasedBlockingSignatures=new ConcurrentLinkedQueue<>();
     protected final Set<AtomicConcept> m_atomicConceptsBuffer=new LinkedHashSet<>();
     protected final Set<AtomicRole> m_atomicRolesBuffer=new LinkedHashSet<>();
     protected final boolean m_hasInverses;
@@ -54,6 +57,9 @@ public class ValidatedSingleDirectBlockingChecker implements DirectBlockingCheck
     }
     @Override
     public void clear() {
+        BlockingSignature signature;
+        while ((signature=m_releasedBlockingSignatures.poll())!=null)
+            ((ValidatedBlockingSignature)signature).release(this);
         m_atomicConceptsSetFactory.clearNonpermanent();
         m_atomicRolesSetFactory.clearNonpermanent();
         m_binaryTableSearch1Bound.clear();
@@ -181,6 +187,10 @@ public class ValidatedSingleDirectBlockingChecker implements DirectBlockingCheck
     public BlockingSignature getBlockingSignatureFor(Node node) {
         return new ValidatedBlockingSignature(this,node);
     }
+    @Override
+    public void releaseBlockingSignature(BlockingSignature signature) {
+        m_releasedBlockingSignatures.add(signature);
+    }
     /**
      * Blocking object.
      */
@@ -346,6 +356,12 @@ public class ValidatedSingleDirectBlockingChecker implements DirectBlockingCheck
             checker.m_atomicRolesSetFactory.makePermanent(m_fromParentLabel);
             checker.m_atomicRolesSetFactory.makePermanent(m_toParentLabel);
         }
+        protected void release(ValidatedSingleDirectBlockingChecker checker) {
+            checker.m_atomicConceptsSetFactory.releasePermanent(m_fullAtomicConceptsLabel);
+            checker.m_atomicConceptsSetFactory.releasePermanent(m_parentFullAtomicConceptsLabel);
+            checker.m_atomicRolesSetFactory.releasePermanent(m_fromParentLabel);
+            checker.m_atomicRolesSetFactory.releasePermanent(m_toParentLabel);
+        }
         @Override
         public boolean blocksNode(Node node) {
             ValidatedSingleBlockingObject nodeBlockingObject = (ValidatedSingleBlockingObject) node.getBlockingObject();
@@ -12,6 +12,7 @@ import org.semanticweb.HermiT.model.Variable;
 import org.semanticweb.HermiT.tableau.DLClauseEvaluator;
 import org.semanticweb.HermiT.tableau.DLClauseEvaluator.Worker;
 import org.semanticweb.HermiT.tableau.DependencySet;
+import org.semanticweb.HermiT.tableau.ExtensionManager;
 import org.semanticweb.HermiT.tableau.ExtensionTable;
 import org.semanticweb.HermiT.tableau.ExtensionTable.View;
 import org.semanticweb.HermiT.tableau.HyperresolutionManager;
@@ -27,7 +28,10 @@ public class ConjunctiveQuery {
     protected final Term[] m_resultBuffer;
     protected final OneEmptyTupleRetrieval m_firstRetrieval;
     protected final QueryResultCollector[] m_queryResultCollector;
-    protected final Worker[] m_workers;
+    protected SemiNaiveEvaluator m_semiNaiveEvaluator;
+    protected ExtensionManager m_extensionManager;
+    protected Worker[] m_workers;
+    protected SemiNaiveEvaluator.Plan m_semiNaiveQuery;
 
     /**
      * @param datalogEngine datalog engine
@@ -43,11 +47,27 @@ public class ConjunctiveQuery {
         m_resultBuffer=answerTerms.clone();
         m_firstRetrieval=new OneEmptyTupleRetrieval();
         m_queryResultCollector=new QueryResultCollector[1];
-        HyperresolutionManager.BodyAtomsSwapper swapper=new HyperresolutionManager.BodyAtomsSwapper(DLClause.create(new Atom[0],queryAtoms));
-        DLClause queryDLClause=swapper.getSwappedDLClause(0);
-        QueryCompiler queryCompiler=new QueryCompiler(this,queryDLClause,answerTerms,datalogEngine.m_termsToNodes,datalogEngine.m_nodesToTerms,m_resultBuffer,m_queryResultCollector,m_firstRetrieval);
-        m_workers=new Worker[queryCompiler.m_workers.size()];
-        queryCompiler.m_workers.toArray(m_workers);
+        compile();
+    }
+    /**
+     * Compiles the query for the current materialization of the datalog engine, which changes if the facts are
+     * materialized anew after an update.
+     */
+    protected void compile() {
+        m_semiNaiveEvaluator=m_datalogEngine.m_semiNaiveEvaluator;
+        m_extensionManager=m_datalogEngine.m_extensionManager;
+        if (m_semiNaiveEvaluator!=null) {
+            m_semiNaiveQuery=m_semiNaiveEvaluator.compileQuery(m_queryAtoms,new SemiNaiveQueryAnswerCallback(this,m_semiNaiveEvaluator,m_answerTerms,m_resultBuffer,m_queryResultCollector));
+            m_workers=null;
+        }
+        else {
+            m_semiNaiveQuery=null;
+            HyperresolutionManager.BodyAtomsSwapper swapper=new HyperresolutionManager.BodyAtomsSwapper(DLClause.create(new Atom[0],m_queryAtoms));
+            DLClause queryDLClause=swapper.getSwappedDLClause(0);
+            QueryCompiler queryCompiler=new QueryCompiler(this,queryDLClause,m_answerTerms,m_datalogEngine.m_termsToNodes,m_datalogEngine.m_nodesToTerms,m_resultBuffer,m_queryResultCollector,m_firstRetrieval);
+            m_workers=new Worker[queryCompiler.m_workers.size()];
+            queryCompiler.m_workers.toArray(m_workers);
+        }
     }
     /**
      * @return datalog engine
@@ -71,8 +91,16 @@ public class ConjunctiveQuery {
      * @param queryResultCollector queryResultCollector
      */
     public void evaluate(QueryResultCollector queryResultCollector) {
+        if (!m_datalogEngine.materialize())
+            throw new IllegalStateException("The supplied DL ontology is unsatisfiable.");
+        if (m_datalogEngine.m_semiNaiveEvaluator!=m_semiNaiveEvaluator || m_datalogEngine.m_extensionManager!=m_extensionManager)
+            compile();
         try {
             m_queryResultCollector[0]=queryResultCollector;
+            if (m_semiNaiveQuery!=null) {
+                m_semiNaiveEvaluator.evaluateQuery(m_semiNaiveQuery);
+                return;
+            }
             m_firstRetrieval.open();
             int programCounter=0;
             while (programCounter<m_workers.length)
@@ -182,6 +210,35 @@ public class ConjunctiveQuery {
         }
     }
 
+    /**
+     * Passes the answers of a query that is evaluated by the semi-naive evaluator to the query result collector.
+     */
+    protected static class SemiNaiveQueryAnswerCallback implements SemiNaiveEvaluator.QueryAnswerConsumer {
+        protected final ConjunctiveQuery m_conjunctiveQuery;
+        protected final SemiNaiveEvaluator m_semiNaiveEvaluator;
+        protected final Term[] m_answerTerms;
+        protected final Term[] m_resultBuffer;
+        protected final QueryResultCollector[] m_queryResultCollector;
+
+        public SemiNaiveQueryAnswerCallback(ConjunctiveQuery conjunctiveQuery,SemiNaiveEvaluator semiNaiveEvaluator,Term[] answerTerms,Term[] resultBuffer,QueryResultCollector[] queryResultCollector) {
+            m_conjunctiveQuery=conjunctiveQuery;
+            m_semiNaiveEvaluator=semiNaiveEvaluator;
+            m_answerTerms=answerTerms;
+            m_resultBuffer=resultBuffer;
+            m_queryResultCollector=queryResultCollector;
+        }
+        @Override
+        public void answerFound(SemiNaiveEvaluator.Plan query,int[] bindings) {
+            for (int index=m_answerTerms.length-1;index>=0;--index)
+                if (m_answerTerms[index] instanceof Variable) {
+                    int variableIndex=query.getVariableIndex((Variable)m_answerTerms[index]);
+                    if (variableIndex!=-1)
+                        m_resultBuffer[index]=m_semiNaiveEvaluator.m_terms.get(bindings[variableIndex]);
+                }
+            m_queryResultCollector[0].processResult(m_conjunctiveQuery,m_resultBuffer);
+        }
+    }
+
     protected static final class QueryCompiler extends DLClauseEvaluator.ConjunctionCompiler {
         protected final ConjunctiveQuery m_conjunctiveQuery;
         protected final Term[] m_answerTerms;
@@ -1,8 +1,11 @@
 package org.semanticweb.HermiT.datalog;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -23,30 +26,48 @@ import org.semanticweb.HermiT.tableau.Node;
 import org.semanticweb.HermiT.tableau.Tableau;
 
 /**
- * Datalog engine.
+ * Datalog engine. By default, the DL clauses are evaluated by a semi-naive evaluator; DL ontologies that the evaluator
+ * does not support, such as ones with datatypes or description graphs, are materialized using a tableau. The positive
+ * facts can be updated after materialization; the semi-naive evaluator then updates the materialization incrementally.
  */
 public final class DatalogEngine {
     protected final InterruptFlag m_interruptFlag;
     protected final DLOntology m_dlOntology;
+    protected final Set<Atom> m_positiveFacts;
     protected final Map<Term,Node> m_termsToNodes;
     protected final Map<Node,Term> m_nodesToTerms;
     protected final Map<Term,Set<Term>> m_termsToEquivalenceClasses;
     protected final Map<Term,Term> m_termsToRepresentatives;
+    protected final boolean m_semiNaiveEvaluation;
+    protected final int m_numberOfWorkerThreads;
     protected ExtensionManager m_extensionManager;
+    protected SemiNaiveEvaluator m_semiNaiveEvaluator;
+    protected boolean m_containsClash;
     
     /**
      * @param dlOntology dlOntology
      */
     public DatalogEngine(DLOntology dlOntology) {
+        this(dlOntology,true,1);
+    }
+    /**
+     * @param dlOntology dlOntology
+     * @param semiNaiveEvaluation if false, the DL ontology is always materialized using a tableau
+     * @param numberOfWorkerThreads the number of threads with which the semi-naive evaluator evaluates independent strata
+     */
+    public DatalogEngine(DLOntology dlOntology,boolean semiNaiveEvaluation,int numberOfWorkerThreads) {
         for (DLClause dlClause : dlOntology.getDLClauses())
             if (dlClause.getHeadLength()>1)
                 throw new IllegalArgumentException("The supplied DL ontology contains rules with disjunctive heads.");
         m_interruptFlag=new InterruptFlag(0);
         m_dlOntology=dlOntology;
+        m_positiveFacts=new LinkedHashSet<>(dlOntology.getPositiveFacts());
         m_termsToNodes=new HashMap<>();
         m_nodesToTerms=new HashMap<>();
         m_termsToEquivalenceClasses=new HashMap<>();
         m_termsToRepresentatives=new HashMap<>();
+        m_semiNaiveEvaluation=semiNaiveEvaluation;
+        m_numberOfWorkerThreads=numberOfWorkerThreads;
     }
     /**
      * Interrupt.
@@ -54,38 +75,118 @@ public final class DatalogEngine {
     public void interrupt() {
         m_interruptFlag.interrupt();
     }
+    /**
+     * Stops the worker threads of the semi-naive evaluator. The engine can still be used afterwards.
+     */
+    public void dispose() {
+        if (m_semiNaiveEvaluator!=null)
+            m_semiNaiveEvaluator.dispose();
+    }
     /**
      * @return true if no clashes
      */
     public boolean materialize() {
-        if (m_extensionManager==null) {
+        if (m_extensionManager==null && m_semiNaiveEvaluator==null) {
             m_termsToNodes.clear();
             m_nodesToTerms.clear();
             m_termsToEquivalenceClasses.clear();
             m_termsToRepresentatives.clear();
-            Tableau tableau=new Tableau(m_interruptFlag,null,NullExistentialExpansionStrategy.INSTANCE,false,m_dlOntology,null,new HashMap<String,Object>());
-            Set<Atom> noAtoms=Collections.emptySet();
-            tableau.isSatisfiable(true,false,noAtoms,noAtoms,noAtoms,noAtoms,m_termsToNodes,null,null);
-            for (Map.Entry<Term,Node> entry : m_termsToNodes.entrySet())
-                m_nodesToTerms.put(entry.getValue(),entry.getKey());
-            m_extensionManager=tableau.getExtensionManager();
-            Node node=tableau.getFirstTableauNode();
-            while (node!=null) {
-                Term term=m_nodesToTerms.get(node);
-                Term canonicalTerm=m_nodesToTerms.get(node.getCanonicalNode());
-                Set<Term> equivalenceClass=m_termsToEquivalenceClasses.get(canonicalTerm);
-                if (equivalenceClass==null) {
-                    equivalenceClass=new HashSet<>();
-                    m_termsToEquivalenceClasses.put(canonicalTerm,equivalenceClass);
+            if (m_semiNaiveEvaluation && SemiNaiveEvaluator.isSupported(m_dlOntology))
+                materializeSemiNaively();
+            else
+                materializeWithTableau();
+        }
+        return !m_containsClash;
+    }
+    protected void materializeSemiNaively() {
+        SemiNaiveEvaluator semiNaiveEvaluator=new SemiNaiveEvaluator(m_interruptFlag,m_dlOntology,m_positiveFacts,m_numberOfWorkerThreads);
+        m_containsClash=!semiNaiveEvaluator.materialize();
+        for (Term term : semiNaiveEvaluator.getTerms()) {
+            Term canonicalTerm=semiNaiveEvaluator.getRepresentative(term);
+            if (canonicalTerm!=null)
+                addToEquivalenceClass(term,canonicalTerm);
+        }
+        m_semiNaiveEvaluator=semiNaiveEvaluator;
+    }
+    protected void materializeWithTableau() {
+        Tableau tableau=new Tableau(m_interruptFlag,null,NullExistentialExpansionStrategy.INSTANCE,false,getUpdatedDLOntology(),null,new HashMap<String,Object>());
+        Set<Atom> noAtoms=Collections.emptySet();
+        tableau.isSatisfiable(true,false,noAtoms,noAtoms,noAtoms,noAtoms,m_termsToNodes,null,null);
+        for (Map.Entry<Term,Node> entry : m_termsToNodes.entrySet())
+            m_nodesToTerms.put(entry.getValue(),entry.getKey());
+        m_extensionManager=tableau.getExtensionManager();
+        Node node=tableau.getFirstTableauNode();
+        while (node!=null) {
+            addToEquivalenceClass(m_nodesToTerms.get(node),m_nodesToTerms.get(node.getCanonicalNode()));
+            node=node.getNextTableauNode();
+        }
+        m_containsClash=m_extensionManager.containsClash();
+    }
+    /**
+     * @return the DL ontology with the current positive facts
+     */
+    protected DLOntology getUpdatedDLOntology() {
+        if (m_positiveFacts.equals(m_dlOntology.getPositiveFacts()))
+            return m_dlOntology;
+        return new DLOntology(m_dlOntology.getOntologyIRI(),m_dlOntology.getDLClauses(),new LinkedHashSet<>(m_positiveFacts),m_dlOntology.getNegativeFacts(),m_dlOntology.getAllAtomicConcepts(),m_dlOntology.getAllAtomicObjectRoles(),m_dlOntology.getAllComplexObjectRoles(),m_dlOntology.getAllAtomicDataRoles(),m_dlOntology.getAllUnknownDatatypeRestrictions(),m_dlOntology.getDefinedDatatypeIRIs(),null,m_dlOntology.hasInverseRoles(),m_dlOntology.hasAtMostRestrictions(),m_dlOntology.hasNominals(),m_dlOntology.hasDatatypes());
+    }
+    /**
+     * Removes and adds positive facts, which must be assertions about individuals, and materializes the result. If
+     * the semi-naive evaluator has materialized the DL ontology, the materialization and the equivalence classes are
+     * updated incrementally; otherwise, or if terms have been merged and facts are removed, the facts are materialized
+     * anew. Facts that are removed and added are kept.
+     *
+     * @param addedFacts the facts to add
+     * @param removedFacts the facts to remove
+     * @return true if no clashes
+     */
+    public boolean updateFacts(Collection<Atom> addedFacts,Collection<Atom> removedFacts) {
+        for (Atom atom : addedFacts)
+            if (!SemiNaiveEvaluator.isSupportedFact(atom))
+                throw new IllegalArgumentException("Only assertions about individuals can be added.");
+        SemiNaiveEvaluator semiNaiveEvaluator=m_semiNaiveEvaluator;
+        boolean removesFacts=false;
+        for (Atom atom : removedFacts)
+            removesFacts|=m_positiveFacts.contains(atom);
+        if (semiNaiveEvaluator!=null && semiNaiveEvaluator.canUpdateFacts(removesFacts)) {
+            // If the update is interrupted, the next call of materialize() starts over.
+            m_semiNaiveEvaluator=null;
+            m_containsClash=!semiNaiveEvaluator.updateFacts(addedFacts,removedFacts);
+            for (Term term : semiNaiveEvaluator.getChangedTerms()) {
+                Term canonicalTerm=semiNaiveEvaluator.getRepresentative(term);
+                if (canonicalTerm==null) {
+                    m_termsToEquivalenceClasses.remove(term);
+                    m_termsToRepresentatives.remove(term);
                 }
-                if (!term.equals(canonicalTerm))
-                    m_termsToEquivalenceClasses.put(term,equivalenceClass);
-                equivalenceClass.add(term);
-                m_termsToRepresentatives.put(term,canonicalTerm);
-                node=node.getNextTableauNode();
+                else if (!m_termsToRepresentatives.containsKey(term))
+                    addToEquivalenceClass(term,canonicalTerm);
+                else if (!canonicalTerm.equals(m_termsToRepresentatives.get(term)))
+                    for (Term member : new ArrayList<>(m_termsToEquivalenceClasses.get(term)))
+                        addToEquivalenceClass(member,canonicalTerm);
             }
+            m_semiNaiveEvaluator=semiNaiveEvaluator;
+        }
+        else {
+            m_positiveFacts.removeAll(removedFacts);
+            m_positiveFacts.addAll(addedFacts);
+            m_extensionManager=null;
+            if (semiNaiveEvaluator!=null)
+                semiNaiveEvaluator.dispose();
+            m_semiNaiveEvaluator=null;
+            materialize();
+        }
+        return !m_containsClash;
+    }
+    protected void addToEquivalenceClass(Term term,Term canonicalTerm) {
+        Set<Term> equivalenceClass=m_termsToEquivalenceClasses.get(canonicalTerm);
+        if (equivalenceClass==null) {
+            equivalenceClass=new HashSet<>();
+            m_termsToEquivalenceClasses.put(canonicalTerm,equivalenceClass);
         }
-        return !m_extensionManager.containsClash();
+        if (!term.equals(canonicalTerm))
+            m_termsToEquivalenceClasses.put(term,equivalenceClass);
+        equivalenceClass.add(term);
+        m_termsToRepresentatives.put(term,canonicalTerm);
     }
     /**
      * @return ontology
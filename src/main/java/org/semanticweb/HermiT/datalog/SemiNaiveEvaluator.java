@@ -0,0 +1,1408 @@
+package org.semanticweb.HermiT.datalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.semanticweb.HermiT.model.AnnotatedEquality;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.AtomicNegationConcept;
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.Concept;
+import org.semanticweb.HermiT.model.DLClause;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.model.DLPredicate;
+import org.semanticweb.HermiT.model.Equality;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.model.Inequality;
+import org.semanticweb.HermiT.model.LiteralConcept;
+import org.semanticweb.HermiT.model.NegatedAtomicRole;
+import org.semanticweb.HermiT.model.Term;
+import org.semanticweb.HermiT.model.Variable;
+import org.semanticweb.HermiT.tableau.HyperresolutionManager;
+import org.semanticweb.HermiT.tableau.InterruptFlag;
+
+/**
+ * A semi-naive bottom-up evaluator for the Horn DL clauses of a DL ontology. The terms are numbered densely, and the
+ * tuples of each predicate are stored in an array that is indexed by a hash table and, for binary predicates, by
+ * chains that link the tuples with the same term in a position, newest first. Equality is handled by a union-find
+ * structure over the terms: tuples that are not in canonical form are skipped, and after each round in which terms
+ * have been merged the tuples of the merged terms are copied into their canonical form. The DL clauses are evaluated
+ * stratum by stratum, and the strata that do not depend on each other can be evaluated in parallel.
+ * <p>
+ * The materialization is maintained under updates of the positive facts. Added facts are propagated semi-naively from
+ * the tuples that were materialized before the update. Removed facts are handled by the delete-and-rederive algorithm:
+ * all tuples that have a derivation from a removed tuple are deleted, the deleted tuples that are facts or that have a
+ * derivation from the remaining tuples are added back, and the added tuples are propagated. Merged terms cannot be
+ * separated again, so facts can be removed only as long as no terms have been merged.
+ * <p>
+ * The worker threads are created when they are first needed and are kept for later updates; dispose() stops them, and
+ * they also terminate after they have been idle for a while.
+ */
+public final class SemiNaiveEvaluator {
+    protected static final long INTERRUPT_CHECK_INTERVAL=100;
+    protected static final long WORKER_KEEP_ALIVE_TIME=60;
+    protected static final int RANGE_ALL=0;
+    protected static final int RANGE_OLD=1;
+    protected static final int RANGE_DELTA=2;
+
+    protected final InterruptFlag m_interruptFlag;
+    protected final DLOntology m_dlOntology;
+    protected final Set<Atom> m_positiveFacts;
+    protected final int m_numberOfWorkerThreads;
+    protected final Map<Term,Integer> m_termIndexes;
+    protected final List<Term> m_terms;
+    protected int[] m_parents;
+    protected int[] m_numbersOfUses;
+    protected final List<Integer> m_mergedTerms;
+    protected boolean m_hasMerges;
+    protected final List<Term> m_changedTerms;
+    protected final Map<Object,Relation> m_relations;
+    protected final List<Rule> m_rules;
+    protected final Stratum m_constraints;
+    protected final boolean m_hasEqualityRules;
+    protected List<List<Stratum>> m_levels;
+    protected Map<Relation,List<Rule>> m_rulesByHeadRelation;
+    protected volatile boolean m_containsClash;
+    protected ExecutorService m_executor;
+
+    /**
+     * @param interruptFlag interrupt flag
+     * @param dlOntology the DL ontology, which must be supported
+     * @param numberOfWorkerThreads the number of threads that evaluate independent strata in parallel
+     */
+    public SemiNaiveEvaluator(InterruptFlag interruptFlag,DLOntology dlOntology,int numberOfWorkerThreads) {
+        this(interruptFlag,dlOntology,new LinkedHashSet<>(dlOntology.getPositiveFacts()),numberOfWorkerThreads);
+    }
+    /**
+     * @param interruptFlag interrupt flag
+     * @param dlOntology the DL ontology, which must be supported
+     * @param positiveFacts the positive facts that are used instead of those of the DL ontology; the set is modified
+     *            by updateFacts()
+     * @param numberOfWorkerThreads the number of threads that evaluate independent strata in parallel
+     */
+    public SemiNaiveEvaluator(InterruptFlag interruptFlag,DLOntology dlOntology,Set<Atom> positiveFacts,int numberOfWorkerThreads) {
+        if (!isSupported(dlOntology))
+            throw new IllegalArgumentException("The supplied DL ontology cannot be evaluated semi-naively.");
+        for (Atom atom : positiveFacts)
+            if (!isSupportedFact(atom))
+                throw new IllegalArgumentException("The supplied facts cannot be evaluated semi-naively.");
+        m_interruptFlag=interruptFlag;
+        m_dlOntology=dlOntology;
+        m_positiveFacts=positiveFacts;
+        m_numberOfWorkerThreads=numberOfWorkerThreads;
+        m_termIndexes=new HashMap<>();
+        m_terms=new ArrayList<>();
+        m_parents=new int[16];
+        m_numbersOfUses=new int[16];
+        m_mergedTerms=new ArrayList<>();
+        m_changedTerms=new ArrayList<>();
+        m_relations=new LinkedHashMap<>();
+        m_rules=new ArrayList<>();
+        m_constraints=new Stratum();
+        boolean hasEqualityRules=false;
+        for (Atom atom : positiveFacts)
+            useTerms(atom);
+        for (Atom atom : dlOntology.getNegativeFacts())
+            useTerms(atom);
+        for (DLClause dlClause : dlOntology.getDLClauses()) {
+            for (int headIndex=0;headIndex<dlClause.getHeadLength();headIndex++)
+                useTerms(dlClause.getHeadAtom(headIndex));
+            Rule rule=new Rule(dlClause);
+            if (rule.m_headType==Rule.HEAD_CLASH)
+                m_constraints.m_rules.add(rule);
+            else {
+                m_rules.add(rule);
+                hasEqualityRules|=(rule.m_headType==Rule.HEAD_EQUALITY);
+            }
+            for (int bodyIndex=0;bodyIndex<dlClause.getBodyLength();bodyIndex++)
+                getRelation(dlClause.getBodyAtom(bodyIndex).getDLPredicate());
+            if (rule.m_headType==Rule.HEAD_RELATION)
+                rule.m_headRelation=getRelation(rule.m_headPredicate);
+        }
+        m_hasEqualityRules=hasEqualityRules;
+    }
+    /**
+     * @param dlOntology DL ontology
+     * @return true if the DL clauses and facts of the ontology can be evaluated by this evaluator
+     */
+    public static boolean isSupported(DLOntology dlOntology) {
+        if (dlOntology.hasDatatypes() || !dlOntology.getAllDescriptionGraphs().isEmpty())
+            return false;
+        for (DLClause dlClause : dlOntology.getDLClauses()) {
+            if (dlClause.getHeadLength()>1)
+                return false;
+            for (int bodyIndex=0;bodyIndex<dlClause.getBodyLength();bodyIndex++) {
+                Atom atom=dlClause.getBodyAtom(bodyIndex);
+                if (!(atom.getDLPredicate() instanceof AtomicConcept) && !(atom.getDLPredicate() instanceof AtomicRole))
+                    return false;
+                if (!hasSupportedArguments(atom))
+                    return false;
+            }
+            if (dlClause.getHeadLength()==1) {
+                Atom atom=dlClause.getHeadAtom(0);
+                DLPredicate dlPredicate=atom.getDLPredicate();
+                if (!(dlPredicate instanceof Concept) && !(dlPredicate instanceof AtomicRole) && !(dlPredicate instanceof AnnotatedEquality) && !Equality.INSTANCE.equals(dlPredicate) && !Inequality.INSTANCE.equals(dlPredicate))
+                    return false;
+                if (!hasSupportedArguments(atom))
+                    return false;
+                for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++)
+                    if (atom.getArgument(argumentIndex) instanceof Variable && !occursInBody(dlClause,atom.getArgumentVariable(argumentIndex)))
+                        return false;
+            }
+        }
+        for (Atom atom : dlOntology.getPositiveFacts())
+            if (!isSupportedFact(atom))
+                return false;
+        for (Atom atom : dlOntology.getNegativeFacts())
+            if (!isSupportedFact(atom))
+                return false;
+        return true;
+    }
+    protected static boolean hasSupportedArguments(Atom atom) {
+        for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++) {
+            Term argument=atom.getArgument(argumentIndex);
+            if (!(argument instanceof Variable) && !(argument instanceof Individual))
+                return false;
+        }
+        return true;
+    }
+    protected static boolean occursInBody(DLClause dlClause,Variable variable) {
+        for (int bodyIndex=0;bodyIndex<dlClause.getBodyLength();bodyIndex++)
+            if (dlClause.getBodyAtom(bodyIndex).containsVariable(variable))
+                return true;
+        return false;
+    }
+    protected static boolean isSupportedFact(Atom atom) {
+        DLPredicate dlPredicate=atom.getDLPredicate();
+        if (!(dlPredicate instanceof LiteralConcept) && !(dlPredicate instanceof AtomicRole) && !Equality.INSTANCE.equals(dlPredicate) && !Inequality.INSTANCE.equals(dlPredicate))
+            return false;
+        for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++)
+            if (!(atom.getArgument(argumentIndex) instanceof Individual))
+                return false;
+        return true;
+    }
+    /**
+     * Numbers the individuals of the atom and records that they occur in one more fact or DL clause head.
+     */
+    protected void useTerms(Atom atom) {
+        for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++) {
+            Term argument=atom.getArgument(argumentIndex);
+            if (argument instanceof Individual)
+                useTerm(getTermIndex(argument));
+        }
+    }
+    protected void useTerm(int termIndex) {
+        if (m_numbersOfUses[termIndex]++==0) {
+            getRelation(AtomicConcept.THING).add(termIndex,0);
+            if (!((Individual)m_terms.get(termIndex)).isAnonymous())
+                getRelation(AtomicConcept.INTERNAL_NAMED).add(termIndex,0);
+            m_changedTerms.add(m_terms.get(termIndex));
+        }
+    }
+    protected int getTermIndex(Term term) {
+        Integer termIndex=m_termIndexes.get(term);
+        if (termIndex!=null)
+            return termIndex.intValue();
+        int newTermIndex=m_terms.size();
+        if (newTermIndex==m_parents.length) {
+            m_parents=Arrays.copyOf(m_parents,m_parents.length*2);
+            m_numbersOfUses=Arrays.copyOf(m_numbersOfUses,m_numbersOfUses.length*2);
+        }
+        m_parents[newTermIndex]=newTermIndex;
+        m_termIndexes.put(term,Integer.valueOf(newTermIndex));
+        m_terms.add(term);
+        return newTermIndex;
+    }
+    protected Relation getRelation(DLPredicate dlPredicate) {
+        return getRelation(dlPredicate,dlPredicate.getArity());
+    }
+    /**
+     * Negated atomic concepts and roles are not DL predicates, so the relations are indexed by objects.
+     */
+    protected Relation getRelation(Object predicate,int arity) {
+        Relation relation=m_relations.get(predicate);
+        if (relation==null) {
+            relation=new Relation(predicate,arity);
+            m_relations.put(predicate,relation);
+        }
+        return relation;
+    }
+    /**
+     * Computes the fixpoint of the DL clauses over the facts.
+     *
+     * @return true if the fixpoint does not contain a clash
+     */
+    public boolean materialize() {
+        loadFacts();
+        propagate();
+        return !m_containsClash;
+    }
+    /**
+     * @param removesFacts true if facts are to be removed
+     * @return true if the materialization can be updated, that is, if it is complete and, in case facts are removed,
+     *         no terms have been merged
+     */
+    public boolean canUpdateFacts(boolean removesFacts) {
+        return !m_containsClash && !(removesFacts && m_hasMerges);
+    }
+    /**
+     * Removes and adds positive facts and updates the materialization accordingly. Facts that are removed and added
+     * are kept.
+     *
+     * @param addedFacts the facts to add
+     * @param removedFacts the facts to remove
+     * @return true if the updated materialization does not contain a clash
+     */
+    public boolean updateFacts(Collection<Atom> addedFacts,Collection<Atom> removedFacts) {
+        boolean removesFacts=false;
+        for (Atom atom : removedFacts)
+            removesFacts|=m_positiveFacts.contains(atom);
+        if (!canUpdateFacts(removesFacts))
+            throw new IllegalStateException("The materialization cannot be updated incrementally.");
+        for (Atom atom : addedFacts)
+            if (!isSupportedFact(atom))
+                throw new IllegalArgumentException("The supplied facts cannot be evaluated semi-naively.");
+        m_changedTerms.clear();
+        List<Atom> removedPositiveFacts=new ArrayList<>();
+        for (Atom atom : removedFacts)
+            if (m_positiveFacts.remove(atom))
+                removedPositiveFacts.add(atom);
+        if (!removedPositiveFacts.isEmpty())
+            deleteFacts(removedPositiveFacts);
+        for (Atom atom : addedFacts)
+            if (m_positiveFacts.add(atom)) {
+                useTerms(atom);
+                loadFact(atom.getDLPredicate(),atom);
+            }
+        propagate();
+        return !m_containsClash;
+    }
+    /**
+     * Deletes the removed facts and the tuples derived from them, and then adds back the deleted tuples that are
+     * facts or that can be derived in one step from the remaining tuples. The tuples that are added back are at the end
+     * of the relations, so propagate() derives their consequences.
+     */
+    protected void deleteFacts(List<Atom> removedFacts) {
+        Map<Relation,Relation> deletedRelations=new LinkedHashMap<>();
+        for (Relation relation : m_relations.values())
+            deletedRelations.put(relation,new Relation(relation.m_predicate,relation.m_arity));
+        for (Atom atom : removedFacts) {
+            DLPredicate dlPredicate=atom.getDLPredicate();
+            int term0=m_termIndexes.get(atom.getArgument(0)).intValue();
+            int term1=(atom.getArity()>1 ? m_termIndexes.get(atom.getArgument(1)).intValue() : 0);
+            // Without merges, an equality fact relates a term to itself.
+            if (!Equality.INSTANCE.equals(dlPredicate))
+                deletedRelations.get(m_relations.get(dlPredicate)).add(term0,term1);
+            for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++) {
+                int termIndex=m_termIndexes.get(atom.getArgument(argumentIndex)).intValue();
+                if (--m_numbersOfUses[termIndex]==0) {
+                    deletedRelations.get(m_relations.get(AtomicConcept.THING)).add(termIndex,0);
+                    if (!((Individual)m_terms.get(termIndex)).isAnonymous())
+                        deletedRelations.get(m_relations.get(AtomicConcept.INTERNAL_NAMED)).add(termIndex,0);
+                    m_changedTerms.add(m_terms.get(termIndex));
+                }
+            }
+        }
+        overdelete(deletedRelations);
+        for (Map.Entry<Relation,Relation> entry : deletedRelations.entrySet())
+            if (entry.getValue().m_numberOfTuples>0) {
+                entry.getKey().removeTuples(entry.getValue());
+                entry.getKey().m_materializedEnd=entry.getKey().m_numberOfTuples;
+            }
+        for (Map.Entry<Relation,Relation> entry : deletedRelations.entrySet()) {
+            Relation relation=entry.getKey();
+            Relation deletedRelation=entry.getValue();
+            for (int tupleIndex=0;tupleIndex<deletedRelation.m_numberOfTuples;tupleIndex++) {
+                m_interruptFlag.checkInterrupt();
+                int term0=deletedRelation.getTerm(tupleIndex,0);
+                int term1=(relation.m_arity>1 ? deletedRelation.getTerm(tupleIndex,1) : 0);
+                if (isFact(relation,term0,term1) || isDerivable(relation,term0,term1))
+                    relation.add(term0,term1);
+            }
+        }
+    }
+    /**
+     * Adds to the deleted relations all tuples that have a derivation that uses a deleted tuple. The body atoms of the
+     * DL clauses are matched to the tuples that were materialized before the update, one of them to the tuples that
+     * were deleted in the previous round.
+     */
+    protected void overdelete(Map<Relation,Relation> deletedRelations) {
+        Map<Relation,Range> ranges=new HashMap<>();
+        for (Relation deletedRelation : deletedRelations.values())
+            ranges.put(deletedRelation,new Range(0,deletedRelation.m_numberOfTuples));
+        Map<DLPredicate,Integer> numbersOfTuples=getNumbersOfTuples();
+        List<Plan> plans=new ArrayList<>();
+        for (Rule rule : m_rules)
+            if (rule.m_headType==Rule.HEAD_RELATION && rule.m_dlClause.getBodyLength()>0) {
+                HyperresolutionManager.BodyAtomsSwapper swapper=new HyperresolutionManager.BodyAtomsSwapper(rule.m_dlClause,numbersOfTuples,m_terms.size());
+                for (int bodyIndex=0;bodyIndex<rule.m_dlClause.getBodyLength();bodyIndex++) {
+                    Relation deltaRelation=deletedRelations.get(m_relations.get(rule.m_dlClause.getBodyAtom(bodyIndex).getDLPredicate()));
+                    Plan plan=new Plan(this,rule,Plan.OVERDELETE,bodyIndex,deltaRelation,ranges,swapper);
+                    plan.m_headRelation=deletedRelations.get(rule.m_headRelation);
+                    plans.add(plan);
+                }
+            }
+        boolean hasDelta=true;
+        while (hasDelta) {
+            for (Plan plan : plans)
+                if (plan.hasDelta()) {
+                    m_interruptFlag.checkInterrupt();
+                    match(plan,0);
+                }
+            hasDelta=false;
+            for (Map.Entry<Relation,Range> entry : ranges.entrySet()) {
+                Range range=entry.getValue();
+                range.m_oldEnd=range.m_deltaEnd;
+                range.m_deltaEnd=entry.getKey().m_numberOfTuples;
+                hasDelta|=(range.m_oldEnd<range.m_deltaEnd);
+            }
+        }
+    }
+    protected boolean isFact(Relation relation,int term0,int term1) {
+        Term term=m_terms.get(term0);
+        if (AtomicConcept.THING.equals(relation.m_predicate))
+            return m_numbersOfUses[term0]>0;
+        else if (AtomicConcept.INTERNAL_NAMED.equals(relation.m_predicate))
+            return m_numbersOfUses[term0]>0 && !((Individual)term).isAnonymous();
+        else if (relation.m_arity==1)
+            return m_positiveFacts.contains(Atom.create((DLPredicate)relation.m_predicate,term));
+        Atom atom=Atom.create((DLPredicate)relation.m_predicate,term,m_terms.get(term1));
+        if (m_positiveFacts.contains(atom))
+            return true;
+        // Negative equality facts are stored as inequalities.
+        return Inequality.INSTANCE.equals(relation.m_predicate) && m_dlOntology.getNegativeFacts().contains(Atom.create(Equality.INSTANCE,atom.getArgument(0),atom.getArgument(1)));
+    }
+    /**
+     * @return true if a DL clause derives the tuple from the current tuples
+     */
+    protected boolean isDerivable(Relation relation,int term0,int term1) {
+        if (m_rulesByHeadRelation==null) {
+            m_rulesByHeadRelation=new HashMap<>();
+            for (Rule rule : m_rules)
+                if (rule.m_headType==Rule.HEAD_RELATION)
+                    m_rulesByHeadRelation.computeIfAbsent(rule.m_headRelation,headRelation -> new ArrayList<>()).add(rule);
+        }
+        List<Rule> rules=m_rulesByHeadRelation.get(relation);
+        if (rules!=null)
+            for (Rule rule : rules) {
+                Plan plan=rule.getRederivationPlan(this);
+                if (plan.bindHeadArguments(this,term0,term1)) {
+                    plan.m_stopped=false;
+                    match(plan,0);
+                    if (plan.m_stopped)
+                        return true;
+                }
+            }
+        return false;
+    }
+    protected void loadFacts() {
+        for (Atom atom : m_positiveFacts)
+            loadFact(atom.getDLPredicate(),atom);
+        for (Atom atom : m_dlOntology.getNegativeFacts()) {
+            DLPredicate dlPredicate=atom.getDLPredicate();
+            if (dlPredicate instanceof LiteralConcept)
+                loadFact(((LiteralConcept)dlPredicate).getNegation(),atom);
+            else if (dlPredicate instanceof AtomicRole)
+                loadFact(NegatedAtomicRole.create((AtomicRole)dlPredicate),atom);
+            else if (Equality.INSTANCE.equals(dlPredicate))
+                loadFact(Inequality.INSTANCE,atom);
+            else
+                loadFact(Equality.INSTANCE,atom);
+        }
+    }
+    /**
+     * Adds the fact in canonical form, as terms may have been merged before.
+     */
+    protected void loadFact(Object predicate,Atom atom) {
+        int term0=find(m_termIndexes.get(atom.getArgument(0)).intValue());
+        int term1=(atom.getArity()>1 ? find(m_termIndexes.get(atom.getArgument(1)).intValue()) : 0);
+        if (Equality.INSTANCE.equals(predicate))
+            merge(term0,term1);
+        else
+            getRelation(predicate,atom.getArity()).add(term0,term1);
+    }
+    /**
+     * Derives the consequences of the tuples that have been added since the last materialization, and checks the
+     * constraints and the clashes that involve them.
+     */
+    protected void propagate() {
+        boolean constantsOutdated=false;
+        if (!m_mergedTerms.isEmpty()) {
+            canonicalizeMergedTerms();
+            // Terms are merged only here unless there are equality rules, so find() need not write during evaluation.
+            for (int termIndex=0;termIndex<m_terms.size();termIndex++)
+                m_parents[termIndex]=find(termIndex);
+            constantsOutdated=true;
+        }
+        if (m_levels==null)
+            m_levels=getLevels();
+        boolean rulesWithConstantsOutdated=constantsOutdated;
+        boolean parallel=(m_numberOfWorkerThreads>1 && !m_hasEqualityRules);
+        for (List<Stratum> level : m_levels) {
+            if (m_containsClash)
+                break;
+            if (!parallel || level.size()==1) {
+                for (Stratum stratum : level)
+                    evaluate(stratum,rulesWithConstantsOutdated);
+            }
+            else
+                evaluateInParallel(level,rulesWithConstantsOutdated,getExecutor());
+        }
+        if (!m_containsClash)
+            evaluate(m_constraints,rulesWithConstantsOutdated);
+        if (!m_containsClash)
+            checkClashes();
+        for (Relation relation : m_relations.values())
+            relation.m_materializedEnd=relation.m_numberOfTuples;
+    }
+    protected List<List<Stratum>> getLevels() {
+        List<List<Stratum>> levels=new ArrayList<>();
+        if (m_hasEqualityRules) {
+            // Merging terms can produce new tuples for any predicate, so all DL clauses form one stratum.
+            Stratum stratum=new Stratum();
+            stratum.m_rules.addAll(m_rules);
+            levels.add(new ArrayList<Stratum>());
+            levels.get(0).add(stratum);
+            return levels;
+        }
+        Map<DLPredicate,List<Rule>> rulesByHeadPredicate=new LinkedHashMap<>();
+        for (Rule rule : m_rules) {
+            List<Rule> rules=rulesByHeadPredicate.get(rule.m_headPredicate);
+            if (rules==null) {
+                rules=new ArrayList<>();
+                rulesByHeadPredicate.put(rule.m_headPredicate,rules);
+            }
+            rules.add(rule);
+        }
+        StratumBuilder stratumBuilder=new StratumBuilder(rulesByHeadPredicate);
+        for (DLPredicate dlPredicate : rulesByHeadPredicate.keySet())
+            if (!stratumBuilder.m_indexes.containsKey(dlPredicate))
+                stratumBuilder.visit(dlPredicate);
+        for (Stratum stratum : stratumBuilder.m_strata) {
+            while (levels.size()<=stratum.m_level)
+                levels.add(new ArrayList<Stratum>());
+            levels.get(stratum.m_level).add(stratum);
+        }
+        return levels;
+    }
+    protected ExecutorService getExecutor() {
+        if (m_executor==null) {
+            ThreadPoolExecutor executor=new ThreadPoolExecutor(m_numberOfWorkerThreads,m_numberOfWorkerThreads,WORKER_KEEP_ALIVE_TIME,TimeUnit.SECONDS,new LinkedBlockingQueue<>(),runnable -> {
+                Thread thread=new Thread(runnable,"HermiT datalog worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            m_executor=executor;
+        }
+        return m_executor;
+    }
+    /**
+     * Stops the worker threads. The evaluator can still be used afterwards; it then creates new threads if it needs them.
+     */
+    public void dispose() {
+        if (m_executor!=null) {
+            m_executor.shutdownNow();
+            m_executor=null;
+        }
+    }
+    protected void evaluateInParallel(List<Stratum> level,boolean rulesWithConstantsOutdated,ExecutorService executor) {
+        List<Future<?>> results=new ArrayList<>(level.size());
+        for (Stratum stratum : level)
+            results.add(executor.submit(() -> evaluate(stratum,rulesWithConstantsOutdated)));
+        boolean completed=false;
+        try {
+            for (Future<?> result : results) {
+                while (true) {
+                    try {
+                        result.get(INTERRUPT_CHECK_INTERVAL,TimeUnit.MILLISECONDS);
+                        break;
+                    }
+                    catch (TimeoutException e) {
+                        m_interruptFlag.checkInterrupt();
+                    }
+                }
+            }
+            completed=true;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a datalog worker.",e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause=e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+            else if (cause instanceof Error)
+                throw (Error)cause;
+            else
+                throw new IllegalStateException("A datalog worker failed.",cause);
+        }
+        finally {
+            if (!completed)
+                awaitWorkers(results);
+        }
+    }
+    /**
+     * Waits until the given tasks have stopped, so that the threads are idle before the relations are used again. The
+     * tasks stop soon since they check the interrupt flag.
+     */
+    protected static void awaitWorkers(List<Future<?>> results) {
+        boolean interrupted=false;
+        for (Future<?> result : results) {
+            while (!result.isDone()) {
+                try {
+                    result.get();
+                }
+                catch (@SuppressWarnings("unused") InterruptedException e) {
+                    interrupted=true;
+                }
+                catch (@SuppressWarnings("unused") ExecutionException e) {
+                    // the failure of the first task is reported by the caller
+                }
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+    /**
+     * Evaluates the rules of the stratum until no new tuples are derived. The tuples that have been added since the
+     * last materialization form the delta of the first round. In each round, a rule is evaluated once for each body
+     * atom with a nonempty delta, with that atom matched to the delta, the atoms before it matched to the tuples
+     * derived before the delta, and the atoms after it matched to all tuples up to the end of the delta. A rule whose
+     * body atoms have no tuples before the delta is evaluated naively in the first round, as are the rules with
+     * individuals in the body whenever terms have been merged.
+     */
+    protected void evaluate(Stratum stratum,boolean rulesWithConstantsOutdated) {
+        Map<Relation,Range> ranges=new HashMap<>();
+        for (Rule rule : stratum.m_rules)
+            for (int bodyIndex=0;bodyIndex<rule.m_dlClause.getBodyLength();bodyIndex++) {
+                Relation relation=m_relations.get(rule.m_dlClause.getBodyAtom(bodyIndex).getDLPredicate());
+                if (!ranges.containsKey(relation))
+                    ranges.put(relation,new Range(relation.m_materializedEnd,relation.m_numberOfTuples));
+            }
+        Map<DLPredicate,Integer> numbersOfTuples=getNumbersOfTuples();
+        for (Rule rule : stratum.m_rules)
+            rule.compilePlans(this,ranges,numbersOfTuples);
+        boolean firstRound=true;
+        boolean constantsOutdated=rulesWithConstantsOutdated;
+        boolean hasDelta=true;
+        while (hasDelta && !m_containsClash) {
+            for (Rule rule : stratum.m_rules) {
+                if (m_containsClash)
+                    break;
+                m_interruptFlag.checkInterrupt();
+                if ((firstRound && !rule.m_hasOldTuples) || (constantsOutdated && rule.m_hasConstants))
+                    match(rule.m_naivePlan,0);
+                else
+                    for (Plan plan : rule.m_semiNaivePlans)
+                        if (plan.hasDelta())
+                            match(plan,0);
+            }
+            firstRound=false;
+            constantsOutdated=false;
+            if (!m_mergedTerms.isEmpty()) {
+                canonicalizeMergedTerms();
+                constantsOutdated=true;
+            }
+            hasDelta=constantsOutdated;
+            for (Map.Entry<Relation,Range> entry : ranges.entrySet()) {
+                Range range=entry.getValue();
+                range.m_oldEnd=range.m_deltaEnd;
+                range.m_deltaEnd=entry.getKey().m_numberOfTuples;
+                hasDelta|=(range.m_oldEnd<range.m_deltaEnd);
+            }
+        }
+    }
+    protected Map<DLPredicate,Integer> getNumbersOfTuples() {
+        Map<DLPredicate,Integer> numbersOfTuples=new HashMap<>();
+        for (Relation relation : m_relations.values())
+            if (relation.m_predicate instanceof DLPredicate)
+                numbersOfTuples.put((DLPredicate)relation.m_predicate,Integer.valueOf(relation.m_numberOfTuples));
+        return numbersOfTuples;
+    }
+    protected void match(Plan plan,int stepIndex) {
+        if (m_containsClash || plan.m_stopped)
+            return;
+        int[] bindings=plan.m_bindings;
+        if (stepIndex==plan.m_relations.length) {
+            switch (plan.m_mode) {
+            case Plan.OVERDELETE:
+                plan.m_headRelation.add(getValue(plan.m_headArguments[0],bindings),plan.m_headArguments.length>1 ? getValue(plan.m_headArguments[1],bindings) : 0);
+                break;
+            case Plan.REDERIVE:
+                plan.m_stopped=true;
+                break;
+            default:
+                plan.m_rule.applyHead(this,plan,bindings);
+                break;
+            }
+            return;
+        }
+        Relation relation=plan.m_relations[stepIndex];
+        int[] arguments=plan.m_arguments[stepIndex];
+        boolean[] bindsVariable=plan.m_bindsVariable[stepIndex];
+        boolean[] isBound=plan.m_isBound[stepIndex];
+        Range range=plan.m_ranges[stepIndex];
+        int rangeStart;
+        int rangeEnd;
+        if (range==null) {
+            rangeStart=0;
+            rangeEnd=relation.m_numberOfTuples;
+        }
+        else
+            switch (plan.m_rangeTypes[stepIndex]) {
+            case RANGE_OLD:
+                rangeStart=0;
+                rangeEnd=range.m_oldEnd;
+                break;
+            case RANGE_DELTA:
+                rangeStart=range.m_oldEnd;
+                rangeEnd=range.m_deltaEnd;
+                break;
+            default:
+                rangeStart=0;
+                rangeEnd=range.m_deltaEnd;
+                break;
+            }
+        if (rangeStart>=rangeEnd)
+            return;
+        int numberOfBoundPositions=0;
+        int boundPosition=-1;
+        int boundValue=0;
+        for (int position=arguments.length-1;position>=0;--position)
+            if (isBound[position]) {
+                boundValue=getValue(arguments[position],bindings);
+                boundPosition=position;
+                numberOfBoundPositions++;
+            }
+        if (numberOfBoundPositions==0) {
+            for (int tupleIndex=rangeStart;tupleIndex<rangeEnd && !plan.m_stopped;tupleIndex++)
+                if (isCanonical(relation,tupleIndex) && bindArguments(relation,tupleIndex,arguments,bindsVariable,bindings))
+                    match(plan,stepIndex+1);
+        }
+        else if (numberOfBoundPositions==relation.m_arity) {
+            int tupleIndex=(relation.m_arity==1 ? relation.getTupleIndex(boundValue,0) : relation.getTupleIndex(getValue(arguments[0],bindings),getValue(arguments[1],bindings)));
+            if (rangeStart<=tupleIndex && tupleIndex<rangeEnd && isCanonical(relation,tupleIndex))
+                match(plan,stepIndex+1);
+        }
+        else {
+            int tupleIndex=relation.getFirstTuple(boundPosition,boundValue);
+            while (tupleIndex>=rangeStart && !plan.m_stopped) {
+                if (tupleIndex<rangeEnd && isCanonical(relation,tupleIndex) && bindArguments(relation,tupleIndex,arguments,bindsVariable,bindings))
+                    match(plan,stepIndex+1);
+                tupleIndex=relation.getNextTuple(boundPosition,tupleIndex);
+            }
+        }
+    }
+    protected boolean bindArguments(Relation relation,int tupleIndex,int[] arguments,boolean[] bindsVariable,int[] bindings) {
+        for (int position=0;position<arguments.length;position++) {
+            int term=relation.getTerm(tupleIndex,position);
+            if (bindsVariable[position])
+                bindings[arguments[position]]=term;
+            else if (getValue(arguments[position],bindings)!=term)
+                return false;
+        }
+        return true;
+    }
+    /**
+     * Arguments are encoded as the indexes of variables if nonnegative, and as -2-termIndex otherwise.
+     */
+    protected int getValue(int argument,int[] bindings) {
+        if (argument>=0)
+            return bindings[argument];
+        else
+            return find(-2-argument);
+    }
+    /**
+     * Individuals that do not occur in the facts are numbered as well, so that plans remain valid when facts about them
+     * are added.
+     */
+    protected int encodeTerm(Term term) {
+        return -2-getTermIndex(term);
+    }
+    protected boolean isCanonical(Relation relation,int tupleIndex) {
+        if (m_hasMerges)
+            for (int position=relation.m_arity-1;position>=0;--position) {
+                int term=relation.getTerm(tupleIndex,position);
+                if (m_parents[term]!=term)
+                    return false;
+            }
+        return true;
+    }
+    protected int find(int term) {
+        int root=term;
+        while (m_parents[root]!=root)
+            root=m_parents[root];
+        while (m_parents[term]!=root) {
+            int parent=m_parents[term];
+            m_parents[term]=root;
+            term=parent;
+        }
+        return root;
+    }
+    protected void merge(int term0,int term1) {
+        int root0=find(term0);
+        int root1=find(term1);
+        if (root0!=root1) {
+            // The term that was numbered first becomes the representative, which makes the result deterministic.
+            int mergeFrom=Math.max(root0,root1);
+            m_parents[mergeFrom]=Math.min(root0,root1);
+            m_mergedTerms.add(Integer.valueOf(mergeFrom));
+            m_changedTerms.add(m_terms.get(mergeFrom));
+            m_hasMerges=true;
+        }
+    }
+    /**
+     * Adds the canonical form of each tuple that contains a term that has been merged into another term. Tuples that
+     * contain terms merged earlier need not be considered, as their canonical forms contain the terms they were merged
+     * into.
+     */
+    protected void canonicalizeMergedTerms() {
+        while (!m_mergedTerms.isEmpty()) {
+            int[] mergedTerms=new int[m_mergedTerms.size()];
+            for (int index=0;index<mergedTerms.length;index++)
+                mergedTerms[index]=m_mergedTerms.get(index).intValue();
+            m_mergedTerms.clear();
+            for (Relation relation : m_relations.values())
+                for (int mergedTerm : mergedTerms) {
+                    if (relation.m_arity==1) {
+                        if (relation.getTupleIndex(mergedTerm,0)!=-1)
+                            relation.add(find(mergedTerm),0);
+                    }
+                    else
+                        for (int position=0;position<2;position++) {
+                            int tupleIndex=relation.getFirstTuple(position,mergedTerm);
+                            while (tupleIndex!=-1) {
+                                relation.add(find(relation.getTerm(tupleIndex,0)),find(relation.getTerm(tupleIndex,1)));
+                                tupleIndex=relation.getNextTuple(position,tupleIndex);
+                            }
+                        }
+                }
+        }
+    }
+    /**
+     * Checks the clashes that involve a tuple added since the last materialization. Tuples that become clashes when
+     * terms are merged are found as well, as the canonical forms of the tuples of merged terms are added.
+     */
+    protected void checkClashes() {
+        Relation nothing=m_relations.get(AtomicConcept.NOTHING);
+        if (nothing!=null && hasCanonicalTuple(nothing,nothing.m_materializedEnd))
+            m_containsClash=true;
+        for (Relation relation : m_relations.values()) {
+            if (m_containsClash)
+                return;
+            if (Inequality.INSTANCE.equals(relation.m_predicate)) {
+                for (int tupleIndex=relation.m_materializedEnd;tupleIndex<relation.m_numberOfTuples && !m_containsClash;tupleIndex++)
+                    if (find(relation.getTerm(tupleIndex,0))==find(relation.getTerm(tupleIndex,1)))
+                        m_containsClash=true;
+            }
+            else if (relation.m_predicate instanceof AtomicNegationConcept || relation.m_predicate instanceof NegatedAtomicRole) {
+                Object positivePredicate;
+                if (relation.m_predicate instanceof AtomicNegationConcept)
+                    positivePredicate=((AtomicNegationConcept)relation.m_predicate).getNegatedAtomicConcept();
+                else
+                    positivePredicate=((NegatedAtomicRole)relation.m_predicate).getNegatedAtomicRole();
+                Relation positiveRelation=m_relations.get(positivePredicate);
+                if (positiveRelation!=null) {
+                    checkComplementaryTuples(relation,positiveRelation);
+                    checkComplementaryTuples(positiveRelation,relation);
+                }
+            }
+        }
+    }
+    protected void checkComplementaryTuples(Relation relation,Relation complementaryRelation) {
+        for (int tupleIndex=relation.m_materializedEnd;tupleIndex<relation.m_numberOfTuples && !m_containsClash;tupleIndex++)
+            if (isCanonical(relation,tupleIndex) && complementaryRelation.getTupleIndex(relation.getTerm(tupleIndex,0),relation.m_arity==1 ? 0 : relation.getTerm(tupleIndex,1))!=-1)
+                m_containsClash=true;
+    }
+    protected boolean hasCanonicalTuple(Relation relation,int start) {
+        for (int tupleIndex=start;tupleIndex<relation.m_numberOfTuples;tupleIndex++)
+            if (isCanonical(relation,tupleIndex))
+                return true;
+        return false;
+    }
+    /**
+     * @return the numbered terms, in the order in which they were numbered, including those that no longer occur in
+     *         the facts
+     */
+    public List<Term> getTerms() {
+        return m_terms;
+    }
+    /**
+     * @return the terms that have been merged into other terms, or that started or ceased to occur in the facts,
+     *         during the last update or materialization
+     */
+    public List<Term> getChangedTerms() {
+        return m_changedTerms;
+    }
+    /**
+     * @param term term
+     * @return the term that represents the equivalence class of the given term, or null if the term does not occur in
+     *         the facts
+     */
+    public Term getRepresentative(Term term) {
+        Integer termIndex=m_termIndexes.get(term);
+        if (termIndex==null || m_numbersOfUses[termIndex.intValue()]==0)
+            return null;
+        return m_terms.get(find(termIndex.intValue()));
+    }
+    /**
+     * @param dlPredicate predicate
+     * @return the number of tuples of the predicate, including those that are not in canonical form
+     */
+    public int getNumberOfTuples(DLPredicate dlPredicate) {
+        Relation relation=m_relations.get(dlPredicate);
+        return relation==null ? 0 : relation.m_numberOfTuples;
+    }
+    /**
+     * Compiles a conjunctive query. The query is evaluated over the tuples in canonical form, so each answer consists
+     * of representatives, and the individuals in the query are replaced with their representatives.
+     */
+    protected Plan compileQuery(Atom[] queryAtoms,QueryAnswerConsumer queryAnswerConsumer) {
+        Rule query=new Rule(DLClause.create(new Atom[0],queryAtoms));
+        query.m_queryAnswerConsumer=queryAnswerConsumer;
+        return query.getNaivePlan(this);
+    }
+    protected void evaluateQuery(Plan query) {
+        m_interruptFlag.checkInterrupt();
+        match(query,0);
+    }
+
+    /**
+     * Receives the bindings of the variables of a query for each answer.
+     */
+    protected static interface QueryAnswerConsumer {
+        void answerFound(Plan query,int[] bindings);
+    }
+
+    protected static final class Rule {
+        protected static final int HEAD_RELATION=0;
+        protected static final int HEAD_EQUALITY=1;
+        protected static final int HEAD_CLASH=2;
+
+        protected final DLClause m_dlClause;
+        protected final int m_headType;
+        protected final DLPredicate m_headPredicate;
+        protected final boolean m_hasConstants;
+        protected Relation m_headRelation;
+        protected QueryAnswerConsumer m_queryAnswerConsumer;
+        protected boolean m_hasOldTuples;
+        protected Plan m_naivePlan;
+        protected Plan[] m_semiNaivePlans;
+        protected Plan m_rederivationPlan;
+
+        public Rule(DLClause dlClause) {
+            m_dlClause=dlClause;
+            if (dlClause.getHeadLength()==0) {
+                m_headType=HEAD_CLASH;
+                m_headPredicate=null;
+            }
+            else {
+                DLPredicate headPredicate=dlClause.getHeadAtom(0).getDLPredicate();
+                if (Equality.INSTANCE.equals(headPredicate) || headPredicate instanceof AnnotatedEquality) {
+                    // All terms correspond to root nodes, so annotated equalities are ordinary equalities.
+                    m_headType=HEAD_EQUALITY;
+                    m_headPredicate=Equality.INSTANCE;
+                }
+                else {
+                    m_headType=HEAD_RELATION;
+                    m_headPredicate=headPredicate;
+                }
+            }
+            boolean hasConstants=false;
+            for (int bodyIndex=0;bodyIndex<dlClause.getBodyLength();bodyIndex++) {
+                Atom atom=dlClause.getBodyAtom(bodyIndex);
+                for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++)
+                    hasConstants|=!(atom.getArgument(argumentIndex) instanceof Variable);
+            }
+            m_hasConstants=hasConstants;
+        }
+        protected Plan getNaivePlan(SemiNaiveEvaluator evaluator) {
+            if (m_naivePlan==null)
+                m_naivePlan=new Plan(evaluator,this,Plan.DERIVE,0,null,null,getSwapper(evaluator,evaluator.getNumbersOfTuples()));
+            return m_naivePlan;
+        }
+        /**
+         * @return a plan that stops at the first match of the body, with the head variables bound beforehand
+         */
+        protected Plan getRederivationPlan(SemiNaiveEvaluator evaluator) {
+            if (m_rederivationPlan==null)
+                m_rederivationPlan=new Plan(evaluator,this,Plan.REDERIVE,0,null,null,getSwapper(evaluator,evaluator.getNumbersOfTuples()));
+            return m_rederivationPlan;
+        }
+        protected HyperresolutionManager.BodyAtomsSwapper getSwapper(SemiNaiveEvaluator evaluator,Map<DLPredicate,Integer> numbersOfTuples) {
+            return m_dlClause.getBodyLength()==0 ? null : new HyperresolutionManager.BodyAtomsSwapper(m_dlClause,numbersOfTuples,evaluator.m_terms.size());
+        }
+        /**
+         * Compiles the plans for the evaluation in a stratum, ordering the body atoms by the numbers of tuples at the
+         * start of the stratum.
+         */
+        protected void compilePlans(SemiNaiveEvaluator evaluator,Map<Relation,Range> ranges,Map<DLPredicate,Integer> numbersOfTuples) {
+            int bodyLength=m_dlClause.getBodyLength();
+            HyperresolutionManager.BodyAtomsSwapper swapper=getSwapper(evaluator,numbersOfTuples);
+            m_hasOldTuples=false;
+            m_semiNaivePlans=new Plan[bodyLength];
+            for (int bodyIndex=0;bodyIndex<bodyLength;bodyIndex++) {
+                m_hasOldTuples|=(ranges.get(evaluator.m_relations.get(m_dlClause.getBodyAtom(bodyIndex).getDLPredicate())).m_oldEnd>0);
+                m_semiNaivePlans[bodyIndex]=new Plan(evaluator,this,Plan.DERIVE,bodyIndex,null,ranges,swapper);
+            }
+            m_naivePlan=new Plan(evaluator,this,Plan.DERIVE,0,null,null,swapper);
+        }
+        protected void applyHead(SemiNaiveEvaluator evaluator,Plan plan,int[] bindings) {
+            switch (m_headType) {
+            case HEAD_RELATION:
+                m_headRelation.add(evaluator.getValue(plan.m_headArguments[0],bindings),plan.m_headArguments.length>1 ? evaluator.getValue(plan.m_headArguments[1],bindings) : 0);
+                break;
+            case HEAD_EQUALITY:
+                evaluator.merge(evaluator.getValue(plan.m_headArguments[0],bindings),evaluator.getValue(plan.m_headArguments[1],bindings));
+                break;
+            default:
+                if (m_queryAnswerConsumer!=null)
+                    m_queryAnswerConsumer.answerFound(plan,bindings);
+                else
+                    evaluator.m_containsClash=true;
+                break;
+            }
+        }
+    }
+
+    /**
+     * A compiled evaluation of a rule: the body atoms in the order in which they are matched together with the range
+     * of tuples that each of them is matched to. Without ranges, all body atoms are matched to all tuples.
+     */
+    protected static final class Plan {
+        protected static final int DERIVE=0;
+        protected static final int OVERDELETE=1;
+        protected static final int REDERIVE=2;
+
+        protected final Rule m_rule;
+        protected final int m_mode;
+        protected final List<Variable> m_variables;
+        protected final Relation[] m_relations;
+        protected final Range[] m_ranges;
+        protected final int[] m_rangeTypes;
+        protected final int m_deltaStepIndex;
+        protected final int[][] m_arguments;
+        protected final boolean[][] m_bindsVariable;
+        protected final boolean[][] m_isBound;
+        protected final int[] m_headArguments;
+        protected final int[] m_bindings;
+        protected Relation m_headRelation;
+        protected boolean m_stopped;
+
+        /**
+         * @param deltaRelation the relation that the delta body atom is matched to instead of the relation of its
+         *            predicate, or null
+         */
+        public Plan(SemiNaiveEvaluator evaluator,Rule rule,int mode,int deltaBodyIndex,Relation deltaRelation,Map<Relation,Range> ranges,HyperresolutionManager.BodyAtomsSwapper swapper) {
+            m_rule=rule;
+            m_mode=mode;
+            DLClause dlClause=rule.m_dlClause;
+            int bodyLength=dlClause.getBodyLength();
+            m_variables=new ArrayList<>();
+            m_relations=new Relation[bodyLength];
+            m_ranges=new Range[bodyLength];
+            m_rangeTypes=new int[bodyLength];
+            m_arguments=new int[bodyLength][];
+            m_bindsVariable=new boolean[bodyLength][];
+            m_isBound=new boolean[bodyLength][];
+            if (mode==REDERIVE) {
+                Atom headAtom=dlClause.getHeadAtom(0);
+                for (int argumentIndex=0;argumentIndex<headAtom.getArity();argumentIndex++) {
+                    Term argument=headAtom.getArgument(argumentIndex);
+                    if (argument instanceof Variable && !m_variables.contains(argument))
+                        m_variables.add((Variable)argument);
+                }
+            }
+            DLClause orderedDLClause=(swapper==null ? dlClause : swapper.getSwappedDLClause(deltaBodyIndex));
+            boolean[] usedBodyAtoms=new boolean[bodyLength];
+            int deltaStepIndex=-1;
+            for (int stepIndex=0;stepIndex<bodyLength;stepIndex++) {
+                Atom atom=orderedDLClause.getBodyAtom(stepIndex);
+                int bodyIndex=0;
+                while (usedBodyAtoms[bodyIndex] || !dlClause.getBodyAtom(bodyIndex).equals(atom))
+                    bodyIndex++;
+                usedBodyAtoms[bodyIndex]=true;
+                if (bodyIndex<deltaBodyIndex)
+                    m_rangeTypes[stepIndex]=RANGE_OLD;
+                else if (bodyIndex>deltaBodyIndex)
+                    m_rangeTypes[stepIndex]=RANGE_ALL;
+                else {
+                    m_rangeTypes[stepIndex]=RANGE_DELTA;
+                    deltaStepIndex=stepIndex;
+                }
+                if (bodyIndex==deltaBodyIndex && deltaRelation!=null)
+                    m_relations[stepIndex]=deltaRelation;
+                else
+                    m_relations[stepIndex]=evaluator.getRelation(atom.getDLPredicate());
+                if (ranges!=null)
+                    m_ranges[stepIndex]=ranges.get(m_relations[stepIndex]);
+                m_arguments[stepIndex]=new int[atom.getArity()];
+                m_bindsVariable[stepIndex]=new boolean[atom.getArity()];
+                m_isBound[stepIndex]=new boolean[atom.getArity()];
+                int numberOfBoundVariables=m_variables.size();
+                for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++) {
+                    Term argument=atom.getArgument(argumentIndex);
+                    if (argument instanceof Variable) {
+                        int variableIndex=m_variables.indexOf(argument);
+                        if (variableIndex==-1) {
+                            variableIndex=m_variables.size();
+                            m_variables.add((Variable)argument);
+                            m_bindsVariable[stepIndex][argumentIndex]=true;
+                        }
+                        m_arguments[stepIndex][argumentIndex]=variableIndex;
+                        // A variable that is bound by an earlier argument of the same atom is only checked.
+                        m_isBound[stepIndex][argumentIndex]=(variableIndex<numberOfBoundVariables);
+                    }
+                    else {
+                        m_arguments[stepIndex][argumentIndex]=evaluator.encodeTerm(argument);
+                        m_isBound[stepIndex][argumentIndex]=true;
+                    }
+                }
+            }
+            m_deltaStepIndex=deltaStepIndex;
+            if (dlClause.getHeadLength()==0)
+                m_headArguments=new int[0];
+            else {
+                Atom headAtom=dlClause.getHeadAtom(0);
+                int arity=Math.min(headAtom.getArity(),2);
+                m_headArguments=new int[arity];
+                for (int argumentIndex=0;argumentIndex<arity;argumentIndex++) {
+                    Term argument=headAtom.getArgument(argumentIndex);
+                    if (argument instanceof Variable)
+                        m_headArguments[argumentIndex]=m_variables.indexOf(argument);
+                    else
+                        m_headArguments[argumentIndex]=evaluator.encodeTerm(argument);
+                }
+            }
+            m_bindings=new int[m_variables.size()];
+        }
+        /**
+         * @param variable variable
+         * @return the index of the variable in the bindings, or -1 if the variable does not occur in the body
+         */
+        public int getVariableIndex(Variable variable) {
+            return m_variables.indexOf(variable);
+        }
+        /**
+         * @return true if the body atom that is matched to the delta has tuples in the delta
+         */
+        protected boolean hasDelta() {
+            Range range=m_ranges[m_deltaStepIndex];
+            return range==null || range.m_oldEnd<range.m_deltaEnd;
+        }
+        /**
+         * Binds the head variables of a rederivation plan to the terms of a tuple.
+         *
+         * @return false if the head cannot be unified with the tuple
+         */
+        protected boolean bindHeadArguments(SemiNaiveEvaluator evaluator,int term0,int term1) {
+            for (int position=0;position<m_headArguments.length;position++) {
+                int argument=m_headArguments[position];
+                int term=(position==0 ? term0 : term1);
+                if (argument>=0 && (position==0 || argument!=m_headArguments[0]))
+                    m_bindings[argument]=term;
+                else if (evaluator.getValue(argument,m_bindings)!=term)
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The tuples of a relation that a stratum evaluation treats as old, and those that form the delta of the current
+     * round.
+     */
+    protected static final class Range {
+        protected int m_oldEnd;
+        protected int m_deltaEnd;
+
+        public Range(int oldEnd,int deltaEnd) {
+            m_oldEnd=oldEnd;
+            m_deltaEnd=deltaEnd;
+        }
+    }
+
+    /**
+     * The tuples of one unary or binary predicate.
+     */
+    protected static final class Relation {
+        protected final Object m_predicate;
+        protected final int m_arity;
+        protected int[] m_tuples;
+        protected int m_numberOfTuples;
+        protected int[] m_tupleHashTable;
+        protected final int[][] m_chainTerms;
+        protected final int[][] m_chainFirstTuples;
+        protected final int[] m_numberOfChains;
+        protected final int[][] m_nextTuples;
+        protected int m_materializedEnd;
+
+        public Relation(Object predicate,int arity) {
+            m_predicate=predicate;
+            m_arity=arity;
+            m_tuples=new int[16*arity];
+            m_tupleHashTable=new int[32];
+            if (arity==2) {
+                m_chainTerms=new int[][] { new int[32],new int[32] };
+                m_chainFirstTuples=new int[][] { new int[32],new int[32] };
+                m_numberOfChains=new int[2];
+                m_nextTuples=new int[][] { new int[16],new int[16] };
+            }
+            else {
+                m_chainTerms=null;
+                m_chainFirstTuples=null;
+                m_numberOfChains=null;
+                m_nextTuples=null;
+            }
+        }
+        public int getTerm(int tupleIndex,int position) {
+            return m_tuples[tupleIndex*m_arity+position];
+        }
+        /**
+         * @return the index of the tuple, or -1 if the relation does not contain it; term1 is ignored for unary relations
+         */
+        public int getTupleIndex(int term0,int term1) {
+            int mask=m_tupleHashTable.length-1;
+            int slot=hash(term0,term1)&mask;
+            int entry;
+            while ((entry=m_tupleHashTable[slot])!=0) {
+                if (matches(entry-1,term0,term1))
+                    return entry-1;
+                slot=(slot+1)&mask;
+            }
+            return -1;
+        }
+        protected boolean matches(int tupleIndex,int term0,int term1) {
+            int offset=tupleIndex*m_arity;
+            return m_tuples[offset]==term0 && (m_arity==1 || m_tuples[offset+1]==term1);
+        }
+        protected int hash(int term0,int term1) {
+            int hashCode=(m_arity==1 ? term0 : term0*0x9E3779B9+term1);
+            hashCode*=0x85EBCA6B;
+            return hashCode^(hashCode>>>16);
+        }
+        /**
+         * @return true if the tuple was added, or false if the relation already contained it
+         */
+        public boolean add(int term0,int term1) {
+            int mask=m_tupleHashTable.length-1;
+            int slot=hash(term0,term1)&mask;
+            int entry;
+            while ((entry=m_tupleHashTable[slot])!=0) {
+                if (matches(entry-1,term0,term1))
+                    return false;
+                slot=(slot+1)&mask;
+            }
+            int tupleIndex=m_numberOfTuples;
+            if ((tupleIndex+1)*m_arity>m_tuples.length) {
+                m_tuples=Arrays.copyOf(m_tuples,m_tuples.length*2);
+                if (m_arity==2) {
+                    m_nextTuples[0]=Arrays.copyOf(m_nextTuples[0],m_nextTuples[0].length*2);
+                    m_nextTuples[1]=Arrays.copyOf(m_nextTuples[1],m_nextTuples[1].length*2);
+                }
+            }
+            m_tuples[tupleIndex*m_arity]=term0;
+            if (m_arity==2) {
+                m_tuples[tupleIndex*m_arity+1]=term1;
+                link(0,term0,tupleIndex);
+                link(1,term1,tupleIndex);
+            }
+            m_tupleHashTable[slot]=tupleIndex+1;
+            m_numberOfTuples++;
+            if (m_numberOfTuples*2>m_tupleHashTable.length)
+                resizeTupleHashTable();
+            return true;
+        }
+        /**
+         * Removes the tuples that are contained in the given relation, keeping the order of the remaining tuples.
+         */
+        public void removeTuples(Relation removedTuples) {
+            int[] tuples=m_tuples;
+            int numberOfTuples=m_numberOfTuples;
+            m_tuples=new int[tuples.length];
+            m_numberOfTuples=0;
+            m_tupleHashTable=new int[m_tupleHashTable.length];
+            if (m_arity==2)
+                for (int position=0;position<2;position++) {
+                    m_chainTerms[position]=new int[m_chainTerms[position].length];
+                    m_chainFirstTuples[position]=new int[m_chainFirstTuples[position].length];
+                    m_numberOfChains[position]=0;
+                    m_nextTuples[position]=new int[m_nextTuples[position].length];
+                }
+            for (int tupleIndex=0;tupleIndex<numberOfTuples;tupleIndex++) {
+                int term0=tuples[tupleIndex*m_arity];
+                int term1=(m_arity==1 ? 0 : tuples[tupleIndex*m_arity+1]);
+                if (removedTuples.getTupleIndex(term0,term1)==-1)
+                    add(term0,term1);
+            }
+        }
+        protected void resizeTupleHashTable() {
+            m_tupleHashTable=new int[m_tupleHashTable.length*2];
+            int mask=m_tupleHashTable.length-1;
+            for (int tupleIndex=0;tupleIndex<m_numberOfTuples;tupleIndex++) {
+                int offset=tupleIndex*m_arity;
+                int slot=hash(m_tuples[offset],m_arity==1 ? 0 : m_tuples[offset+1])&mask;
+                while (m_tupleHashTable[slot]!=0)
+                    slot=(slot+1)&mask;
+                m_tupleHashTable[slot]=tupleIndex+1;
+            }
+        }
+        /**
+         * @return the newest tuple with the term in the position, or -1 if there is none
+         */
+        public int getFirstTuple(int position,int term) {
+            int[] chainTerms=m_chainTerms[position];
+            int mask=chainTerms.length-1;
+            int slot=hash(term,0)&mask;
+            int chainTerm;
+            while ((chainTerm=chainTerms[slot])!=0) {
+                if (chainTerm==term+1)
+                    return m_chainFirstTuples[position][slot];
+                slot=(slot+1)&mask;
+            }
+            return -1;
+        }
+        /**
+         * @return the next older tuple with the same term in the position, or -1 if there is none
+         */
+        public int getNextTuple(int position,int tupleIndex) {
+            return m_nextTuples[position][tupleIndex];
+        }
+        protected void link(int position,int term,int tupleIndex) {
+            int[] chainTerms=m_chainTerms[position];
+            int mask=chainTerms.length-1;
+            int slot=hash(term,0)&mask;
+            int chainTerm;
+            while ((chainTerm=chainTerms[slot])!=0) {
+                if (chainTerm==term+1) {
+                    m_nextTuples[position][tupleIndex]=m_chainFirstTuples[position][slot];
+                    m_chainFirstTuples[position][slot]=tupleIndex;
+                    return;
+                }
+                slot=(slot+1)&mask;
+            }
+            chainTerms[slot]=term+1;
+            m_chainFirstTuples[position][slot]=tupleIndex;
+            m_nextTuples[position][tupleIndex]=-1;
+            m_numberOfChains[position]++;
+            if (m_numberOfChains[position]*2>chainTerms.length)
+                resizeChains(position);
+        }
+        protected void resizeChains(int position) {
+            int[] oldChainTerms=m_chainTerms[position];
+            int[] oldChainFirstTuples=m_chainFirstTuples[position];
+            int[] chainTerms=new int[oldChainTerms.length*2];
+            int[] chainFirstTuples=new int[oldChainTerms.length*2];
+            int mask=chainTerms.length-1;
+            for (int oldSlot=0;oldSlot<oldChainTerms.length;oldSlot++)
+                if (oldChainTerms[oldSlot]!=0) {
+                    int slot=hash(oldChainTerms[oldSlot]-1,0)&mask;
+                    while (chainTerms[slot]!=0)
+                        slot=(slot+1)&mask;
+                    chainTerms[slot]=oldChainTerms[oldSlot];
+                    chainFirstTuples[slot]=oldChainFirstTuples[oldSlot];
+                }
+            m_chainTerms[position]=chainTerms;
+            m_chainFirstTuples[position]=chainFirstTuples;
+        }
+    }
+
+    /**
+     * A strongly connected component of the dependency graph of the head predicates, together with the rules that
+     * derive its predicates.
+     */
+    protected static final class Stratum {
+        protected final List<Rule> m_rules;
+        protected int m_level;
+
+        public Stratum() {
+            m_rules=new ArrayList<>();
+        }
+    }
+
+    /**
+     * Computes the strata using Tarjan's algorithm, which produces each stratum after the strata it depends on.
+     */
+    protected final class StratumBuilder {
+        protected final Map<DLPredicate,List<Rule>> m_rulesByHeadPredicate;
+        protected final Map<DLPredicate,Integer> m_indexes;
+        protected final Map<DLPredicate,Integer> m_lowLinks;
+        protected final List<DLPredicate> m_stack;
+        protected final Set<DLPredicate> m_onStack;
+        protected final Map<DLPredicate,Stratum> m_strataByPredicate;
+        protected final List<Stratum> m_strata;
+
+        public StratumBuilder(Map<DLPredicate,List<Rule>> rulesByHeadPredicate) {
+            m_rulesByHeadPredicate=rulesByHeadPredicate;
+            m_indexes=new HashMap<>();
+            m_lowLinks=new HashMap<>();
+            m_stack=new ArrayList<>();
+            m_onStack=new HashSet<>();
+            m_strataByPredicate=new HashMap<>();
+            m_strata=new ArrayList<>();
+        }
+        protected Collection<DLPredicate> getDependencies(DLPredicate dlPredicate) {
+            Set<DLPredicate> dependencies=new HashSet<>();
+            for (Rule rule : m_rulesByHeadPredicate.get(dlPredicate))
+                for (int bodyIndex=0;bodyIndex<rule.m_dlClause.getBodyLength();bodyIndex++) {
+                    DLPredicate bodyPredicate=rule.m_dlClause.getBodyAtom(bodyIndex).getDLPredicate();
+                    if (m_rulesByHeadPredicate.containsKey(bodyPredicate))
+                        dependencies.add(bodyPredicate);
+                }
+            return dependencies;
+        }
+        protected void visit(DLPredicate dlPredicate) {
+            int index=m_indexes.size();
+            m_indexes.put(dlPredicate,Integer.valueOf(index));
+            m_lowLinks.put(dlPredicate,Integer.valueOf(index));
+            m_stack.add(dlPredicate);
+            m_onStack.add(dlPredicate);
+            for (DLPredicate dependency : getDependencies(dlPredicate)) {
+                if (!m_indexes.containsKey(dependency)) {
+                    visit(dependency);
+                    m_lowLinks.put(dlPredicate,Integer.valueOf(Math.min(m_lowLinks.get(dlPredicate).intValue(),m_lowLinks.get(dependency).intValue())));
+                }
+                else if (m_onStack.contains(dependency))
+                    m_lowLinks.put(dlPredicate,Integer.valueOf(Math.min(m_lowLinks.get(dlPredicate).intValue(),m_indexes.get(dependency).intValue())));
+            }
+            if (m_lowLinks.get(dlPredicate).intValue()==index) {
+                Stratum stratum=new Stratum();
+                List<DLPredicate> members=new ArrayList<>();
+                DLPredicate member;
+                do {
+                    member=m_stack.remove(m_stack.size()-1);
+                    m_onStack.remove(member);
+                    members.add(member);
+                    stratum.m_rules.addAll(m_rulesByHeadPredicate.get(member));
+                    m_strataByPredicate.put(member,stratum);
+                } while (member!=dlPredicate);
+                // The strata of all dependencies outside the stratum have been produced already.
+                for (DLPredicate stratumMember : members)
+                    for (DLPredicate dependency : getDependencies(stratumMember)) {
+                        Stratum dependencyStratum=m_strataByPredicate.get(dependency);
+                        if (dependencyStratum!=stratum)
+                            stratum.m_level=Math.max(stratum.m_level,dependencyStratum.m_level+1);
+                    }
+                m_strata.add(stratum);
+            }
+        }
+    }
+}
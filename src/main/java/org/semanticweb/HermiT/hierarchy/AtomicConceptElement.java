@@ -18,54 +18,53 @@
 
 package org.semanticweb.HermiT.hierarchy;
 
-import java.util.HashSet;
-import java.util.Set;
-
-import org.semanticweb.HermiT.model.Individual;
-/**AtomicConceptElement.*/
+/**
+ * The known and possible instances of an atomic concept. The instances are identified by the dense individual
+ * identifiers that are assigned by the instance manager.
+ */
 public class AtomicConceptElement {
     
-    protected final Set<Individual> m_knownInstances;
-    protected final Set<Individual> m_possibleInstances;
+    protected final CompressedBitmap m_knownInstances;
+    protected final CompressedBitmap m_possibleInstances;
     
     /**
      * @param known known
      * @param possible possible
      */
-    public AtomicConceptElement(Set<Individual> known, Set<Individual> possible) {
+    public AtomicConceptElement(CompressedBitmap known, CompressedBitmap possible) {
         if (known==null)
-            m_knownInstances=new HashSet<>();
+            m_knownInstances=new CompressedBitmap();
         else 
             m_knownInstances=known;
         if (possible==null)
-            m_possibleInstances=new HashSet<>();
+            m_possibleInstances=new CompressedBitmap();
         else 
             m_possibleInstances=possible;
     }
     /**
-     * @param individual individual
+     * @param individual individual identifier
      * @return true if known
      */
-    public boolean isKnown(Individual individual) {
+    public boolean isKnown(int individual) {
         return m_knownInstances.contains(individual);
     }
     /**
-     * @param individual individual
+     * @param individual individual identifier
      * @return true if possible
      */
-    public boolean isPossible(Individual individual) {
+    public boolean isPossible(int individual) {
         return m_possibleInstances.contains(individual);
     }
     /**
      * @return known instances
      */
-    public Set<Individual> getKnownInstances() {
+    public CompressedBitmap getKnownInstances() {
         return m_knownInstances;
     }
     /**
      * @return possible instances
      */
-    public Set<Individual> getPossibleInstances() {
+    public CompressedBitmap getPossibleInstances() {
         return m_possibleInstances;
     }
     /**
@@ -75,46 +74,28 @@ public class AtomicConceptElement {
         return !m_possibleInstances.isEmpty();
     }
     /**
-     * @param individual individual
+     * @param individual individual identifier
      */
-    public void setToKnown(Individual individual) {
+    public void setToKnown(int individual) {
         m_possibleInstances.remove(individual);
         m_knownInstances.add(individual);
     }
     /**
-     * @param individual individual
+     * @param individual individual identifier
      * @return true if added
      */
-    public boolean addPossible(Individual individual) {
+    public boolean addPossible(int individual) {
         return m_possibleInstances.add(individual);
     }
     /**
-     * @param individuals individuals
+     * @param individuals individual identifiers
      * @return true if added
      */
-    public boolean addPossibles(Set<Individual> individuals) {
+    public boolean addPossibles(CompressedBitmap individuals) {
         return m_possibleInstances.addAll(individuals);
     }
     @Override
     public String toString() {
-        StringBuilder buffer=new StringBuilder(" (known instances: ");
-        boolean notfirst=false;
-        for (Individual individual : m_knownInstances) {
-            if (notfirst) 
-                buffer.append(", ");
-            notfirst=true;
-            buffer.append(individual);
-        }
-        buffer.append(" | possible instances: ");
-        notfirst=false;
-        for (Individual individual : m_possibleInstances) {
-            if (notfirst) 
-                buffer.append(", ");
-            notfirst=true;
-            buffer.append(individual);
-        }
-        buffer.append(") ");
-        return buffer.toString();
+        return " (known instances: "+m_knownInstances+" | possible instances: "+m_possibleInstances+") ";
     }
 }
-
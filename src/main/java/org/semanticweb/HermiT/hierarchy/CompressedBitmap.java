@@ -0,0 +1,556 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.semanticweb.HermiT.hierarchy;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A set of non-negative integers that is stored in the style of roaring bitmaps. The integers are grouped by their
+ * upper 16 bits, and each group is stored in a container that is either a sorted array of the lower 16 bits or, if the
+ * group has more than 4096 elements, a bitmap of 65536 bits. The containers are kept sorted by their upper bits, so
+ * the set operations merge the containers of the two sets.
+ */
+public final class CompressedBitmap implements Serializable {
+    private static final long serialVersionUID=-3862178640561290532L;
+    protected static final int MAXIMUM_ARRAY_CARDINALITY=4096;
+    protected static final int BITMAP_LENGTH=1024;
+
+    protected int[] m_keys;
+    protected Object[] m_containers;
+    protected int[] m_cardinalities;
+    protected int m_numberOfContainers;
+    protected int m_cardinality;
+
+    /**
+     * Creates an empty bitmap.
+     */
+    public CompressedBitmap() {
+        m_keys=new int[4];
+        m_containers=new Object[4];
+        m_cardinalities=new int[4];
+    }
+    /**
+     * @param bitmap the bitmap whose elements are copied
+     */
+    public CompressedBitmap(CompressedBitmap bitmap) {
+        int capacity=Math.max(4,bitmap.m_numberOfContainers);
+        m_keys=Arrays.copyOf(bitmap.m_keys,capacity);
+        m_containers=new Object[capacity];
+        m_cardinalities=Arrays.copyOf(bitmap.m_cardinalities,capacity);
+        m_numberOfContainers=bitmap.m_numberOfContainers;
+        m_cardinality=bitmap.m_cardinality;
+        for (int index=0;index<m_numberOfContainers;index++)
+            m_containers[index]=copyContainer(bitmap.m_containers[index],bitmap.m_cardinalities[index]);
+    }
+    /**
+     * @return the number of elements
+     */
+    public int size() {
+        return m_cardinality;
+    }
+    /**
+     * @return true if the bitmap has no elements
+     */
+    public boolean isEmpty() {
+        return m_cardinality==0;
+    }
+    /**
+     * Removes all elements.
+     */
+    public void clear() {
+        Arrays.fill(m_containers,0,m_numberOfContainers,null);
+        m_numberOfContainers=0;
+        m_cardinality=0;
+    }
+    /**
+     * @param value value
+     * @return true if the bitmap contains the value
+     */
+    public boolean contains(int value) {
+        if (value<0)
+            return false;
+        int index=findContainer(value>>>16);
+        return index>=0 && containerContains(m_containers[index],m_cardinalities[index],(char)value);
+    }
+    /**
+     * @param value a non-negative value
+     * @return true if the value has been added
+     */
+    public boolean add(int value) {
+        if (value<0)
+            throw new IllegalArgumentException("Compressed bitmaps store only non-negative integers.");
+        char low=(char)value;
+        int index=findContainer(value>>>16);
+        if (index<0) {
+            insertContainer(-index-1,value>>>16,new char[] { low,0,0,0 },1);
+            m_cardinality++;
+            return true;
+        }
+        Object container=m_containers[index];
+        int cardinality=m_cardinalities[index];
+        if (container instanceof long[]) {
+            long[] words=(long[])container;
+            long mask=1L<<low;
+            if ((words[low>>>6] & mask)!=0)
+                return false;
+            words[low>>>6]|=mask;
+        }
+        else {
+            char[] values=(char[])container;
+            int position=Arrays.binarySearch(values,0,cardinality,low);
+            if (position>=0)
+                return false;
+            position=-position-1;
+            if (cardinality==MAXIMUM_ARRAY_CARDINALITY) {
+                long[] words=toBitmapContainer(values,cardinality);
+                words[low>>>6]|=1L<<low;
+                m_containers[index]=words;
+            }
+            else {
+                if (cardinality==values.length) {
+                    values=Arrays.copyOf(values,Math.min(MAXIMUM_ARRAY_CARDINALITY,cardinality*2));
+                    m_containers[index]=values;
+                }
+                System.arraycopy(values,position,values,position+1,cardinality-position);
+                values[position]=low;
+            }
+        }
+        m_cardinalities[index]=cardinality+1;
+        m_cardinality++;
+        return true;
+    }
+    /**
+     * @param value value
+     * @return true if the value has been removed
+     */
+    public boolean remove(int value) {
+        if (value<0)
+            return false;
+        int index=findContainer(value>>>16);
+        if (index<0)
+            return false;
+        char low=(char)value;
+        Object container=m_containers[index];
+        int cardinality=m_cardinalities[index];
+        if (container instanceof long[]) {
+            long[] words=(long[])container;
+            long mask=1L<<low;
+            if ((words[low>>>6] & mask)==0)
+                return false;
+            words[low>>>6]&=~mask;
+            if (cardinality-1<=MAXIMUM_ARRAY_CARDINALITY)
+                m_containers[index]=toArrayContainer(words,cardinality-1);
+        }
+        else {
+            char[] values=(char[])container;
+            int position=Arrays.binarySearch(values,0,cardinality,low);
+            if (position<0)
+                return false;
+            System.arraycopy(values,position+1,values,position,cardinality-position-1);
+        }
+        m_cardinality--;
+        if (cardinality==1)
+            removeContainer(index);
+        else
+            m_cardinalities[index]=cardinality-1;
+        return true;
+    }
+    /**
+     * @param bitmap bitmap
+     * @return true if this bitmap has been changed
+     */
+    public boolean addAll(CompressedBitmap bitmap) {
+        if (bitmap==this)
+            return false;
+        int oldCardinality=m_cardinality;
+        for (int otherIndex=0;otherIndex<bitmap.m_numberOfContainers;otherIndex++) {
+            int key=bitmap.m_keys[otherIndex];
+            Object otherContainer=bitmap.m_containers[otherIndex];
+            int otherCardinality=bitmap.m_cardinalities[otherIndex];
+            int index=findContainer(key);
+            if (index<0) {
+                insertContainer(-index-1,key,copyContainer(otherContainer,otherCardinality),otherCardinality);
+                m_cardinality+=otherCardinality;
+            }
+            else
+                replaceContainer(index,union(m_containers[index],m_cardinalities[index],otherContainer,otherCardinality));
+        }
+        return m_cardinality!=oldCardinality;
+    }
+    /**
+     * @param bitmap bitmap
+     * @return true if this bitmap has been changed
+     */
+    public boolean removeAll(CompressedBitmap bitmap) {
+        if (bitmap==this) {
+            boolean changed=!isEmpty();
+            clear();
+            return changed;
+        }
+        int oldCardinality=m_cardinality;
+        for (int index=m_numberOfContainers-1;index>=0;--index) {
+            int otherIndex=bitmap.findContainer(m_keys[index]);
+            if (otherIndex>=0)
+                replaceContainer(index,difference(m_containers[index],m_cardinalities[index],bitmap.m_containers[otherIndex],bitmap.m_cardinalities[otherIndex]));
+        }
+        return m_cardinality!=oldCardinality;
+    }
+    /**
+     * @param bitmap bitmap
+     * @return true if this bitmap has been changed
+     */
+    public boolean retainAll(CompressedBitmap bitmap) {
+        if (bitmap==this)
+            return false;
+        int oldCardinality=m_cardinality;
+        for (int index=m_numberOfContainers-1;index>=0;--index) {
+            int otherIndex=bitmap.findContainer(m_keys[index]);
+            if (otherIndex<0) {
+                m_cardinality-=m_cardinalities[index];
+                removeContainer(index);
+            }
+            else
+                replaceContainer(index,intersection(m_containers[index],m_cardinalities[index],bitmap.m_containers[otherIndex],bitmap.m_cardinalities[otherIndex]));
+        }
+        return m_cardinality!=oldCardinality;
+    }
+    /**
+     * @param bitmap bitmap
+     * @return true if the two bitmaps have a common element
+     */
+    public boolean intersects(CompressedBitmap bitmap) {
+        for (int index=0;index<m_numberOfContainers;index++) {
+            int otherIndex=bitmap.findContainer(m_keys[index]);
+            if (otherIndex>=0) {
+                Object container=m_containers[index];
+                Object otherContainer=bitmap.m_containers[otherIndex];
+                if (container instanceof long[] && otherContainer instanceof long[]) {
+                    long[] words=(long[])container;
+                    long[] otherWords=(long[])otherContainer;
+                    for (int wordIndex=0;wordIndex<BITMAP_LENGTH;wordIndex++)
+                        if ((words[wordIndex] & otherWords[wordIndex])!=0)
+                            return true;
+                }
+                else if (container instanceof char[]) {
+                    char[] values=(char[])container;
+                    for (int position=m_cardinalities[index]-1;position>=0;--position)
+                        if (containerContains(otherContainer,bitmap.m_cardinalities[otherIndex],values[position]))
+                            return true;
+                }
+                else {
+                    char[] otherValues=(char[])otherContainer;
+                    for (int position=bitmap.m_cardinalities[otherIndex]-1;position>=0;--position)
+                        if (containerContains(container,m_cardinalities[index],otherValues[position]))
+                            return true;
+                }
+            }
+        }
+        return false;
+    }
+    /**
+     * @return the smallest element, or -1 if the bitmap is empty
+     */
+    public int first() {
+        if (m_numberOfContainers==0)
+            return -1;
+        Object container=m_containers[0];
+        if (container instanceof char[])
+            return (m_keys[0]<<16) | ((char[])container)[0];
+        long[] words=(long[])container;
+        int wordIndex=0;
+        while (words[wordIndex]==0)
+            wordIndex++;
+        return (m_keys[0]<<16) | (wordIndex<<6) | Long.numberOfTrailingZeros(words[wordIndex]);
+    }
+    /**
+     * Calls the given consumer for all elements in increasing order. The bitmap must not be modified by the consumer.
+     *
+     * @param consumer consumer
+     */
+    public void forEach(IntConsumer consumer) {
+        for (int index=0;index<m_numberOfContainers;index++) {
+            int high=m_keys[index]<<16;
+            Object container=m_containers[index];
+            if (container instanceof char[]) {
+                char[] values=(char[])container;
+                for (int position=0;position<m_cardinalities[index];position++)
+                    consumer.accept(high | values[position]);
+            }
+            else {
+                long[] words=(long[])container;
+                for (int wordIndex=0;wordIndex<BITMAP_LENGTH;wordIndex++) {
+                    long word=words[wordIndex];
+                    while (word!=0) {
+                        consumer.accept(high | (wordIndex<<6) | Long.numberOfTrailingZeros(word));
+                        word&=word-1;
+                    }
+                }
+            }
+        }
+    }
+    /**
+     * @return the elements in increasing order
+     */
+    public int[] toArray() {
+        int[] result=new int[m_cardinality];
+        int[] position=new int[1];
+        forEach(value -> result[position[0]++]=value);
+        return result;
+    }
+    @Override
+    public boolean equals(Object that) {
+        if (this==that)
+            return true;
+        if (!(that instanceof CompressedBitmap))
+            return false;
+        CompressedBitmap bitmap=(CompressedBitmap)that;
+        if (m_cardinality!=bitmap.m_cardinality || m_numberOfContainers!=bitmap.m_numberOfContainers)
+            return false;
+        for (int index=0;index<m_numberOfContainers;index++) {
+            if (m_keys[index]!=bitmap.m_keys[index] || m_cardinalities[index]!=bitmap.m_cardinalities[index])
+                return false;
+            // the type of a container is determined by its cardinality
+            Object container=m_containers[index];
+            Object otherContainer=bitmap.m_containers[index];
+            if (container instanceof long[]) {
+                if (!Arrays.equals((long[])container,(long[])otherContainer))
+                    return false;
+            }
+            else {
+                char[] values=(char[])container;
+                char[] otherValues=(char[])otherContainer;
+                for (int position=m_cardinalities[index]-1;position>=0;--position)
+                    if (values[position]!=otherValues[position])
+                        return false;
+            }
+        }
+        return true;
+    }
+    @Override
+    public int hashCode() {
+        int[] hashCode=new int[1];
+        forEach(value -> hashCode[0]=hashCode[0]*31+value);
+        return hashCode[0];
+    }
+    @Override
+    public String toString() {
+        StringBuilder buffer=new StringBuilder("{");
+        forEach(value -> {
+            if (buffer.length()>1)
+                buffer.append(", ");
+            buffer.append(value);
+        });
+        return buffer.append('}').toString();
+    }
+    protected int findContainer(int key) {
+        return Arrays.binarySearch(m_keys,0,m_numberOfContainers,key);
+    }
+    protected void insertContainer(int index,int key,Object container,int cardinality) {
+        if (m_numberOfContainers==m_keys.length) {
+            int capacity=m_keys.length*2;
+            m_keys=Arrays.copyOf(m_keys,capacity);
+            m_containers=Arrays.copyOf(m_containers,capacity);
+            m_cardinalities=Arrays.copyOf(m_cardinalities,capacity);
+        }
+        System.arraycopy(m_keys,index,m_keys,index+1,m_numberOfContainers-index);
+        System.arraycopy(m_containers,index,m_containers,index+1,m_numberOfContainers-index);
+        System.arraycopy(m_cardinalities,index,m_cardinalities,index+1,m_numberOfContainers-index);
+        m_keys[index]=key;
+        m_containers[index]=container;
+        m_cardinalities[index]=cardinality;
+        m_numberOfContainers++;
+    }
+    protected void removeContainer(int index) {
+        m_numberOfContainers--;
+        System.arraycopy(m_keys,index+1,m_keys,index,m_numberOfContainers-index);
+        System.arraycopy(m_containers,index+1,m_containers,index,m_numberOfContainers-index);
+        System.arraycopy(m_cardinalities,index+1,m_cardinalities,index,m_numberOfContainers-index);
+        m_containers[m_numberOfContainers]=null;
+    }
+    /**
+     * Replaces the container at the given index with the result of a container operation. Array containers that are
+     * produced by the operations are full, and bitmap containers are converted to arrays if they became small enough.
+     */
+    protected void replaceContainer(int index,Object container) {
+        int cardinality;
+        if (container instanceof char[])
+            cardinality=((char[])container).length;
+        else {
+            long[] words=(long[])container;
+            cardinality=0;
+            for (int wordIndex=0;wordIndex<BITMAP_LENGTH;wordIndex++)
+                cardinality+=Long.bitCount(words[wordIndex]);
+            if (cardinality<=MAXIMUM_ARRAY_CARDINALITY)
+                container=toArrayContainer(words,cardinality);
+        }
+        m_cardinality+=cardinality-m_cardinalities[index];
+        if (cardinality==0)
+            removeContainer(index);
+        else {
+            m_containers[index]=container;
+            m_cardinalities[index]=cardinality;
+        }
+    }
+    protected static boolean containerContains(Object container,int cardinality,char low) {
+        if (container instanceof long[])
+            return (((long[])container)[low>>>6] & (1L<<low))!=0;
+        else
+            return Arrays.binarySearch((char[])container,0,cardinality,low)>=0;
+    }
+    protected static Object copyContainer(Object container,int cardinality) {
+        if (container instanceof long[])
+            return ((long[])container).clone();
+        else
+            return Arrays.copyOf((char[])container,cardinality);
+    }
+    protected static long[] toBitmapContainer(char[] values,int cardinality) {
+        long[] words=new long[BITMAP_LENGTH];
+        for (int position=0;position<cardinality;position++)
+            words[values[position]>>>6]|=1L<<values[position];
+        return words;
+    }
+    protected static char[] toArrayContainer(long[] words,int cardinality) {
+        char[] values=new char[cardinality];
+        int position=0;
+        for (int wordIndex=0;wordIndex<BITMAP_LENGTH;wordIndex++) {
+            long word=words[wordIndex];
+            while (word!=0) {
+                values[position++]=(char)((wordIndex<<6) | Long.numberOfTrailingZeros(word));
+                word&=word-1;
+            }
+        }
+        return values;
+    }
+    protected static Object union(Object container1,int cardinality1,Object container2,int cardinality2) {
+        if (container1 instanceof char[] && container2 instanceof char[]) {
+            char[] values1=(char[])container1;
+            char[] values2=(char[])container2;
+            if (cardinality1+cardinality2>MAXIMUM_ARRAY_CARDINALITY) {
+                long[] words=toBitmapContainer(values1,cardinality1);
+                for (int position=0;position<cardinality2;position++)
+                    words[values2[position]>>>6]|=1L<<values2[position];
+                return words;
+            }
+            char[] result=new char[cardinality1+cardinality2];
+            int position1=0;
+            int position2=0;
+            int resultPosition=0;
+            while (position1<cardinality1 && position2<cardinality2) {
+                char value1=values1[position1];
+                char value2=values2[position2];
+                if (value1<=value2) {
+                    result[resultPosition++]=value1;
+                    position1++;
+                    if (value1==value2)
+                        position2++;
+                }
+                else {
+                    result[resultPosition++]=value2;
+                    position2++;
+                }
+            }
+            while (position1<cardinality1)
+                result[resultPosition++]=values1[position1++];
+            while (position2<cardinality2)
+                result[resultPosition++]=values2[position2++];
+            return resultPosition==result.length ? result : Arrays.copyOf(result,resultPosition);
+        }
+        long[] words;
+        Object other;
+        int otherCardinality;
+        if (container1 instanceof long[]) {
+            // the containers of this bitmap can be updated in place
+            words=(long[])container1;
+            other=container2;
+            otherCardinality=cardinality2;
+        }
+        else {
+            words=((long[])container2).clone();
+            other=container1;
+            otherCardinality=cardinality1;
+        }
+        if (other instanceof long[]) {
+            long[] otherWords=(long[])other;
+            for (int wordIndex=0;wordIndex<BITMAP_LENGTH;wordIndex++)
+                words[wordIndex]|=otherWords[wordIndex];
+        }
+        else {
+            char[] otherValues=(char[])other;
+            for (int position=0;position<otherCardinality;position++)
+                words[otherValues[position]>>>6]|=1L<<otherValues[position];
+        }
+        return words;
+    }
+    protected static Object difference(Object container1,int cardinality1,Object container2,int cardinality2) {
+        if (container1 instanceof char[]) {
+            char[] values1=(char[])container1;
+            char[] result=new char[cardinality1];
+            int resultPosition=0;
+            for (int position=0;position<cardinality1;position++)
+                if (!containerContains(container2,cardinality2,values1[position]))
+                    result[resultPosition++]=values1[position];
+            return resultPosition==result.length ? result : Arrays.copyOf(result,resultPosition);
+        }
+        long[] words=(long[])container1;
+        if (container2 instanceof long[]) {
+            long[] words2=(long[])container2;
+            for (int wordIndex=0;wordIndex<BITMAP_LENGTH;wordIndex++)
+                words[wordIndex]&=~words2[wordIndex];
+        }
+        else {
+            char[] values2=(char[])container2;
+            for (int position=0;position<cardinality2;position++)
+                words[values2[position]>>>6]&=~(1L<<values2[position]);
+        }
+        return words;
+    }
+    protected static Object intersection(Object container1,int cardinality1,Object container2,int cardinality2) {
+        if (container1 instanceof long[] && container2 instanceof long[]) {
+            long[] words=(long[])container1;
+            long[] words2=(long[])container2;
+            for (int wordIndex=0;wordIndex<BITMAP_LENGTH;wordIndex++)
+                words[wordIndex]&=words2[wordIndex];
+            return words;
+        }
+        char[] values;
+        int cardinality;
+        Object other;
+        int otherCardinality;
+        if (container1 instanceof char[]) {
+            values=(char[])container1;
+            cardinality=cardinality1;
+            other=container2;
+            otherCardinality=cardinality2;
+        }
+        else {
+            values=(char[])container2;
+            cardinality=cardinality2;
+            other=container1;
+            otherCardinality=cardinality1;
+        }
+        char[] result=new char[cardinality];
+        int resultPosition=0;
+        for (int position=0;position<cardinality;position++)
+            if (containerContains(other,otherCardinality,values[position]))
+                result[resultPosition++]=values[position];
+        return resultPosition==result.length ? result : Arrays.copyOf(result,resultPosition);
+    }
+}
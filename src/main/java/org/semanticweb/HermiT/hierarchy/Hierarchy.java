@@ -17,13 +17,18 @@
 */
 package org.semanticweb.HermiT.hierarchy;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
@@ -164,6 +169,77 @@ public class Hierarchy<E> {
                 newHierarchy.m_nodesByElements.put(newElement,newNode);
         return newHierarchy;
     }
+    /**
+     * Writes this hierarchy in a compact form: the nodes are numbered (the top node first and the bottom node second),
+     * each node is written as its representative followed by its other equivalent elements, and the edges are written
+     * as the numbers of the parents of each node. The elements are written using writeObject().
+     *
+     * @param output output
+     * @throws IOException if the output cannot be written
+     */
+    public void writeTo(ObjectOutput output) throws IOException {
+        List<HierarchyNode<E>> nodes=new ArrayList<>();
+        Map<HierarchyNode<E>,Integer> nodeIndexes=new HashMap<>();
+        nodeIndexes.put(m_topNode,Integer.valueOf(nodes.size()));
+        nodes.add(m_topNode);
+        if (m_bottomNode!=m_topNode) {
+            nodeIndexes.put(m_bottomNode,Integer.valueOf(nodes.size()));
+            nodes.add(m_bottomNode);
+        }
+        for (HierarchyNode<E> node : m_nodesByElements.values())
+            if (!nodeIndexes.containsKey(node)) {
+                nodeIndexes.put(node,Integer.valueOf(nodes.size()));
+                nodes.add(node);
+            }
+        output.writeInt(nodes.size());
+        output.writeBoolean(m_bottomNode==m_topNode);
+        for (HierarchyNode<E> node : nodes) {
+            output.writeObject(node.m_representative);
+            output.writeInt(node.m_equivalentElements.size()-1);
+            for (E element : node.m_equivalentElements)
+                if (!element.equals(node.m_representative))
+                    output.writeObject(element);
+        }
+        for (HierarchyNode<E> node : nodes) {
+            output.writeInt(node.m_parentNodes.size());
+            for (HierarchyNode<E> parentNode : node.m_parentNodes)
+                output.writeInt(nodeIndexes.get(parentNode).intValue());
+        }
+    }
+    /**
+     * Reads a hierarchy that has been written by writeTo().
+     *
+     * @param input input
+     * @param <T> type
+     * @return the hierarchy
+     * @throws IOException if the input cannot be read
+     * @throws ClassNotFoundException if the class of an element cannot be found
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Hierarchy<T> readFrom(ObjectInput input) throws IOException,ClassNotFoundException {
+        int numberOfNodes=input.readInt();
+        boolean topIsBottom=input.readBoolean();
+        if (numberOfNodes<(topIsBottom ? 1 : 2))
+            throw new IOException("The hierarchy is malformed.");
+        List<HierarchyNode<T>> nodes=new ArrayList<>(numberOfNodes);
+        for (int nodeIndex=0;nodeIndex<numberOfNodes;nodeIndex++) {
+            HierarchyNode<T> node=new HierarchyNode<>((T)input.readObject());
+            for (int elementIndex=input.readInt();elementIndex>0;--elementIndex)
+                node.m_equivalentElements.add((T)input.readObject());
+            nodes.add(node);
+        }
+        for (HierarchyNode<T> node : nodes)
+            for (int parentIndex=input.readInt();parentIndex>0;--parentIndex) {
+                HierarchyNode<T> parentNode=nodes.get(input.readInt());
+                node.m_parentNodes.add(parentNode);
+                parentNode.m_childNodes.add(node);
+            }
+        Hierarchy<T> hierarchy=new Hierarchy<>(nodes.get(0),nodes.get(topIsBottom ? 0 : 1));
+        for (HierarchyNode<T> node : nodes)
+            for (T element : node.m_equivalentElements)
+                hierarchy.m_nodesByElements.put(element,node);
+        return hierarchy;
+    }
     /**
      * @param visitor visitor
      */
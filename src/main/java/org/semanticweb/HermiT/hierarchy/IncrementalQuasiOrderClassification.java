@@ -0,0 +1,113 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.semanticweb.HermiT.hierarchy;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.tableau.Node;
+import org.semanticweb.HermiT.tableau.Tableau;
+
+/**
+ * A variant of the Quasi Ordering Classification that reuses the hierarchy computed before the ontology was changed.
+ * The subsumers of the concepts that are not affected by the change are copied from the previous hierarchy and are
+ * never tested again; only the affected concepts (and the top concept) are classified. An element that does not occur
+ * in the previous hierarchy is always affected.
+ */
+public class IncrementalQuasiOrderClassification extends QuasiOrderClassification {
+    protected final Hierarchy<AtomicConcept> m_previousHierarchy;
+    protected final Set<AtomicConcept> m_affectedElements;
+
+    /**
+     * @param tableau tableau
+     * @param progressMonitor progressMonitor
+     * @param topElement topElement
+     * @param bottomElement bottomElement
+     * @param elements elements
+     * @param previousHierarchy the hierarchy of the ontology before the change
+     * @param affectedElements the elements whose subsumers may have been changed
+     */
+    public IncrementalQuasiOrderClassification(Tableau tableau,ClassificationProgressMonitor progressMonitor,AtomicConcept topElement,AtomicConcept bottomElement,Set<AtomicConcept> elements,Hierarchy<AtomicConcept> previousHierarchy,Set<AtomicConcept> affectedElements) {
+        super(tableau,progressMonitor,topElement,bottomElement,elements);
+        m_previousHierarchy=previousHierarchy;
+        m_affectedElements=new HashSet<>();
+        for (AtomicConcept element : elements)
+            if (element.equals(topElement) || (!element.equals(bottomElement) && (affectedElements.contains(element) || previousHierarchy.getNodeForElement(element)==null)))
+                m_affectedElements.add(element);
+    }
+    protected boolean isAffected(AtomicConcept element) {
+        return m_affectedElements.contains(element);
+    }
+    @Override
+    protected void initialiseKnownSubsumptionsUsingToldSubsumers() {
+        super.initialiseKnownSubsumptionsUsingToldSubsumers();
+        HierarchyNode<AtomicConcept> previousBottomNode=m_previousHierarchy.getBottomNode();
+        for (AtomicConcept element : m_elements) {
+            if (!element.equals(m_bottomElement) && !isAffected(element)) {
+                HierarchyNode<AtomicConcept> previousNode=m_previousHierarchy.getNodeForElement(element);
+                if (previousNode==previousBottomNode)
+                    makeConceptUnsatisfiable(element);
+                else
+                    for (HierarchyNode<AtomicConcept> ancestorNode : previousNode.getAncestorNodes())
+                        for (AtomicConcept superElement : ancestorNode.getEquivalentElements())
+                            if (!superElement.equals(element) && m_elements.contains(superElement))
+                                addKnownSubsumption(element,superElement);
+            }
+        }
+    }
+    @Override
+    protected double updateSubsumptionsUsingLeafNodeStrategy(double totalNumberOfTasks) {
+        double conceptsProcessed=0;
+        for (AtomicConcept element : m_elements)
+            if (!isAffected(element)) {
+                m_progressMonitor.elementClassified(element);
+                conceptsProcessed++;
+            }
+        for (AtomicConcept element : m_affectedElements) {
+            if (conceptsProcessed<Math.ceil(totalNumberOfTasks*0.85)) {
+                m_progressMonitor.elementClassified(element);
+                conceptsProcessed++;
+            }
+            if (!conceptHasBeenProcessedAlready(element)) {
+                Node rootNodeOfModel=buildModelForConcept(element);
+                if (rootNodeOfModel==null)
+                    makeConceptUnsatisfiable(element);
+                else {
+                    readKnownSubsumersFromRootNode(element,rootNodeOfModel);
+                    updatePossibleSubsumers();
+                }
+            }
+        }
+        return conceptsProcessed;
+    }
+    @Override
+    protected boolean conceptHasBeenProcessedAlready(AtomicConcept atConcept) {
+        return !isAffected(atConcept) || super.conceptHasBeenProcessedAlready(atConcept);
+    }
+    @Override
+    protected void prunePossibleSubsumersOfConcept(AtomicConcept atomicConcept,Node node) {
+        if (isAffected(atomicConcept))
+            super.prunePossibleSubsumersOfConcept(atomicConcept,node);
+    }
+    @Override
+    protected void readPossibleSubsumersFromNodeLabel(AtomicConcept atomicConcept,Node node) {
+        if (isAffected(atomicConcept))
+            super.readPossibleSubsumersFromNodeLabel(atomicConcept,node);
+    }
+}
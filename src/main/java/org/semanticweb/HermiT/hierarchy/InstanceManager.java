@@ -18,18 +18,22 @@
 
 package org.semanticweb.HermiT.hierarchy;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Future;
 
 import org.semanticweb.HermiT.Prefixes;
 import org.semanticweb.HermiT.Reasoner;
@@ -54,6 +58,7 @@ import org.semanticweb.HermiT.tableau.Node;
 import org.semanticweb.HermiT.tableau.NodeType;
 import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
 import org.semanticweb.HermiT.tableau.Tableau;
+import org.semanticweb.HermiT.tableau.WorkerPool;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLClass;
@@ -62,7 +67,15 @@ import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLNamedIndividual;
 import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.semanticweb.owlapi.reasoner.ReasonerProgressMonitor;
-/**InstanceManager.*/
+
+import gnu.trove.impl.Constants;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+/**
+ * Manages the known and possible instances of classes and object properties. Each individual is identified by its
+ * position in the array of all individuals, and the sets of individuals are stored as compressed bitmaps of these
+ * identifiers.
+ */
 public class InstanceManager {
     /**threshold*/
     public static final int thresholdForAdditionalAxioms=10000;
@@ -71,6 +84,8 @@ public class InstanceManager {
     protected final Reasoner m_reasoner;
     protected final TableauMonitor m_tableauMonitor;
     protected final Individual[] m_individuals;
+    protected final TObjectIntHashMap<Individual> m_individualIDs;
+    protected final CompressedBitmap m_resultRelevantIndividuals;
     protected final HashSet<AtomicRole> m_complexRoles;
     protected final Map<AtomicConcept,AtomicConceptElement> m_conceptToElement;
     protected final AtomicConcept m_topConcept;
@@ -82,7 +97,7 @@ public class InstanceManager {
     protected Hierarchy<RoleElement> m_currentRoleHierarchy;
     protected final boolean m_usesInverseRoles;
     protected final Map<Individual, Node> m_nodesForIndividuals;
-    protected final Map<Node,Individual> m_individualsForNodes;
+    protected final Map<Node,Integer> m_individualsForNodes;
     protected final Map<Node,Set<Node>> m_canonicalNodeToDetMergedNodes;
     protected final Map<Node,Set<Node>> m_canonicalNodeToNonDetMergedNodes;
     protected boolean m_isInconsistent;
@@ -93,8 +108,8 @@ public class InstanceManager {
     protected boolean m_propertiesInitialised;
     protected boolean m_readingOffFoundPossibleConceptInstance;
     protected boolean m_readingOffFoundPossiblePropertyInstance;
-    protected final Map<Individual,Set<Individual>> m_individualToEquivalenceClass;
-    protected Map<Set<Individual>,Set<Set<Individual>>> m_individualToPossibleEquivalenceClass;
+    protected final CompressedBitmap[] m_individualToEquivalenceClass;
+    protected Map<CompressedBitmap,Set<CompressedBitmap>> m_individualToPossibleEquivalenceClass;
     protected final ExtensionTable.Retrieval m_binaryRetrieval0Bound;
     protected final ExtensionTable.Retrieval m_binaryRetrieval1Bound;
     protected final ExtensionTable.Retrieval m_ternaryRetrieval1Bound;
@@ -114,14 +129,19 @@ public class InstanceManager {
             m_tableauMonitor=m_reasoner.getTableau().getTableauMonitor();
             DLOntology dlo=m_reasoner.getDLOntology();
             m_individuals=new ArrayList<>(dlo.getAllIndividuals()).toArray(new Individual[0]);
+            m_individualIDs=new TObjectIntHashMap<>(m_individuals.length,Constants.DEFAULT_LOAD_FACTOR,-1);
+            m_resultRelevantIndividuals=new CompressedBitmap();
             m_complexRoles=new HashSet<>();
-            m_individualToEquivalenceClass=new HashMap<>();
+            m_individualToEquivalenceClass=new CompressedBitmap[m_individuals.length];
             m_nodesForIndividuals=new HashMap<>();
-            for (Individual individual : m_individuals) {
-                m_nodesForIndividuals.put(individual,null);
-                Set<Individual> equivalentIndividuals=new HashSet<>();
+            for (int individual=0;individual<m_individuals.length;individual++) {
+                m_individualIDs.put(m_individuals[individual],individual);
+                if (isResultRelevantIndividual(m_individuals[individual]))
+                    m_resultRelevantIndividuals.add(individual);
+                m_nodesForIndividuals.put(m_individuals[individual],null);
+                CompressedBitmap equivalentIndividuals=new CompressedBitmap();
                 equivalentIndividuals.add(individual);
-                m_individualToEquivalenceClass.put(individual, equivalentIndividuals);
+                m_individualToEquivalenceClass[individual]=equivalentIndividuals;
                 m_interruptFlag.checkInterrupt();
             }
             m_individualsForNodes=new HashMap<>();
@@ -255,14 +275,14 @@ public class InstanceManager {
                 for (HierarchyNode<AtomicConcept> node : m_currentConceptHierarchy.getAllNodesSet()) {
                     if (node.m_representative!=m_bottomConcept) {
                         AtomicConcept representativeConcept=node.getRepresentative();
-                        Set<Individual> known=new HashSet<>();
-                        Set<Individual> possible=null;
+                        CompressedBitmap known=new CompressedBitmap();
+                        CompressedBitmap possible=null;
                         for (AtomicConcept concept : node.getEquivalentElements()) {
                             if (m_conceptToElement.containsKey(concept)) {
                                 AtomicConceptElement element=m_conceptToElement.get(concept);
                                 known.addAll(element.m_knownInstances);
                                 if (possible==null)
-                                    possible=new HashSet<>(element.m_possibleInstances);
+                                    possible=new CompressedBitmap(element.m_possibleInstances);
                                 else
                                     possible.retainAll(element.m_possibleInstances);
                                 m_conceptToElement.remove(concept);
@@ -331,8 +351,16 @@ public class InstanceManager {
                 RoleElement representative=transform(oldRepresentative);
                 for (RoleElement newEquiv : newEquivalentElements) {
                     if (!newEquiv.equals(representative)) {
-                        newEquiv.m_knownRelations.forEach((individual, set)->representative.m_knownRelations.computeIfAbsent(individual, x->new HashSet<>()).addAll(set));
-                        newEquiv.m_possibleRelations.forEach((individual, set)->Optional.ofNullable(representative.m_possibleRelations.get(individual)).ifPresent(s->s.retainAll(set)));
+                        for (int individual : newEquiv.m_knownRelations.keys())
+                            representative.addKnowns(individual, newEquiv.m_knownRelations.get(individual));
+                        for (int individual : newEquiv.m_possibleRelations.keys()) {
+                            CompressedBitmap successors=representative.m_possibleRelations.get(individual);
+                            if (successors!=null) {
+                                successors.retainAll(newEquiv.m_possibleRelations.get(individual));
+                                if (successors.isEmpty())
+                                    representative.m_possibleRelations.remove(individual);
+                            }
+                        }
                         newEquiv.m_knownRelations.clear();
                         newEquiv.m_possibleRelations.clear();
                     }
@@ -387,30 +415,9 @@ public class InstanceManager {
                 ancestors.remove(current);
                 for (HierarchyNode<RoleElement> ancestor : ancestors) {
                     RoleElement ancestorRepresentative=ancestor.m_representative;
-                    Map<Individual,Set<Individual>> ancestorKnowRelations=ancestorRepresentative.m_knownRelations;
-                    Map<Individual,Set<Individual>> ancestorPossibleRelations=ancestorRepresentative.m_possibleRelations;
-                    currentRepresentative.m_knownRelations.forEach((individual, set)->{
-                        Set<Individual> successors=ancestorKnowRelations.get(individual);
-                        if (successors!=null) {
-                            successors.removeAll(set);
-                            if (successors.isEmpty())
-                                ancestorKnowRelations.remove(individual);
-                        }
-                        successors=ancestorPossibleRelations.get(individual);
-                        if (successors!=null) {
-                            successors.removeAll(set);
-                            if (successors.isEmpty())
-                                ancestorPossibleRelations.remove(individual);
-                        }
-                    });
-                    currentRepresentative.m_possibleRelations.forEach((individual, set)->{
-                        Set<Individual> successors=ancestorPossibleRelations.get(individual);
-                        if (successors!=null) {
-                            successors.removeAll(set);
-                            if (successors.isEmpty())
-                                ancestorPossibleRelations.remove(individual);
-                        }
-                    });
+                    removeRelations(ancestorRepresentative.m_knownRelations,currentRepresentative.m_knownRelations);
+                    removeRelations(ancestorRepresentative.m_possibleRelations,currentRepresentative.m_knownRelations);
+                    removeRelations(ancestorRepresentative.m_possibleRelations,currentRepresentative.m_possibleRelations);
                 }
                 for (HierarchyNode<RoleElement> parent : current.getParentNodes())
                     if (!toProcess.contains(parent))
@@ -419,6 +426,16 @@ public class InstanceManager {
             }
         }
     }
+    protected static void removeRelations(TIntObjectHashMap<CompressedBitmap> relations,TIntObjectHashMap<CompressedBitmap> relationsToRemove) {
+        for (int individual : relationsToRemove.keys()) {
+            CompressedBitmap successors=relations.get(individual);
+            if (successors!=null) {
+                successors.removeAll(relationsToRemove.get(individual));
+                if (successors.isEmpty())
+                    relations.remove(individual);
+            }
+        }
+    }
     protected void findNextHierarchyNodeWithAtomic(Set<AtomicRole> atomicRepresentatives, HierarchyNode<Role> current) {
         for (HierarchyNode<Role> successor : current.getParentNodes()) {
             Set<AtomicRole> suitable=new HashSet<>();
@@ -502,10 +519,122 @@ public class InstanceManager {
             }
         }
     }
-    protected int readOffClassInstancesByIndividual(ReasonerProgressMonitor monitor, int _completedSteps, int steps) {
+    /**
+     * Initialises the class instances after a change of the ABox that affects only the given individuals. The known and
+     * possible instances of all other individuals are copied from the instance manager of the ABox before the change,
+     * which must have been created for the same classified concept hierarchy; the types of the affected individuals are
+     * read off the nodes in getNodesForIndividuals(), which must have been set by a tableau run over the affected
+     * individuals.
+     *
+     * @param previousInstanceManager the instance manager of the ABox before the change
+     * @param affectedIndividuals the individuals whose types may have been changed
+     */
+    public void initializeKnowAndPossibleClassInstances(InstanceManager previousInstanceManager,Set<Individual> affectedIndividuals) {
+        if (!m_usesClassifiedConceptHierarchy || m_currentConceptHierarchy!=previousInstanceManager.m_currentConceptHierarchy)
+            throw new IllegalArgumentException("The instance data can be reused only for the same classified concept hierarchy.");
+        m_interruptFlag.startTask();
+        try {
+            CompressedBitmap individuals=new CompressedBitmap();
+            for (int individual=0;individual<m_individuals.length;individual++)
+                if (affectedIndividuals.contains(m_individuals[individual]))
+                    individuals.add(individual);
+            int[] individualIDs=individuals.toArray();
+            initializeIndividualsForNodes(individualIDs);
+            initializeSameAs();
+            // the identifiers of the individuals change if the set of individuals has changed
+            int[] newIDs=getNewIndividualIDs(previousInstanceManager.m_individuals);
+            Map<CompressedBitmap,CompressedBitmap> newEquivalenceClasses=new IdentityHashMap<>();
+            for (int previousIndividual=0;previousIndividual<previousInstanceManager.m_individuals.length;previousIndividual++) {
+                int individual=(newIDs==null ? previousIndividual : newIDs[previousIndividual]);
+                if (individual>=0 && !individuals.contains(individual))
+                    m_individualToEquivalenceClass[individual]=getNewEquivalenceClass(previousInstanceManager.m_individualToEquivalenceClass[previousIndividual],newIDs,newEquivalenceClasses);
+            }
+            for (Map.Entry<CompressedBitmap,Set<CompressedBitmap>> entry : previousInstanceManager.m_individualToPossibleEquivalenceClass.entrySet()) {
+                CompressedBitmap equivalenceClass=getNewEquivalenceClass(entry.getKey(),newIDs,newEquivalenceClasses);
+                if (!equivalenceClass.intersects(individuals)) {
+                    Set<CompressedBitmap> possibleEquivalenceClasses=createEquivalenceClassSet();
+                    for (CompressedBitmap possibleEquivalenceClass : entry.getValue())
+                        possibleEquivalenceClasses.add(getNewEquivalenceClass(possibleEquivalenceClass,newIDs,newEquivalenceClasses));
+                    m_individualToPossibleEquivalenceClass.put(equivalenceClass,possibleEquivalenceClasses);
+                }
+            }
+            m_conceptToElement.clear();
+            for (Map.Entry<AtomicConcept,AtomicConceptElement> entry : previousInstanceManager.m_conceptToElement.entrySet()) {
+                CompressedBitmap knownInstances=getNewIndividuals(entry.getValue().m_knownInstances,newIDs);
+                knownInstances.removeAll(individuals);
+                CompressedBitmap possibleInstances=getNewIndividuals(entry.getValue().m_possibleInstances,newIDs);
+                possibleInstances.removeAll(individuals);
+                if (!knownInstances.isEmpty() || !possibleInstances.isEmpty() || entry.getKey().equals(m_topConcept))
+                    m_conceptToElement.put(entry.getKey(),new AtomicConceptElement(knownInstances,possibleInstances));
+                m_interruptFlag.checkInterrupt();
+            }
+            m_readingOffFoundPossibleConceptInstance=false;
+            readOffClassInstancesByIndividual(individualIDs,null,0,0);
+            m_realizationCompleted=previousInstanceManager.m_realizationCompleted && !m_readingOffFoundPossibleConceptInstance;
+            m_readingOffFoundPossibleConceptInstance|=previousInstanceManager.m_readingOffFoundPossibleConceptInstance;
+            m_classesInitialised=true;
+            m_individualsForNodes.clear();
+            m_canonicalNodeToDetMergedNodes.clear();
+            m_canonicalNodeToNonDetMergedNodes.clear();
+        } finally {
+            m_interruptFlag.endTask();
+        }
+    }
+    /**
+     * @param individuals the individuals of another instance manager
+     * @return the identifiers of the given individuals in this instance manager, where individuals that this instance
+     *         manager does not know have identifier -1, or null if the identifiers are the same
+     */
+    protected int[] getNewIndividualIDs(Individual[] individuals) {
+        if (Arrays.equals(individuals,m_individuals))
+            return null;
+        int[] newIDs=new int[individuals.length];
+        for (int individual=0;individual<individuals.length;individual++)
+            newIDs[individual]=getIndividualID(individuals[individual]);
+        return newIDs;
+    }
+    protected static CompressedBitmap getNewIndividuals(CompressedBitmap individuals,int[] newIDs) {
+        if (newIDs==null)
+            return new CompressedBitmap(individuals);
+        CompressedBitmap result=new CompressedBitmap();
+        individuals.forEach(individual -> {
+            if (newIDs[individual]>=0)
+                result.add(newIDs[individual]);
+        });
+        return result;
+    }
+    protected static CompressedBitmap getNewEquivalenceClass(CompressedBitmap equivalenceClass,int[] newIDs,Map<CompressedBitmap,CompressedBitmap> newEquivalenceClasses) {
+        // the equivalence classes are shared between individuals, so each of them is mapped only once
+        CompressedBitmap newEquivalenceClass=newEquivalenceClasses.get(equivalenceClass);
+        if (newEquivalenceClass==null) {
+            newEquivalenceClass=getNewIndividuals(equivalenceClass,newIDs);
+            newEquivalenceClasses.put(equivalenceClass,newEquivalenceClass);
+        }
+        return newEquivalenceClass;
+    }
+    protected static TIntObjectHashMap<CompressedBitmap> getNewRelations(TIntObjectHashMap<CompressedBitmap> relations,int[] newIDs) {
+        if (newIDs==null)
+            return relations;
+        TIntObjectHashMap<CompressedBitmap> result=new TIntObjectHashMap<>();
+        for (int individual : relations.keys())
+            if (newIDs[individual]>=0) {
+                CompressedBitmap successors=getNewIndividuals(relations.get(individual),newIDs);
+                if (!successors.isEmpty())
+                    result.put(newIDs[individual],successors);
+            }
+        return result;
+    }
+    protected static Set<CompressedBitmap> createEquivalenceClassSet() {
+        // the equivalence classes are modified while they are stored in sets, so they are compared by identity
+        return Collections.newSetFromMap(new IdentityHashMap<CompressedBitmap,Boolean>());
+    }
+    protected int readOffClassInstancesByIndividual(ReasonerProgressMonitor monitor, int completedSteps, int steps) {
+        return readOffClassInstancesByIndividual(getAllIndividualIDs(), monitor, completedSteps, steps);
+    }
+    protected int readOffClassInstancesByIndividual(int[] individuals, ReasonerProgressMonitor monitor, int _completedSteps, int steps) {
         int completedSteps=_completedSteps;
-        for (Individual ind : m_individuals) {
-            Node nodeForIndividual=m_nodesForIndividuals.get(ind);
+        for (int ind : individuals) {
+            Node nodeForIndividual=m_nodesForIndividuals.get(m_individuals[ind]);
             // read of concept instances and normal role instances only once, we don't slice that
             boolean hasType=readOffTypes(ind,nodeForIndividual);
             if (!hasType) {
@@ -558,8 +687,7 @@ public class InstanceManager {
         // first round we go over all individuals
         int endIndex=(startIndividualIndex==0) ? m_individuals.length : m_currentIndividualIndex;
         for (int index=startIndividualIndex;index<endIndex;index++) {
-            Individual ind=m_individuals[index];
-            Node nodeForIndividual=m_nodesForIndividuals.get(ind);
+            Node nodeForIndividual=m_nodesForIndividuals.get(m_individuals[index]);
             if (startIndividualIndex==0) {
                 // read of normal role instances only once, we don't slice that
                 // if the node was merged, we don't read off anything, this is handled, when we process the canonical node for the merged one
@@ -571,15 +699,24 @@ public class InstanceManager {
             }
             // read-off complex role instances only for the slice for which extra axioms have been added
             if (index<m_currentIndividualIndex)
-                completedSteps=readOffComplexRoleSuccessors(ind, monitor, completedSteps, steps);
+                completedSteps=readOffComplexRoleSuccessors(index, monitor, completedSteps, steps);
             m_interruptFlag.checkInterrupt();
         }
         return completedSteps;
     }
+    protected int[] getAllIndividualIDs() {
+        int[] individuals=new int[m_individuals.length];
+        for (int individual=0;individual<individuals.length;individual++)
+            individuals[individual]=individual;
+        return individuals;
+    }
     protected void initializeIndividualsForNodes() {
-        for (Individual ind : m_individuals) {
-            Node node=m_nodesForIndividuals.get(ind);
-            m_individualsForNodes.put(node, ind);
+        initializeIndividualsForNodes(getAllIndividualIDs());
+    }
+    protected void initializeIndividualsForNodes(int[] individuals) {
+        for (int ind : individuals) {
+            Node node=m_nodesForIndividuals.get(m_individuals[ind]);
+            m_individualsForNodes.put(node, Integer.valueOf(ind));
             if (node.isMerged()) {
                 Node canonicalNode=node.getCanonicalNode();
                 if (node.getCanonicalNodeDependencySet()==null) {
@@ -604,22 +741,24 @@ public class InstanceManager {
         }
     }
     protected void initializeSameAs() {
-        m_individualToPossibleEquivalenceClass=new HashMap<>();
-        for (Node node : m_individualsForNodes.keySet()) {
-            Node mergedInto=node.getMergedInto();
+        m_individualToPossibleEquivalenceClass=new IdentityHashMap<>();
+        for (Map.Entry<Node,Integer> entry : m_individualsForNodes.entrySet()) {
+            Node mergedInto=entry.getKey().getMergedInto();
             if (mergedInto!=null) {
-                Individual individual1=m_individualsForNodes.get(node);
-                Individual individual2=m_individualsForNodes.get(mergedInto);
-                Set<Individual> individual1Equivalences=m_individualToEquivalenceClass.get(individual1);
-                Set<Individual> individual2Equivalences=m_individualToEquivalenceClass.get(individual2);
-                if (node.getMergedIntoDependencySet().isEmpty()) {
-                    individual1Equivalences.addAll(individual2Equivalences);
-                    m_individualToEquivalenceClass.put(individual2, individual1Equivalences);
+                int individual1=entry.getValue().intValue();
+                int individual2=m_individualsForNodes.get(mergedInto).intValue();
+                CompressedBitmap individual1Equivalences=m_individualToEquivalenceClass[individual1];
+                CompressedBitmap individual2Equivalences=m_individualToEquivalenceClass[individual2];
+                if (entry.getKey().getMergedIntoDependencySet().isEmpty()) {
+                    if (individual1Equivalences!=individual2Equivalences) {
+                        individual1Equivalences.addAll(individual2Equivalences);
+                        individual2Equivalences.forEach(individual -> m_individualToEquivalenceClass[individual]=individual1Equivalences);
+                    }
                 }
                 else {
-                    Set<Set<Individual>> possibleEquivalenceClasses=m_individualToPossibleEquivalenceClass.get(individual1Equivalences);
+                    Set<CompressedBitmap> possibleEquivalenceClasses=m_individualToPossibleEquivalenceClass.get(individual1Equivalences);
                     if (possibleEquivalenceClasses==null) {
-                        possibleEquivalenceClasses=new HashSet<>();
+                        possibleEquivalenceClasses=createEquivalenceClassSet();
                         m_individualToPossibleEquivalenceClass.put(individual1Equivalences,possibleEquivalenceClasses);
                     }
                     possibleEquivalenceClasses.add(individual2Equivalences);
@@ -628,7 +767,7 @@ public class InstanceManager {
             m_interruptFlag.checkInterrupt();
         }
     }
-    protected boolean readOffTypes(Individual ind, Node nodeForIndividual) {
+    protected boolean readOffTypes(int ind, Node nodeForIndividual) {
         boolean hasBeenAdded=false;
         m_binaryRetrieval1Bound.getBindingsBuffer()[1]=nodeForIndividual.getCanonicalNode();
         m_binaryRetrieval1Bound.open();
@@ -690,9 +829,9 @@ public class InstanceManager {
                         possiblyEquivalentToSuccessor=new HashSet<>();
                     
                     for (Node sourceNode : equivalentToNode) {
-                        Individual sourceIndividual=m_individualsForNodes.get(sourceNode);
+                        int sourceIndividual=m_individualsForNodes.get(sourceNode).intValue();
                         for (Node targetNode : equivalentToSuccessor) {
-                            Individual targetIndividual=m_individualsForNodes.get(targetNode);
+                            int targetIndividual=m_individualsForNodes.get(targetNode).intValue();
                             if (m_ternaryRetrieval1Bound.getDependencySet().isEmpty()) {
                                 addKnownRoleInstance(representative, sourceIndividual, targetIndividual);
                             } else {
@@ -701,17 +840,17 @@ public class InstanceManager {
                             }
                         }
                         for (Node targetNode : possiblyEquivalentToSuccessor) {
-                            Individual targetIndividual=m_individualsForNodes.get(targetNode);
+                            int targetIndividual=m_individualsForNodes.get(targetNode).intValue();
                             m_readingOffFoundPossiblePropertyInstance=true;
                             addPossibleRoleInstance(representative, sourceIndividual, targetIndividual);
                         }
                     }
 
                     for (Node sourceNode : new ArrayList<>(possiblyEquivalentToNode)) {
-                        Individual sourceIndividual=m_individualsForNodes.get(sourceNode);
+                        int sourceIndividual=m_individualsForNodes.get(sourceNode).intValue();
                         possiblyEquivalentToSuccessor.addAll(equivalentToSuccessor);
                         for (Node targetNode : possiblyEquivalentToSuccessor) {
-                            Individual targetIndividual=m_individualsForNodes.get(targetNode);
+                            int targetIndividual=m_individualsForNodes.get(targetNode).intValue();
                             m_readingOffFoundPossiblePropertyInstance=true;
                             addPossibleRoleInstance(representative, sourceIndividual, targetIndividual);
                         }
@@ -722,9 +861,9 @@ public class InstanceManager {
             m_ternaryRetrieval1Bound.next();
         }
     }
-    protected int readOffComplexRoleSuccessors(Individual ind, ReasonerProgressMonitor monitor, int _completedSteps, int steps) {
+    protected int readOffComplexRoleSuccessors(int ind, ReasonerProgressMonitor monitor, int _completedSteps, int steps) {
         int completedSteps=_completedSteps;
-        String indIRI=ind.getIRI();
+        String indIRI=m_individuals[ind].getIRI();
         AtomicConcept conceptForRole;
         for (AtomicRole atomicRole : m_complexRoles) {
             conceptForRole=AtomicConcept.create("internal:individual-concept#"+atomicRole.getIRI()+"#"+indIRI);
@@ -745,7 +884,7 @@ public class InstanceManager {
                     if (possiblyEquivalentToSuccessor==null)
                         possiblyEquivalentToSuccessor=new HashSet<>();
                     for (Node targetNode : equivalentToSuccessor) {
-                        Individual targetIndividual=m_individualsForNodes.get(targetNode);
+                        int targetIndividual=m_individualsForNodes.get(targetNode).intValue();
                         if (m_binaryRetrieval0Bound.getDependencySet().isEmpty()) {
                             addKnownRoleInstance(representative, ind, targetIndividual);
                         } else {
@@ -754,7 +893,7 @@ public class InstanceManager {
                         }
                     }
                     for (Node targetNode : possiblyEquivalentToSuccessor) {
-                        Individual targetIndividual=m_individualsForNodes.get(targetNode);
+                        int targetIndividual=m_individualsForNodes.get(targetNode).intValue();
                         m_readingOffFoundPossiblePropertyInstance=true;
                         addPossibleRoleInstance(representative, ind, targetIndividual);
                     }
@@ -768,7 +907,7 @@ public class InstanceManager {
         }
         return completedSteps;
     }
-    protected void addKnownConceptInstance(HierarchyNode<AtomicConcept> currentNode, AtomicConceptElement element, Individual instance) {
+    protected void addKnownConceptInstance(HierarchyNode<AtomicConcept> currentNode, AtomicConceptElement element, int instance) {
         Set<HierarchyNode<AtomicConcept>> nodes=currentNode.getDescendantNodes();
         for (HierarchyNode<AtomicConcept> node : nodes) {
             AtomicConceptElement descendantElement=m_conceptToElement.get(node.getRepresentative());
@@ -787,7 +926,7 @@ public class InstanceManager {
             }
         }
     }
-    protected void addPossibleConceptInstance(HierarchyNode<AtomicConcept> currentNode, AtomicConceptElement element, Individual instance) {
+    protected void addPossibleConceptInstance(HierarchyNode<AtomicConcept> currentNode, AtomicConceptElement element, int instance) {
         Set<HierarchyNode<AtomicConcept>> nodes=currentNode.getDescendantNodes();
         for (HierarchyNode<AtomicConcept> node : nodes) {
             AtomicConceptElement descendantElement=m_conceptToElement.get(node.getRepresentative());
@@ -808,7 +947,7 @@ public class InstanceManager {
             m_interruptFlag.checkInterrupt();
         }
     }
-    protected void addKnownRoleInstance(RoleElement element, Individual individual1, Individual individual2) {
+    protected void addKnownRoleInstance(RoleElement element, int individual1, int individual2) {
         if (!element.equals(m_topRoleElement)) {
             HierarchyNode<RoleElement> currentNode=m_currentRoleHierarchy.getNodeForElement(element);
             Set<HierarchyNode<RoleElement>> nodes=currentNode.getDescendantNodes();
@@ -828,7 +967,7 @@ public class InstanceManager {
             }
         }
     }
-    protected void addPossibleRoleInstance(RoleElement element, Individual individual1, Individual individual2) {
+    protected void addPossibleRoleInstance(RoleElement element, int individual1, int individual2) {
         if (!element.equals(m_topRoleElement)) {
             HierarchyNode<RoleElement> currentNode=m_currentRoleHierarchy.getNodeForElement(element);
             Set<HierarchyNode<RoleElement>> nodes=currentNode.getDescendantNodes();
@@ -866,58 +1005,105 @@ public class InstanceManager {
      * @param monitor monitor
      */
     public void realize(ReasonerProgressMonitor monitor) {
+        realize(monitor,null);
+    }
+    /**
+     * Realises the individuals as realize(ReasonerProgressMonitor) does, but checks the possible instances of each class
+     * in parallel, one test per worker tableau at a time. The known instances are merged into the hierarchy by the
+     * calling thread in the same order as by the sequential realisation.
+     *
+     * @param monitor monitor
+     * @param workerTableaux the tableaux for the instance checks, all of which must have been created for the DL ontology
+     *        of the reasoner, or null if the checks are to be performed on the tableau of the reasoner
+     */
+    public void realize(ReasonerProgressMonitor monitor,Tableau[] workerTableaux) {
         assert m_usesClassifiedConceptHierarchy;
         if (m_readingOffFoundPossibleConceptInstance && !m_realizationCompleted) {
+            WorkerPool workerPool=null;
+            if (workerTableaux!=null && workerTableaux.length>1)
+                workerPool=new WorkerPool("HermiT realisation worker",m_interruptFlag,workerTableaux);
+            try {
+                realizePossibleInstances(monitor,workerPool);
+            }
+            finally {
+                if (workerPool!=null)
+                    workerPool.shutdown();
+            }
+        }
+        m_realizationCompleted=true;
+    }
+    protected void realizePossibleInstances(ReasonerProgressMonitor monitor,WorkerPool workerPool) {
+        if (monitor!=null)
+            monitor.reasonerTaskStarted("Computing instances for all classes");
+        int numHierarchyNodes=m_currentConceptHierarchy.m_nodesByElements.values().size();
+        int currentHierarchyNode=0;
+        Queue<HierarchyNode<AtomicConcept>> toProcess=new LinkedList<>();
+        Set<HierarchyNode<AtomicConcept>> visited=new HashSet<>();
+        toProcess.addAll(m_currentConceptHierarchy.m_bottomNode.m_parentNodes);
+        while (!toProcess.isEmpty()) {
             if (monitor!=null)
-                monitor.reasonerTaskStarted("Computing instances for all classes");
-            int numHierarchyNodes=m_currentConceptHierarchy.m_nodesByElements.values().size();
-            int currentHierarchyNode=0;
-            Queue<HierarchyNode<AtomicConcept>> toProcess=new LinkedList<>();
-            Set<HierarchyNode<AtomicConcept>> visited=new HashSet<>();
-            toProcess.addAll(m_currentConceptHierarchy.m_bottomNode.m_parentNodes);
-            while (!toProcess.isEmpty()) {
-                if (monitor!=null)
-                    monitor.reasonerTaskProgressChanged(currentHierarchyNode,numHierarchyNodes);
-                HierarchyNode<AtomicConcept> current=toProcess.remove();
-                visited.add(current);
-                currentHierarchyNode++;
-                AtomicConcept atomicConcept=current.getRepresentative();
-                AtomicConceptElement atomicConceptElement=m_conceptToElement.get(atomicConcept);
-                if (atomicConceptElement!=null) {
-                    Set<HierarchyNode<AtomicConcept>> parents=current.getParentNodes();
-                    for (HierarchyNode<AtomicConcept> parent : parents) {
-                        if (!visited.contains(parent) && !toProcess.contains(parent))
-                            toProcess.add(parent);
-                    }
-                    if (atomicConceptElement.hasPossibles()) {
-                        Set<Individual> nonInstances=new HashSet<>();
-                        for (Individual individual : atomicConceptElement.getPossibleInstances()) {
-                            if (isInstance(individual, atomicConcept))
+                monitor.reasonerTaskProgressChanged(currentHierarchyNode,numHierarchyNodes);
+            HierarchyNode<AtomicConcept> current=toProcess.remove();
+            visited.add(current);
+            currentHierarchyNode++;
+            AtomicConcept atomicConcept=current.getRepresentative();
+            AtomicConceptElement atomicConceptElement=m_conceptToElement.get(atomicConcept);
+            if (atomicConceptElement!=null) {
+                Set<HierarchyNode<AtomicConcept>> parents=current.getParentNodes();
+                for (HierarchyNode<AtomicConcept> parent : parents) {
+                    if (!visited.contains(parent) && !toProcess.contains(parent))
+                        toProcess.add(parent);
+                }
+                if (atomicConceptElement.hasPossibles()) {
+                    CompressedBitmap nonInstances;
+                    if (workerPool==null) {
+                        nonInstances=new CompressedBitmap();
+                        for (int individual : atomicConceptElement.getPossibleInstances().toArray()) {
+                            if (isInstance(m_individuals[individual], atomicConcept))
                                 atomicConceptElement.m_knownInstances.add(individual);
                             else
                                 nonInstances.add(individual);
                         }
-                        atomicConceptElement.m_possibleInstances.clear();
-                        for (HierarchyNode<AtomicConcept> parent : parents) {
-                            AtomicConcept parentRepresentative=parent.getRepresentative();
-                            AtomicConceptElement parentElement=m_conceptToElement.get(parentRepresentative);
-                            if (parentElement==null) {
-                                parentElement=new AtomicConceptElement(null, nonInstances);
-                                m_conceptToElement.put(parentRepresentative, parentElement);
-                            }
-                            else if (parentRepresentative.equals(m_topConcept))
-                                m_conceptToElement.get(m_topConcept).m_knownInstances.addAll(nonInstances);
-                            else
-                                parentElement.addPossibles(nonInstances);
+                    }
+                    else
+                        nonInstances=checkPossibleInstancesInParallel(atomicConcept,atomicConceptElement,workerPool);
+                    atomicConceptElement.m_possibleInstances.clear();
+                    for (HierarchyNode<AtomicConcept> parent : parents) {
+                        AtomicConcept parentRepresentative=parent.getRepresentative();
+                        AtomicConceptElement parentElement=m_conceptToElement.get(parentRepresentative);
+                        if (parentElement==null) {
+                            parentElement=new AtomicConceptElement(null, new CompressedBitmap(nonInstances));
+                            m_conceptToElement.put(parentRepresentative, parentElement);
                         }
+                        else if (parentRepresentative.equals(m_topConcept))
+                            m_conceptToElement.get(m_topConcept).m_knownInstances.addAll(nonInstances);
+                        else
+                            parentElement.addPossibles(nonInstances);
                     }
                 }
-                m_interruptFlag.checkInterrupt();
             }
-            if (monitor!=null)
-                monitor.reasonerTaskStopped();
+            // The first worker tableau resets the interrupt flag of the reasoner, so only the pool sees all interrupts.
+            if (workerPool==null)
+                m_interruptFlag.checkInterrupt();
+            else
+                workerPool.checkInterrupt();
         }
-        m_realizationCompleted=true;
+        if (monitor!=null)
+            monitor.reasonerTaskStopped();
+    }
+    protected CompressedBitmap checkPossibleInstancesInParallel(AtomicConcept atomicConcept,AtomicConceptElement atomicConceptElement,WorkerPool workerPool) {
+        int[] possibleInstances=atomicConceptElement.getPossibleInstances().toArray();
+        List<Future<Boolean>> results=new ArrayList<>(possibleInstances.length);
+        for (int individual : possibleInstances)
+            results.add(workerPool.submit(tableau -> Boolean.valueOf(isInstance(tableau,m_individuals[individual],atomicConcept))));
+        CompressedBitmap nonInstances=new CompressedBitmap();
+        for (int index=0;index<possibleInstances.length;index++) {
+            if (workerPool.takeResult(results.get(index)).booleanValue())
+                atomicConceptElement.m_knownInstances.add(possibleInstances[index]);
+            else
+                nonInstances.add(possibleInstances[index]);
+        }
+        return nonInstances;
     }
     /**
      * @param monitor monitor
@@ -944,21 +1130,20 @@ public class InstanceManager {
                     if (!toProcess.contains(parent) && !visited.contains(parent))
                         toProcess.add(parent);
                 if (roleElement.hasPossibles()) {
-                    roleElement.m_possibleRelations.forEach((individual, set)->{
-                        Set<Individual> nonInstances=new HashSet<>();
-                        for (Individual successor : set) {
-                            if (isRoleInstance(role, individual, successor))
+                    for (int individual : roleElement.m_possibleRelations.keys()) {
+                        CompressedBitmap nonInstances=new CompressedBitmap();
+                        for (int successor : roleElement.m_possibleRelations.get(individual).toArray()) {
+                            if (isRoleInstance(role, m_individuals[individual], m_individuals[successor]))
                                 roleElement.addKnown(individual, successor);
-                            else {
-                                nonInstances.add(individual);
-                            }
+                            else
+                                nonInstances.add(successor);
                         }
                         for (HierarchyNode<RoleElement> parent : parents) {
                             RoleElement parentRepresentative=parent.getRepresentative();
                             if (!parentRepresentative.equals(m_topRoleElement))
                                 parentRepresentative.addPossibles(individual, nonInstances);
                         }
-                    });
+                    }
                     roleElement.m_possibleRelations.clear();
                 }
                 m_interruptFlag.checkInterrupt();
@@ -976,6 +1161,7 @@ public class InstanceManager {
     public Set<HierarchyNode<AtomicConcept>> getTypes(Individual individual,boolean direct) {
         if (m_isInconsistent)
             return Collections.singleton(m_currentConceptHierarchy.m_bottomNode);
+        int individualID=getIndividualID(individual);
         Set<HierarchyNode<AtomicConcept>> result=new HashSet<>();
         assert !direct || m_usesClassifiedConceptHierarchy;
         Queue<HierarchyNode<AtomicConcept>> toProcess=new LinkedList<>();
@@ -1002,9 +1188,9 @@ public class InstanceManager {
                 Set<HierarchyNode<AtomicConcept>> parents=current.getParentNodes();
                 AtomicConcept atomicConcept=current.getRepresentative();
                 AtomicConceptElement atomicConceptElement=m_conceptToElement.get(atomicConcept);
-                if (atomicConceptElement!=null && atomicConceptElement.isPossible(individual)) {
+                if (atomicConceptElement!=null && atomicConceptElement.isPossible(individualID)) {
                     if (isInstance(individual, atomicConcept)) {
-                        atomicConceptElement.setToKnown(individual);
+                        atomicConceptElement.setToKnown(individualID);
                     }
                     else {
                         for (HierarchyNode<AtomicConcept> parent : parents) {
@@ -1014,11 +1200,11 @@ public class InstanceManager {
                                 parentElement=new AtomicConceptElement(null, null);
                                 m_conceptToElement.put(parentRepresentative,parentElement);
                             }
-                            parentElement.addPossible(individual);
+                            parentElement.addPossible(individualID);
                         }
                     }
                 }
-                if (atomicConceptElement!=null && atomicConceptElement.isKnown(individual)) {
+                if (atomicConceptElement!=null && atomicConceptElement.isKnown(individualID)) {
                     if (direct)
                         result.add(current);
                     else
@@ -1052,6 +1238,9 @@ public class InstanceManager {
      * @return true if has type
      */
     public boolean hasType(Individual individual,HierarchyNode<AtomicConcept> node,boolean direct) {
+        return hasType(getIndividualID(individual), node, direct);
+    }
+    protected boolean hasType(int individual,HierarchyNode<AtomicConcept> node,boolean direct) {
         assert !direct || m_usesClassifiedConceptHierarchy;
         AtomicConcept representative=node.getRepresentative();
         if (representative==m_bottomConcept)
@@ -1060,7 +1249,7 @@ public class InstanceManager {
         if ((element!=null && element.isKnown(individual)) || (!direct && node==m_currentConceptHierarchy.m_topNode))
             return true;
         if (element!=null && element.isPossible(individual)) {
-            if (isInstance(individual, representative)) {
+            if (isInstance(m_individuals[individual], representative)) {
                 element.setToKnown(individual);
                 return true;
             }
@@ -1091,11 +1280,11 @@ public class InstanceManager {
      * @return instances
      */
     public Set<Individual> getInstances(AtomicConcept atomicConcept, boolean direct) {
-        Set<Individual> result=new HashSet<>();
+        CompressedBitmap result=new CompressedBitmap();
         HierarchyNode<AtomicConcept> node=m_currentConceptHierarchy.getNodeForElement(atomicConcept);
-        if (node==null) return result; // unknown concept
-        getInstancesForNode(node,result,direct);
-        return result;
+        if (node!=null) // otherwise the concept is unknown
+            getInstancesForNode(node,result,direct);
+        return getIndividuals(result);
     }
     /**
      * @param node node
@@ -1103,7 +1292,7 @@ public class InstanceManager {
      * @return instances
      */
     public Set<Individual> getInstances(HierarchyNode<AtomicConcept> node,boolean direct) {
-        Set<Individual> result=new HashSet<>();
+        CompressedBitmap result=new CompressedBitmap();
         HierarchyNode<AtomicConcept> nodeFromCurrentHierarchy=m_currentConceptHierarchy.getNodeForElement(node.m_representative);
         if (nodeFromCurrentHierarchy==null) {
             // complex concept instances
@@ -1115,23 +1304,21 @@ public class InstanceManager {
         }
         else
             getInstancesForNode(nodeFromCurrentHierarchy, result, direct);
-        return result;
+        return getIndividuals(result);
     }
-    protected void getInstancesForNode(HierarchyNode<AtomicConcept> node,Set<Individual> result,boolean direct) {
+    protected void getInstancesForNode(HierarchyNode<AtomicConcept> node,CompressedBitmap result,boolean direct) {
         assert !direct || m_usesClassifiedConceptHierarchy;
         AtomicConcept representative=node.getRepresentative();
         if (!direct && representative.equals(m_topConcept)) {
-            for (Individual individual : m_individuals)
-                if (isResultRelevantIndividual(individual))
-                    result.add(individual);
+            result.addAll(m_resultRelevantIndividuals);
             return;
         }
         AtomicConceptElement representativeElement=m_conceptToElement.get(representative);
         if (representativeElement!=null) {
-            Set<Individual> possibleInstances=representativeElement.getPossibleInstances();
+            CompressedBitmap possibleInstances=representativeElement.getPossibleInstances();
             if (!possibleInstances.isEmpty()) {
-                for (Individual possibleInstance : new HashSet<>(possibleInstances)) {
-                    if (isInstance(possibleInstance, representative))
+                for (int possibleInstance : possibleInstances.toArray()) {
+                    if (isInstance(m_individuals[possibleInstance], representative))
                         representativeElement.setToKnown(possibleInstance);
                     else {
                         representativeElement.m_possibleInstances.remove(possibleInstance);
@@ -1149,21 +1336,19 @@ public class InstanceManager {
                     }
                 }
             }
-            for (Individual individual : representativeElement.getKnownInstances()) {
-                if (isResultRelevantIndividual(individual)) {
-                    boolean isDirect=true;
-                    if (direct) {
-                        for (HierarchyNode<AtomicConcept> child : node.getChildNodes()) {
-                            if (hasType(individual, child, false)) {
-                                isDirect=false;
-                                break;
-                            }
+            CompressedBitmap knownInstances=new CompressedBitmap(representativeElement.getKnownInstances());
+            knownInstances.retainAll(m_resultRelevantIndividuals);
+            if (direct) {
+                for (int individual : knownInstances.toArray()) {
+                    for (HierarchyNode<AtomicConcept> child : node.getChildNodes()) {
+                        if (hasType(individual, child, false)) {
+                            knownInstances.remove(individual);
+                            break;
                         }
                     }
-                    if (!direct || isDirect)
-                        result.add(individual);
                 }
             }
+            result.addAll(knownInstances);
         }
         if (!direct)
             for (HierarchyNode<AtomicConcept> child : node.getChildNodes())
@@ -1191,24 +1376,26 @@ public class InstanceManager {
      * @return true if has object role
      */
     public boolean hasObjectRoleRelationship(HierarchyNode<RoleElement> node,Individual individual1,Individual individual2) {
+        return hasObjectRoleRelationship(node,individual1,getIndividualID(individual1),individual2,getIndividualID(individual2));
+    }
+    protected boolean hasObjectRoleRelationship(HierarchyNode<RoleElement> node,Individual individual1,int individualID1,Individual individual2,int individualID2) {
         RoleElement representativeElement=node.getRepresentative();
-        if (representativeElement.isKnown(individual1, individual2) || representativeElement.equals(m_topRoleElement))
+        if (representativeElement.isKnown(individualID1, individualID2) || representativeElement.equals(m_topRoleElement))
             return true;
-        List<Individual> individuals=Arrays.asList(m_individuals);
-        boolean containsUnknown=!individuals.contains(individual1) || !individuals.contains(individual2);
-        if (representativeElement.isPossible(individual1,individual2) || containsUnknown) {
+        boolean containsUnknown=individualID1<0 || individualID2<0;
+        if (representativeElement.isPossible(individualID1,individualID2) || containsUnknown) {
             if (isRoleInstance(representativeElement.getRole(),individual1,individual2)) {
                 if (!containsUnknown)
-                    representativeElement.setToKnown(individual1,individual2);
+                    representativeElement.setToKnown(individualID1,individualID2);
                 return true;
             }
-            else
+            else if (!containsUnknown)
                 for (HierarchyNode<RoleElement> parent : node.getParentNodes())
-                    parent.getRepresentative().addPossible(individual1,individual2);
+                    parent.getRepresentative().addPossible(individualID1,individualID2);
         }
         else
             for (HierarchyNode<RoleElement> child : node.getChildNodes())
-                if (hasObjectRoleRelationship(child,individual1,individual2))
+                if (hasObjectRoleRelationship(child,individual1,individualID1,individual2,individualID2))
                     return true;
         return false;
     }
@@ -1221,48 +1408,50 @@ public class InstanceManager {
         HierarchyNode<RoleElement> node=m_currentRoleHierarchy.getNodeForElement(m_roleElementManager.getRoleElement(role));
         if (node==null)
             return result;
-        getObjectPropertyInstances(node,result);
+        TIntObjectHashMap<CompressedBitmap> relations=new TIntObjectHashMap<>();
+        getObjectPropertyInstances(node,relations);
+        // the successors can be shared between individuals, so each of them is converted only once
+        Map<CompressedBitmap,Set<Individual>> successorsToIndividuals=new IdentityHashMap<>();
+        for (int individual : relations.keys()) {
+            CompressedBitmap successors=relations.get(individual);
+            Set<Individual> successorIndividuals=successorsToIndividuals.get(successors);
+            if (successorIndividuals==null) {
+                successorIndividuals=getIndividuals(successors);
+                successorsToIndividuals.put(successors,successorIndividuals);
+            }
+            result.put(m_individuals[individual],successorIndividuals);
+        }
         return result;
     }
-    protected void getObjectPropertyInstances(HierarchyNode<RoleElement> node,Map<Individual,Set<Individual>> result) {
+    protected void getObjectPropertyInstances(HierarchyNode<RoleElement> node,TIntObjectHashMap<CompressedBitmap> result) {
         RoleElement representativeElement=node.getRepresentative();
         if (representativeElement.equals(m_topRoleElement) || m_isInconsistent) {
-            Set<Individual> allResultRelevantIndividuals=new HashSet<>();
-            for (Individual individual : m_individuals)
-                if (isResultRelevantIndividual(individual)) {
-                    allResultRelevantIndividuals.add(individual);
-                    result.put(individual, allResultRelevantIndividuals);
-                }
+            CompressedBitmap allResultRelevantIndividuals=new CompressedBitmap(m_resultRelevantIndividuals);
+            m_resultRelevantIndividuals.forEach(individual -> result.put(individual, allResultRelevantIndividuals));
             return;
         }
-        Map<Individual,Set<Individual>> possibleInstances=representativeElement.getPossibleRelations();
-        for (Individual possibleInstance : new ArrayList<>(possibleInstances.keySet())) {
-            for (Individual possibleSuccessor : new ArrayList<>(possibleInstances.get(possibleInstance))) {
-                if (isRoleInstance(representativeElement.getRole(),possibleInstance,possibleSuccessor))
+        TIntObjectHashMap<CompressedBitmap> possibleInstances=representativeElement.getPossibleRelations();
+        for (int possibleInstance : possibleInstances.keys()) {
+            for (int possibleSuccessor : possibleInstances.get(possibleInstance).toArray()) {
+                if (isRoleInstance(representativeElement.getRole(),m_individuals[possibleInstance],m_individuals[possibleSuccessor]))
                     representativeElement.setToKnown(possibleInstance,possibleSuccessor);
                 else
                     for (HierarchyNode<RoleElement> parent : node.getParentNodes())
                         parent.getRepresentative().addPossible(possibleInstance,possibleSuccessor);
             }
         }
-        Map<Individual,Set<Individual>> knownInstances=representativeElement.getKnownRelations();
-        knownInstances.forEach((instance1, set)->{
-            if (isResultRelevantIndividual(instance1)) {
-                Set<Individual> successors=result.get(instance1);
-                boolean isNew=false;
-                if (successors==null) {
-                    successors=new HashSet<>();
-                    isNew=true;
-                }
-                for (Individual instance2 : set) {
-                    if (isResultRelevantIndividual(instance2)) {
-                        successors.add(instance2);
-                    }
-                }
-                if (isNew && !successors.isEmpty())
+        TIntObjectHashMap<CompressedBitmap> knownInstances=representativeElement.getKnownRelations();
+        for (int instance1 : knownInstances.keys()) {
+            if (m_resultRelevantIndividuals.contains(instance1)) {
+                CompressedBitmap successors=new CompressedBitmap(knownInstances.get(instance1));
+                successors.retainAll(m_resultRelevantIndividuals);
+                CompressedBitmap existingSuccessors=result.get(instance1);
+                if (existingSuccessors!=null)
+                    existingSuccessors.addAll(successors);
+                else if (!successors.isEmpty())
                     result.put(instance1, successors);
             }
-        });
+        }
         for (HierarchyNode<RoleElement> child : node.getChildNodes())
             getObjectPropertyInstances(child, result);
     }
@@ -1272,10 +1461,10 @@ public class InstanceManager {
      * @return object property values
      */
     public Set<Individual> getObjectPropertyValues(AtomicRole role,Individual individual) {
-        Set<Individual> result=new HashSet<>();
+        CompressedBitmap result=new CompressedBitmap();
         HierarchyNode<RoleElement> node=m_currentRoleHierarchy.getNodeForElement(m_roleElementManager.getRoleElement(role));
-        getObjectPropertyValues(node,individual, result);
-        return result;
+        getObjectPropertyValues(node,getIndividualID(individual), result);
+        return getIndividuals(result);
     }
     /**
      * @param role role
@@ -1283,60 +1472,58 @@ public class InstanceManager {
      * @return object property subjects
      */
     public Set<Individual> getObjectPropertySubjects(AtomicRole role,Individual individual) {
-        Set<Individual> result=new HashSet<>();
+        CompressedBitmap result=new CompressedBitmap();
         HierarchyNode<RoleElement> node=m_currentRoleHierarchy.getNodeForElement(m_roleElementManager.getRoleElement(role));
-        getObjectPropertySubjects(node, individual, result);
-        return result;
+        getObjectPropertySubjects(node, getIndividualID(individual), result);
+        return getIndividuals(result);
     }
-    protected void getObjectPropertySubjects(HierarchyNode<RoleElement> node, Individual object, Set<Individual> result) {
+    protected void getObjectPropertySubjects(HierarchyNode<RoleElement> node, int object, CompressedBitmap result) {
         RoleElement representativeElement=node.getRepresentative();
         if (representativeElement.equals(m_topRoleElement) || m_isInconsistent) {
-            for (Individual ind : m_individuals)
-                if (isResultRelevantIndividual(ind))
-                    result.add(ind);
+            result.addAll(m_resultRelevantIndividuals);
             return;
         }
-        Map<Individual,Set<Individual>> relevantRelations=representativeElement.getKnownRelations();
-        for (Individual subject : new ArrayList<>(relevantRelations.keySet())) {
-            if (isResultRelevantIndividual(subject) && relevantRelations.get(subject).contains(object))
+        TIntObjectHashMap<CompressedBitmap> relevantRelations=representativeElement.getKnownRelations();
+        for (int subject : relevantRelations.keys()) {
+            if (m_resultRelevantIndividuals.contains(subject) && relevantRelations.get(subject).contains(object))
                 result.add(subject);
         }
         relevantRelations=representativeElement.getPossibleRelations();
-        for (Individual possibleSubject : new ArrayList<>(relevantRelations.keySet())) {
-            if (isResultRelevantIndividual(possibleSubject) && relevantRelations.get(possibleSubject).contains(object) && isRoleInstance(representativeElement.getRole(),possibleSubject,object)) {
-                representativeElement.setToKnown(possibleSubject,object);
-                result.add(possibleSubject);
+        for (int possibleSubject : relevantRelations.keys()) {
+            if (relevantRelations.get(possibleSubject).contains(object)) {
+                if (m_resultRelevantIndividuals.contains(possibleSubject) && isRoleInstance(representativeElement.getRole(),m_individuals[possibleSubject],m_individuals[object])) {
+                    representativeElement.setToKnown(possibleSubject,object);
+                    result.add(possibleSubject);
+                }
+                else
+                    for (HierarchyNode<RoleElement> parent : node.getParentNodes())
+                        parent.getRepresentative().addPossible(possibleSubject,object);
             }
-            else
-                for (HierarchyNode<RoleElement> parent : node.getParentNodes())
-                    parent.getRepresentative().addPossible(possibleSubject,object);
         }
         for (HierarchyNode<RoleElement> child : node.getChildNodes())
             getObjectPropertySubjects(child, object, result);
     }
-    protected void getObjectPropertyValues(HierarchyNode<RoleElement> node, Individual subject, Set<Individual> result) {
+    protected void getObjectPropertyValues(HierarchyNode<RoleElement> node, int subject, CompressedBitmap result) {
         RoleElement representativeElement=node.getRepresentative();
         if (representativeElement.equals(m_topRoleElement) || m_isInconsistent) {
-            for (Individual ind : m_individuals)
-                if (isResultRelevantIndividual(ind))
-                    result.add(ind);
+            result.addAll(m_resultRelevantIndividuals);
             return;
         }
-        Set<Individual> possibleSuccessors=representativeElement.getPossibleRelations().get(subject);
+        CompressedBitmap possibleSuccessors=representativeElement.getPossibleRelations().get(subject);
         if (possibleSuccessors!=null) {
-            for (Individual possibleSuccessor : new HashSet<>(possibleSuccessors)) {
-                if (isRoleInstance(representativeElement.getRole(),subject,possibleSuccessor))
+            for (int possibleSuccessor : possibleSuccessors.toArray()) {
+                if (isRoleInstance(representativeElement.getRole(),m_individuals[subject],m_individuals[possibleSuccessor]))
                     representativeElement.setToKnown(subject,possibleSuccessor);
                 else
                     for (HierarchyNode<RoleElement> parent : node.getParentNodes())
                         parent.getRepresentative().addPossible(subject,possibleSuccessor);
             }
         }
-        Set<Individual> knownSuccessors=representativeElement.getKnownRelations().get(subject);
+        CompressedBitmap knownSuccessors=representativeElement.getKnownRelations().get(subject);
         if (knownSuccessors!=null) {
-            for (Individual successor : knownSuccessors)
-                if (isResultRelevantIndividual(successor))
-                    result.add(successor);
+            CompressedBitmap successors=new CompressedBitmap(knownSuccessors);
+            successors.retainAll(m_resultRelevantIndividuals);
+            result.addAll(successors);
         }
         for (HierarchyNode<RoleElement> child : node.getChildNodes())
             getObjectPropertyValues(child, subject, result);
@@ -1346,45 +1533,67 @@ public class InstanceManager {
      * @return same individuals
      */
     public Set<Individual> getSameAsIndividuals(Individual individual) {
-        Set<Individual> equivalenceClass=m_individualToEquivalenceClass.get(individual);
-        Set<Set<Individual>> possiblySameEquivalenceClasses=m_individualToPossibleEquivalenceClass.get(equivalenceClass);
-        if (possiblySameEquivalenceClasses!=null) {
-            while (!possiblySameEquivalenceClasses.isEmpty()) {
-                Set<Individual> possiblyEquivalentClass=possiblySameEquivalenceClasses.iterator().next();
-                possiblySameEquivalenceClasses.remove(possiblyEquivalentClass);
-                if (possiblySameEquivalenceClasses.isEmpty())
-                    m_individualToPossibleEquivalenceClass.remove(equivalenceClass);
-                Individual possiblyEquivalentIndividual=possiblyEquivalentClass.iterator().next();
-                if (isSameIndividual(equivalenceClass.iterator().next(), possiblyEquivalentIndividual)) {
-                    equivalenceClass.addAll(possiblyEquivalentClass);
-                    equivalenceClass.addAll(m_individualToEquivalenceClass.get(possiblyEquivalentIndividual));
-                    for (Individual nowKnownEquivalent : possiblyEquivalentClass)
-                        m_individualToEquivalenceClass.put(nowKnownEquivalent, equivalenceClass);
-                }
-                else {
-                    Set<Set<Individual>> possiblyEquivalentToNowKnownInequivalent=m_individualToPossibleEquivalenceClass.get(possiblyEquivalentClass);
-                    if (possiblyEquivalentToNowKnownInequivalent!=null && possiblyEquivalentToNowKnownInequivalent.contains(equivalenceClass)) {
-                        possiblyEquivalentToNowKnownInequivalent.remove(equivalenceClass);
-                        if (possiblyEquivalentToNowKnownInequivalent.isEmpty())
-                            m_individualToPossibleEquivalenceClass.remove(possiblyEquivalentClass);
-                    }
-                }
+        int individualID=getIndividualID(individual);
+        if (individualID<0)
+            return Collections.singleton(individual);
+        return getIndividuals(getSameAsIndividuals(individualID));
+    }
+    protected CompressedBitmap getSameAsIndividuals(int individual) {
+        CompressedBitmap equivalenceClass=m_individualToEquivalenceClass[individual];
+        Set<CompressedBitmap> possiblySameEquivalenceClasses;
+        while ((possiblySameEquivalenceClasses=m_individualToPossibleEquivalenceClass.get(equivalenceClass))!=null) {
+            CompressedBitmap possiblyEquivalentClass=possiblySameEquivalenceClasses.iterator().next();
+            possiblySameEquivalenceClasses.remove(possiblyEquivalentClass);
+            if (possiblySameEquivalenceClasses.isEmpty())
+                m_individualToPossibleEquivalenceClass.remove(equivalenceClass);
+            if (isSameIndividual(m_individuals[equivalenceClass.first()], m_individuals[possiblyEquivalentClass.first()]))
+                mergeEquivalenceClasses(equivalenceClass,possiblyEquivalentClass);
+            else {
+                Set<CompressedBitmap> possiblyEquivalentToNowKnownInequivalent=m_individualToPossibleEquivalenceClass.get(possiblyEquivalentClass);
+                if (possiblyEquivalentToNowKnownInequivalent!=null && possiblyEquivalentToNowKnownInequivalent.remove(equivalenceClass) && possiblyEquivalentToNowKnownInequivalent.isEmpty())
+                    m_individualToPossibleEquivalenceClass.remove(possiblyEquivalentClass);
             }
         }
-        for (Set<Individual> otherEquivalenceClass : new ArrayList<>(m_individualToPossibleEquivalenceClass.keySet())) {
-            if (otherEquivalenceClass!=equivalenceClass && m_individualToPossibleEquivalenceClass.get(otherEquivalenceClass).contains(equivalenceClass)) {
-                if (isSameIndividual(equivalenceClass.iterator().next(), otherEquivalenceClass.iterator().next())) {
-                    m_individualToPossibleEquivalenceClass.get(otherEquivalenceClass).remove(equivalenceClass);
-                    if (m_individualToPossibleEquivalenceClass.get(otherEquivalenceClass).isEmpty())
-                        m_individualToPossibleEquivalenceClass.remove(otherEquivalenceClass);
-                    for (Individual nowKnownEquivalent : otherEquivalenceClass)
-                        m_individualToEquivalenceClass.put(nowKnownEquivalent, equivalenceClass);
-                    equivalenceClass.addAll(otherEquivalenceClass);
+        boolean merged=false;
+        for (CompressedBitmap otherEquivalenceClass : new ArrayList<>(m_individualToPossibleEquivalenceClass.keySet())) {
+            Set<CompressedBitmap> otherPossiblySameEquivalenceClasses=m_individualToPossibleEquivalenceClass.get(otherEquivalenceClass);
+            if (otherEquivalenceClass!=equivalenceClass && otherPossiblySameEquivalenceClasses!=null && otherPossiblySameEquivalenceClasses.remove(equivalenceClass)) {
+                if (otherPossiblySameEquivalenceClasses.isEmpty())
+                    m_individualToPossibleEquivalenceClass.remove(otherEquivalenceClass);
+                if (isSameIndividual(m_individuals[equivalenceClass.first()], m_individuals[otherEquivalenceClass.first()])) {
+                    mergeEquivalenceClasses(equivalenceClass,otherEquivalenceClass);
+                    merged=true;
                 }
             }
         }
+        // a merged class can bring along possibly same classes that have not been checked yet
+        if (merged && m_individualToPossibleEquivalenceClass.containsKey(equivalenceClass))
+            return getSameAsIndividuals(individual);
         return equivalenceClass;
     }
+    /**
+     * Merges a class of now known equivalent individuals into the given class and hands over its possibly same classes.
+     */
+    protected void mergeEquivalenceClasses(CompressedBitmap equivalenceClass,CompressedBitmap mergedEquivalenceClass) {
+        equivalenceClass.addAll(mergedEquivalenceClass);
+        mergedEquivalenceClass.forEach(nowKnownEquivalent -> m_individualToEquivalenceClass[nowKnownEquivalent]=equivalenceClass);
+        Set<CompressedBitmap> mergedPossiblySameEquivalenceClasses=m_individualToPossibleEquivalenceClass.remove(mergedEquivalenceClass);
+        if (mergedPossiblySameEquivalenceClasses!=null) {
+            mergedPossiblySameEquivalenceClasses.remove(equivalenceClass);
+            if (!mergedPossiblySameEquivalenceClasses.isEmpty()) {
+                Set<CompressedBitmap> possiblySameEquivalenceClasses=m_individualToPossibleEquivalenceClass.get(equivalenceClass);
+                if (possiblySameEquivalenceClasses==null) {
+                    possiblySameEquivalenceClasses=createEquivalenceClassSet();
+                    m_individualToPossibleEquivalenceClass.put(equivalenceClass,possiblySameEquivalenceClasses);
+                }
+                possiblySameEquivalenceClasses.addAll(mergedPossiblySameEquivalenceClasses);
+            }
+        }
+        for (Map.Entry<CompressedBitmap,Set<CompressedBitmap>> entry : m_individualToPossibleEquivalenceClass.entrySet())
+            if (entry.getValue().remove(mergedEquivalenceClass) && entry.getKey()!=equivalenceClass)
+                entry.getValue().add(equivalenceClass);
+        m_individualToPossibleEquivalenceClass.values().removeIf(Set::isEmpty);
+    }
     /**
      * @param individual1 individual1
      * @param individual2 individual2
@@ -1402,8 +1611,8 @@ public class InstanceManager {
             if (steps>0 && progressMonitor!=null)
                 progressMonitor.reasonerTaskStarted("Precompute same individuals");
             while (!m_individualToPossibleEquivalenceClass.isEmpty()) {
-                Set<Individual> equivalenceClass=m_individualToPossibleEquivalenceClass.keySet().iterator().next();
-                getSameAsIndividuals(equivalenceClass.iterator().next());
+                CompressedBitmap equivalenceClass=m_individualToPossibleEquivalenceClass.keySet().iterator().next();
+                getSameAsIndividuals(equivalenceClass.first());
                 if (progressMonitor!=null)
                     progressMonitor.reasonerTaskProgressChanged(steps-m_individualToPossibleEquivalenceClass.size(), steps);
             }
@@ -1412,7 +1621,10 @@ public class InstanceManager {
         }
     }
     protected boolean isInstance(Individual individual,AtomicConcept atomicConcept) {
-        boolean result = !m_reasoner.getTableau().isSatisfiable(true,false,null,Collections.singleton(Atom.create(atomicConcept,individual)),null,null,null,ReasoningTaskDescription.isInstanceOf(atomicConcept,individual));
+        return isInstance(m_reasoner.getTableau(),individual,atomicConcept);
+    }
+    protected boolean isInstance(Tableau tableau,Individual individual,AtomicConcept atomicConcept) {
+        boolean result = !tableau.isSatisfiable(true,false,null,Collections.singleton(Atom.create(atomicConcept,individual)),null,null,null,ReasoningTaskDescription.isInstanceOf(atomicConcept,individual));
         if (m_tableauMonitor!=null) {
             if (result)
                 m_tableauMonitor.possibleInstanceIsInstance();
@@ -1442,7 +1654,13 @@ public class InstanceManager {
         OWLAxiom allNotPseudoNominalAssertion=factory.getOWLClassAssertionAxiom(allNotPseudoNominal,namedIndividual1);
         OWLAxiom pseudoNominalAssertion=factory.getOWLClassAssertionAxiom(pseudoNominal,namedIndividual2);
         Tableau tableau=m_reasoner.getTableau(allNotPseudoNominalAssertion,pseudoNominalAssertion);
-        boolean result=!tableau.isSatisfiable(true,true,null,null,null,null,null,new ReasoningTaskDescription(true,"is {0} connected to {1} via {2}",individual1,individual2,atomicRole));
+        boolean result;
+        try {
+            result=!tableau.isSatisfiable(true,true,null,null,null,null,null,new ReasoningTaskDescription(true,"is {0} connected to {1} via {2}",individual1,individual2,atomicRole));
+        }
+        finally {
+            m_reasoner.releaseTableau(tableau);
+        }
         if (m_tableauMonitor!=null) {
             if (result)
                 m_tableauMonitor.possibleInstanceIsInstance();
@@ -1454,6 +1672,18 @@ public class InstanceManager {
     protected static boolean isResultRelevantIndividual(Individual individual) {
         return !individual.isAnonymous() && !Prefixes.isInternalIRI(individual.getIRI());
     }
+    /**
+     * @param individual individual
+     * @return the identifier of the individual, or -1 if the individual does not occur in the DL ontology
+     */
+    protected int getIndividualID(Individual individual) {
+        return m_individualIDs.get(individual);
+    }
+    protected Set<Individual> getIndividuals(CompressedBitmap individuals) {
+        Set<Individual> result=new HashSet<>();
+        individuals.forEach(individual -> result.add(m_individuals[individual]));
+        return result;
+    }
     /**
      * @return true if realisation completed
      */
@@ -1496,4 +1726,141 @@ public class InstanceManager {
     public Map<Individual, Node> getNodesForIndividuals() {
         return m_nodesForIndividuals;
     }
+    /**
+     * @return true if the instance data is organised according to the classified concept hierarchy
+     */
+    public boolean usesClassifiedConceptHierarchy() {
+        return m_usesClassifiedConceptHierarchy;
+    }
+    /**
+     * Writes the known and possible instances that have been read off so far. The mapping of nodes to individuals is
+     * not written because it is needed only while the instances are read off. The current concept hierarchy is written
+     * only if it is not the classified hierarchy of the reasoner.
+     *
+     * @param output output
+     * @throws IOException if the output cannot be written
+     */
+    public void writeInstanceData(ObjectOutput output) throws IOException {
+        output.writeBoolean(m_isInconsistent);
+        output.writeBoolean(m_classesInitialised);
+        output.writeBoolean(m_propertiesInitialised);
+        if (!m_isInconsistent) {
+            output.writeBoolean(m_realizationCompleted);
+            output.writeBoolean(m_roleRealizationCompleted);
+            output.writeBoolean(m_readingOffFoundPossibleConceptInstance);
+            output.writeBoolean(m_readingOffFoundPossiblePropertyInstance);
+            if (!m_usesClassifiedConceptHierarchy)
+                m_currentConceptHierarchy.writeTo(output);
+            Hierarchy<AtomicRole> roleHierarchy=m_currentRoleHierarchy.transform(new Hierarchy.Transformer<RoleElement,AtomicRole>() {
+                @Override
+                public AtomicRole transform(RoleElement element) {
+                    return element.getRole();
+                }
+                @Override
+                public AtomicRole determineRepresentative(RoleElement oldRepresentative,Set<AtomicRole> newEquivalentElements) {
+                    return oldRepresentative.getRole();
+                }
+            },null);
+            roleHierarchy.writeTo(output);
+            // the individuals are written so that the identifiers can be mapped if the individuals are ordered differently
+            output.writeObject(m_individuals);
+            // the equivalence classes are shared between individuals, so they are written as a whole
+            output.writeObject(m_individualToEquivalenceClass);
+            output.writeObject(m_individualToPossibleEquivalenceClass);
+            output.writeInt(m_conceptToElement.size());
+            for (Map.Entry<AtomicConcept,AtomicConceptElement> entry : m_conceptToElement.entrySet()) {
+                output.writeObject(entry.getKey());
+                output.writeObject(entry.getValue().m_knownInstances);
+                output.writeObject(entry.getValue().m_possibleInstances);
+            }
+            if (m_propertiesInitialised) {
+                output.writeInt(m_roleElementManager.m_roleToElement.size());
+                for (RoleElement element : m_roleElementManager.m_roleToElement.values()) {
+                    output.writeObject(element.m_role);
+                    output.writeObject(element.m_knownRelations);
+                    output.writeObject(element.m_possibleRelations);
+                }
+            }
+        }
+    }
+    /**
+     * Reads the instance data that has been written by writeInstanceData(). The instance manager must have been
+     * created for the same DL ontology and, if the data uses the classified concept hierarchy, with that hierarchy.
+     *
+     * @param input input
+     * @throws IOException if the input cannot be read
+     * @throws ClassNotFoundException if the class of a serialized object cannot be found
+     */
+    @SuppressWarnings("unchecked")
+    public void readInstanceData(ObjectInput input) throws IOException,ClassNotFoundException {
+        boolean isInconsistent=input.readBoolean();
+        boolean classesInitialised=input.readBoolean();
+        boolean propertiesInitialised=input.readBoolean();
+        if (isInconsistent)
+            setInconsistent();
+        else {
+            m_realizationCompleted=input.readBoolean();
+            m_roleRealizationCompleted=input.readBoolean();
+            m_readingOffFoundPossibleConceptInstance=input.readBoolean();
+            m_readingOffFoundPossiblePropertyInstance=input.readBoolean();
+            if (!m_usesClassifiedConceptHierarchy)
+                m_currentConceptHierarchy=Hierarchy.readFrom(input);
+            Hierarchy<AtomicRole> roleHierarchy=Hierarchy.readFrom(input);
+            m_currentRoleHierarchy=roleHierarchy.transform(new Hierarchy.Transformer<AtomicRole,RoleElement>() {
+                @Override
+                public RoleElement transform(AtomicRole role) {
+                    return m_roleElementManager.getRoleElement(role);
+                }
+                @Override
+                public RoleElement determineRepresentative(AtomicRole oldRepresentative,Set<RoleElement> newEquivalentElements) {
+                    return transform(oldRepresentative);
+                }
+            },null);
+            int[] newIDs=getNewIndividualIDs((Individual[])input.readObject());
+            CompressedBitmap[] equivalenceClasses=(CompressedBitmap[])input.readObject();
+            Map<CompressedBitmap,Set<CompressedBitmap>> possibleEquivalenceClasses=(Map<CompressedBitmap,Set<CompressedBitmap>>)input.readObject();
+            if (newIDs==null) {
+                System.arraycopy(equivalenceClasses,0,m_individualToEquivalenceClass,0,m_individualToEquivalenceClass.length);
+                m_individualToPossibleEquivalenceClass=possibleEquivalenceClasses;
+            }
+            else {
+                Map<CompressedBitmap,CompressedBitmap> newEquivalenceClasses=new IdentityHashMap<>();
+                for (int individual=0;individual<equivalenceClasses.length;individual++)
+                    if (newIDs[individual]>=0)
+                        m_individualToEquivalenceClass[newIDs[individual]]=getNewEquivalenceClass(equivalenceClasses[individual],newIDs,newEquivalenceClasses);
+                m_individualToPossibleEquivalenceClass=new IdentityHashMap<>();
+                for (Map.Entry<CompressedBitmap,Set<CompressedBitmap>> entry : possibleEquivalenceClasses.entrySet()) {
+                    Set<CompressedBitmap> newPossibleEquivalenceClasses=createEquivalenceClassSet();
+                    for (CompressedBitmap possibleEquivalenceClass : entry.getValue())
+                        newPossibleEquivalenceClasses.add(getNewEquivalenceClass(possibleEquivalenceClass,newIDs,newEquivalenceClasses));
+                    m_individualToPossibleEquivalenceClass.put(getNewEquivalenceClass(entry.getKey(),newIDs,newEquivalenceClasses),newPossibleEquivalenceClasses);
+                }
+            }
+            m_conceptToElement.clear();
+            for (int index=input.readInt();index>0;--index) {
+                AtomicConcept concept=(AtomicConcept)input.readObject();
+                CompressedBitmap knownInstances=getNewIndividuals((CompressedBitmap)input.readObject(),newIDs);
+                CompressedBitmap possibleInstances=getNewIndividuals((CompressedBitmap)input.readObject(),newIDs);
+                m_conceptToElement.put(concept,new AtomicConceptElement(knownInstances,possibleInstances));
+            }
+            if (propertiesInitialised)
+                for (int index=input.readInt();index>0;--index) {
+                    RoleElement element=m_roleElementManager.getRoleElement((AtomicRole)input.readObject());
+                    TIntObjectHashMap<CompressedBitmap> knownRelations=getNewRelations((TIntObjectHashMap<CompressedBitmap>)input.readObject(),newIDs);
+                    TIntObjectHashMap<CompressedBitmap> possibleRelations=getNewRelations((TIntObjectHashMap<CompressedBitmap>)input.readObject(),newIDs);
+                    for (int individual : knownRelations.keys())
+                        element.addKnowns(individual,knownRelations.get(individual));
+                    for (int individual : possibleRelations.keys())
+                        element.addPossibles(individual,possibleRelations.get(individual));
+                }
+            else {
+                // the property instances are read off again from the first individual
+                m_roleRealizationCompleted=false;
+                m_readingOffFoundPossiblePropertyInstance=false;
+            }
+        }
+        m_classesInitialised=classesInitialised;
+        m_propertiesInitialised=propertiesInitialised;
+        m_currentIndividualIndex=propertiesInitialised ? m_individuals.length-1 : 0;
+    }
 }
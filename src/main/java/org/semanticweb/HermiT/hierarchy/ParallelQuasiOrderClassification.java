@@ -0,0 +1,304 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.semanticweb.HermiT.hierarchy;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+
+import org.semanticweb.HermiT.hierarchy.HierarchySearch.Relation;
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.tableau.ExtensionTable;
+import org.semanticweb.HermiT.tableau.Node;
+import org.semanticweb.HermiT.tableau.Tableau;
+import org.semanticweb.HermiT.tableau.WorkerPool;
+
+/**
+ * A variant of the Quasi Ordering Classification that distributes the tests over several independent tableaux, all of which
+ * must have been created for the same DL-ontology. The tests run in worker threads; the information read off the models is
+ * merged into the known and possible subsumption graphs while holding the lock of this object.
+ */
+public class ParallelQuasiOrderClassification extends QuasiOrderClassification {
+    protected final Tableau[] m_workerTableaux;
+    protected WorkerPool m_workerPool;
+
+    /**
+     * @param workerTableaux the tableaux for the tests; the first one is also used for reading the DL-ontology and for interrupt checks
+     * @param progressMonitor progressMonitor
+     * @param topElement topElement
+     * @param bottomElement bottomElement
+     * @param elements elements
+     */
+    public ParallelQuasiOrderClassification(Tableau[] workerTableaux,ClassificationProgressMonitor progressMonitor,AtomicConcept topElement,AtomicConcept bottomElement,Set<AtomicConcept> elements) {
+        super(workerTableaux[0],progressMonitor,topElement,bottomElement,elements);
+        m_workerTableaux=workerTableaux;
+    }
+    @Override
+    public Hierarchy<AtomicConcept> classify() {
+        // The pool is shut down before returning since the first worker tableau is usually the tableau of the reasoner.
+        m_workerPool=new WorkerPool("HermiT classification worker",m_tableau.getInterruptFlag(),m_workerTableaux);
+        try {
+            return buildHierarchy(null);
+        }
+        finally {
+            m_workerPool.shutdown();
+            m_workerPool=null;
+        }
+    }
+    @Override
+    protected Hierarchy<AtomicConcept> buildHierarchy(Relation<AtomicConcept> hierarchyRelation) {
+        double totalNumberOfTasks=m_elements.size();
+        makeConceptUnsatisfiable(m_bottomElement);
+        initialiseKnownSubsumptionsUsingToldSubsumers();
+        double tasksPerformed=updateSubsumptionsUsingLeafNodeStrategy(totalNumberOfTasks);
+        Set<AtomicConcept> unclassifiedElements=new HashSet<>();
+        for (AtomicConcept element : m_elements) {
+            if (!isUnsatisfiable(element)) {
+                m_possibleSubsumptions.getSuccessors(element).removeAll(getAllKnownSubsumers(element));
+                if (!m_possibleSubsumptions.getSuccessors(element).isEmpty())
+                    unclassifiedElements.add(element);
+            }
+        }
+        CompletionService<AtomicConcept> completionService=m_workerPool.createCompletionService();
+        for (AtomicConcept unclassifiedElement : unclassifiedElements)
+            m_workerPool.submit(tableau -> classifyElement(tableau,unclassifiedElement),completionService);
+        for (int index=unclassifiedElements.size();index>0;index--) {
+            AtomicConcept classifiedElement=m_workerPool.takeResult(completionService);
+            if (tasksPerformed<totalNumberOfTasks) {
+                m_progressMonitor.elementClassified(classifiedElement);
+                tasksPerformed++;
+            }
+        }
+        return buildTransitivelyReducedHierarchy(m_knownSubsumptions,m_elements);
+    }
+    protected AtomicConcept classifyElement(Tableau tableau,AtomicConcept unclassifiedElement) {
+        Set<AtomicConcept> unknownPossibleSubsumers=getUnknownPossibleSubsumers(unclassifiedElement);
+        if (!isEveryPossibleSubsumerNonSubsumer(tableau,unknownPossibleSubsumers,unclassifiedElement,2,7)) {
+            unknownPossibleSubsumers=getUnknownPossibleSubsumers(unclassifiedElement);
+            if (!unknownPossibleSubsumers.isEmpty()) {
+                Hierarchy<AtomicConcept> smallHierarchy;
+                synchronized (this) {
+                    smallHierarchy=buildHierarchyOfUnknownPossible(unknownPossibleSubsumers);
+                }
+                checkUnknownSubsumersUsingEnhancedTraversal((parent,child) -> doesSubsume(tableau,parent,child),smallHierarchy.getTopNode(),unclassifiedElement);
+            }
+        }
+        synchronized (this) {
+            m_possibleSubsumptions.getSuccessors(unclassifiedElement).clear();
+        }
+        return unclassifiedElement;
+    }
+    protected synchronized Set<AtomicConcept> getUnknownPossibleSubsumers(AtomicConcept element) {
+        Set<AtomicConcept> possibleSubsumers=m_possibleSubsumptions.getSuccessors(element);
+        possibleSubsumers.removeAll(getAllKnownSubsumers(element));
+        return new HashSet<>(possibleSubsumers);
+    }
+    protected boolean doesSubsume(Tableau tableau,AtomicConcept parent,AtomicConcept child) {
+        synchronized (this) {
+            if (getAllKnownSubsumers(child).contains(parent))
+                return true;
+            else if (!m_possibleSubsumptions.getSuccessors(child).contains(parent))
+                return false;
+        }
+        Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+        Map<Individual,Node> checkedNode=new HashMap<>();
+        checkedNode.put(freshIndividual,null);
+        boolean isSubsumedBy=!tableau.isSatisfiable(true,Collections.singleton(Atom.create(child,freshIndividual)),null,null,Collections.singleton(Atom.create(parent,freshIndividual)),checkedNode,getSubsumptionTestDescription(child,parent));
+        Map<AtomicConcept,Set<AtomicConcept>> possibleSubsumersInModel=(isSubsumedBy ? null : readPossibleSubsumersFromModel(tableau));
+        Set<AtomicConcept> knownSubsumers=readKnownSubsumersFromRootNode(tableau,checkedNode.get(freshIndividual));
+        synchronized (this) {
+            if (possibleSubsumersInModel!=null)
+                mergePossibleSubsumers(possibleSubsumersInModel,false);
+            addKnownSubsumptions(child,knownSubsumers);
+            m_possibleSubsumptions.getSuccessors(child).removeAll(getAllKnownSubsumers(child));
+        }
+        return isSubsumedBy;
+    }
+    protected boolean isEveryPossibleSubsumerNonSubsumer(Tableau tableau,Set<AtomicConcept> unknownPossibleSubsumers,AtomicConcept pickedElement,int lowerBound,int upperBound) {
+        if (unknownPossibleSubsumers.size()>lowerBound && unknownPossibleSubsumers.size()<upperBound) {
+            Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+            Atom subconceptAssertion=Atom.create(pickedElement,freshIndividual);
+            Set<Atom> superconceptAssertions=new HashSet<>();
+            Object[] superconcepts=new Object[unknownPossibleSubsumers.size()];
+            int index=0;
+            for (AtomicConcept unknownSupNode : unknownPossibleSubsumers) {
+                Atom atom=Atom.create(unknownSupNode,freshIndividual);
+                superconceptAssertions.add(atom);
+                superconcepts[index++]=atom.getDLPredicate();
+            }
+            Map<Individual,Node> checkedNode=new HashMap<>();
+            checkedNode.put(freshIndividual,null);
+            boolean isSubsumedBy=!tableau.isSatisfiable(false,Collections.singleton(subconceptAssertion),null,null,superconceptAssertions,checkedNode,getSubsumedByListTestDescription(pickedElement,superconcepts));
+            if (!isSubsumedBy) {
+                Map<AtomicConcept,Set<AtomicConcept>> possibleSubsumersInModel=readPossibleSubsumersFromModel(tableau);
+                synchronized (this) {
+                    mergePossibleSubsumers(possibleSubsumersInModel,false);
+                }
+            }
+            else {
+                Set<AtomicConcept> knownSubsumers=readKnownSubsumersFromRootNode(tableau,checkedNode.get(freshIndividual));
+                synchronized (this) {
+                    addKnownSubsumptions(pickedElement,knownSubsumers);
+                    m_possibleSubsumptions.getSuccessors(pickedElement).removeAll(getAllKnownSubsumers(pickedElement));
+                }
+            }
+            return !isSubsumedBy;
+        }
+        return false;
+    }
+    @Override
+    protected double updateSubsumptionsUsingLeafNodeStrategy(double totalNumberOfTasks) {
+        double conceptsProcessed=0;
+        Hierarchy<AtomicConcept> hierarchy=buildTransitivelyReducedHierarchy(m_knownSubsumptions,m_elements);
+        LinkedList<HierarchyNode<AtomicConcept>> toProcess=new LinkedList<>();
+        toProcess.addAll(hierarchy.getBottomNode().getParentNodes());
+        Set<HierarchyNode<AtomicConcept>> unsatHierarchyNodes=new HashSet<>();
+        Set<AtomicConcept> conceptsBeingProcessed=new HashSet<>();
+        CompletionService<ModelSummary> completionService=m_workerPool.createCompletionService();
+        int numberOfRunningTasks=0;
+        while (!toProcess.isEmpty() || numberOfRunningTasks>0) {
+            while (!toProcess.isEmpty() && numberOfRunningTasks<m_workerTableaux.length) {
+                HierarchyNode<AtomicConcept> currentHierarchyElement=toProcess.pop();
+                AtomicConcept currentHierarchyConcept=currentHierarchyElement.getRepresentative();
+                if (conceptsProcessed<Math.ceil(totalNumberOfTasks*0.85)) {
+                    m_progressMonitor.elementClassified(currentHierarchyConcept);
+                    conceptsProcessed++;
+                }
+                if (!conceptHasBeenProcessedAlready(currentHierarchyConcept) && conceptsBeingProcessed.add(currentHierarchyConcept)) {
+                    m_workerPool.submit(tableau -> buildModelSummary(tableau,currentHierarchyElement),completionService);
+                    numberOfRunningTasks++;
+                }
+            }
+            if (numberOfRunningTasks>0) {
+                ModelSummary modelSummary=m_workerPool.takeResult(completionService);
+                numberOfRunningTasks--;
+                AtomicConcept concept=modelSummary.m_hierarchyNode.getRepresentative();
+                conceptsBeingProcessed.remove(concept);
+                synchronized (this) {
+                    if (modelSummary.m_possibleSubsumers==null)
+                        makeHierarchyNodeUnsatisfiable(modelSummary.m_hierarchyNode,toProcess,unsatHierarchyNodes);
+                    else {
+                        addKnownSubsumptions(concept,modelSummary.m_knownSubsumers);
+                        mergePossibleSubsumers(modelSummary.m_possibleSubsumers,true);
+                    }
+                }
+            }
+        }
+        return conceptsProcessed;
+    }
+    protected ModelSummary buildModelSummary(Tableau tableau,HierarchyNode<AtomicConcept> hierarchyNode) {
+        AtomicConcept concept=hierarchyNode.getRepresentative();
+        Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+        Map<Individual,Node> checkedNode=new HashMap<>();
+        checkedNode.put(freshIndividual,null);
+        if (tableau.isSatisfiable(false,Collections.singleton(Atom.create(concept,freshIndividual)),null,null,null,checkedNode,getSatTestDescription(concept)))
+            return new ModelSummary(hierarchyNode,readKnownSubsumersFromRootNode(tableau,checkedNode.get(freshIndividual)),readPossibleSubsumersFromModel(tableau));
+        else
+            return new ModelSummary(hierarchyNode,null,null);
+    }
+    protected Set<AtomicConcept> readKnownSubsumersFromRootNode(Tableau tableau,Node _checkedNode) {
+        Set<AtomicConcept> knownSubsumers=new HashSet<>();
+        Node checkedNode=_checkedNode;
+        if (checkedNode!=null && checkedNode.getCanonicalNodeDependencySet().isEmpty()) {
+            checkedNode=checkedNode.getCanonicalNode();
+            ExtensionTable.Retrieval retrieval=tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,true },ExtensionTable.View.TOTAL);
+            retrieval.getBindingsBuffer()[1]=checkedNode;
+            retrieval.open();
+            while (!retrieval.afterLast()) {
+                Object conceptObject=retrieval.getTupleBuffer()[0];
+                if (conceptObject instanceof AtomicConcept && retrieval.getDependencySet().isEmpty() && m_elements.contains(conceptObject))
+                    knownSubsumers.add((AtomicConcept)conceptObject);
+                retrieval.next();
+            }
+        }
+        return knownSubsumers;
+    }
+    /**
+     * Returns, for each element occurring in the model of the given tableau, the intersection of the labels of all active
+     * and not blocked nodes that contain the element.
+     */
+    protected Map<AtomicConcept,Set<AtomicConcept>> readPossibleSubsumersFromModel(Tableau tableau) {
+        Map<Node,Set<AtomicConcept>> nodeLabels=new HashMap<>();
+        ExtensionTable.Retrieval retrieval=tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,false },ExtensionTable.View.TOTAL);
+        retrieval.open();
+        Object[] tupleBuffer=retrieval.getTupleBuffer();
+        while (!retrieval.afterLast()) {
+            Object conceptObject=tupleBuffer[0];
+            if (conceptObject instanceof AtomicConcept && m_elements.contains(conceptObject)) {
+                Node node=(Node)tupleBuffer[1];
+                if (node.isActive() && !node.isBlocked())
+                    nodeLabels.computeIfAbsent(node,n -> new HashSet<>()).add((AtomicConcept)conceptObject);
+            }
+            retrieval.next();
+        }
+        Map<AtomicConcept,Set<AtomicConcept>> possibleSubsumers=new HashMap<>();
+        for (Set<AtomicConcept> nodeLabel : nodeLabels.values()) {
+            for (AtomicConcept atomicConcept : nodeLabel) {
+                Set<AtomicConcept> possibleSubsumersOfConcept=possibleSubsumers.get(atomicConcept);
+                if (possibleSubsumersOfConcept==null)
+                    possibleSubsumers.put(atomicConcept,new HashSet<>(nodeLabel));
+                else
+                    possibleSubsumersOfConcept.retainAll(nodeLabel);
+            }
+        }
+        return possibleSubsumers;
+    }
+    protected void mergePossibleSubsumers(Map<AtomicConcept,Set<AtomicConcept>> possibleSubsumersInModel,boolean initialiseUnprocessed) {
+        for (Map.Entry<AtomicConcept,Set<AtomicConcept>> entry : possibleSubsumersInModel.entrySet()) {
+            AtomicConcept atomicConcept=entry.getKey();
+            Set<AtomicConcept> possibleSubsumers=m_possibleSubsumptions.getSuccessors(atomicConcept);
+            if (possibleSubsumers.isEmpty()) {
+                if (initialiseUnprocessed)
+                    for (AtomicConcept possibleSubsumer : entry.getValue())
+                        addPossibleSubsumption(atomicConcept,possibleSubsumer);
+            }
+            else
+                possibleSubsumers.retainAll(entry.getValue());
+        }
+    }
+    @Override
+    protected synchronized Set<AtomicConcept> getAllKnownSubsumers(AtomicConcept child) {
+        return super.getAllKnownSubsumers(child);
+    }
+    @Override
+    protected synchronized void addKnownSubsumption(AtomicConcept subConcept,AtomicConcept superConcept) {
+        super.addKnownSubsumption(subConcept,superConcept);
+    }
+    @Override
+    protected synchronized void addKnownSubsumptions(AtomicConcept subConcept,Set<AtomicConcept> superConcepts) {
+        super.addKnownSubsumptions(subConcept,superConcepts);
+    }
+
+    protected static class ModelSummary {
+        protected final HierarchyNode<AtomicConcept> m_hierarchyNode;
+        protected final Set<AtomicConcept> m_knownSubsumers;
+        protected final Map<AtomicConcept,Set<AtomicConcept>> m_possibleSubsumers;
+
+        public ModelSummary(HierarchyNode<AtomicConcept> hierarchyNode,Set<AtomicConcept> knownSubsumers,Map<AtomicConcept,Set<AtomicConcept>> possibleSubsumers) {
+            m_hierarchyNode=hierarchyNode;
+            m_knownSubsumers=knownSubsumers;
+            m_possibleSubsumers=possibleSubsumers;
+        }
+    }
+}
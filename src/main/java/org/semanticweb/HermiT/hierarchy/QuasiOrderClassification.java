@@ -163,25 +163,8 @@ public class QuasiOrderClassification {
             if (!conceptHasBeenProcessedAlready(currentHierarchyConcept)) {
                 Node rootNodeOfModel=buildModelForConcept(currentHierarchyConcept);
                 // If the leaf was unsatisfable we go up to explore its parents, until a satisfiable parent is discovered. Each time a node is unsat this information is propagated downwards.
-                if (rootNodeOfModel==null) {
-                    makeConceptUnsatisfiable(currentHierarchyConcept);
-                    unsatHierarchyNodes.add(currentHierarchyElement);
-                    toProcess.addAll(currentHierarchyElement.getParentNodes());
-                    Set<HierarchyNode<AtomicConcept>> visited=new HashSet<>();
-                    Queue<HierarchyNode<AtomicConcept>> toVisit=new LinkedList<>(currentHierarchyElement.getChildNodes());
-                    while (!toVisit.isEmpty()) {
-                        HierarchyNode<AtomicConcept> current=toVisit.poll();
-                        if (visited.add(current) && !unsatHierarchyNodes.contains(current)) {
-                            toVisit.addAll(current.getChildNodes());
-                            unsatHierarchyNodes.add(current);
-                            makeConceptUnsatisfiable(current.getRepresentative());
-                            toProcess.remove(current);
-                            for (HierarchyNode<AtomicConcept> parentOfRemovedConcept : current.getParentNodes())
-                                if (!conceptHasBeenProcessedAlready(parentOfRemovedConcept.getRepresentative()))
-                                    toProcess.add(parentOfRemovedConcept);
-                        }
-                    }
-                }
+                if (rootNodeOfModel==null)
+                    makeHierarchyNodeUnsatisfiable(currentHierarchyElement,toProcess,unsatHierarchyNodes);
                 else {
                     // We cannot do rootNodeOfModel.getCanonicalNode() here. This is done
                     // in readKnownSubsumersFromRootNode(), but only if rootNodeOfModel
@@ -193,7 +176,26 @@ public class QuasiOrderClassification {
         }
         return conceptsProcessed;
     }
-    private boolean conceptHasBeenProcessedAlready(AtomicConcept atConcept) {
+    protected void makeHierarchyNodeUnsatisfiable(HierarchyNode<AtomicConcept> unsatHierarchyNode,List<HierarchyNode<AtomicConcept>> toProcess,Set<HierarchyNode<AtomicConcept>> unsatHierarchyNodes) {
+        makeConceptUnsatisfiable(unsatHierarchyNode.getRepresentative());
+        unsatHierarchyNodes.add(unsatHierarchyNode);
+        toProcess.addAll(unsatHierarchyNode.getParentNodes());
+        Set<HierarchyNode<AtomicConcept>> visited=new HashSet<>();
+        Queue<HierarchyNode<AtomicConcept>> toVisit=new LinkedList<>(unsatHierarchyNode.getChildNodes());
+        while (!toVisit.isEmpty()) {
+            HierarchyNode<AtomicConcept> current=toVisit.poll();
+            if (visited.add(current) && !unsatHierarchyNodes.contains(current)) {
+                toVisit.addAll(current.getChildNodes());
+                unsatHierarchyNodes.add(current);
+                makeConceptUnsatisfiable(current.getRepresentative());
+                toProcess.remove(current);
+                for (HierarchyNode<AtomicConcept> parentOfRemovedConcept : current.getParentNodes())
+                    if (!conceptHasBeenProcessedAlready(parentOfRemovedConcept.getRepresentative()))
+                        toProcess.add(parentOfRemovedConcept);
+            }
+        }
+    }
+    protected boolean conceptHasBeenProcessedAlready(AtomicConcept atConcept) {
         return !m_possibleSubsumptions.getSuccessors(atConcept).isEmpty() || isUnsatisfiable(atConcept);
     }
     protected Node buildModelForConcept(AtomicConcept concept) {
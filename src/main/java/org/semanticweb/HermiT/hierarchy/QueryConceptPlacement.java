@@ -0,0 +1,248 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.hierarchy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.Individual;
+import org.semanticweb.HermiT.tableau.ExtensionTable;
+import org.semanticweb.HermiT.tableau.Node;
+import org.semanticweb.HermiT.tableau.ReasoningTaskDescription;
+import org.semanticweb.HermiT.tableau.Tableau;
+import org.semanticweb.HermiT.tableau.WorkerPool;
+
+/**
+ * Places several query concepts into a classified concept hierarchy in one pass. Each query concept Q must be paired with a
+ * complement concept N, and the axioms SubClassOf(Q C) and SubClassOf(N ObjectComplementOf(C)) for the queried class expression
+ * C must be part of one additional DL-ontology that has been set on all given tableaux. Its DL clauses are thus compiled once
+ * per tableau rather than once per query, and since the clauses of a query only apply to nodes that contain its query or
+ * complement concept, the queries do not slow down each other's tests. Each query concept is placed by
+ * HierarchySearch.findPosition(), but the tests share what their models reveal: an atomic concept that is missing from the
+ * label of a node of a query concept does not subsume the query concept, and an atomic concept that is derived
+ * deterministically for the individual of a query concept does. A query concept moreover subsumes an atomic concept only if
+ * all known subsumers of the query concept do. The query concepts are placed in parallel if several tableaux are given.
+ */
+public class QueryConceptPlacement {
+    protected final Tableau[] m_tableaux;
+    protected final Hierarchy<AtomicConcept> m_hierarchy;
+    protected final Map<AtomicConcept,AtomicConcept> m_complementConcepts;
+    protected final Set<AtomicConcept> m_queryConcepts;
+    protected final Map<AtomicConcept,Set<AtomicConcept>> m_knownSubsumers;
+    protected final Map<AtomicConcept,Set<AtomicConcept>> m_possibleSubsumers;
+
+    /**
+     * @param tableaux the tableaux for the tests, on all of which the DL-ontology defining the query concepts has been set
+     * @param hierarchy the classified concept hierarchy
+     */
+    public QueryConceptPlacement(Tableau[] tableaux,Hierarchy<AtomicConcept> hierarchy) {
+        m_tableaux=tableaux;
+        m_hierarchy=hierarchy;
+        m_complementConcepts=new HashMap<>();
+        m_queryConcepts=m_complementConcepts.keySet();
+        m_knownSubsumers=new HashMap<>();
+        m_possibleSubsumers=new HashMap<>();
+    }
+    /**
+     * @param complementConcepts maps each query concept to its complement concept; none of them occurs in the hierarchy
+     * @return the node of each query concept, which is the node of the hierarchy if the query concept is equivalent to its elements
+     */
+    public Map<AtomicConcept,HierarchyNode<AtomicConcept>> placeQueryConcepts(Map<AtomicConcept,AtomicConcept> complementConcepts) {
+        m_complementConcepts.putAll(complementConcepts);
+        Collection<AtomicConcept> queryConcepts=complementConcepts.keySet();
+        for (AtomicConcept queryConcept : queryConcepts)
+            m_knownSubsumers.put(queryConcept,new HashSet<>());
+        Map<AtomicConcept,HierarchyNode<AtomicConcept>> result=new HashMap<>();
+        if (m_tableaux.length==1 || queryConcepts.size()==1) {
+            for (AtomicConcept queryConcept : queryConcepts)
+                result.put(queryConcept,placeQueryConcept(m_tableaux[0],queryConcept));
+        }
+        else {
+            // The first tableau is usually the tableau of the reasoner, so its interrupt flag is the one of the caller.
+            WorkerPool workerPool=new WorkerPool("HermiT query placement worker",m_tableaux[0].getInterruptFlag(),m_tableaux);
+            try {
+                List<AtomicConcept> submittedQueryConcepts=new ArrayList<>(queryConcepts);
+                List<Future<HierarchyNode<AtomicConcept>>> placements=new ArrayList<>(submittedQueryConcepts.size());
+                for (AtomicConcept queryConcept : submittedQueryConcepts)
+                    placements.add(workerPool.submit(tableau -> placeQueryConcept(tableau,queryConcept)));
+                for (int index=0;index<submittedQueryConcepts.size();index++)
+                    result.put(submittedQueryConcepts.get(index),workerPool.takeResult(placements.get(index)));
+            }
+            finally {
+                workerPool.shutdown();
+            }
+        }
+        return result;
+    }
+    protected HierarchyNode<AtomicConcept> placeQueryConcept(Tableau tableau,AtomicConcept queryConcept) {
+        Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+        Map<Individual,Node> checkedNode=new HashMap<>();
+        checkedNode.put(freshIndividual,null);
+        if (!tableau.isSatisfiable(true,Collections.singleton(Atom.create(queryConcept,freshIndividual)),null,null,null,checkedNode,ReasoningTaskDescription.isConceptSatisfiable(queryConcept)))
+            return m_hierarchy.getBottomNode();
+        readModel(tableau,queryConcept,checkedNode.get(freshIndividual));
+        return HierarchySearch.findPosition((parent,child) -> doesSubsume(tableau,parent,child),queryConcept,m_hierarchy.getTopNode(),m_hierarchy.getBottomNode());
+    }
+    protected boolean doesSubsume(Tableau tableau,AtomicConcept parent,AtomicConcept child) {
+        if (m_queryConcepts.contains(child)) {
+            if (m_hierarchy.getTopNode().getEquivalentElements().contains(parent))
+                return true;
+            synchronized (this) {
+                if (m_knownSubsumers.get(child).contains(parent))
+                    return true;
+                Set<AtomicConcept> possibleSubsumers=m_possibleSubsumers.get(child);
+                if (possibleSubsumers!=null && !possibleSubsumers.contains(parent))
+                    return false;
+            }
+        }
+        else if (m_queryConcepts.contains(parent))
+            return doesQueryConceptSubsume(tableau,parent,child);
+        Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+        Map<Individual,Node> checkedNode=new HashMap<>();
+        checkedNode.put(freshIndividual,null);
+        boolean isSubsumedBy=!tableau.isSatisfiable(true,Collections.singleton(Atom.create(child,freshIndividual)),null,null,Collections.singleton(Atom.create(parent,freshIndividual)),checkedNode,ReasoningTaskDescription.isConceptSubsumedBy(child,parent));
+        if (isSubsumedBy) {
+            if (m_queryConcepts.contains(child)) {
+                synchronized (this) {
+                    m_knownSubsumers.get(child).add(parent);
+                }
+            }
+        }
+        else
+            readModel(tableau,child,checkedNode.get(freshIndividual));
+        return isSubsumedBy;
+    }
+    /**
+     * The query concept subsumes an atomic concept of the hierarchy if the atomic concept and the complement concept of the
+     * query concept are not satisfiable together.
+     */
+    protected boolean doesQueryConceptSubsume(Tableau tableau,AtomicConcept queryConcept,AtomicConcept atomicConcept) {
+        if (!isSubsumedByKnownSubsumers(atomicConcept,queryConcept))
+            return false;
+        Individual freshIndividual=Individual.createAnonymous("fresh-individual");
+        Set<Atom> assertions=new HashSet<>();
+        assertions.add(Atom.create(atomicConcept,freshIndividual));
+        assertions.add(Atom.create(m_complementConcepts.get(queryConcept),freshIndividual));
+        return !tableau.isSatisfiable(true,assertions,null,null,null,null,ReasoningTaskDescription.isConceptSubsumedBy(atomicConcept,queryConcept));
+    }
+    /**
+     * @return false if the atomic concept of the hierarchy is not subsumed by some known subsumer of the query concept
+     */
+    protected boolean isSubsumedByKnownSubsumers(AtomicConcept atomicConcept,AtomicConcept queryConcept) {
+        HierarchyNode<AtomicConcept> node=m_hierarchy.getNodeForElement(atomicConcept);
+        if (node==null)
+            return true;
+        Set<AtomicConcept> knownSubsumers;
+        synchronized (this) {
+            knownSubsumers=new HashSet<>(m_knownSubsumers.get(queryConcept));
+        }
+        if (knownSubsumers.isEmpty())
+            return true;
+        Set<HierarchyNode<AtomicConcept>> ancestorNodes=node.getAncestorNodes();
+        for (AtomicConcept knownSubsumer : knownSubsumers) {
+            HierarchyNode<AtomicConcept> knownSubsumerNode=m_hierarchy.getNodeForElement(knownSubsumer);
+            if (knownSubsumerNode!=null && !ancestorNodes.contains(knownSubsumerNode))
+                return false;
+        }
+        return true;
+    }
+    /**
+     * Reads the known subsumers of the checked concept off the root node of a model and narrows the possible subsumers
+     * of the query concepts that occur in the model.
+     */
+    protected void readModel(Tableau tableau,AtomicConcept checkedConcept,Node checkedNode) {
+        Set<AtomicConcept> knownSubsumers=(m_queryConcepts.contains(checkedConcept) ? readKnownSubsumersFromRootNode(tableau,checkedNode) : null);
+        Map<AtomicConcept,Set<AtomicConcept>> possibleSubsumersInModel=readPossibleSubsumersFromModel(tableau);
+        synchronized (this) {
+            if (knownSubsumers!=null)
+                m_knownSubsumers.get(checkedConcept).addAll(knownSubsumers);
+            for (Map.Entry<AtomicConcept,Set<AtomicConcept>> entry : possibleSubsumersInModel.entrySet()) {
+                Set<AtomicConcept> possibleSubsumers=m_possibleSubsumers.get(entry.getKey());
+                if (possibleSubsumers==null)
+                    m_possibleSubsumers.put(entry.getKey(),entry.getValue());
+                else
+                    possibleSubsumers.retainAll(entry.getValue());
+            }
+        }
+    }
+    protected Set<AtomicConcept> readKnownSubsumersFromRootNode(Tableau tableau,Node _checkedNode) {
+        Set<AtomicConcept> knownSubsumers=new HashSet<>();
+        Node checkedNode=_checkedNode;
+        if (checkedNode!=null && checkedNode.getCanonicalNodeDependencySet().isEmpty()) {
+            checkedNode=checkedNode.getCanonicalNode();
+            ExtensionTable.Retrieval retrieval=tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,true },ExtensionTable.View.TOTAL);
+            retrieval.getBindingsBuffer()[1]=checkedNode;
+            retrieval.open();
+            while (!retrieval.afterLast()) {
+                Object conceptObject=retrieval.getTupleBuffer()[0];
+                if (conceptObject instanceof AtomicConcept && retrieval.getDependencySet().isEmpty() && m_hierarchy.getNodeForElement((AtomicConcept)conceptObject)!=null)
+                    knownSubsumers.add((AtomicConcept)conceptObject);
+                retrieval.next();
+            }
+        }
+        return knownSubsumers;
+    }
+    /**
+     * Returns, for each query concept occurring in the model of the given tableau, the intersection of the labels of all
+     * active and not blocked nodes that contain the query concept, restricted to the elements of the hierarchy.
+     */
+    protected Map<AtomicConcept,Set<AtomicConcept>> readPossibleSubsumersFromModel(Tableau tableau) {
+        Map<AtomicConcept,Set<AtomicConcept>> possibleSubsumersInModel=new HashMap<>();
+        ExtensionTable.Retrieval retrieval=tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,false },ExtensionTable.View.TOTAL);
+        retrieval.open();
+        Object[] tupleBuffer=retrieval.getTupleBuffer();
+        while (!retrieval.afterLast()) {
+            Object conceptObject=tupleBuffer[0];
+            if (conceptObject instanceof AtomicConcept && m_queryConcepts.contains(conceptObject)) {
+                Node node=(Node)tupleBuffer[1];
+                if (node.isActive() && !node.isBlocked()) {
+                    Set<AtomicConcept> label=readLabel(tableau,node);
+                    Set<AtomicConcept> possibleSubsumers=possibleSubsumersInModel.get(conceptObject);
+                    if (possibleSubsumers==null)
+                        possibleSubsumersInModel.put((AtomicConcept)conceptObject,label);
+                    else
+                        possibleSubsumers.retainAll(label);
+                }
+            }
+            retrieval.next();
+        }
+        return possibleSubsumersInModel;
+    }
+    protected Set<AtomicConcept> readLabel(Tableau tableau,Node node) {
+        Set<AtomicConcept> label=new HashSet<>();
+        ExtensionTable.Retrieval retrieval=tableau.getExtensionManager().getBinaryExtensionTable().createRetrieval(new boolean[] { false,true },ExtensionTable.View.TOTAL);
+        retrieval.getBindingsBuffer()[1]=node;
+        retrieval.open();
+        while (!retrieval.afterLast()) {
+            Object conceptObject=retrieval.getTupleBuffer()[0];
+            if (conceptObject instanceof AtomicConcept && m_hierarchy.getNodeForElement((AtomicConcept)conceptObject)!=null)
+                label.add((AtomicConcept)conceptObject);
+            retrieval.next();
+        }
+        return label;
+    }
+}
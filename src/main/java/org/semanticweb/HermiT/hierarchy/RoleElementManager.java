@@ -19,12 +19,11 @@
 package org.semanticweb.HermiT.hierarchy;
 
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 
 import org.semanticweb.HermiT.model.AtomicRole;
-import org.semanticweb.HermiT.model.Individual;
+
+import gnu.trove.map.hash.TIntObjectHashMap;
 
 class RoleElementManager {
     
@@ -52,112 +51,100 @@ class RoleElementManager {
         return buffer.toString();
     }
     
+    /**
+     * The known and possible relations of an atomic role. The individuals are identified by the dense individual
+     * identifiers that are assigned by the instance manager, and the successors of each individual are stored in a
+     * compressed bitmap.
+     */
     public class RoleElement {
         protected final AtomicRole m_role;
-        protected final Map<Individual,Set<Individual>> m_knownRelations;
-        protected final Map<Individual,Set<Individual>> m_possibleRelations;
+        protected final TIntObjectHashMap<CompressedBitmap> m_knownRelations;
+        protected final TIntObjectHashMap<CompressedBitmap> m_possibleRelations;
         
         protected RoleElement(AtomicRole role) {
             m_role=role;
-            m_knownRelations=new HashMap<>();
-            m_possibleRelations=new HashMap<>();
+            m_knownRelations=new TIntObjectHashMap<>();
+            m_possibleRelations=new TIntObjectHashMap<>();
         }
         public AtomicRole getRole() {
             return m_role;
         }
-        public boolean isKnown(Individual individual1, Individual individual2) {
-            return m_knownRelations.containsKey(individual1) && m_knownRelations.get(individual1).contains(individual2);
+        public boolean isKnown(int individual1, int individual2) {
+            CompressedBitmap successors=m_knownRelations.get(individual1);
+            return successors!=null && successors.contains(individual2);
         }
-        public boolean isPossible(Individual individual1, Individual individual2) {
-            return m_possibleRelations.containsKey(individual1) && m_possibleRelations.get(individual1).contains(individual2);
+        public boolean isPossible(int individual1, int individual2) {
+            CompressedBitmap successors=m_possibleRelations.get(individual1);
+            return successors!=null && successors.contains(individual2);
         }
-        public Map<Individual,Set<Individual>> getKnownRelations() {
+        public TIntObjectHashMap<CompressedBitmap> getKnownRelations() {
             return m_knownRelations;
         }
-        public Map<Individual,Set<Individual>> getPossibleRelations() {
+        public TIntObjectHashMap<CompressedBitmap> getPossibleRelations() {
             return m_possibleRelations;
         }
         public boolean hasPossibles() {
             return !m_possibleRelations.isEmpty();
         }
-        public void setToKnown(Individual individual1, Individual individual2) {
-            Set<Individual> successors=m_possibleRelations.get(individual1);
-            successors.remove(individual2);
-            if (successors.isEmpty())
-                m_possibleRelations.remove(individual1);
+        public void setToKnown(int individual1, int individual2) {
+            removePossible(individual1, individual2);
             addKnown(individual1, individual2);
         }
-        public boolean addKnown(Individual individual1, Individual individual2) {
-            Set<Individual> successors=m_knownRelations.get(individual1);
-            if (successors==null) {
-                successors=new HashSet<>();
-                m_knownRelations.put(individual1, successors);
-            }
-            return successors.add(individual2);
+        public boolean addKnown(int individual1, int individual2) {
+            return getSuccessors(m_knownRelations, individual1).add(individual2);
         }
-        public boolean addKnowns(Individual individual, Set<Individual> individuals) {
-            Set<Individual> successors=m_knownRelations.get(individual);
-            if (successors==null) {
-                successors=new HashSet<>();
-                m_knownRelations.put(individual, successors);
-            }
-            return successors.addAll(individuals);
+        public boolean addKnowns(int individual, CompressedBitmap individuals) {
+            return getSuccessors(m_knownRelations, individual).addAll(individuals);
         }
-        public boolean removeKnown(Individual individual1, Individual individual2) {
-            Set<Individual> successors=m_knownRelations.get(individual1);
-            boolean removed=false;
-            if (successors!=null) {
-                removed=successors.remove(individual2);
-                if (successors.isEmpty())
-                    m_knownRelations.remove(individual1);
-            }
-            return removed;
+        public boolean removeKnown(int individual1, int individual2) {
+            return removeSuccessor(m_knownRelations, individual1, individual2);
         }
-        public boolean addPossible(Individual individual1, Individual individual2) {
-            Set<Individual> successors=m_possibleRelations.get(individual1);
+        public boolean addPossible(int individual1, int individual2) {
+            return getSuccessors(m_possibleRelations, individual1).add(individual2);
+        }
+        public boolean removePossible(int individual1, int individual2) {
+            return removeSuccessor(m_possibleRelations, individual1, individual2);
+        }
+        public boolean addPossibles(int individual, CompressedBitmap individuals) {
+            if (individuals.isEmpty())
+                return false;
+            return getSuccessors(m_possibleRelations, individual).addAll(individuals);
+        }
+        protected CompressedBitmap getSuccessors(TIntObjectHashMap<CompressedBitmap> relations, int individual) {
+            CompressedBitmap successors=relations.get(individual);
             if (successors==null) {
-                successors=new HashSet<>();
-                m_possibleRelations.put(individual1, successors);
+                successors=new CompressedBitmap();
+                relations.put(individual, successors);
             }
-            return successors.add(individual2);
+            return successors;
         }
-        public boolean removePossible(Individual individual1, Individual individual2) {
-            Set<Individual> successors=m_possibleRelations.get(individual1);
+        protected boolean removeSuccessor(TIntObjectHashMap<CompressedBitmap> relations, int individual1, int individual2) {
+            CompressedBitmap successors=relations.get(individual1);
             boolean removed=false;
             if (successors!=null) {
                 removed=successors.remove(individual2);
                 if (successors.isEmpty())
-                    m_possibleRelations.remove(individual1);
+                    relations.remove(individual1);
             }
             return removed;
         }
-        public boolean addPossibles(Individual individual, Set<Individual> individuals) {
-            Set<Individual> successors=m_possibleRelations.get(individual);
-            if (successors==null) {
-                successors=new HashSet<>();
-                m_possibleRelations.put(individual, successors);
-            }
-            return successors.addAll(individuals);
-        }
         @Override
         public String toString() {
             StringBuilder buffer=new StringBuilder(m_role.toString()).append(" (known instances: ");
-            int initialSize=buffer.length();
-            m_knownRelations.forEach((i, set)->set.forEach(s->{
-                if(initialSize!=buffer.length())
-                    buffer.append(", ");
-                buffer.append("(").append(i).append(", ").append(s).append(")");
-            }));
+            appendRelations(buffer, m_knownRelations);
             buffer.append(" | possible instances: ");
-            int initialSize1=buffer.length();
-            m_possibleRelations.forEach((i, set)->set.forEach(s->{
-                if(initialSize1!=buffer.length())
-                    buffer.append(", ");
-                buffer.append("(").append(i).append(", ").append(s).append(")");
-            }));
+            appendRelations(buffer, m_possibleRelations);
             buffer.append(") ");
             return buffer.toString();
         }
+        protected void appendRelations(StringBuilder buffer, TIntObjectHashMap<CompressedBitmap> relations) {
+            int initialSize=buffer.length();
+            for (int individual : relations.keys())
+                relations.get(individual).forEach(successor->{
+                    if (initialSize!=buffer.length())
+                        buffer.append(", ");
+                    buffer.append("(").append(individual).append(", ").append(successor).append(")");
+                });
+        }
     }
 }
-
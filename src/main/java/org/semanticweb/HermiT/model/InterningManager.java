@@ -19,110 +19,158 @@ package org.semanticweb.HermiT.model;
 
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
- * The manager for the internable objects.
+ * The manager for the internable objects. The table is split into segments that are locked independently, so that
+ * threads that intern different objects rarely contend. Objects that have been interned already are found without
+ * locking; the entries of garbage-collected objects are removed only when a new object is added to a segment.
  * @param <E> type
  */
 public abstract class InterningManager<E> {
     protected static final double LOAD_FACTOR=0.75;
+    protected static final int SEGMENT_BITS=4;
+    protected static final int NUMBER_OF_SEGMENTS=1 << SEGMENT_BITS;
 
-    protected final ReferenceQueue<E> m_referenceQueue=new ReferenceQueue<>();
-    protected Entry<E>[] m_entries=createEntries(16);
-    protected int m_size=0;
-    protected int m_resizeThreshold=12;
+    protected final Segment[] m_segments=createSegments();
     
     /**
      * @param object object
      * @return interned object
      */
-    public synchronized E intern(E object) {
-        processQueue();
+    public E intern(E object) {
         int hashCode=getHashCode(object);
-        int objectEntryIndex=getIndexFor(hashCode,m_entries.length);
-        Entry<E> previousEntry=null;
-        Entry<E> entry=m_entries[objectEntryIndex];
-        while (entry!=null) {
-            if (hashCode==entry.m_hashCode) {
-                E entryObject=entry.get();
-                if (entryObject==null) {
-                    if (previousEntry==null)
-                        m_entries[objectEntryIndex]=entry.m_next;
-                    else
-                        previousEntry.m_next=entry.m_next;
-                    m_size--;
+        Segment segment=m_segments[getSegmentIndexFor(hashCode)];
+        E entryObject=segment.get(object,hashCode);
+        if (entryObject!=null)
+            return entryObject;
+        else
+            return segment.intern(object,hashCode);
+    }
+    protected static final int getIndexFor(int hashCode,int entriesLength) {
+        return hashCode & (entriesLength-1);
+    }
+    protected static final int getSegmentIndexFor(int hashCode) {
+        // The segment is determined by the high bits of a multiplicative hash, so that it does not depend only
+        // on the low bits that determine the bucket within the segment.
+        return (hashCode*0x9E3779B9) >>> (32-SEGMENT_BITS);
+    }
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    protected final Segment[] createSegments() {
+        Segment[] segments=new InterningManager.Segment[NUMBER_OF_SEGMENTS];
+        for (int segmentIndex=0;segmentIndex<NUMBER_OF_SEGMENTS;segmentIndex++)
+            segments[segmentIndex]=new Segment();
+        return segments;
+    }
+    protected abstract int getHashCode(E object);
+    protected abstract boolean equal(E object1,E object2);
+
+    /**
+     * A part of the hash table. Readers traverse the entries without locking; all modifications are made while
+     * holding the lock of the segment. Since entries are only ever unlinked or moved to a larger array, a reader
+     * that runs concurrently with a modification can at worst miss an entry, in which case the lookup is repeated
+     * while holding the lock.
+     */
+    protected final class Segment {
+        protected final ReferenceQueue<E> m_referenceQueue=new ReferenceQueue<>();
+        protected volatile AtomicReferenceArray<Entry<E>> m_entries=new AtomicReferenceArray<>(16);
+        protected int m_size=0;
+        protected int m_resizeThreshold=12;
+
+        protected E get(E object,int hashCode) {
+            AtomicReferenceArray<Entry<E>> entries=m_entries;
+            Entry<E> entry=entries.get(getIndexFor(hashCode,entries.length()));
+            while (entry!=null) {
+                if (hashCode==entry.m_hashCode) {
+                    E entryObject=entry.get();
+                    if (entryObject!=null && equal(object,entryObject))
+                        return entryObject;
                 }
-                else if (equal(object,entryObject))
-                    return entryObject;
+                entry=entry.m_next;
             }
-            previousEntry=entry;
-            entry=entry.m_next;
+            return null;
         }
-        if (m_size>=m_resizeThreshold) {
-            int newEntriesLength=m_entries.length*2;
-            Entry<E>[] newEntries=createEntries(newEntriesLength);
-            for (int entryIndex=0;entryIndex<m_entries.length;entryIndex++) {
-                Entry<E> currentEntry=m_entries[entryIndex];
-                while (currentEntry!=null) {
-                    Entry<E> nextEntry=currentEntry.m_next;
-                    if (currentEntry.get()==null)
+        protected synchronized E intern(E object,int hashCode) {
+            processQueue();
+            AtomicReferenceArray<Entry<E>> entries=m_entries;
+            int objectEntryIndex=getIndexFor(hashCode,entries.length());
+            Entry<E> previousEntry=null;
+            Entry<E> entry=entries.get(objectEntryIndex);
+            while (entry!=null) {
+                if (hashCode==entry.m_hashCode) {
+                    E entryObject=entry.get();
+                    if (entryObject==null) {
+                        if (previousEntry==null)
+                            entries.set(objectEntryIndex,entry.m_next);
+                        else
+                            previousEntry.m_next=entry.m_next;
                         m_size--;
-                    else {
-                        int newIndex=getIndexFor(currentEntry.m_hashCode,newEntriesLength);
-                        currentEntry.m_next=newEntries[newIndex];
-                        newEntries[newIndex]=currentEntry;
                     }
-                    currentEntry=nextEntry;
+                    else if (equal(object,entryObject))
+                        return entryObject;
                 }
+                previousEntry=entry;
+                entry=entry.m_next;
             }
-            m_entries=newEntries;
-            m_resizeThreshold=(int)(newEntriesLength*LOAD_FACTOR);
-            objectEntryIndex=getIndexFor(hashCode,m_entries.length);
+            if (m_size>=m_resizeThreshold) {
+                int newEntriesLength=entries.length()*2;
+                AtomicReferenceArray<Entry<E>> newEntries=new AtomicReferenceArray<>(newEntriesLength);
+                for (int entryIndex=0;entryIndex<entries.length();entryIndex++) {
+                    Entry<E> currentEntry=entries.get(entryIndex);
+                    while (currentEntry!=null) {
+                        Entry<E> nextEntry=currentEntry.m_next;
+                        if (currentEntry.get()==null)
+                            m_size--;
+                        else {
+                            int newIndex=getIndexFor(currentEntry.m_hashCode,newEntriesLength);
+                            currentEntry.m_next=newEntries.get(newIndex);
+                            newEntries.set(newIndex,currentEntry);
+                        }
+                        currentEntry=nextEntry;
+                    }
+                }
+                m_entries=newEntries;
+                m_resizeThreshold=(int)(newEntriesLength*LOAD_FACTOR);
+                entries=newEntries;
+                objectEntryIndex=getIndexFor(hashCode,newEntriesLength);
+            }
+            Entry<E> newEntry=new Entry<>(object,m_referenceQueue,hashCode,entries.get(objectEntryIndex));
+            entries.set(objectEntryIndex,newEntry);
+            m_size++;
+            return object;
         }
-        Entry<E> newEntry=new Entry<>(object,m_referenceQueue,hashCode,m_entries[objectEntryIndex]);
-        m_entries[objectEntryIndex]=newEntry;
-        m_size++;
-        return object;
-    }
-    protected static final int getIndexFor(int hashCode,int entriesLength) {
-        return hashCode & (entriesLength-1);
-    }
-    protected void removeEntry(Entry<E> entry) {
-        int index=getIndexFor(entry.m_hashCode,m_entries.length);
-        Entry<E> previousEntry=null;
-        for (Entry<E> current=m_entries[index];current!=null;current=current.m_next) {
-            if (current==entry) {
-                m_size--;
-                if (previousEntry==null)
-                    m_entries[index]=current.m_next;
-                else
-                    previousEntry.m_next=current.m_next;
-                return;
+        protected void removeEntry(Entry<E> entry) {
+            AtomicReferenceArray<Entry<E>> entries=m_entries;
+            int index=getIndexFor(entry.m_hashCode,entries.length());
+            Entry<E> previousEntry=null;
+            for (Entry<E> current=entries.get(index);current!=null;current=current.m_next) {
+                if (current==entry) {
+                    m_size--;
+                    if (previousEntry==null)
+                        entries.set(index,current.m_next);
+                    else
+                        previousEntry.m_next=current.m_next;
+                    return;
+                }
+                previousEntry=current;
             }
-            previousEntry=current;
         }
-    }
-    @SuppressWarnings("unchecked")
-    protected void processQueue() {
-        Entry<E> entry=(Entry<E>)m_referenceQueue.poll();
-        while (entry!=null) {
-            removeEntry(entry);
-            entry=(Entry<E>)m_referenceQueue.poll();
+        @SuppressWarnings("unchecked")
+        protected void processQueue() {
+            Entry<E> entry=(Entry<E>)m_referenceQueue.poll();
+            while (entry!=null) {
+                removeEntry(entry);
+                entry=(Entry<E>)m_referenceQueue.poll();
+            }
         }
     }
-    @SuppressWarnings("unchecked")
-    protected final Entry<E>[] createEntries(int size) {
-        return new Entry[size];
-    }
-    protected abstract int getHashCode(E object);
-    protected abstract boolean equal(E object1,E object2);
 
     /**
      * The entry for the hash map.
      */
     protected static class Entry<E> extends WeakReference<E> {
         public final int m_hashCode;
-        public Entry<E> m_next;
+        public volatile Entry<E> m_next;
         
         public Entry(E object,ReferenceQueue<E> referenceQueue,int hashCode,Entry<E> next) {
             super(object,referenceQueue);
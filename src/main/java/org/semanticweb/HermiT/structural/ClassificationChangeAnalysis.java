@@ -0,0 +1,282 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.structural;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataExactCardinality;
+import org.semanticweb.owlapi.model.OWLDataHasValue;
+import org.semanticweb.owlapi.model.OWLDataMinCardinality;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLDataPropertyAxiom;
+import org.semanticweb.owlapi.model.OWLDataPropertyExpression;
+import org.semanticweb.owlapi.model.OWLDataSomeValuesFrom;
+import org.semanticweb.owlapi.model.OWLDisjointClassesAxiom;
+import org.semanticweb.owlapi.model.OWLDisjointUnionAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
+import org.semanticweb.owlapi.model.OWLIndividualAxiom;
+import org.semanticweb.owlapi.model.OWLObjectExactCardinality;
+import org.semanticweb.owlapi.model.OWLObjectHasSelf;
+import org.semanticweb.owlapi.model.OWLObjectHasValue;
+import org.semanticweb.owlapi.model.OWLObjectIntersectionOf;
+import org.semanticweb.owlapi.model.OWLObjectMinCardinality;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLObjectPropertyAxiom;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
+import org.semanticweb.owlapi.model.OWLObjectUnionOf;
+import org.semanticweb.owlapi.model.OWLReflexiveObjectPropertyAxiom;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.model.OWLSubPropertyChainOfAxiom;
+
+/**
+ * Determines which classes may have different subsumers after a set of axioms has been added to or removed from an
+ * ontology. The analysis is based on locality-based modules: the subsumers of a class A are determined by the
+ * bottom-module of {A}, which consists of the axioms that are not bottom-local with respect to the signature of the
+ * module. If neither the module in the old nor the module in the new ontology contains a changed axiom, then both
+ * modules are the same and so are the subsumers of A.
+ *
+ * The modules are over-approximated syntactically. For each axiom a set of trigger entities is computed such that the
+ * axiom can only be non-local if some trigger belongs to the signature, and the module of A then contains everything
+ * that can be reached from A by moving from a trigger of an axiom to the signature of the axiom. Axioms that are
+ * non-local for every signature, such as those with a negated class on the left-hand side, are global: their
+ * signature belongs to every module. The reachability is computed over the union of the old and the new ontology, so
+ * that a single graph covers both modules. Assertions influence the subsumers only through nominals, so they are
+ * ignored unless the ontology contains nominals, in which case they are global.
+ */
+public class ClassificationChangeAnalysis {
+    protected final boolean m_hasNominals;
+    protected final Map<OWLAxiom,Set<OWLEntity>> m_triggers;
+    protected final Map<OWLEntity,List<OWLAxiom>> m_axiomsByTrigger;
+    protected final Map<OWLEntity,List<OWLAxiom>> m_axiomsBySignature;
+    protected final Set<OWLEntity> m_globalSignature;
+
+    /**
+     * @param axioms the logical axioms of the old and of the new ontology
+     * @param hasNominals true if the old or the new ontology contains nominals
+     */
+    public ClassificationChangeAnalysis(Collection<? extends OWLAxiom> axioms,boolean hasNominals) {
+        m_hasNominals=hasNominals;
+        m_triggers=new HashMap<>();
+        m_axiomsByTrigger=new HashMap<>();
+        m_axiomsBySignature=new HashMap<>();
+        m_globalSignature=new HashSet<>();
+        for (OWLAxiom axiom : axioms) {
+            Set<OWLEntity> triggers=getTriggers(axiom);
+            m_triggers.put(axiom,triggers);
+            if (triggers==null)
+                m_globalSignature.addAll(getSignature(axiom));
+            else if (!triggers.isEmpty()) {
+                for (OWLEntity trigger : triggers)
+                    m_axiomsByTrigger.computeIfAbsent(trigger,entity->new ArrayList<>()).add(axiom);
+                for (OWLEntity entity : getSignature(axiom))
+                    m_axiomsBySignature.computeIfAbsent(entity,key->new ArrayList<>()).add(axiom);
+            }
+        }
+    }
+    /**
+     * @param changedAxioms the axioms that have been added or removed; they must be contained in the axioms of this analysis
+     * @return the atomic concepts whose subsumers may have changed, or null if the subsumers of all atomic concepts may have changed
+     */
+    public Set<AtomicConcept> getAffectedAtomicConcepts(Collection<? extends OWLAxiom> changedAxioms) {
+        Set<OWLEntity> changedTriggers=new HashSet<>();
+        for (OWLAxiom axiom : changedAxioms) {
+            Set<OWLEntity> triggers=m_triggers.containsKey(axiom) ? m_triggers.get(axiom) : getTriggers(axiom);
+            if (triggers==null)
+                return null;
+            changedTriggers.addAll(triggers);
+        }
+        // the module of every class contains the module of the global signature
+        Set<OWLEntity> globalModuleSignature=new HashSet<>(m_globalSignature);
+        Queue<OWLEntity> toProcess=new LinkedList<>(m_globalSignature);
+        while (!toProcess.isEmpty()) {
+            OWLEntity entity=toProcess.poll();
+            if (changedTriggers.contains(entity))
+                return null;
+            for (OWLAxiom axiom : m_axiomsByTrigger.getOrDefault(entity,Collections.emptyList()))
+                for (OWLEntity signatureEntity : getSignature(axiom))
+                    if (globalModuleSignature.add(signatureEntity))
+                        toProcess.add(signatureEntity);
+        }
+        // the classes from which a trigger of a changed axiom can be reached are found by a backward search
+        Set<OWLEntity> reaching=new HashSet<>(changedTriggers);
+        toProcess.addAll(changedTriggers);
+        while (!toProcess.isEmpty()) {
+            OWLEntity entity=toProcess.poll();
+            for (OWLAxiom axiom : m_axiomsBySignature.getOrDefault(entity,Collections.emptyList()))
+                for (OWLEntity trigger : m_triggers.get(axiom))
+                    if (reaching.add(trigger))
+                        toProcess.add(trigger);
+        }
+        Set<AtomicConcept> affectedAtomicConcepts=new HashSet<>();
+        for (OWLEntity entity : reaching)
+            if (entity.isOWLClass())
+                affectedAtomicConcepts.add(AtomicConcept.create(entity.getIRI().toString()));
+        return affectedAtomicConcepts;
+    }
+    protected static Set<OWLEntity> getSignature(OWLAxiom axiom) {
+        Set<OWLEntity> signature=new HashSet<>();
+        axiom.classesInSignature().forEach(signature::add);
+        axiom.objectPropertiesInSignature().forEach(signature::add);
+        axiom.dataPropertiesInSignature().forEach(signature::add);
+        return signature;
+    }
+    /**
+     * @param axiom axiom
+     * @return the triggers of the axiom, the empty set if the axiom is always local, or null if the axiom is global
+     */
+    protected Set<OWLEntity> getTriggers(OWLAxiom axiom) {
+        if (axiom instanceof OWLSubClassOfAxiom)
+            return getTriggers(((OWLSubClassOfAxiom)axiom).getSubClass());
+        else if (axiom instanceof OWLEquivalentClassesAxiom)
+            return getTriggersOfAny(((OWLEquivalentClassesAxiom)axiom).getOperandsAsList(),0);
+        else if (axiom instanceof OWLDisjointClassesAxiom)
+            // at least two of the classes must be nonempty, so one class without triggers is harmless
+            return getTriggersOfAny(((OWLDisjointClassesAxiom)axiom).getOperandsAsList(),1);
+        else if (axiom instanceof OWLDisjointUnionAxiom) {
+            OWLDisjointUnionAxiom disjointUnion=(OWLDisjointUnionAxiom)axiom;
+            List<OWLClassExpression> classExpressions=new ArrayList<>();
+            classExpressions.add(disjointUnion.getOWLClass());
+            disjointUnion.classExpressions().forEach(classExpressions::add);
+            return getTriggersOfAny(classExpressions,0);
+        }
+        else if (axiom instanceof OWLSubPropertyChainOfAxiom) {
+            OWLObjectPropertyExpression firstProperty=((OWLSubPropertyChainOfAxiom)axiom).getPropertyChain().get(0);
+            return getTriggers(firstProperty);
+        }
+        else if (axiom instanceof OWLReflexiveObjectPropertyAxiom)
+            return null;
+        else if (axiom instanceof OWLObjectPropertyAxiom || axiom instanceof OWLDataPropertyAxiom) {
+            Set<OWLEntity> triggers=new HashSet<>();
+            for (OWLEntity entity : getSignature(axiom))
+                if (!entity.isOWLClass()) {
+                    if (entity.isTopEntity())
+                        return null;
+                    triggers.add(entity);
+                }
+            return triggers;
+        }
+        else if (axiom instanceof OWLIndividualAxiom)
+            return m_hasNominals ? null : Collections.emptySet();
+        else
+            return null;
+    }
+    protected static Set<OWLEntity> getTriggersOfAny(List<OWLClassExpression> classExpressions,int allowedGlobalClassExpressions) {
+        Set<OWLEntity> triggers=new HashSet<>();
+        int globalClassExpressions=0;
+        for (OWLClassExpression classExpression : classExpressions) {
+            Set<OWLEntity> classExpressionTriggers=getTriggers(classExpression);
+            if (classExpressionTriggers==null) {
+                if (++globalClassExpressions>allowedGlobalClassExpressions)
+                    return null;
+            }
+            else
+                triggers.addAll(classExpressionTriggers);
+        }
+        return triggers;
+    }
+    /**
+     * @param classExpression classExpression
+     * @return entities of which one must be in the signature for the class expression not to be empty when all other entities are empty, or null if the class expression can be nonempty regardless of the signature
+     */
+    protected static Set<OWLEntity> getTriggers(OWLClassExpression classExpression) {
+        if (classExpression.isOWLThing())
+            return null;
+        else if (classExpression.isOWLNothing())
+            return Collections.emptySet();
+        else if (classExpression instanceof OWLClass)
+            return Collections.singleton((OWLClass)classExpression);
+        else if (classExpression instanceof OWLObjectIntersectionOf) {
+            Set<OWLEntity> smallestTriggers=null;
+            for (OWLClassExpression conjunct : ((OWLObjectIntersectionOf)classExpression).getOperandsAsList())
+                smallestTriggers=getSmaller(smallestTriggers,getTriggers(conjunct));
+            return smallestTriggers;
+        }
+        else if (classExpression instanceof OWLObjectUnionOf) {
+            Set<OWLEntity> triggers=new HashSet<>();
+            for (OWLClassExpression disjunct : ((OWLObjectUnionOf)classExpression).getOperandsAsList()) {
+                Set<OWLEntity> disjunctTriggers=getTriggers(disjunct);
+                if (disjunctTriggers==null)
+                    return null;
+                triggers.addAll(disjunctTriggers);
+            }
+            return triggers;
+        }
+        else if (classExpression instanceof OWLObjectSomeValuesFrom) {
+            OWLObjectSomeValuesFrom someValuesFrom=(OWLObjectSomeValuesFrom)classExpression;
+            return getSmaller(getTriggers(someValuesFrom.getProperty()),getTriggers(someValuesFrom.getFiller()));
+        }
+        else if (classExpression instanceof OWLObjectMinCardinality) {
+            OWLObjectMinCardinality minCardinality=(OWLObjectMinCardinality)classExpression;
+            return minCardinality.getCardinality()==0 ? null : getSmaller(getTriggers(minCardinality.getProperty()),getTriggers(minCardinality.getFiller()));
+        }
+        else if (classExpression instanceof OWLObjectExactCardinality) {
+            OWLObjectExactCardinality exactCardinality=(OWLObjectExactCardinality)classExpression;
+            return exactCardinality.getCardinality()==0 ? null : getSmaller(getTriggers(exactCardinality.getProperty()),getTriggers(exactCardinality.getFiller()));
+        }
+        else if (classExpression instanceof OWLObjectHasValue)
+            return getTriggers(((OWLObjectHasValue)classExpression).getProperty());
+        else if (classExpression instanceof OWLObjectHasSelf)
+            return getTriggers(((OWLObjectHasSelf)classExpression).getProperty());
+        else if (classExpression instanceof OWLDataSomeValuesFrom)
+            return getTriggers(((OWLDataSomeValuesFrom)classExpression).getProperty());
+        else if (classExpression instanceof OWLDataHasValue)
+            return getTriggers(((OWLDataHasValue)classExpression).getProperty());
+        else if (classExpression instanceof OWLDataMinCardinality) {
+            OWLDataMinCardinality minCardinality=(OWLDataMinCardinality)classExpression;
+            return minCardinality.getCardinality()==0 ? null : getTriggers(minCardinality.getProperty());
+        }
+        else if (classExpression instanceof OWLDataExactCardinality) {
+            OWLDataExactCardinality exactCardinality=(OWLDataExactCardinality)classExpression;
+            return exactCardinality.getCardinality()==0 ? null : getTriggers(exactCardinality.getProperty());
+        }
+        else
+            // complements, universal and at-most restrictions and nominals can be nonempty for every signature
+            return null;
+    }
+    protected static Set<OWLEntity> getTriggers(OWLObjectPropertyExpression propertyExpression) {
+        OWLObjectProperty property=propertyExpression.getNamedProperty();
+        return property.isOWLTopObjectProperty() ? null : Collections.singleton(property);
+    }
+    protected static Set<OWLEntity> getTriggers(OWLDataPropertyExpression propertyExpression) {
+        OWLDataProperty property=propertyExpression.asOWLDataProperty();
+        return property.isOWLTopDataProperty() ? null : Collections.singleton(property);
+    }
+    protected static Set<OWLEntity> getSmaller(Set<OWLEntity> triggers1,Set<OWLEntity> triggers2) {
+        if (triggers1==null)
+            return triggers2;
+        else if (triggers2==null || triggers1.size()<=triggers2.size())
+            return triggers1;
+        else
+            return triggers2;
+    }
+}
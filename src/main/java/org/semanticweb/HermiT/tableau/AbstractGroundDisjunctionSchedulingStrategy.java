@@ -0,0 +1,72 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.io.Serializable;
+
+/**
+ * Selects the ground disjunction with the highest score among a window of the oldest unprocessed ground disjunctions.
+ * Of the ground disjunctions with the same score, the oldest one is selected. The window bounds the cost of a selection
+ * when many ground disjunctions are pending.
+ */
+public abstract class AbstractGroundDisjunctionSchedulingStrategy implements GroundDisjunctionSchedulingStrategy,Serializable {
+    private static final long serialVersionUID=3480412867361735537L;
+    /**default window size*/
+    public static final int DEFAULT_WINDOW_SIZE=32;
+
+    protected final int m_windowSize;
+    protected Tableau m_tableau;
+
+    /**
+     * @param windowSize the number of unprocessed ground disjunctions that are examined for a selection
+     */
+    protected AbstractGroundDisjunctionSchedulingStrategy(int windowSize) {
+        if (windowSize<1)
+            throw new IllegalArgumentException("The window size must be positive.");
+        m_windowSize=windowSize;
+    }
+    @Override
+    public void initialize(Tableau tableau) {
+        m_tableau=tableau;
+    }
+    @Override
+    public GroundDisjunction selectGroundDisjunction(GroundDisjunction firstUnprocessedGroundDisjunction) {
+        GroundDisjunction bestGroundDisjunction=firstUnprocessedGroundDisjunction;
+        double bestScore=getScore(firstUnprocessedGroundDisjunction);
+        GroundDisjunction groundDisjunction=firstUnprocessedGroundDisjunction.m_previousGroundDisjunction;
+        for (int examined=1;groundDisjunction!=null && examined<m_windowSize;examined++) {
+            if (!groundDisjunction.isPruned() && !groundDisjunction.isSatisfied(m_tableau)) {
+                double score=getScore(groundDisjunction);
+                if (score>bestScore) {
+                    bestGroundDisjunction=groundDisjunction;
+                    bestScore=score;
+                }
+            }
+            groundDisjunction=groundDisjunction.m_previousGroundDisjunction;
+        }
+        return bestGroundDisjunction;
+    }
+    @Override
+    public void clashDetected(DependencySet clashDependencySet) {
+    }
+    /**
+     * @param groundDisjunction a ground disjunction that is neither pruned nor satisfied
+     * @return the score of the ground disjunction; ground disjunctions with higher scores are branched on first
+     */
+    protected abstract double getScore(GroundDisjunction groundDisjunction);
+}
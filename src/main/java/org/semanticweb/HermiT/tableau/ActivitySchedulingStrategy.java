@@ -0,0 +1,78 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Branches first on the ground disjunctions whose headers have been involved in the most recent clashes. Each ground
+ * disjunction header has an activity that is increased whenever a clash depends on a choice for a ground disjunction
+ * with that header; the increment grows after each clash, so older clashes count less than recent ones. The activity
+ * of a header starts with the number of backtrackings that disjunction learning has recorded for its disjuncts.
+ */
+public class ActivitySchedulingStrategy extends AbstractGroundDisjunctionSchedulingStrategy {
+    private static final long serialVersionUID=4127741402765903283L;
+    protected static final double DECAY_FACTOR=0.95;
+    protected static final double RESCALE_THRESHOLD=1e100;
+
+    protected final Map<GroundDisjunctionHeader,double[]> m_activities;
+    protected double m_increment;
+
+    /**
+     */
+    public ActivitySchedulingStrategy() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+    /**
+     * @param windowSize windowSize
+     */
+    public ActivitySchedulingStrategy(int windowSize) {
+        super(windowSize);
+        m_activities=new IdentityHashMap<>();
+        m_increment=1.0;
+    }
+    @Override
+    protected double getScore(GroundDisjunction groundDisjunction) {
+        return getActivity(groundDisjunction.getGroundDisjunctionHeader())[0];
+    }
+    protected double[] getActivity(GroundDisjunctionHeader groundDisjunctionHeader) {
+        double[] activity=m_activities.get(groundDisjunctionHeader);
+        if (activity==null) {
+            activity=new double[] { groundDisjunctionHeader.getNumberOfBacktrackings() };
+            m_activities.put(groundDisjunctionHeader,activity);
+        }
+        return activity;
+    }
+    @Override
+    public void clashDetected(DependencySet clashDependencySet) {
+        for (int level=clashDependencySet.getMaximumBranchingPoint();level>m_tableau.m_nonbacktrackableBranchingPoint;--level) {
+            if (clashDependencySet.containsBranchingPoint(level)) {
+                BranchingPoint branchingPoint=m_tableau.m_branchingPoints[level];
+                if (branchingPoint instanceof DisjunctionBranchingPoint)
+                    getActivity(((DisjunctionBranchingPoint)branchingPoint).m_groundDisjunction.getGroundDisjunctionHeader())[0]+=m_increment;
+            }
+        }
+        m_increment/=DECAY_FACTOR;
+        if (m_increment>RESCALE_THRESHOLD) {
+            for (double[] activity : m_activities.values())
+                activity[0]/=RESCALE_THRESHOLD;
+            m_increment/=RESCALE_THRESHOLD;
+        }
+    }
+}
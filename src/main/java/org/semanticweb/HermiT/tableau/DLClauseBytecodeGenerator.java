@@ -0,0 +1,423 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.semanticweb.HermiT.tableau.DLClauseEvaluator.BranchingWorker;
+import org.semanticweb.HermiT.tableau.DLClauseEvaluator.CompiledBody;
+import org.semanticweb.HermiT.tableau.DLClauseEvaluator.Worker;
+
+/**
+ * Generates JVM classes that evaluate the compiled workers of a DL clause as straight-line code. The interpreter in
+ * DLClauseEvaluator.evaluate() calls all workers through one call site, which the JIT cannot inline; a generated class
+ * calls each worker from a call site of its own and implements the jumps of the program as branches, so the JIT can
+ * inline the workers into one join loop. The generated code depends only on the classes and the branching addresses of
+ * the workers, so a class is generated once for each such shape and shared by all evaluators of a tableau with that
+ * shape; the workers themselves are passed to the constructor. Each tableau has a generator of its own, whose class
+ * loader holds the generated classes, so these can be unloaded together with the tableau.
+ *
+ * Workers that do not implement BranchingWorker must continue with the next worker, and branching workers must
+ * continue either with the next worker or at their branching address. The clash flag is checked after each worker that
+ * can derive facts, and the interrupt flag before each backward jump.
+ */
+public final class DLClauseBytecodeGenerator {
+    protected static final String WORKER_DESCRIPTOR="Lorg/semanticweb/HermiT/tableau/DLClauseEvaluator$Worker;";
+    protected static final String EXTENSION_MANAGER_CLASS="org/semanticweb/HermiT/tableau/ExtensionManager";
+    protected static final String INTERRUPT_FLAG_CLASS="org/semanticweb/HermiT/tableau/InterruptFlag";
+    protected static final String GENERATED_CLASS_PREFIX="org/semanticweb/HermiT/tableau/generated/DLClauseBody";
+    protected static final int MAXIMUM_CODE_LENGTH=32767;
+    protected final Map<String,Constructor<?>> m_constructorsByShape;
+    protected final GeneratedClassLoader m_classLoader;
+    protected int m_numberOfGeneratedClasses;
+
+    public DLClauseBytecodeGenerator() {
+        m_constructorsByShape=new HashMap<>();
+        m_classLoader=new GeneratedClassLoader(DLClauseBytecodeGenerator.class.getClassLoader());
+    }
+    /**
+     * @param workers the workers of a DL clause evaluator
+     * @param extensionManager the extension manager whose clash flag stops the evaluation
+     * @param interruptFlag interruptFlag
+     * @return the compiled body, or null if the workers cannot be compiled
+     */
+    public CompiledBody compile(Worker[] workers,ExtensionManager extensionManager,InterruptFlag interruptFlag) {
+        String shape=getShape(workers);
+        Constructor<?> constructor=m_constructorsByShape.get(shape);
+        if (constructor==null) {
+            constructor=generateClass(workers);
+            if (constructor==null)
+                return null;
+            m_constructorsByShape.put(shape,constructor);
+        }
+        try {
+            return (CompiledBody)constructor.newInstance(workers,extensionManager,interruptFlag);
+        }
+        catch (InstantiationException|IllegalAccessException|InvocationTargetException e) {
+            throw new IllegalStateException("Cannot instantiate a compiled DL clause body.",e);
+        }
+    }
+    /**
+     * @return the number of classes that this generator has generated so far
+     */
+    public int getNumberOfGeneratedClasses() {
+        return m_numberOfGeneratedClasses;
+    }
+    protected static String getShape(Worker[] workers) {
+        StringBuilder shape=new StringBuilder();
+        for (Worker worker : workers) {
+            shape.append(worker.getClass().getName());
+            if (worker instanceof BranchingWorker)
+                shape.append("->").append(((BranchingWorker)worker).getBranchingAddress());
+            shape.append(';');
+        }
+        return shape.toString();
+    }
+    protected Constructor<?> generateClass(Worker[] workers) {
+        if (workers.length>=Short.MAX_VALUE)
+            return null;
+        String className=GENERATED_CLASS_PREFIX+m_numberOfGeneratedClasses;
+        byte[] classFile;
+        try {
+            classFile=new ClassFileWriter(className,workers).write();
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Cannot write a compiled DL clause body.",e);
+        }
+        if (classFile==null)
+            return null;
+        Class<?> generatedClass=m_classLoader.defineClass(className.replace('/','.'),classFile);
+        m_numberOfGeneratedClasses++;
+        try {
+            return generatedClass.getConstructor(Worker[].class,ExtensionManager.class,InterruptFlag.class);
+        }
+        catch (NoSuchMethodException e) {
+            throw new IllegalStateException("The compiled DL clause body has no suitable constructor.",e);
+        }
+    }
+    /**
+     * @return true if the worker never derives facts or sets a clash
+     */
+    protected static boolean cannotSetClash(Worker worker) {
+        return worker instanceof BranchingWorker || worker instanceof DLClauseEvaluator.CopyValues || worker instanceof DLClauseEvaluator.CopyDependencySet || worker instanceof DLClauseEvaluator.OpenRetrieval || worker instanceof DLClauseEvaluator.NextRetrieval || worker instanceof DLClauseEvaluator.CallMatchStartedOnMonitor || worker instanceof DLClauseEvaluator.CallMatchFinishedOnMonitor;
+    }
+
+    protected static final class GeneratedClassLoader extends ClassLoader {
+        protected GeneratedClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+        protected Class<?> defineClass(String name,byte[] classFile) {
+            return defineClass(name,classFile,0,classFile.length);
+        }
+    }
+
+    /**
+     * Writes a class file of version 49, which needs no stack map frames. The class has a final field for each worker,
+     * a constructor that takes the workers, the extension manager and the interrupt flag, and the method evaluate().
+     */
+    protected static final class ClassFileWriter {
+        protected static final int CONSTANT_UTF8=1;
+        protected static final int CONSTANT_CLASS=7;
+        protected static final int CONSTANT_FIELDREF=9;
+        protected static final int CONSTANT_METHODREF=10;
+        protected static final int CONSTANT_INTERFACE_METHODREF=11;
+        protected static final int CONSTANT_NAME_AND_TYPE=12;
+        protected static final int ALOAD_0=0x2a;
+        protected static final int ALOAD_1=0x2b;
+        protected static final int ALOAD_2=0x2c;
+        protected static final int ALOAD_3=0x2d;
+        protected static final int SIPUSH=0x11;
+        protected static final int AALOAD=0x32;
+        protected static final int POP=0x57;
+        protected static final int IFNE=0x9a;
+        protected static final int IF_ICMPEQ=0x9f;
+        protected static final int IF_ICMPNE=0xa0;
+        protected static final int GOTO=0xa7;
+        protected static final int RETURN=0xb1;
+        protected static final int GETFIELD=0xb4;
+        protected static final int PUTFIELD=0xb5;
+        protected static final int INVOKEVIRTUAL=0xb6;
+        protected static final int INVOKESPECIAL=0xb7;
+        protected static final int INVOKEINTERFACE=0xb9;
+
+        protected final String m_className;
+        protected final Worker[] m_workers;
+        protected final ByteArrayOutputStream m_constantPoolBytes;
+        protected final DataOutputStream m_constantPool;
+        protected final Map<String,Integer> m_constantIndexes;
+        protected int m_constantPoolCount;
+
+        protected ClassFileWriter(String className,Worker[] workers) {
+            m_className=className;
+            m_workers=workers;
+            m_constantPoolBytes=new ByteArrayOutputStream();
+            m_constantPool=new DataOutputStream(m_constantPoolBytes);
+            m_constantIndexes=new HashMap<>();
+            m_constantPoolCount=1;
+        }
+        /**
+         * @return the class file, or null if the code of evaluate() would be too long
+         */
+        protected byte[] write() throws IOException {
+            byte[] constructorCode=writeConstructorCode();
+            byte[] evaluateCode=writeEvaluateCode();
+            if (evaluateCode==null || m_constantPoolCount+16>0xFFFF)
+                return null;
+            int thisClass=classConstant(m_className);
+            int superClass=classConstant("java/lang/Object");
+            int compiledBodyClass=classConstant("org/semanticweb/HermiT/tableau/DLClauseEvaluator$CompiledBody");
+            int codeName=utf8Constant("Code");
+            int constructorName=utf8Constant("<init>");
+            int constructorDescriptor=utf8Constant("([Lorg/semanticweb/HermiT/tableau/DLClauseEvaluator$Worker;L"+EXTENSION_MANAGER_CLASS+";L"+INTERRUPT_FLAG_CLASS+";)V");
+            int evaluateName=utf8Constant("evaluate");
+            int evaluateDescriptor=utf8Constant("()V");
+            int[] fieldNames=new int[m_workers.length+2];
+            int[] fieldDescriptors=new int[m_workers.length+2];
+            fieldNames[0]=utf8Constant("extensionManager");
+            fieldDescriptors[0]=utf8Constant("L"+EXTENSION_MANAGER_CLASS+";");
+            fieldNames[1]=utf8Constant("interruptFlag");
+            fieldDescriptors[1]=utf8Constant("L"+INTERRUPT_FLAG_CLASS+";");
+            for (int workerIndex=0;workerIndex<m_workers.length;workerIndex++) {
+                fieldNames[workerIndex+2]=utf8Constant("worker"+workerIndex);
+                fieldDescriptors[workerIndex+2]=utf8Constant(WORKER_DESCRIPTOR);
+            }
+            ByteArrayOutputStream classFileBytes=new ByteArrayOutputStream();
+            DataOutputStream classFile=new DataOutputStream(classFileBytes);
+            classFile.writeInt(0xCAFEBABE);
+            classFile.writeShort(0);
+            classFile.writeShort(49);
+            classFile.writeShort(m_constantPoolCount);
+            m_constantPool.flush();
+            m_constantPoolBytes.writeTo(classFile);
+            classFile.writeShort(0x0031); // public final super
+            classFile.writeShort(thisClass);
+            classFile.writeShort(superClass);
+            classFile.writeShort(1);
+            classFile.writeShort(compiledBodyClass);
+            classFile.writeShort(fieldNames.length);
+            for (int fieldIndex=0;fieldIndex<fieldNames.length;fieldIndex++) {
+                classFile.writeShort(0x0012); // private final
+                classFile.writeShort(fieldNames[fieldIndex]);
+                classFile.writeShort(fieldDescriptors[fieldIndex]);
+                classFile.writeShort(0);
+            }
+            classFile.writeShort(2);
+            writeMethod(classFile,0x0001,constructorName,constructorDescriptor,codeName,3,4,constructorCode);
+            writeMethod(classFile,0x0011,evaluateName,evaluateDescriptor,codeName,3,1,evaluateCode);
+            classFile.writeShort(0);
+            classFile.flush();
+            return classFileBytes.toByteArray();
+        }
+        protected static void writeMethod(DataOutputStream classFile,int accessFlags,int name,int descriptor,int codeName,int maxStack,int maxLocals,byte[] code) throws IOException {
+            classFile.writeShort(accessFlags);
+            classFile.writeShort(name);
+            classFile.writeShort(descriptor);
+            classFile.writeShort(1);
+            classFile.writeShort(codeName);
+            classFile.writeInt(2+2+4+code.length+2+2);
+            classFile.writeShort(maxStack);
+            classFile.writeShort(maxLocals);
+            classFile.writeInt(code.length);
+            classFile.write(code);
+            classFile.writeShort(0);
+            classFile.writeShort(0);
+        }
+        protected byte[] writeConstructorCode() throws IOException {
+            ByteArrayOutputStream codeBytes=new ByteArrayOutputStream();
+            DataOutputStream code=new DataOutputStream(codeBytes);
+            code.writeByte(ALOAD_0);
+            code.writeByte(INVOKESPECIAL);
+            code.writeShort(memberConstant(CONSTANT_METHODREF,"java/lang/Object","<init>","()V"));
+            code.writeByte(ALOAD_0);
+            code.writeByte(ALOAD_2);
+            code.writeByte(PUTFIELD);
+            code.writeShort(extensionManagerField());
+            code.writeByte(ALOAD_0);
+            code.writeByte(ALOAD_3);
+            code.writeByte(PUTFIELD);
+            code.writeShort(interruptFlagField());
+            for (int workerIndex=0;workerIndex<m_workers.length;workerIndex++) {
+                code.writeByte(ALOAD_0);
+                code.writeByte(ALOAD_1);
+                code.writeByte(SIPUSH);
+                code.writeShort(workerIndex);
+                code.writeByte(AALOAD);
+                code.writeByte(PUTFIELD);
+                code.writeShort(workerField(workerIndex));
+            }
+            code.writeByte(RETURN);
+            code.flush();
+            return codeBytes.toByteArray();
+        }
+        /**
+         * @return the code of evaluate(), or null if it is too long
+         */
+        protected byte[] writeEvaluateCode() throws IOException {
+            ByteArrayOutputStream codeBytes=new ByteArrayOutputStream();
+            DataOutputStream code=new DataOutputStream(codeBytes);
+            // the offsets of the workers and of the final return; jumps are patched once all offsets are known
+            int[] workerOffsets=new int[m_workers.length+1];
+            Map<Integer,Integer> jumpTargetsByOperandOffset=new HashMap<>();
+            Map<Integer,Integer> jumpOpcodeOffsetsByOperandOffset=new HashMap<>();
+            writeCheckInterrupt(code);
+            writeReturnIfClash(code,jumpTargetsByOperandOffset,jumpOpcodeOffsetsByOperandOffset);
+            for (int workerIndex=0;workerIndex<m_workers.length;workerIndex++) {
+                workerOffsets[workerIndex]=code.size();
+                Worker worker=m_workers[workerIndex];
+                if (worker instanceof DLClauseEvaluator.JumpTo) {
+                    int target=((BranchingWorker)worker).getBranchingAddress();
+                    if (target<=workerIndex)
+                        writeCheckInterrupt(code);
+                    writeJump(code,GOTO,target,jumpTargetsByOperandOffset,jumpOpcodeOffsetsByOperandOffset);
+                }
+                else {
+                    code.writeByte(ALOAD_0);
+                    code.writeByte(GETFIELD);
+                    code.writeShort(workerField(workerIndex));
+                    code.writeByte(SIPUSH);
+                    code.writeShort(workerIndex);
+                    code.writeByte(INVOKEINTERFACE);
+                    code.writeShort(memberConstant(CONSTANT_INTERFACE_METHODREF,"org/semanticweb/HermiT/tableau/DLClauseEvaluator$Worker","execute","(I)I"));
+                    code.writeByte(2);
+                    code.writeByte(0);
+                    if (worker instanceof BranchingWorker) {
+                        int target=((BranchingWorker)worker).getBranchingAddress();
+                        code.writeByte(SIPUSH);
+                        code.writeShort(workerIndex+1);
+                        if (target>workerIndex)
+                            writeJump(code,IF_ICMPNE,target,jumpTargetsByOperandOffset,jumpOpcodeOffsetsByOperandOffset);
+                        else {
+                            // the branch skips itself, the interrupt check and the goto
+                            code.writeByte(IF_ICMPEQ);
+                            code.writeShort(3+6+3);
+                            writeCheckInterrupt(code);
+                            writeJump(code,GOTO,target,jumpTargetsByOperandOffset,jumpOpcodeOffsetsByOperandOffset);
+                        }
+                    }
+                    else {
+                        code.writeByte(POP);
+                        if (!cannotSetClash(worker))
+                            writeReturnIfClash(code,jumpTargetsByOperandOffset,jumpOpcodeOffsetsByOperandOffset);
+                    }
+                }
+            }
+            workerOffsets[m_workers.length]=code.size();
+            code.writeByte(RETURN);
+            code.flush();
+            byte[] bytes=codeBytes.toByteArray();
+            if (bytes.length>MAXIMUM_CODE_LENGTH)
+                return null;
+            for (Map.Entry<Integer,Integer> entry : jumpTargetsByOperandOffset.entrySet()) {
+                int operandOffset=entry.getKey().intValue();
+                int target=entry.getValue().intValue();
+                if (target<0 || target>m_workers.length)
+                    return null;
+                int jump=workerOffsets[target]-jumpOpcodeOffsetsByOperandOffset.get(entry.getKey()).intValue();
+                bytes[operandOffset]=(byte)(jump>>8);
+                bytes[operandOffset+1]=(byte)jump;
+            }
+            return bytes;
+        }
+        protected void writeCheckInterrupt(DataOutputStream code) throws IOException {
+            // 6 bytes
+            code.writeByte(ALOAD_0);
+            code.writeByte(GETFIELD);
+            code.writeShort(interruptFlagField());
+            code.writeByte(INVOKEVIRTUAL);
+            code.writeShort(memberConstant(CONSTANT_METHODREF,INTERRUPT_FLAG_CLASS,"checkInterrupt","()V"));
+        }
+        protected void writeReturnIfClash(DataOutputStream code,Map<Integer,Integer> jumpTargetsByOperandOffset,Map<Integer,Integer> jumpOpcodeOffsetsByOperandOffset) throws IOException {
+            code.writeByte(ALOAD_0);
+            code.writeByte(GETFIELD);
+            code.writeShort(extensionManagerField());
+            code.writeByte(INVOKEVIRTUAL);
+            code.writeShort(memberConstant(CONSTANT_METHODREF,EXTENSION_MANAGER_CLASS,"containsClash","()Z"));
+            writeJump(code,IFNE,m_workers.length,jumpTargetsByOperandOffset,jumpOpcodeOffsetsByOperandOffset);
+        }
+        protected static void writeJump(DataOutputStream code,int opcode,int target,Map<Integer,Integer> jumpTargetsByOperandOffset,Map<Integer,Integer> jumpOpcodeOffsetsByOperandOffset) throws IOException {
+            Integer operandOffset=Integer.valueOf(code.size()+1);
+            jumpOpcodeOffsetsByOperandOffset.put(operandOffset,Integer.valueOf(code.size()));
+            jumpTargetsByOperandOffset.put(operandOffset,Integer.valueOf(target));
+            code.writeByte(opcode);
+            code.writeShort(0);
+        }
+        protected int extensionManagerField() throws IOException {
+            return memberConstant(CONSTANT_FIELDREF,m_className,"extensionManager","L"+EXTENSION_MANAGER_CLASS+";");
+        }
+        protected int interruptFlagField() throws IOException {
+            return memberConstant(CONSTANT_FIELDREF,m_className,"interruptFlag","L"+INTERRUPT_FLAG_CLASS+";");
+        }
+        protected int workerField(int workerIndex) throws IOException {
+            return memberConstant(CONSTANT_FIELDREF,m_className,"worker"+workerIndex,WORKER_DESCRIPTOR);
+        }
+        protected int utf8Constant(String value) throws IOException {
+            String key="U"+value;
+            Integer index=m_constantIndexes.get(key);
+            if (index==null) {
+                m_constantPool.writeByte(CONSTANT_UTF8);
+                m_constantPool.writeUTF(value);
+                index=addConstant(key);
+            }
+            return index.intValue();
+        }
+        protected int classConstant(String internalName) throws IOException {
+            String key="C"+internalName;
+            Integer index=m_constantIndexes.get(key);
+            if (index==null) {
+                int name=utf8Constant(internalName);
+                m_constantPool.writeByte(CONSTANT_CLASS);
+                m_constantPool.writeShort(name);
+                index=addConstant(key);
+            }
+            return index.intValue();
+        }
+        protected int memberConstant(int tag,String owner,String name,String descriptor) throws IOException {
+            String key=tag+owner+"."+name+":"+descriptor;
+            Integer index=m_constantIndexes.get(key);
+            if (index==null) {
+                int ownerClass=classConstant(owner);
+                String nameAndTypeKey="N"+name+":"+descriptor;
+                Integer nameAndType=m_constantIndexes.get(nameAndTypeKey);
+                if (nameAndType==null) {
+                    int nameIndex=utf8Constant(name);
+                    int descriptorIndex=utf8Constant(descriptor);
+                    m_constantPool.writeByte(CONSTANT_NAME_AND_TYPE);
+                    m_constantPool.writeShort(nameIndex);
+                    m_constantPool.writeShort(descriptorIndex);
+                    nameAndType=addConstant(nameAndTypeKey);
+                }
+                m_constantPool.writeByte(tag);
+                m_constantPool.writeShort(ownerClass);
+                m_constantPool.writeShort(nameAndType.intValue());
+                index=addConstant(key);
+            }
+            return index.intValue();
+        }
+        protected Integer addConstant(String key) {
+            Integer index=Integer.valueOf(m_constantPoolCount++);
+            m_constantIndexes.put(key,index);
+            return index;
+        }
+    }
+}
@@ -49,6 +49,7 @@ public class DLClauseEvaluator implements Serializable {
     protected final ExtensionManager m_extensionManager;
     protected final ExtensionTable.Retrieval[] m_retrievals;
     protected final Worker[] m_workers;
+    protected final transient CompiledBody m_compiledBody;
     protected final DLClause m_bodyDLClause;
     protected final List<DLClause> m_headDLClauses;
 
@@ -70,6 +71,10 @@ public class DLClauseEvaluator implements Serializable {
         compiler.m_retrievals.toArray(m_retrievals);
         m_workers=new Worker[compiler.m_workers.size()];
         compiler.m_workers.toArray(m_workers);
+        if (tableau.m_dlClauseBytecodeGenerator!=null)
+            m_compiledBody=tableau.m_dlClauseBytecodeGenerator.compile(m_workers,m_extensionManager,m_interruptFlag);
+        else
+            m_compiledBody=null;
         m_bodyDLClause=bodyDLClause;
         m_headDLClauses=headDLClauses;
     }
@@ -125,6 +130,10 @@ public class DLClauseEvaluator implements Serializable {
      * Evaluate.
      */
     public void evaluate() {
+        if (m_compiledBody!=null) {
+            m_compiledBody.evaluate();
+            return;
+        }
         int programCounter=0;
         while (programCounter<m_workers.length && !m_extensionManager.containsClash()) {
             m_interruptFlag.checkInterrupt();
@@ -254,20 +263,40 @@ public class DLClauseEvaluator implements Serializable {
                     return entry;
                 entry=entry.m_nextEntry;
             }
-            entry=new GroundDisjunctionHeader(dlPredicates,hashCode,entry);
+            entry=new GroundDisjunctionHeader(dlPredicates,hashCode,m_buckets[bucketIndex]);
             m_buckets[bucketIndex]=entry;
             m_numberOfElements++;
             if (m_numberOfElements>=m_threshold)
                 resize(m_buckets.length*2);
             return entry;
         }
+        /**
+         * Adds the number of backtrackings of the headers with at least one backtracking to the given statistics.
+         */
+        public void exportStatistics(DisjunctOrderingStatistics statistics) {
+            for (GroundDisjunctionHeader entry : m_buckets)
+                for (;entry!=null;entry=entry.m_nextEntry)
+                    if (entry.getNumberOfBacktrackings()>0)
+                        statistics.add(entry.getSignature(),entry.getNumberOfBacktrackingsPerDisjunct());
+        }
+        /**
+         * Sets the number of backtrackings of the headers whose signatures occur in the given statistics.
+         */
+        public void importStatistics(DisjunctOrderingStatistics statistics) {
+            for (GroundDisjunctionHeader entry : m_buckets)
+                for (;entry!=null;entry=entry.m_nextEntry) {
+                    int[] numberOfBacktrackings=statistics.getNumberOfBacktrackings(entry.getSignature());
+                    if (numberOfBacktrackings!=null && numberOfBacktrackings.length==entry.m_dlPredicates.length)
+                        entry.setNumberOfBacktrackings(numberOfBacktrackings);
+                }
+        }
         protected void resize(int newCapacity) {
             GroundDisjunctionHeader[] newBuckets=new GroundDisjunctionHeader[newCapacity];
             for (int i=0;i<m_buckets.length;i++) {
                 GroundDisjunctionHeader entry=m_buckets[i];
                 while (entry!=null) {
                     GroundDisjunctionHeader nextEntry=entry.m_nextEntry;
-                    int newIndex=getIndexFor(entry.hashCode(),newCapacity);
+                    int newIndex=getIndexFor(entry.m_hashCode,newCapacity);
                     entry.m_nextEntry=newBuckets[newIndex];
                     newBuckets[newIndex]=entry;
                     entry=nextEntry;
@@ -293,6 +322,16 @@ public class DLClauseEvaluator implements Serializable {
          * @return counter
          */
         int execute(int programCounter);
+    }
+
+    /**
+     * The workers of an evaluator compiled into a JVM class by DLClauseBytecodeGenerator.
+     */
+    public interface CompiledBody {
+        /**
+         * Runs the workers as evaluate() does.
+         */
+        void evaluate();
     }
 
     protected interface BranchingWorker extends Worker {
@@ -780,6 +819,7 @@ public class DLClauseEvaluator implements Serializable {
             m_bodyDLClause=bodyDLClause;
             m_headDLClauses=headDLClauses;
             m_coreVariables=new boolean[m_variables.size()];
+            determineExistentialBodyAtoms(1,getHeadVariables(headDLClauses));
             generateCode(1,firstAtomRetrieval);
         }
         protected int getNumberOfHeads() {
@@ -874,6 +914,8 @@ public class DLClauseEvaluator implements Serializable {
         /**Workers.*/
         public final List<Worker> m_workers;
         protected final TIntArrayList m_labels;
+        protected int m_firstExistentialBodyAtom;
+        protected int m_existentialExit;
 
         /**
          * @param bufferSupply bufferSupply
@@ -918,6 +960,29 @@ public class DLClauseEvaluator implements Serializable {
             m_retrievals=new ArrayList<>();
             m_workers=new ArrayList<>();
             m_labels=new TIntArrayList();
+            m_firstExistentialBodyAtom=getBodyLength();
+        }
+        /**
+         * Finds the first body atom from which on no atom binds a head variable. The loops over such atoms only check
+         * whether some match exists: once the heads have been derived, the code jumps behind the loop of that atom instead
+         * of enumerating the remaining assignments, which would only rederive the same head atoms.
+         *
+         * @param firstBodyAtomToCompile the first body atom that is compiled into a loop
+         * @param headVariables the variables occurring in the heads
+         */
+        protected final void determineExistentialBodyAtoms(int firstBodyAtomToCompile,List<Variable> headVariables) {
+            int firstExistentialBodyAtom=firstBodyAtomToCompile;
+            for (int bodyIndex=0;bodyIndex<getBodyLength();bodyIndex++) {
+                Atom atom=getBodyAtom(bodyIndex);
+                for (int argumentIndex=0;argumentIndex<atom.getArity();argumentIndex++) {
+                    Variable variable=atom.getArgumentVariable(argumentIndex);
+                    if (variable!=null && headVariables.contains(variable) && !occursInBodyAtomsBefore(variable,bodyIndex))
+                        firstExistentialBodyAtom=Math.max(firstExistentialBodyAtom,bodyIndex+1);
+                }
+            }
+            while (firstExistentialBodyAtom<getBodyLength() && !isRegularAtom(getBodyAtom(firstExistentialBodyAtom)))
+                firstExistentialBodyAtom++;
+            m_firstExistentialBodyAtom=firstExistentialBodyAtom;
         }
         protected final void generateCode(int firstBodyAtomToCompile,ExtensionTable.Retrieval firstAtomRetrieval) {
             m_labels.add(0);
@@ -941,6 +1006,15 @@ public class DLClauseEvaluator implements Serializable {
                     }
                 }
         }
+        protected final boolean occursInBodyAtomsBefore(Variable variable,int endIndex) {
+            for (int argumentIndex=0;argumentIndex<endIndex;argumentIndex++)
+                if (getBodyAtom(argumentIndex).containsVariable(variable))
+                    return true;
+            return false;
+        }
+        protected static boolean isRegularAtom(Atom atom) {
+            return !atom.getDLPredicate().equals(NodeIDLessEqualThan.INSTANCE) && !(atom.getDLPredicate() instanceof NodeIDsAscendingOrEqual);
+        }
         protected final boolean occursInBodyAtomsAfter(Variable variable,int startIndex) {
             for (int argumentIndex=startIndex;argumentIndex<getBodyLength();argumentIndex++)
                 if (getBodyAtom(argumentIndex).containsVariable(variable))
@@ -948,8 +1022,11 @@ public class DLClauseEvaluator implements Serializable {
             return false;
         }
         protected final void compileBodyAtom(int bodyAtomIndex,int lastAtomNextElement) {
-            if (bodyAtomIndex==getBodyLength())
+            if (bodyAtomIndex==getBodyLength()) {
                 compileHeads();
+                if (m_existentialExit!=0)
+                    m_workers.add(new JumpTo(m_existentialExit));
+            }
             else if (getBodyAtom(bodyAtomIndex).getDLPredicate().equals(NodeIDLessEqualThan.INSTANCE)) {
                 Atom atom=getBodyAtom(bodyAtomIndex);
                 int variable1Index=m_variables.indexOf(atom.getArgumentVariable(0));
@@ -985,8 +1062,12 @@ public class DLClauseEvaluator implements Serializable {
                 // NodeIDLessEqualThan and NodeIDsAscendingOrEqual atoms are compiled such that they
                 // immediately jump to the next element of the previous regular atom.
 
+                // If the atom is the first existential body atom, the end of the heads additionally jumps to afterLoop.
+
                 int afterLoop=addLabel();
                 int nextElement=addLabel();
+                if (bodyAtomIndex==m_firstExistentialBodyAtom)
+                    m_existentialExit=afterLoop;
                 Atom atom=getBodyAtom(bodyAtomIndex);
                 int[] bindingPositions=new int[atom.getArity()+1];
                 bindingPositions[0]=m_valuesBufferManager.m_bodyDLPredicatesToIndexes.get(atom.getDLPredicate()).intValue();
@@ -0,0 +1,144 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The number of backtrackings of the disjuncts of ground disjunction headers, which determine the order in which the
+ * disjuncts are tried. The statistics are keyed by the signature of the headers (see
+ * GroundDisjunctionHeader.getSignature()), so they can be exported from one tableau and imported into a tableau that is
+ * created later for the same ontology, possibly by another process.
+ */
+public final class DisjunctOrderingStatistics implements Serializable {
+    private static final long serialVersionUID=-3471902938473120592L;
+
+    protected final Map<String,int[]> m_numberOfBacktrackingsBySignature;
+
+    /**Creates empty statistics.*/
+    public DisjunctOrderingStatistics() {
+        m_numberOfBacktrackingsBySignature=new LinkedHashMap<>();
+    }
+    /**
+     * @return true if no statistics are recorded
+     */
+    public boolean isEmpty() {
+        return m_numberOfBacktrackingsBySignature.isEmpty();
+    }
+    /**
+     * @return the signatures of the recorded ground disjunction headers
+     */
+    public Set<String> getSignatures() {
+        return Collections.unmodifiableSet(m_numberOfBacktrackingsBySignature.keySet());
+    }
+    /**
+     * @param signature signature
+     * @return the number of backtrackings of each disjunct, or null if the signature has not been recorded
+     */
+    public int[] getNumberOfBacktrackings(String signature) {
+        int[] numberOfBacktrackings=m_numberOfBacktrackingsBySignature.get(signature);
+        return numberOfBacktrackings==null ? null : numberOfBacktrackings.clone();
+    }
+    /**
+     * Adds the given number of backtrackings to the recorded ones of the given signature.
+     *
+     * @param signature signature
+     * @param numberOfBacktrackings the number of backtrackings of each disjunct
+     */
+    public void add(String signature,int[] numberOfBacktrackings) {
+        int[] existing=m_numberOfBacktrackingsBySignature.get(signature);
+        if (existing==null)
+            m_numberOfBacktrackingsBySignature.put(signature,numberOfBacktrackings.clone());
+        else if (existing.length!=numberOfBacktrackings.length)
+            throw new IllegalArgumentException("The signature '"+signature+"' has "+existing.length+" disjuncts, not "+numberOfBacktrackings.length+".");
+        else
+            for (int disjunctIndex=0;disjunctIndex<existing.length;disjunctIndex++)
+                existing[disjunctIndex]+=numberOfBacktrackings[disjunctIndex];
+    }
+    /**
+     * @param statistics the statistics whose number of backtrackings are added to these
+     */
+    public void addAll(DisjunctOrderingStatistics statistics) {
+        for (Map.Entry<String,int[]> entry : statistics.m_numberOfBacktrackingsBySignature.entrySet())
+            add(entry.getKey(),entry.getValue());
+    }
+    /**
+     * Writes the statistics as text: one line per signature with the comma-separated number of backtrackings, a tab,
+     * and the signature.
+     *
+     * @param file file
+     * @throws IOException if the file cannot be written
+     */
+    public void save(File file) throws IOException {
+        try (BufferedWriter writer=Files.newBufferedWriter(file.toPath(),StandardCharsets.UTF_8)) {
+            for (Map.Entry<String,int[]> entry : m_numberOfBacktrackingsBySignature.entrySet()) {
+                int[] numberOfBacktrackings=entry.getValue();
+                for (int disjunctIndex=0;disjunctIndex<numberOfBacktrackings.length;disjunctIndex++) {
+                    if (disjunctIndex>0)
+                        writer.write(',');
+                    writer.write(Integer.toString(numberOfBacktrackings[disjunctIndex]));
+                }
+                writer.write('\t');
+                writer.write(entry.getKey());
+                writer.newLine();
+            }
+        }
+    }
+    /**
+     * @param file a file written by save()
+     * @return the statistics in the file
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static DisjunctOrderingStatistics load(File file) throws IOException {
+        DisjunctOrderingStatistics statistics=new DisjunctOrderingStatistics();
+        try (BufferedReader reader=Files.newBufferedReader(file.toPath(),StandardCharsets.UTF_8)) {
+            int lineNumber=0;
+            String line=reader.readLine();
+            while (line!=null) {
+                lineNumber++;
+                if (!line.isEmpty()) {
+                    int tabIndex=line.indexOf('\t');
+                    if (tabIndex<0)
+                        throw new IOException("Line "+lineNumber+" of '"+file+"' contains no signature.");
+                    String[] counts=line.substring(0,tabIndex).split(",");
+                    int[] numberOfBacktrackings=new int[counts.length];
+                    try {
+                        for (int disjunctIndex=0;disjunctIndex<counts.length;disjunctIndex++)
+                            numberOfBacktrackings[disjunctIndex]=Integer.parseInt(counts[disjunctIndex]);
+                    }
+                    catch (NumberFormatException e) {
+                        throw new IOException("Line "+lineNumber+" of '"+file+"' contains an invalid number of backtrackings.",e);
+                    }
+                    statistics.add(line.substring(tabIndex+1),numberOfBacktrackings);
+                }
+                line=reader.readLine();
+            }
+        }
+        return statistics;
+    }
+}
@@ -64,6 +64,8 @@ public final class DisjunctionBranchingPoint extends BranchingPoint {
                 tableau.m_extensionManager.addConceptAssertion(((AtomicConcept)dlPredicate).getNegation(),m_groundDisjunction.getArgument(previousDisjunctIndex,0),dependencySet,false);
         }
         m_groundDisjunction.addDisjunctToTableau(tableau,currentDisjunctIndex,dependencySet);
+        if (tableau.m_nogoodManager!=null)
+            tableau.m_nogoodManager.checkNogoods(m_groundDisjunction,currentDisjunctIndex);
         if (tableau.m_tableauMonitor!=null)
             tableau.m_tableauMonitor.disjunctProcessingFinished(m_groundDisjunction,currentDisjunctIndex);
     }
@@ -17,6 +17,7 @@
 */
 package org.semanticweb.HermiT.tableau;
 
+import java.io.File;
 import java.io.Serializable;
 import java.util.Collection;
 
@@ -41,6 +42,8 @@ public final class ExtensionManager implements Serializable {
     protected final Tableau m_tableau;
     protected final TableauMonitor m_tableauMonitor;
     protected final DependencySetFactory m_dependencySetFactory;
+    protected final TupleObjectEncoder m_tupleObjectEncoder;
+    protected final OffHeapStorage m_offHeapStorage;
     protected final TIntObjectHashMap<ExtensionTable> m_extensionTablesByArity;
     protected final ExtensionTable[] m_allExtensionTablesArray;
     protected final ExtensionTable m_binaryExtensionTable;
@@ -62,11 +65,14 @@ public final class ExtensionManager implements Serializable {
         m_tableauMonitor=m_tableau.m_tableauMonitor;
         m_dependencySetFactory=m_tableau.m_dependencySetFactory;
         m_extensionTablesByArity=new TIntObjectHashMap<>();
+        Object storage=m_tableau.getParameters().get("ExtensionTable.storage");
+        m_tupleObjectEncoder=createTupleObjectEncoder(storage);
+        m_offHeapStorage=createOffHeapStorage(storage,m_tableau.getParameters().get("ExtensionTable.mappedFileDirectory"));
         m_binaryExtensionTable=
-            new ExtensionTableWithTupleIndexes(m_tableau,2,!m_tableau.isDeterministic(),
+            new ExtensionTableWithTupleIndexes(m_tableau,2,!m_tableau.isDeterministic(),m_tupleObjectEncoder,m_offHeapStorage,
                 new TupleIndex[] {
-                    new TupleIndex(new int[] { 1,0 }),
-                    new TupleIndex(new int[] { 0,1 })
+                    new TupleIndex(new int[] { 1,0 },m_tupleObjectEncoder,m_offHeapStorage),
+                    new TupleIndex(new int[] { 0,1 },m_tupleObjectEncoder,m_offHeapStorage)
                 }
             ) {
                 private static final long serialVersionUID=1462821385000191875L;
@@ -82,11 +88,11 @@ public final class ExtensionManager implements Serializable {
             };
         m_extensionTablesByArity.put(2,m_binaryExtensionTable);
         m_ternaryExtensionTable=
-            new ExtensionTableWithTupleIndexes(m_tableau,3,!m_tableau.isDeterministic(),
+            new ExtensionTableWithTupleIndexes(m_tableau,3,!m_tableau.isDeterministic(),m_tupleObjectEncoder,m_offHeapStorage,
                 new TupleIndex[] {
-                    new TupleIndex(new int[] { 0,1,2 }),
-                    new TupleIndex(new int[] { 1,2,0 }),
-                    new TupleIndex(new int[] { 2,0,1 })
+                    new TupleIndex(new int[] { 0,1,2 },m_tupleObjectEncoder,m_offHeapStorage),
+                    new TupleIndex(new int[] { 1,2,0 },m_tupleObjectEncoder,m_offHeapStorage),
+                    new TupleIndex(new int[] { 2,0,1 },m_tupleObjectEncoder,m_offHeapStorage)
                 }
             ) {
                 private static final long serialVersionUID=-731201626401421877L;
@@ -116,12 +122,51 @@ public final class ExtensionManager implements Serializable {
         m_fouraryAuxiliaryTupleContains=new Object[4];
         m_fouraryAuxiliaryTupleAdd=new Object[4];
     }
+    /**
+     * The parameter "ExtensionTable.storage" selects how the binary and ternary extension tables store their tuples:
+     * "objects" (the default) stores references to the nodes and DL predicates, whereas "ints" stores dense integer
+     * IDs in int[] pages and keys the tuple indexes on these IDs. The values "offheap" and "mapped" store these IDs and
+     * the tries of the tuple indexes outside of the heap, in direct byte buffers or in a memory-mapped temporary file in
+     * the directory given by the parameter "ExtensionTable.mappedFileDirectory" (by default, java.io.tmpdir).
+     */
+    protected static TupleObjectEncoder createTupleObjectEncoder(Object storage) {
+        if (storage==null || "objects".equals(storage))
+            return null;
+        else if ("ints".equals(storage) || "offheap".equals(storage) || "mapped".equals(storage))
+            return new TupleObjectEncoder();
+        else
+            throw new IllegalArgumentException("Unknown extension table storage '"+storage+"'.");
+    }
+    protected static OffHeapStorage createOffHeapStorage(Object storage,Object mappedFileDirectory) {
+        if ("offheap".equals(storage))
+            return new OffHeapStorage(null);
+        else if ("mapped".equals(storage)) {
+            if (mappedFileDirectory instanceof File)
+                return new OffHeapStorage((File)mappedFileDirectory);
+            else if (mappedFileDirectory!=null)
+                return new OffHeapStorage(new File(mappedFileDirectory.toString()));
+            else
+                return new OffHeapStorage(new File(System.getProperty("java.io.tmpdir")));
+        }
+        else
+            return null;
+    }
+    /**
+     * Releases the memory of the extension tables that is not managed by the garbage collector. The tableau must not be
+     * used afterwards.
+     */
+    public void dispose() {
+        if (m_offHeapStorage!=null)
+            m_offHeapStorage.dispose();
+    }
     /**
      * Clear.
      */
     public void clear() {
         for (int index=m_allExtensionTablesArray.length-1;index>=0;--index)
             m_allExtensionTablesArray[index].clear();
+        if (m_tupleObjectEncoder!=null)
+            m_tupleObjectEncoder.clear();
         m_clashDependencySet=null;
         m_binaryAuxiliaryTupleContains[0]=null;
         m_binaryAuxiliaryTupleContains[1]=null;
@@ -18,6 +18,8 @@
 package org.semanticweb.HermiT.tableau;
 
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.semanticweb.HermiT.model.AtomicConcept;
 import org.semanticweb.HermiT.model.AtomicNegationConcept;
@@ -64,6 +66,7 @@ public abstract class ExtensionTable implements Serializable {
     protected int m_afterExtensionThisTupleIndex;
     protected int m_afterDeltaNewTupleIndex;
     protected int[] m_indicesByBranchingPoint;
+    protected final Map<Object,int[]> m_numberOfTuplesByPredicate;
 
     /**
      * @param tableau tableau
@@ -71,16 +74,28 @@ public abstract class ExtensionTable implements Serializable {
      * @param needsDependencySets needsDependencySets
      */
     public ExtensionTable(Tableau tableau,int tupleArity,boolean needsDependencySets) {
+        this(tableau,tupleArity,needsDependencySets,null,null);
+    }
+    /**
+     * @param tableau tableau
+     * @param tupleArity tupleArity
+     * @param needsDependencySets needsDependencySets
+     * @param encoder if not null, the tuples (but not the dependency sets) are stored as IDs of this encoder
+     * @param offHeapStorage if not null, the IDs are stored outside of the heap
+     */
+    public ExtensionTable(Tableau tableau,int tupleArity,boolean needsDependencySets,TupleObjectEncoder encoder,OffHeapStorage offHeapStorage) {
         m_tableau=tableau;
         m_tableauMonitor=m_tableau.m_tableauMonitor;
         m_tupleArity=tupleArity;
-        m_tupleTable=new TupleTable(m_tupleArity+(needsDependencySets ? 1 : 0));
+        m_tupleTable=new TupleTable(m_tupleArity+(needsDependencySets ? 1 : 0),encoder==null ? 0 : m_tupleArity,encoder,offHeapStorage);
         m_dependencySetManager=needsDependencySets ? new LastObjectDependencySetManager(this) : new DeterministicDependencySetManager(this);
         if (m_tupleArity==2)
             m_coreManager=new RealCoreManager();
         else
             m_coreManager=new NoCoreManager();
         m_indicesByBranchingPoint=new int[2*3];
+        // the tuples are counted only for ordering the body atoms of the DL clauses
+        m_numberOfTuplesByPredicate=(m_tableau.m_costBasedJoinOrdering ? new HashMap<>() : null);
     }
     /**
      * @return size in memory
@@ -121,6 +136,27 @@ public abstract class ExtensionTable implements Serializable {
     public boolean isCore(int tupleIndex) {
         return m_coreManager.isCore(tupleIndex);
     }
+    /**
+     * @return the number of tuples in the table, including the ones whose nodes have been merged or pruned
+     */
+    public int getNumberOfTuples() {
+        return m_tupleTable.getFirstFreeTupleIndex();
+    }
+    /**
+     * Returns the number of tuples in the table whose first object is the given predicate. The number counts the tuples
+     * of all views, including the ones whose nodes have been merged or pruned, so it is meant as an estimate for
+     * ordering joins rather than as an exact answer. The tuples are counted only if the parameter
+     * "HyperresolutionManager.costBasedJoinOrdering" is set; otherwise, the number is always 0.
+     *
+     * @param dlPredicate the first object of the tuples
+     * @return the number of tuples with the given first object
+     */
+    public int getNumberOfTuples(Object dlPredicate) {
+        if (m_numberOfTuplesByPredicate==null)
+            return 0;
+        int[] numberOfTuples=m_numberOfTuplesByPredicate.get(dlPredicate);
+        return numberOfTuples==null ? 0 : numberOfTuples[0];
+    }
     /**
      * @param tuple tuple
      * @param dependencySet dependencySet
@@ -135,6 +171,14 @@ public abstract class ExtensionTable implements Serializable {
      */
     protected void postAdd(Object[] tuple,DependencySet dependencySet,int tupleIndex,boolean isCore) {
         Object dlPredicateObject=tuple[0];
+        if (m_numberOfTuplesByPredicate!=null) {
+            int[] numberOfTuples=m_numberOfTuplesByPredicate.get(dlPredicateObject);
+            if (numberOfTuples==null) {
+                numberOfTuples=new int[1];
+                m_numberOfTuplesByPredicate.put(dlPredicateObject,numberOfTuples);
+            }
+            numberOfTuples[0]++;
+        }
         if (dlPredicateObject instanceof Concept) {
             Node node=(Node)tuple[1];
             if (dlPredicateObject instanceof AtomicConcept)
@@ -238,6 +282,8 @@ public abstract class ExtensionTable implements Serializable {
     protected abstract void removeTuple(int tupleIndex);
     protected void postRemove(Object[] tuple,int tupleIndex) {
         Object dlPredicateObject=tuple[0];
+        if (m_numberOfTuplesByPredicate!=null)
+            m_numberOfTuplesByPredicate.get(dlPredicateObject)[0]--;
         if (dlPredicateObject instanceof Concept) {
             Node node=(Node)tuple[1];
             m_tableau.m_existentialExpansionStrategy.assertionRemoved((Concept)dlPredicateObject,node,m_coreManager.isCore(tupleIndex));
@@ -265,6 +311,8 @@ public abstract class ExtensionTable implements Serializable {
         m_afterExtensionOldTupleIndex=0;
         m_afterExtensionThisTupleIndex=0;
         m_afterDeltaNewTupleIndex=0;
+        if (m_numberOfTuplesByPredicate!=null)
+            m_numberOfTuplesByPredicate.clear();
     }
     /**
      * @param tuple tuple
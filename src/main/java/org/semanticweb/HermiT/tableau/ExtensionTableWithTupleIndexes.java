@@ -42,7 +42,18 @@ public class ExtensionTableWithTupleIndexes extends ExtensionTable {
      * @param tupleIndexes tupleIndexes
      */
     public ExtensionTableWithTupleIndexes(Tableau tableau,int tupleArity,boolean needsDependencySets,TupleIndex[] tupleIndexes) {
-        super(tableau,tupleArity,needsDependencySets);
+        this(tableau,tupleArity,needsDependencySets,null,null,tupleIndexes);
+    }
+    /**
+     * @param tableau tableau
+     * @param tupleArity tupleArity
+     * @param needsDependencySets needsDependencySets
+     * @param encoder the encoder of the tuple table and the tuple indexes, or null if objects are stored directly
+     * @param offHeapStorage the storage of the encoded tuples, or null if they are kept on the heap
+     * @param tupleIndexes tupleIndexes
+     */
+    public ExtensionTableWithTupleIndexes(Tableau tableau,int tupleArity,boolean needsDependencySets,TupleObjectEncoder encoder,OffHeapStorage offHeapStorage,TupleIndex[] tupleIndexes) {
+        super(tableau,tupleArity,needsDependencySets,encoder,offHeapStorage);
         m_tupleIndexes=tupleIndexes;
         m_auxiliaryTuple=new Object[m_tupleArity];
     }
@@ -0,0 +1,41 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+/**
+ * Branches first on the ground disjunctions with the fewest disjuncts, which open the fewest branches.
+ */
+public class FewestDisjunctsSchedulingStrategy extends AbstractGroundDisjunctionSchedulingStrategy {
+    private static final long serialVersionUID=6049853413390734152L;
+
+    /**
+     */
+    public FewestDisjunctsSchedulingStrategy() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+    /**
+     * @param windowSize windowSize
+     */
+    public FewestDisjunctsSchedulingStrategy(int windowSize) {
+        super(windowSize);
+    }
+    @Override
+    protected double getScore(GroundDisjunction groundDisjunction) {
+        return -groundDisjunction.getNumberOfDisjuncts();
+    }
+}
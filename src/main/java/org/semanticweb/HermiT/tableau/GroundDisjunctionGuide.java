@@ -0,0 +1,33 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+/**
+ * A guide can pin the disjunct that the tableau chooses for a ground disjunction. The tableau asks the guide only while
+ * all of its branching points are nonbacktrackable; a pinned disjunct is added with a new nonbacktrackable branching
+ * point of the given level, so the other disjuncts are never tried and a clash that depends on the pinned disjunct
+ * contains this level.
+ */
+public interface GroundDisjunctionGuide {
+    /**
+     * @param groundDisjunction a ground disjunction with more than one disjunct that is neither pruned nor satisfied
+     * @param level the level of the branching point that is pushed if a disjunct is pinned
+     * @return the index of the pinned disjunct, or -1 if the tableau branches on the disjunction as usual
+     */
+    int getPinnedDisjunct(GroundDisjunction groundDisjunction,int level);
+}
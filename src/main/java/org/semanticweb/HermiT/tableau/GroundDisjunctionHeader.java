@@ -17,6 +17,8 @@
 */
 package org.semanticweb.HermiT.tableau;
 
+import java.util.Arrays;
+
 import org.semanticweb.HermiT.Prefixes;
 import org.semanticweb.HermiT.model.AtLeastConcept;
 import org.semanticweb.HermiT.model.AtomicNegationConcept;
@@ -92,6 +94,55 @@ public final class GroundDisjunctionHeader {
             sortedDisjunctIndexes[index]=m_disjunctIndexesWithBacktrackings[index].m_disjunctIndex;
         return sortedDisjunctIndexes;
     }
+    /**
+     * @return the number of backtrackings over all disjuncts
+     */
+    public int getNumberOfBacktrackings() {
+        int numberOfBacktrackings=0;
+        for (DisjunctIndexWithBacktrackings disjunctIndexWithBacktrackings : m_disjunctIndexesWithBacktrackings)
+            numberOfBacktrackings+=disjunctIndexWithBacktrackings.m_numberOfBacktrackings;
+        return numberOfBacktrackings;
+    }
+    /**
+     * @return the disjuncts of the header, which identify the header independently of the tableau
+     */
+    public String getSignature() {
+        StringBuilder buffer=new StringBuilder();
+        for (int disjunctIndex=0;disjunctIndex<m_dlPredicates.length;disjunctIndex++) {
+            if (disjunctIndex>0)
+                buffer.append(" \\/ ");
+            buffer.append(m_dlPredicates[disjunctIndex].toString(Prefixes.STANDARD_PREFIXES));
+        }
+        return buffer.toString();
+    }
+    /**
+     * @return the number of backtrackings of each disjunct, indexed like the disjuncts
+     */
+    public int[] getNumberOfBacktrackingsPerDisjunct() {
+        int[] numberOfBacktrackings=new int[m_disjunctIndexesWithBacktrackings.length];
+        for (DisjunctIndexWithBacktrackings disjunctIndexWithBacktrackings : m_disjunctIndexesWithBacktrackings)
+            numberOfBacktrackings[disjunctIndexWithBacktrackings.m_disjunctIndex]=disjunctIndexWithBacktrackings.m_numberOfBacktrackings;
+        return numberOfBacktrackings;
+    }
+    /**
+     * Replaces the number of backtrackings of the disjuncts and reorders the disjuncts as if the backtrackings had
+     * happened in this tableau; as in increaseNumberOfBacktrackings(), the disjuncts stay within their partitions.
+     *
+     * @param numberOfBacktrackings the number of backtrackings of each disjunct, indexed like the disjuncts
+     */
+    public void setNumberOfBacktrackings(int[] numberOfBacktrackings) {
+        if (numberOfBacktrackings.length!=m_disjunctIndexesWithBacktrackings.length)
+            throw new IllegalArgumentException("The header has "+m_disjunctIndexesWithBacktrackings.length+" disjuncts, not "+numberOfBacktrackings.length+".");
+        for (DisjunctIndexWithBacktrackings disjunctIndexWithBacktrackings : m_disjunctIndexesWithBacktrackings)
+            disjunctIndexWithBacktrackings.m_numberOfBacktrackings=numberOfBacktrackings[disjunctIndexWithBacktrackings.m_disjunctIndex];
+        // the sort is stable, so disjuncts with the same number of backtrackings keep their order
+        sortPartition(0,m_firstAtLeastNegativeIndex);
+        sortPartition(m_firstAtLeastNegativeIndex,m_firstAtLeastPositiveIndex);
+        sortPartition(m_firstAtLeastPositiveIndex,m_disjunctIndexesWithBacktrackings.length);
+    }
+    protected void sortPartition(int partitionStart,int partitionEnd) {
+        Arrays.sort(m_disjunctIndexesWithBacktrackings,partitionStart,partitionEnd,(disjunct1,disjunct2) -> Integer.compare(disjunct1.m_numberOfBacktrackings,disjunct2.m_numberOfBacktrackings));
+    }
     /**
      * @param disjunctIndex disjunctIndex
      */
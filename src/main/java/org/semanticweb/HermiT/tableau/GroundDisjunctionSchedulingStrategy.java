@@ -0,0 +1,44 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+/**
+ * Scheduling strategies select the ground disjunction that the tableau branches on next. The tableau keeps the ground
+ * disjunctions in the order in which they have been derived; the disjunctions that are pruned or satisfied at the start
+ * of that order are skipped by the tableau itself, and the strategy is asked only when the first remaining disjunction
+ * would have to be branched on. A disjunction that the strategy selects ahead of the order stays in the order and is
+ * skipped as satisfied once the tableau reaches it.
+ */
+public interface GroundDisjunctionSchedulingStrategy {
+    /**
+     * @param tableau tableau
+     */
+    void initialize(Tableau tableau);
+    /**
+     * @param firstUnprocessedGroundDisjunction the oldest ground disjunction that is neither pruned nor satisfied
+     * @return the ground disjunction to branch on; it must be firstUnprocessedGroundDisjunction or a newer ground
+     *         disjunction that is neither pruned nor satisfied
+     */
+    GroundDisjunction selectGroundDisjunction(GroundDisjunction firstUnprocessedGroundDisjunction);
+    /**
+     * Informs the strategy about a clash that the tableau is about to backtrack from.
+     *
+     * @param clashDependencySet clashDependencySet
+     */
+    void clashDetected(DependencySet clashDependencySet);
+}
@@ -43,6 +43,10 @@ import org.semanticweb.HermiT.model.Variable;
  */
 public final class HyperresolutionManager implements Serializable {
     private static final long serialVersionUID=-4880817508962130189L;
+    /**The factor by which the extension tables must grow before the body atoms are ordered again.*/
+    public static final int JOIN_ORDER_GROWTH_FACTOR=4;
+    /**The number of tuples or nodes by which the extension tables must grow before the body atoms are ordered again.*/
+    public static final int MINIMUM_JOIN_ORDER_GROWTH=1000;
 
     protected final ExtensionManager m_extensionManager;
     protected final ExtensionTable.Retrieval[] m_deltaOldRetrievals;
@@ -55,14 +59,57 @@ public final class HyperresolutionManager implements Serializable {
     protected final UnionDependencySet[] m_unionDependencySetsToClear;
     protected final Object[] m_valuesBuffer;
     protected final int m_maxNumberOfVariables;
+    protected final DLClauseEvaluator.GroundDisjunctionHeaderManager m_groundDisjunctionHeaderManager;
+    protected final Map<DLPredicate,Integer> m_joinOrderNumbersOfTuples;
+    protected final int m_joinOrderNumberOfNodes;
+    protected final int[] m_joinOrderTableSizes;
 
     /**
      * @param tableau tableau
      * @param dlClauses dlClauses
      */
     public HyperresolutionManager(Tableau tableau,Collection<DLClause> dlClauses) {
+        this(tableau,dlClauses,false,null);
+    }
+    /**
+     * @param tableau tableau
+     * @param dlClauses dlClauses
+     * @param costBasedJoinOrdering if true, the body atoms are ordered by the estimated number of their matches, which
+     *            is derived from the number of tuples in the extension tables of the tableau
+     * @param previousHyperresolutionManager if not null, the manager for the same DL clauses that this one replaces;
+     *            its ground disjunction headers are reused, and the body atoms are ordered for the larger of its and the
+     *            current numbers of tuples
+     */
+    public HyperresolutionManager(Tableau tableau,Collection<DLClause> dlClauses,boolean costBasedJoinOrdering,HyperresolutionManager previousHyperresolutionManager) {
         InterruptFlag interruptFlag=tableau.m_interruptFlag;
         m_extensionManager=tableau.m_extensionManager;
+        if (costBasedJoinOrdering) {
+            boolean usePrevious=(previousHyperresolutionManager!=null && previousHyperresolutionManager.m_joinOrderNumbersOfTuples!=null);
+            m_joinOrderNumbersOfTuples=new HashMap<>();
+            for (DLClause dlClause : dlClauses)
+                for (int bodyAtomIndex=0;bodyAtomIndex<dlClause.getBodyLength();bodyAtomIndex++) {
+                    DLPredicate dlPredicate=dlClause.getBodyAtom(bodyAtomIndex).getDLPredicate();
+                    if (isPredicateWithExtension(dlPredicate) && !m_joinOrderNumbersOfTuples.containsKey(dlPredicate)) {
+                        int numberOfTuples=getNumberOfTuples(dlPredicate);
+                        if (usePrevious) {
+                            Integer previousNumberOfTuples=previousHyperresolutionManager.m_joinOrderNumbersOfTuples.get(dlPredicate);
+                            if (previousNumberOfTuples!=null)
+                                numberOfTuples=Math.max(numberOfTuples,previousNumberOfTuples.intValue());
+                        }
+                        m_joinOrderNumbersOfTuples.put(dlPredicate,Integer.valueOf(numberOfTuples));
+                    }
+                }
+            m_joinOrderNumberOfNodes=Math.max(tableau.getNumberOfNodesInTableau(),usePrevious ? previousHyperresolutionManager.m_joinOrderNumberOfNodes : 0);
+            m_joinOrderTableSizes=new int[] { m_extensionManager.getBinaryExtensionTable().getNumberOfTuples(),m_extensionManager.getTernaryExtensionTable().getNumberOfTuples() };
+            if (usePrevious)
+                for (int index=0;index<m_joinOrderTableSizes.length;index++)
+                    m_joinOrderTableSizes[index]=Math.max(m_joinOrderTableSizes[index],previousHyperresolutionManager.m_joinOrderTableSizes[index]);
+        }
+        else {
+            m_joinOrderNumbersOfTuples=null;
+            m_joinOrderNumberOfNodes=0;
+            m_joinOrderTableSizes=null;
+        }
         m_tupleConsumersByDeltaPredicate=new HashMap<>();
         m_atomicRoleTupleConsumersUnguarded=new HashMap<>();
         m_atomicRoleTupleConsumersByGuardConcept1=new HashMap<>();
@@ -84,13 +131,14 @@ public final class HyperresolutionManager implements Serializable {
         DLClauseEvaluator.BufferSupply bufferSupply=new DLClauseEvaluator.BufferSupply();
         Map<Term,Node> noTermsToNodes=Collections.emptyMap();
         DLClauseEvaluator.ValuesBufferManager valuesBufferManager=new DLClauseEvaluator.ValuesBufferManager(dlClauses,noTermsToNodes);
-        DLClauseEvaluator.GroundDisjunctionHeaderManager groundDisjunctionHeaderManager=new DLClauseEvaluator.GroundDisjunctionHeaderManager();
+        DLClauseEvaluator.GroundDisjunctionHeaderManager groundDisjunctionHeaderManager=(previousHyperresolutionManager==null ? new DLClauseEvaluator.GroundDisjunctionHeaderManager() : previousHyperresolutionManager.m_groundDisjunctionHeaderManager);
+        m_groundDisjunctionHeaderManager=groundDisjunctionHeaderManager;
         Map<Integer,UnionDependencySet> unionDependencySetsBySize=new HashMap<>();
         ArrayList<Atom> guardingAtomicConceptAtoms1=new ArrayList<>();
         ArrayList<Atom> guardingAtomicConceptAtoms2=new ArrayList<>();
         for (Map.Entry<DLClauseBodyKey,List<DLClause>> entry : dlClausesByBody.entrySet()) {
             DLClause bodyDLClause=entry.getKey().m_dlClause;
-            BodyAtomsSwapper bodyAtomsSwapper=new BodyAtomsSwapper(bodyDLClause);
+            BodyAtomsSwapper bodyAtomsSwapper=new BodyAtomsSwapper(bodyDLClause,m_joinOrderNumbersOfTuples,m_joinOrderNumberOfNodes);
             for (int bodyAtomIndex=0;bodyAtomIndex<bodyDLClause.getBodyLength();++bodyAtomIndex)
                 if (isPredicateWithExtension(bodyDLClause.getBodyAtom(bodyAtomIndex).getDLPredicate())) {
                     DLClause swappedDLClause=bodyAtomsSwapper.getSwappedDLClause(bodyAtomIndex);
@@ -174,6 +222,38 @@ public final class HyperresolutionManager implements Serializable {
     protected static boolean isPredicateWithExtension(DLPredicate dlPredicate) {
         return !NodeIDLessEqualThan.INSTANCE.equals(dlPredicate) && !(dlPredicate instanceof NodeIDsAscendingOrEqual);
     }
+    protected int getNumberOfTuples(DLPredicate dlPredicate) {
+        ExtensionTable extensionTable=m_extensionManager.getExtensionTable(dlPredicate.getArity()+1);
+        return extensionTable==null ? 0 : extensionTable.getNumberOfTuples(dlPredicate);
+    }
+    /**
+     * Checks whether the body atoms have been ordered by numbers of tuples that are outdated. To keep the check cheap,
+     * only the sizes of the extension tables and the number of nodes are compared, not the numbers of tuples of
+     * the individual predicates.
+     *
+     * @return true if the body atoms are ordered by cost and the extension tables or the number of nodes have grown
+     *         considerably since
+     */
+    public boolean isJoinOrderOutdated() {
+        if (m_joinOrderNumbersOfTuples==null)
+            return false;
+        return hasOutgrown(m_joinOrderNumberOfNodes,m_extensionManager.m_tableau.getNumberOfNodesInTableau()) || hasOutgrown(m_joinOrderTableSizes[0],m_extensionManager.getBinaryExtensionTable().getNumberOfTuples()) || hasOutgrown(m_joinOrderTableSizes[1],m_extensionManager.getTernaryExtensionTable().getNumberOfTuples());
+    }
+    protected static boolean hasOutgrown(int numberWhenOrdered,int currentNumber) {
+        return currentNumber>JOIN_ORDER_GROWTH_FACTOR*numberWhenOrdered+MINIMUM_JOIN_ORDER_GROWTH;
+    }
+    /**
+     * @param statistics the statistics to which the number of backtrackings of the ground disjunction headers are added
+     */
+    public void exportDisjunctOrderingStatistics(DisjunctOrderingStatistics statistics) {
+        m_groundDisjunctionHeaderManager.exportStatistics(statistics);
+    }
+    /**
+     * @param statistics the statistics that replace the number of backtrackings of the ground disjunction headers
+     */
+    public void importDisjunctOrderingStatistics(DisjunctOrderingStatistics statistics) {
+        m_groundDisjunctionHeaderManager.importStatistics(statistics);
+    }
     /**Clear.*/
     public void clear() {
         for (int retrievalIndex=m_deltaOldRetrievals.length-1;retrievalIndex>=0;--retrievalIndex)
@@ -285,12 +365,25 @@ public final class HyperresolutionManager implements Serializable {
         protected final boolean[] m_usedAtoms;
         protected final List<Atom> m_reorderedAtoms;
         protected final Set<Variable> m_boundVariables;
+        protected final Map<DLPredicate,Integer> m_numbersOfTuples;
+        protected final int m_numberOfNodes;
 
         /**
          * @param dlClause dl clause
          */
         public BodyAtomsSwapper(DLClause dlClause) {
+            this(dlClause,null,0);
+        }
+        /**
+         * @param dlClause dl clause
+         * @param numbersOfTuples if not null, the numbers of tuples of the body predicates, which are used to order the
+         *            body atoms by the estimated number of their matches
+         * @param numberOfNodes the number of nodes, which is used to estimate how selective the bound arguments are
+         */
+        public BodyAtomsSwapper(DLClause dlClause,Map<DLPredicate,Integer> numbersOfTuples,int numberOfNodes) {
             m_dlClause=dlClause;
+            m_numbersOfTuples=numbersOfTuples;
+            m_numberOfNodes=Math.max(numberOfNodes,1);
             m_nodeIDComparisonAtoms=new ArrayList<>(m_dlClause.getBodyLength());
             m_usedAtoms=new boolean[m_dlClause.getBodyLength()];
             m_reorderedAtoms=new ArrayList<>(m_dlClause.getBodyLength());
@@ -322,7 +415,7 @@ public final class HyperresolutionManager implements Serializable {
                     if (!m_usedAtoms[index]) {
                         atom=m_dlClause.getBodyAtom(index);
                         int atomGoodness=getAtomGoodness(atom);
-                        if (atomGoodness>bestAtomGoodness) {
+                        if (atomGoodness>-1000 && (bestAtom==null || isBetterAtom(atom,atomGoodness,bestAtom,bestAtomGoodness))) {
                             bestAtom=atom;
                             bestAtomGoodness=atomGoodness;
                             bestAtomIndex=index;
@@ -338,6 +431,29 @@ public final class HyperresolutionManager implements Serializable {
             m_reorderedAtoms.toArray(bodyAtoms);
             return m_dlClause.getChangedDLClause(null,bodyAtoms);
         }
+        protected boolean isBetterAtom(Atom atom,int atomGoodness,Atom bestAtom,int bestAtomGoodness) {
+            if (m_numbersOfTuples!=null && isPredicateWithExtension(atom.getDLPredicate()) && isPredicateWithExtension(bestAtom.getDLPredicate())) {
+                double estimatedNumberOfMatches=getEstimatedNumberOfMatches(atom);
+                double bestEstimatedNumberOfMatches=getEstimatedNumberOfMatches(bestAtom);
+                if (estimatedNumberOfMatches!=bestEstimatedNumberOfMatches)
+                    return estimatedNumberOfMatches<bestEstimatedNumberOfMatches;
+            }
+            return atomGoodness>bestAtomGoodness;
+        }
+        /**
+         * Estimates the number of matches of the atom for each binding of the variables that are bound so far, assuming
+         * that each bound argument selects the tuples of one out of all nodes.
+         */
+        protected double getEstimatedNumberOfMatches(Atom atom) {
+            Integer numberOfTuples=m_numbersOfTuples.get(atom.getDLPredicate());
+            double estimatedNumberOfMatches=(numberOfTuples==null ? 0 : numberOfTuples.intValue())+1;
+            for (int argumentIndex=atom.getArity()-1;argumentIndex>=0;--argumentIndex) {
+                Term argument=atom.getArgument(argumentIndex);
+                if (!(argument instanceof Variable) || m_boundVariables.contains(argument))
+                    estimatedNumberOfMatches/=m_numberOfNodes;
+            }
+            return estimatedNumberOfMatches;
+        }
         protected int getAtomGoodness(Atom atom) {
             if (NodeIDLessEqualThan.INSTANCE.equals(atom.getDLPredicate())) {
                 if (m_boundVariables.contains(atom.getArgumentVariable(0)) && m_boundVariables.contains(atom.getArgumentVariable(1)))
@@ -0,0 +1,38 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.io.Serializable;
+
+/**
+ * Branches on the ground disjunctions in the order in which they have been derived. This is the default strategy.
+ */
+public class InsertionOrderSchedulingStrategy implements GroundDisjunctionSchedulingStrategy,Serializable {
+    private static final long serialVersionUID=-1877437391224816416L;
+
+    @Override
+    public void initialize(Tableau tableau) {
+    }
+    @Override
+    public GroundDisjunction selectGroundDisjunction(GroundDisjunction firstUnprocessedGroundDisjunction) {
+        return firstUnprocessedGroundDisjunction;
+    }
+    @Override
+    public void clashDetected(DependencySet clashDependencySet) {
+    }
+}
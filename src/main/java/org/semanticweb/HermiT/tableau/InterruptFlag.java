@@ -29,6 +29,7 @@ public final class InterruptFlag implements Serializable {
 
     protected final InterruptTimer m_interruptTimer;
     protected volatile InterruptType m_interruptType;
+    protected volatile int m_numberOfInterrupts;
 
     /**
      * @param individualTaskTimeout individualTaskTimeout
@@ -50,9 +51,34 @@ public final class InterruptFlag implements Serializable {
         }
     }
     /**Interrupt.*/
-    public void interrupt() {
+    public synchronized void interrupt() {
+        m_numberOfInterrupts++;
         m_interruptType=InterruptType.INTERRUPTED;
     }
+    /**
+     * Unlike the interrupt itself, which is cleared whenever a task starts, the number of interrupts is never reset, so
+     * another thread can detect an interrupt that has arrived between two tasks.
+     *
+     * @return the number of times that this flag has been interrupted
+     */
+    public int getNumberOfInterrupts() {
+        return m_numberOfInterrupts;
+    }
+    /**
+     * Stops the current task like an interrupt, but without counting as one; used to cancel tasks that are no longer needed.
+     */
+    public void cancelTask() {
+        m_interruptType=InterruptType.INTERRUPTED;
+    }
+    /**
+     * Clears a cancellation by cancelTask() unless this flag has been interrupted in the meantime.
+     *
+     * @param numberOfInterrupts the number of interrupts before the cancellation
+     */
+    public synchronized void clearCancellation(int numberOfInterrupts) {
+        if (m_numberOfInterrupts==numberOfInterrupts && m_interruptType==InterruptType.INTERRUPTED)
+            m_interruptType=null;
+    }
     /**Start task. */
     public void startTask() {
         m_interruptType=null;
@@ -0,0 +1,66 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.model.DLPredicate;
+import org.semanticweb.HermiT.model.Equality;
+import org.semanticweb.HermiT.model.Inequality;
+
+/**
+ * Branches first on the ground disjunctions with the fewest open disjuncts. A disjunct is closed if the tableau already
+ * contains its negation, that is, the negation of an atomic concept on the node or an inequality between the nodes of
+ * an equality; such disjuncts clash as soon as they are chosen. Disjunctions with a single open disjunct are thus
+ * branched on before the others, and disjunctions without open disjuncts reveal their clash immediately.
+ */
+public class MostConstrainedSchedulingStrategy extends AbstractGroundDisjunctionSchedulingStrategy {
+    private static final long serialVersionUID=-2704915180524935367L;
+
+    /**
+     */
+    public MostConstrainedSchedulingStrategy() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+    /**
+     * @param windowSize windowSize
+     */
+    public MostConstrainedSchedulingStrategy(int windowSize) {
+        super(windowSize);
+    }
+    @Override
+    protected double getScore(GroundDisjunction groundDisjunction) {
+        return -getNumberOfOpenDisjuncts(groundDisjunction);
+    }
+    protected int getNumberOfOpenDisjuncts(GroundDisjunction groundDisjunction) {
+        ExtensionManager extensionManager=m_tableau.m_extensionManager;
+        int numberOfOpenDisjuncts=0;
+        for (int disjunctIndex=groundDisjunction.getNumberOfDisjuncts()-1;disjunctIndex>=0;--disjunctIndex) {
+            DLPredicate dlPredicate=groundDisjunction.getDLPredicate(disjunctIndex);
+            if (dlPredicate instanceof AtomicConcept) {
+                if (extensionManager.containsConceptAssertion(((AtomicConcept)dlPredicate).getNegation(),groundDisjunction.getArgument(disjunctIndex,0).getCanonicalNode()))
+                    continue;
+            }
+            else if (Equality.INSTANCE.equals(dlPredicate)) {
+                if (extensionManager.containsAssertion(Inequality.INSTANCE,groundDisjunction.getArgument(disjunctIndex,0).getCanonicalNode(),groundDisjunction.getArgument(disjunctIndex,1).getCanonicalNode()))
+                    continue;
+            }
+            numberOfOpenDisjuncts++;
+        }
+        return numberOfOpenDisjuncts;
+    }
+}
@@ -0,0 +1,309 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.semanticweb.HermiT.model.AtomicRole;
+import org.semanticweb.HermiT.model.Concept;
+import org.semanticweb.HermiT.model.DLPredicate;
+import org.semanticweb.HermiT.model.Equality;
+
+/**
+ * Learns nogoods from the clashes of a satisfiability test. A nogood consists of the disjuncts that have been chosen at
+ * the disjunction branching points of a clash dependency set: together with the facts that do not depend on any choice,
+ * these disjuncts are unsatisfiable. Whenever a disjunct is chosen later in the same test and the other disjuncts of a
+ * nogood with this disjunct hold, the clash is raised at once instead of being derived again.
+ *
+ * A nogood is learned only if the arguments of all its disjuncts are nodes that have been created before the first
+ * backtrackable branching point, since only such nodes are guaranteed to denote the same terms for the rest of the test.
+ * Nogoods are learned only if the parameter "Tableau.maximumNumberOfNogoods" is positive (by default it is 0); it bounds
+ * the number of nogoods, and "Tableau.maximumNogoodSize" (by default 8) bounds the number of disjuncts in a nogood. When
+ * the store is full, the half of the nogoods that have raised the fewest clashes is forgotten, the older ones first.
+ */
+public final class NogoodManager implements Serializable {
+    private static final long serialVersionUID=-2459203811766361826L;
+
+    protected final Tableau m_tableau;
+    protected final ExtensionManager m_extensionManager;
+    protected final DependencySetFactory m_dependencySetFactory;
+    protected final int m_maximumNumberOfNogoods;
+    protected final int m_maximumNogoodSize;
+    protected final Map<Disjunct,List<Nogood>> m_nogoodsByDisjunct;
+    protected final List<Nogood> m_nogoods;
+    protected final Disjunct m_auxiliaryDisjunct;
+    protected int m_numberOfLearnedNogoods;
+    protected int m_numberOfNogoodClashes;
+
+    /**
+     * @param tableau tableau
+     */
+    public NogoodManager(Tableau tableau) {
+        m_tableau=tableau;
+        m_extensionManager=tableau.m_extensionManager;
+        m_dependencySetFactory=tableau.m_dependencySetFactory;
+        m_maximumNumberOfNogoods=getIntegerParameter(tableau,"Tableau.maximumNumberOfNogoods",0);
+        m_maximumNogoodSize=getIntegerParameter(tableau,"Tableau.maximumNogoodSize",8);
+        m_nogoodsByDisjunct=new HashMap<>();
+        m_nogoods=new ArrayList<>();
+        m_auxiliaryDisjunct=new Disjunct();
+    }
+    /**
+     * @param tableau tableau
+     * @return true if the parameters of the tableau enable nogood learning
+     */
+    public static boolean isEnabled(Tableau tableau) {
+        return getIntegerParameter(tableau,"Tableau.maximumNumberOfNogoods",0)>0;
+    }
+    protected static int getIntegerParameter(Tableau tableau,String name,int defaultValue) {
+        Object value=tableau.getParameters().get(name);
+        if (value==null)
+            return defaultValue;
+        else if (value instanceof Number)
+            return ((Number)value).intValue();
+        else
+            return Integer.parseInt(value.toString());
+    }
+    /**
+     * Forgets all nogoods; this is done at the start of each satisfiability test.
+     */
+    public void clear() {
+        m_nogoodsByDisjunct.clear();
+        m_nogoods.clear();
+    }
+    /**
+     * @return the number of nogoods that are currently stored
+     */
+    public int getNumberOfNogoods() {
+        return m_nogoods.size();
+    }
+    /**
+     * @return the number of nogoods learned since the tableau has been created
+     */
+    public int getNumberOfLearnedNogoods() {
+        return m_numberOfLearnedNogoods;
+    }
+    /**
+     * @return the number of clashes raised by nogoods since the tableau has been created
+     */
+    public int getNumberOfNogoodClashes() {
+        return m_numberOfNogoodClashes;
+    }
+    /**
+     * Records the disjuncts that have been chosen at the branching points of the given clash dependency set. This
+     * must be called before the tableau backtracks.
+     *
+     * @param clashDependencySet clashDependencySet
+     */
+    public void learnNogood(DependencySet clashDependencySet) {
+        if (m_maximumNumberOfNogoods<=0)
+            return;
+        int firstBacktrackableBranchingPoint=m_tableau.m_nonbacktrackableBranchingPoint+1;
+        Node lastPersistentNode=m_tableau.m_branchingPoints[firstBacktrackableBranchingPoint].m_lastTableauNode;
+        int lastPersistentNodeID=(lastPersistentNode==null ? 0 : lastPersistentNode.getNodeID());
+        List<Disjunct> disjuncts=new ArrayList<>();
+        for (int level=clashDependencySet.getMaximumBranchingPoint();level>=firstBacktrackableBranchingPoint;--level) {
+            if (clashDependencySet.containsBranchingPoint(level)) {
+                BranchingPoint branchingPoint=m_tableau.m_branchingPoints[level];
+                if (!(branchingPoint instanceof DisjunctionBranchingPoint) || disjuncts.size()==m_maximumNogoodSize)
+                    return;
+                DisjunctionBranchingPoint disjunctionBranchingPoint=(DisjunctionBranchingPoint)branchingPoint;
+                GroundDisjunction groundDisjunction=disjunctionBranchingPoint.m_groundDisjunction;
+                int disjunctIndex=disjunctionBranchingPoint.m_sortedDisjunctIndexes[disjunctionBranchingPoint.m_currentIndex];
+                DLPredicate dlPredicate=groundDisjunction.getDLPredicate(disjunctIndex);
+                if (!isSupported(dlPredicate))
+                    return;
+                Node[] arguments=new Node[dlPredicate.getArity()];
+                for (int argumentIndex=0;argumentIndex<arguments.length;argumentIndex++) {
+                    arguments[argumentIndex]=groundDisjunction.getArgument(disjunctIndex,argumentIndex);
+                    if (arguments[argumentIndex].getNodeID()>lastPersistentNodeID)
+                        return;
+                }
+                disjuncts.add(new Disjunct(dlPredicate,arguments));
+            }
+        }
+        if (disjuncts.isEmpty() || isKnown(disjuncts))
+            return;
+        if (m_nogoods.size()>=m_maximumNumberOfNogoods)
+            forgetNogoods();
+        // The clash can also depend on branching points that cannot be backtracked, such as the dummy dependency of the
+        // test or disjuncts pinned by a GroundDisjunctionGuide; these are added to the clashes raised by the nogood.
+        List<Integer> contextLevels=new ArrayList<>();
+        for (int level=Math.min(clashDependencySet.getMaximumBranchingPoint(),firstBacktrackableBranchingPoint-1);level>=0;--level)
+            if (clashDependencySet.containsBranchingPoint(level))
+                contextLevels.add(Integer.valueOf(level));
+        int[] contextLevelsArray=new int[contextLevels.size()];
+        for (int index=0;index<contextLevelsArray.length;index++)
+            contextLevelsArray[index]=contextLevels.get(index).intValue();
+        Nogood nogood=new Nogood(disjuncts.toArray(new Disjunct[disjuncts.size()]),contextLevelsArray);
+        m_nogoods.add(nogood);
+        for (Disjunct disjunct : nogood.m_disjuncts)
+            m_nogoodsByDisjunct.computeIfAbsent(disjunct,key -> new ArrayList<>()).add(nogood);
+        m_numberOfLearnedNogoods++;
+    }
+    protected boolean isKnown(List<Disjunct> disjuncts) {
+        List<Nogood> nogoods=m_nogoodsByDisjunct.get(disjuncts.get(0));
+        if (nogoods!=null)
+            for (Nogood nogood : nogoods)
+                if (nogood.m_disjuncts.length==disjuncts.size() && Arrays.asList(nogood.m_disjuncts).containsAll(disjuncts))
+                    return true;
+        return false;
+    }
+    protected static boolean isSupported(DLPredicate dlPredicate) {
+        return dlPredicate instanceof Concept || dlPredicate instanceof AtomicRole || Equality.INSTANCE.equals(dlPredicate);
+    }
+    protected void forgetNogoods() {
+        List<Nogood> nogoods=new ArrayList<>(m_nogoods);
+        nogoods.sort((nogood1,nogood2) -> {
+            if (nogood1.m_numberOfClashes!=nogood2.m_numberOfClashes)
+                return Integer.compare(nogood2.m_numberOfClashes,nogood1.m_numberOfClashes);
+            return Integer.compare(nogood2.m_learningOrder,nogood1.m_learningOrder);
+        });
+        clear();
+        for (Nogood nogood : nogoods.subList(0,m_maximumNumberOfNogoods/2)) {
+            m_nogoods.add(nogood);
+            for (Disjunct disjunct : nogood.m_disjuncts)
+                m_nogoodsByDisjunct.computeIfAbsent(disjunct,key -> new ArrayList<>()).add(nogood);
+        }
+        m_nogoods.sort((nogood1,nogood2) -> Integer.compare(nogood1.m_learningOrder,nogood2.m_learningOrder));
+    }
+    /**
+     * Checks whether the disjunct that has just been added to the tableau completes a nogood and, if so, sets the clash.
+     *
+     * @param groundDisjunction groundDisjunction
+     * @param disjunctIndex the index of the disjunct that has been chosen
+     * @return true if a clash has been set
+     */
+    public boolean checkNogoods(GroundDisjunction groundDisjunction,int disjunctIndex) {
+        if (m_nogoods.isEmpty() || m_extensionManager.containsClash())
+            return false;
+        DLPredicate dlPredicate=groundDisjunction.getDLPredicate(disjunctIndex);
+        if (!isSupported(dlPredicate))
+            return false;
+        Node[] arguments=new Node[dlPredicate.getArity()];
+        for (int argumentIndex=0;argumentIndex<arguments.length;argumentIndex++)
+            arguments[argumentIndex]=groundDisjunction.getArgument(disjunctIndex,argumentIndex);
+        m_auxiliaryDisjunct.initialize(dlPredicate,arguments);
+        List<Nogood> nogoods=m_nogoodsByDisjunct.get(m_auxiliaryDisjunct);
+        if (nogoods!=null)
+            for (Nogood nogood : nogoods) {
+                PermanentDependencySet clashDependencySet=m_dependencySetFactory.emptySet();
+                for (Disjunct disjunct : nogood.m_disjuncts) {
+                    DependencySet dependencySet=disjunct.getDependencySet(m_extensionManager);
+                    if (dependencySet==null) {
+                        clashDependencySet=null;
+                        break;
+                    }
+                    clashDependencySet=m_dependencySetFactory.unionWith(clashDependencySet,dependencySet);
+                }
+                if (clashDependencySet!=null) {
+                    for (int level : nogood.m_contextLevels)
+                        clashDependencySet=m_dependencySetFactory.addBranchingPoint(clashDependencySet,level);
+                    nogood.m_numberOfClashes++;
+                    m_numberOfNogoodClashes++;
+                    m_extensionManager.setClash(clashDependencySet);
+                    return true;
+                }
+            }
+        return false;
+    }
+
+    /**
+     * A disjunct over the nodes of a ground disjunction.
+     */
+    protected static final class Disjunct implements Serializable {
+        private static final long serialVersionUID=5236473910437526128L;
+
+        protected DLPredicate m_dlPredicate;
+        protected Node[] m_arguments;
+        protected int m_hashCode;
+
+        protected Disjunct() {
+        }
+        protected Disjunct(DLPredicate dlPredicate,Node[] arguments) {
+            initialize(dlPredicate,arguments);
+        }
+        protected void initialize(DLPredicate dlPredicate,Node[] arguments) {
+            m_dlPredicate=dlPredicate;
+            m_arguments=arguments;
+            int hashCode=dlPredicate.hashCode();
+            for (Node argument : arguments)
+                hashCode=hashCode*31+argument.getNodeID();
+            m_hashCode=hashCode;
+        }
+        /**
+         * @return the dependency set of the disjunct, including the merges of its arguments, or null if it does not hold
+         */
+        protected DependencySet getDependencySet(ExtensionManager extensionManager) {
+            for (Node argument : m_arguments)
+                if (argument.isPruned())
+                    return null;
+            DependencySet dependencySet;
+            switch (m_arguments.length) {
+            case 1:
+                dependencySet=extensionManager.getAssertionDependencySet(m_dlPredicate,m_arguments[0].getCanonicalNode());
+                break;
+            case 2:
+                dependencySet=extensionManager.getAssertionDependencySet(m_dlPredicate,m_arguments[0].getCanonicalNode(),m_arguments[1].getCanonicalNode());
+                break;
+            default:
+                return null;
+            }
+            if (dependencySet!=null)
+                for (Node argument : m_arguments)
+                    dependencySet=argument.addCanonicalNodeDependencySet(dependencySet);
+            return dependencySet;
+        }
+        @Override
+        public int hashCode() {
+            return m_hashCode;
+        }
+        @Override
+        public boolean equals(Object that) {
+            if (this==that)
+                return true;
+            if (!(that instanceof Disjunct))
+                return false;
+            Disjunct thatDisjunct=(Disjunct)that;
+            return m_dlPredicate.equals(thatDisjunct.m_dlPredicate) && Arrays.equals(m_arguments,thatDisjunct.m_arguments);
+        }
+    }
+
+    /**
+     * A set of disjuncts that cannot hold together.
+     */
+    protected final class Nogood implements Serializable {
+        private static final long serialVersionUID=-6829547712201744693L;
+
+        protected final Disjunct[] m_disjuncts;
+        protected final int[] m_contextLevels;
+        protected final int m_learningOrder;
+        protected int m_numberOfClashes;
+
+        protected Nogood(Disjunct[] disjuncts,int[] contextLevels) {
+            m_disjuncts=disjuncts;
+            m_contextLevels=contextLevels;
+            m_learningOrder=m_numberOfLearnedNogoods;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Allocates the int pages of the int-encoded tuple tables and tuple indexes outside of the Java heap, either in direct
+ * byte buffers or in a memory-mapped temporary file. Pages are cut out of large chunks and are recycled when the tables
+ * are cleared, so the off-heap memory is bounded by the largest model built so far. Direct buffers count against the
+ * -XX:MaxDirectMemorySize limit of the JVM.
+ */
+public final class OffHeapStorage implements Serializable {
+    private static final long serialVersionUID=7170893640946347010L;
+
+    protected static final int CHUNK_SIZE=16*1024*1024;
+
+    protected final File m_mappedFileDirectory;
+    protected final Map<Integer,ArrayDeque<IntBuffer>> m_freePages;
+    protected RandomAccessFile m_mappedFile;
+    protected FileChannel m_mappedFileChannel;
+    protected long m_mappedFileSize;
+    protected ByteBuffer m_currentChunk;
+    protected long m_allocatedBytes;
+
+    /**
+     * @param mappedFileDirectory the directory for the memory-mapped file, or null if direct byte buffers should be used
+     */
+    public OffHeapStorage(File mappedFileDirectory) {
+        m_mappedFileDirectory=mappedFileDirectory;
+        m_freePages=new HashMap<>();
+    }
+    /**
+     * @return true if the pages are allocated in a memory-mapped file
+     */
+    public boolean isMemoryMapped() {
+        return m_mappedFileDirectory!=null;
+    }
+    /**
+     * @return the number of bytes taken from the operating system so far
+     */
+    public long getAllocatedBytes() {
+        return m_allocatedBytes;
+    }
+    /**
+     * @param numberOfInts the size of the page
+     * @return a page whose contents are undefined
+     */
+    public IntBuffer allocatePage(int numberOfInts) {
+        ArrayDeque<IntBuffer> freePages=m_freePages.get(numberOfInts);
+        if (freePages!=null && !freePages.isEmpty())
+            return freePages.pop();
+        int numberOfBytes=numberOfInts*4;
+        if (m_currentChunk==null || m_currentChunk.remaining()<numberOfBytes)
+            m_currentChunk=allocateChunk(Math.max(CHUNK_SIZE,numberOfBytes));
+        ByteBuffer page=m_currentChunk.slice();
+        page.limit(numberOfBytes);
+        m_currentChunk.position(m_currentChunk.position()+numberOfBytes);
+        return page.order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+    /**
+     * @param page a page that was allocated by this object and is no longer used
+     */
+    public void releasePage(IntBuffer page) {
+        m_freePages.computeIfAbsent(page.capacity(),size -> new ArrayDeque<>()).push(page);
+    }
+    protected ByteBuffer allocateChunk(int numberOfBytes) {
+        m_allocatedBytes+=numberOfBytes;
+        if (m_mappedFileDirectory==null)
+            return ByteBuffer.allocateDirect(numberOfBytes);
+        try {
+            if (m_mappedFileChannel==null) {
+                File file=File.createTempFile("HermiT-extension-tables",".bin",m_mappedFileDirectory);
+                file.deleteOnExit();
+                m_mappedFile=new RandomAccessFile(file,"rw");
+                m_mappedFileChannel=m_mappedFile.getChannel();
+                // The file remains accessible through the channel on systems that allow deleting open files.
+                file.delete();
+            }
+            ByteBuffer chunk=m_mappedFileChannel.map(FileChannel.MapMode.READ_WRITE,m_mappedFileSize,numberOfBytes);
+            m_mappedFileSize+=numberOfBytes;
+            return chunk;
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Cannot map the extension tables into a file in '"+m_mappedFileDirectory+"'.",e);
+        }
+    }
+    /**
+     * Releases the memory-mapped file; the pages allocated by this object must not be used afterwards.
+     */
+    public void dispose() {
+        m_freePages.clear();
+        m_currentChunk=null;
+        if (m_mappedFile!=null) {
+            try {
+                m_mappedFile.close();
+            }
+            catch (IOException e) {
+                // ignore: the file is temporary anyway
+            }
+            m_mappedFile=null;
+            m_mappedFileChannel=null;
+            m_mappedFileSize=0;
+        }
+    }
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        throw new NotSerializableException("Extension tables stored outside of the heap cannot be serialized.");
+    }
+}
@@ -0,0 +1,345 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.DLPredicate;
+import org.semanticweb.HermiT.model.Term;
+
+/**
+ * Runs one satisfiability test on several tableaux by exploring the disjuncts of ground disjunctions in parallel. The
+ * state of a tableau cannot be copied, so the search is split instead: a tableau that is about to branch on a ground
+ * disjunction over named individuals before any other branching point, while another tableau is idle, pins the first
+ * disjunct and hands each of the other disjuncts to a new subtest. A subtest repeats the test and pins the disjuncts of
+ * its path whenever the tableau branches on the respective ground disjunctions; ground disjunctions are identified by
+ * their DL predicates and the terms of their arguments, so the tableaux need not derive them in the same order.
+ *
+ * The test is satisfiable as soon as one subtest finds a model. A subtest without a model refutes the disjuncts that
+ * its final clash depends on, which also refutes the subtests that pin the same disjuncts; these are cancelled. The test
+ * is unsatisfiable once the refuted subtests cover all disjuncts of the splits up to the root. All tableaux must have
+ * been created for the same DL-ontologies and must not be used by other threads during the test.
+ */
+public class OrParallelSatisfiabilityChecker {
+    /**the default maximal number of pinned disjuncts per subtest*/
+    public static final int DEFAULT_MAXIMUM_SPLIT_DEPTH=16;
+    protected static final long INTERRUPT_CHECK_INTERVAL=100;
+
+    protected final InterruptFlag m_interruptFlag;
+    protected final Tableau[] m_tableaux;
+    protected final int m_maximumSplitDepth;
+    protected final List<SearchNode> m_searchNodes;
+    protected final List<Subtest> m_runningSubtests;
+    protected WorkerPool m_workerPool;
+    protected SearchNode m_rootNode;
+    protected int m_numberOfWaitingSubtests;
+    protected int m_numberOfSplits;
+    protected Boolean m_result;
+    protected RuntimeException m_failure;
+    protected boolean m_loadAdditionalABox;
+    protected Set<Atom> m_perTestPositiveFactsNoDependency;
+    protected Set<Atom> m_perTestNegativeFactsNoDependency;
+    protected Set<Atom> m_perTestPositiveFactsDummyDependency;
+    protected Set<Atom> m_perTestNegativeFactsDummyDependency;
+    protected ReasoningTaskDescription m_reasoningTaskDescription;
+
+    /**
+     * @param interruptFlag the interrupt flag that is checked while waiting for the subtests
+     * @param tableaux the tableaux that run the subtests
+     */
+    public OrParallelSatisfiabilityChecker(InterruptFlag interruptFlag,Tableau[] tableaux) {
+        this(interruptFlag,tableaux,DEFAULT_MAXIMUM_SPLIT_DEPTH);
+    }
+    /**
+     * @param interruptFlag the interrupt flag that is checked while waiting for the subtests
+     * @param tableaux the tableaux that run the subtests
+     * @param maximumSplitDepth the maximal number of disjuncts that a subtest pins
+     */
+    public OrParallelSatisfiabilityChecker(InterruptFlag interruptFlag,Tableau[] tableaux,int maximumSplitDepth) {
+        if (tableaux.length==0)
+            throw new IllegalArgumentException("At least one tableau is required.");
+        m_interruptFlag=interruptFlag;
+        m_tableaux=tableaux;
+        m_maximumSplitDepth=maximumSplitDepth;
+        m_searchNodes=new ArrayList<>();
+        m_runningSubtests=new ArrayList<>();
+    }
+    /**
+     * @return the number of splits in the last test
+     */
+    public synchronized int getNumberOfSplits() {
+        return m_numberOfSplits;
+    }
+    /**
+     * @param loadAdditionalABox loadAdditionalABox
+     * @param perTestPositiveFactsNoDependency perTestPositiveFactsNoDependency
+     * @param perTestNegativeFactsNoDependency perTestNegativeFactsNoDependency
+     * @param perTestPositiveFactsDummyDependency perTestPositiveFactsDummyDependency
+     * @param perTestNegativeFactsDummyDependency perTestNegativeFactsDummyDependency
+     * @param reasoningTaskDescription reasoningTaskDescription
+     * @return true if satisfiable
+     */
+    public boolean isSatisfiable(boolean loadAdditionalABox,Set<Atom> perTestPositiveFactsNoDependency,Set<Atom> perTestNegativeFactsNoDependency,Set<Atom> perTestPositiveFactsDummyDependency,Set<Atom> perTestNegativeFactsDummyDependency,ReasoningTaskDescription reasoningTaskDescription) {
+        m_loadAdditionalABox=loadAdditionalABox;
+        m_perTestPositiveFactsNoDependency=perTestPositiveFactsNoDependency;
+        m_perTestNegativeFactsNoDependency=perTestNegativeFactsNoDependency;
+        m_perTestPositiveFactsDummyDependency=perTestPositiveFactsDummyDependency;
+        m_perTestNegativeFactsDummyDependency=perTestNegativeFactsDummyDependency;
+        m_reasoningTaskDescription=reasoningTaskDescription;
+        synchronized (this) {
+            m_searchNodes.clear();
+            m_runningSubtests.clear();
+            m_rootNode=new SearchNode(null,Collections.<DisjunctionKey,Integer>emptyMap());
+            m_searchNodes.add(m_rootNode);
+            m_numberOfWaitingSubtests=0;
+            m_numberOfSplits=0;
+            m_result=null;
+            m_failure=null;
+        }
+        m_workerPool=new WorkerPool("HermiT or-parallel worker",m_interruptFlag,m_tableaux);
+        try {
+            submit(new Subtest(m_rootNode));
+            return waitForResult();
+        }
+        finally {
+            m_workerPool.shutdown();
+            m_workerPool=null;
+        }
+    }
+    protected synchronized void submit(Subtest subtest) {
+        m_numberOfWaitingSubtests++;
+        m_workerPool.submit(subtest);
+    }
+    protected synchronized boolean waitForResult() {
+        try {
+            while (m_result==null && m_failure==null) {
+                wait(INTERRUPT_CHECK_INTERVAL);
+                m_workerPool.checkInterrupt();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an or-parallel worker.",e);
+        }
+        if (m_result!=null)
+            return m_result.booleanValue();
+        else
+            throw m_failure;
+    }
+    protected synchronized boolean isFinished(SearchNode searchNode) {
+        return m_result!=null || m_failure!=null || searchNode.m_refuted;
+    }
+    protected synchronized void modelFound() {
+        if (m_result==null)
+            m_result=Boolean.TRUE;
+        notifyAll();
+    }
+    protected synchronized void subtestFailed(RuntimeException failure) {
+        if (m_result==null && m_failure==null)
+            m_failure=failure;
+        notifyAll();
+    }
+    /**
+     * Records that the tableau has no model in which the given disjuncts hold.
+     */
+    protected synchronized void refute(Map<DisjunctionKey,Integer> refutedPins) {
+        for (SearchNode searchNode : m_searchNodes)
+            if (!searchNode.m_refuted && searchNode.pinsAll(refutedPins))
+                markRefuted(searchNode);
+        if (m_rootNode.m_refuted) {
+            if (m_result==null)
+                m_result=Boolean.FALSE;
+            notifyAll();
+        }
+        else
+            for (Subtest subtest : m_runningSubtests)
+                if (subtest.m_searchNode.m_refuted)
+                    subtest.m_tableau.getInterruptFlag().cancelTask();
+    }
+    protected void markRefuted(SearchNode searchNode) {
+        searchNode.m_refuted=true;
+        SearchNode parent=searchNode.m_parent;
+        if (parent!=null && !parent.m_refuted) {
+            for (SearchNode sibling : parent.m_children)
+                if (!sibling.m_refuted)
+                    return;
+            markRefuted(parent);
+        }
+    }
+    /**
+     * Splits the search node of the given subtest at the given ground disjunction if another tableau is idle.
+     *
+     * @return true if the disjunction has been split; the subtest then continues with the first disjunct
+     */
+    protected synchronized boolean split(Subtest subtest,GroundDisjunction groundDisjunction,DisjunctionKey disjunctionKey) {
+        SearchNode searchNode=subtest.m_searchNode;
+        if (m_result!=null || m_failure!=null || searchNode.m_refuted || searchNode.m_pins.size()>=m_maximumSplitDepth || m_numberOfWaitingSubtests>0 || !m_workerPool.hasIdleTableau())
+            return false;
+        int[] sortedDisjunctIndexes=groundDisjunction.getGroundDisjunctionHeader().getSortedDisjunctIndexes();
+        searchNode.m_children=new SearchNode[sortedDisjunctIndexes.length];
+        for (int index=0;index<sortedDisjunctIndexes.length;index++) {
+            Map<DisjunctionKey,Integer> pins=new HashMap<>(searchNode.m_pins);
+            pins.put(disjunctionKey,Integer.valueOf(sortedDisjunctIndexes[index]));
+            searchNode.m_children[index]=new SearchNode(searchNode,pins);
+            m_searchNodes.add(searchNode.m_children[index]);
+        }
+        for (int index=1;index<sortedDisjunctIndexes.length;index++)
+            submit(new Subtest(searchNode.m_children[index]));
+        subtest.m_searchNode=searchNode.m_children[0];
+        m_numberOfSplits++;
+        return true;
+    }
+
+    /**
+     * A node of the split tree: the disjuncts pinned on the path from the root, and whether the tableau has no model
+     * in which they hold.
+     */
+    protected static final class SearchNode {
+        protected final SearchNode m_parent;
+        protected final Map<DisjunctionKey,Integer> m_pins;
+        protected SearchNode[] m_children;
+        protected boolean m_refuted;
+
+        protected SearchNode(SearchNode parent,Map<DisjunctionKey,Integer> pins) {
+            m_parent=parent;
+            m_pins=pins;
+        }
+        protected boolean pinsAll(Map<DisjunctionKey,Integer> pins) {
+            for (Map.Entry<DisjunctionKey,Integer> entry : pins.entrySet())
+                if (!entry.getValue().equals(m_pins.get(entry.getKey())))
+                    return false;
+            return true;
+        }
+    }
+
+    /**
+     * Identifies a ground disjunction independently of the tableau by its DL predicates and argument terms.
+     */
+    protected static final class DisjunctionKey {
+        protected final DLPredicate[] m_dlPredicates;
+        protected final Term[] m_arguments;
+        protected final int m_hashCode;
+
+        protected DisjunctionKey(DLPredicate[] dlPredicates,Term[] arguments) {
+            m_dlPredicates=dlPredicates;
+            m_arguments=arguments;
+            m_hashCode=Arrays.hashCode(dlPredicates)*31+Arrays.hashCode(arguments);
+        }
+        @Override
+        public int hashCode() {
+            return m_hashCode;
+        }
+        @Override
+        public boolean equals(Object that) {
+            if (this==that)
+                return true;
+            if (!(that instanceof DisjunctionKey))
+                return false;
+            DisjunctionKey thatKey=(DisjunctionKey)that;
+            return m_hashCode==thatKey.m_hashCode && Arrays.equals(m_dlPredicates,thatKey.m_dlPredicates) && Arrays.equals(m_arguments,thatKey.m_arguments);
+        }
+    }
+
+    /**
+     * Runs the test on one tableau with the disjuncts of a search node pinned.
+     */
+    protected final class Subtest implements WorkerPool.Task<Void>,GroundDisjunctionGuide {
+        protected SearchNode m_searchNode;
+        protected Tableau m_tableau;
+        protected final Map<Term,Node> m_termsToNodes;
+        protected final Map<Node,Term> m_nodesToTerms;
+        protected final Map<Integer,DisjunctionKey> m_pinnedDisjunctionsByLevel;
+
+        protected Subtest(SearchNode searchNode) {
+            m_searchNode=searchNode;
+            m_termsToNodes=new HashMap<>();
+            m_nodesToTerms=new HashMap<>();
+            m_pinnedDisjunctionsByLevel=new HashMap<>();
+        }
+        @Override
+        public Void run(Tableau tableau) {
+            try {
+                synchronized (OrParallelSatisfiabilityChecker.this) {
+                    m_numberOfWaitingSubtests--;
+                    if (isFinished(m_searchNode))
+                        return null;
+                    m_tableau=tableau;
+                    m_runningSubtests.add(this);
+                }
+                tableau.setGroundDisjunctionGuide(this);
+                boolean loadPermanentABox=tableau.m_permanentDLOntology.hasNominals() || (tableau.m_additionalDLOntology!=null && tableau.m_additionalDLOntology.hasNominals());
+                if (tableau.isSatisfiable(loadPermanentABox,m_loadAdditionalABox,m_perTestPositiveFactsNoDependency,m_perTestNegativeFactsNoDependency,m_perTestPositiveFactsDummyDependency,m_perTestNegativeFactsDummyDependency,m_termsToNodes,null,m_reasoningTaskDescription))
+                    modelFound();
+                else
+                    refute(getRefutedPins(tableau.m_extensionManager.getClashDependencySet()));
+            }
+            catch (RuntimeException e) {
+                // Subtests that are no longer needed are stopped by cancelling the tests on their tableaux.
+                if (!isFinished(m_searchNode))
+                    subtestFailed(e);
+            }
+            finally {
+                tableau.setGroundDisjunctionGuide(null);
+                synchronized (OrParallelSatisfiabilityChecker.this) {
+                    m_runningSubtests.remove(this);
+                }
+            }
+            return null;
+        }
+        protected Map<DisjunctionKey,Integer> getRefutedPins(DependencySet clashDependencySet) {
+            Map<DisjunctionKey,Integer> refutedPins=new HashMap<>();
+            for (Map.Entry<Integer,DisjunctionKey> entry : m_pinnedDisjunctionsByLevel.entrySet())
+                if (clashDependencySet.containsBranchingPoint(entry.getKey().intValue()))
+                    refutedPins.put(entry.getValue(),m_searchNode.m_pins.get(entry.getValue()));
+            return refutedPins;
+        }
+        @Override
+        public int getPinnedDisjunct(GroundDisjunction groundDisjunction,int level) {
+            DisjunctionKey disjunctionKey=getDisjunctionKey(groundDisjunction);
+            if (disjunctionKey==null)
+                return -1;
+            Integer pinnedDisjunct=m_searchNode.m_pins.get(disjunctionKey);
+            if (pinnedDisjunct==null) {
+                if (!split(this,groundDisjunction,disjunctionKey))
+                    return -1;
+                pinnedDisjunct=m_searchNode.m_pins.get(disjunctionKey);
+            }
+            m_pinnedDisjunctionsByLevel.put(Integer.valueOf(level),disjunctionKey);
+            return pinnedDisjunct.intValue();
+        }
+        protected DisjunctionKey getDisjunctionKey(GroundDisjunction groundDisjunction) {
+            if (m_nodesToTerms.isEmpty())
+                for (Map.Entry<Term,Node> entry : m_termsToNodes.entrySet())
+                    m_nodesToTerms.put(entry.getValue(),entry.getKey());
+            Term[] arguments=new Term[groundDisjunction.m_arguments.length];
+            for (int argumentIndex=0;argumentIndex<arguments.length;argumentIndex++) {
+                arguments[argumentIndex]=m_nodesToTerms.get(groundDisjunction.m_arguments[argumentIndex]);
+                if (arguments[argumentIndex]==null)
+                    return null;
+            }
+            return new DisjunctionKey(groundDisjunction.getGroundDisjunctionHeader().m_dlPredicates,arguments);
+        }
+    }
+}
@@ -20,6 +20,8 @@ package org.semanticweb.HermiT.tableau;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -60,13 +62,17 @@ public final class Tableau implements Serializable {
     protected final Map<String,Object> m_parameters;
     protected final TableauMonitor m_tableauMonitor;
     protected final ExistentialExpansionStrategy m_existentialExpansionStrategy;
-    protected final DLOntology m_permanentDLOntology;
+    protected final GroundDisjunctionSchedulingStrategy m_groundDisjunctionSchedulingStrategy;
+    protected GroundDisjunctionGuide m_groundDisjunctionGuide;
+    protected DLOntology m_permanentDLOntology;
     protected DLOntology m_additionalDLOntology;
     protected final DependencySetFactory m_dependencySetFactory;
     protected final ExtensionManager m_extensionManager;
     protected final ClashManager m_clashManager;
-    protected final HyperresolutionManager m_permanentHyperresolutionManager;
+    protected HyperresolutionManager m_permanentHyperresolutionManager;
     protected HyperresolutionManager m_additionalHyperresolutionManager;
+    protected final Map<DLOntology,HyperresolutionManager> m_compiledAdditionalDLOntologies;
+    protected int m_compiledAdditionalDLOntologiesCapacity;
     protected final MergingManager m_mergingManager;
     protected final ExistentialExpansionManager m_existentialExpasionManager;
     protected final NominalIntroductionManager m_nominalIntroductionManager;
@@ -74,7 +80,14 @@ public final class Tableau implements Serializable {
     protected final DatatypeManager m_datatypeManager;
     protected final List<List<ExistentialConcept>> m_existentialConceptsBuffers;
     protected final boolean m_useDisjunctionLearning;
+    protected final NogoodManager m_nogoodManager;
     protected final boolean m_hasDescriptionGraphs;
+    protected final boolean m_cacheSaturatedABox;
+    protected final boolean m_costBasedJoinOrdering;
+    protected final transient DLClauseBytecodeGenerator m_dlClauseBytecodeGenerator;
+    protected DisjunctOrderingStatistics m_importedDisjunctOrderingStatistics;
+    protected Map<Term,Node> m_saturatedABoxTermsToNodes;
+    protected int m_numberOfSaturatedABoxReuses;
     protected BranchingPoint[] m_branchingPoints;
     protected int m_currentBranchingPoint;
     protected int m_nonbacktrackableBranchingPoint;
@@ -105,6 +118,19 @@ public final class Tableau implements Serializable {
      * @param parameters parameters
      */
     public Tableau(InterruptFlag interruptFlag,TableauMonitor tableauMonitor,ExistentialExpansionStrategy existentialsExpansionStrategy,boolean useDisjunctionLearning,DLOntology permanentDLOntology,DLOntology additionalDLOntology,Map<String,Object> parameters) {
+        this(interruptFlag,tableauMonitor,existentialsExpansionStrategy,new InsertionOrderSchedulingStrategy(),useDisjunctionLearning,permanentDLOntology,additionalDLOntology,parameters);
+    }
+    /**
+     * @param interruptFlag interruptFlag
+     * @param tableauMonitor tableauMonitor
+     * @param existentialsExpansionStrategy existentialsExpansionStrategy
+     * @param groundDisjunctionSchedulingStrategy groundDisjunctionSchedulingStrategy
+     * @param useDisjunctionLearning useDisjunctionLearning
+     * @param permanentDLOntology permanentDLOntology
+     * @param additionalDLOntology additionalDLOntology
+     * @param parameters parameters
+     */
+    public Tableau(InterruptFlag interruptFlag,TableauMonitor tableauMonitor,ExistentialExpansionStrategy existentialsExpansionStrategy,GroundDisjunctionSchedulingStrategy groundDisjunctionSchedulingStrategy,boolean useDisjunctionLearning,DLOntology permanentDLOntology,DLOntology additionalDLOntology,Map<String,Object> parameters) {
         if (additionalDLOntology!=null && !additionalDLOntology.getAllDescriptionGraphs().isEmpty())
             throw new IllegalArgumentException("Additional ontology cannot contain description graphs.");
         m_interruptFlag=interruptFlag;
@@ -113,25 +139,42 @@ public final class Tableau implements Serializable {
             m_parameters=parameters;
             m_tableauMonitor=tableauMonitor;
             m_existentialExpansionStrategy=existentialsExpansionStrategy;
+            m_groundDisjunctionSchedulingStrategy=groundDisjunctionSchedulingStrategy;
             m_permanentDLOntology=permanentDLOntology;
             m_additionalDLOntology=additionalDLOntology;
             m_dependencySetFactory=new DependencySetFactory();
+            Object costBasedJoinOrdering=m_parameters.get("HyperresolutionManager.costBasedJoinOrdering");
+            m_costBasedJoinOrdering=Boolean.TRUE.equals(costBasedJoinOrdering) || "true".equals(costBasedJoinOrdering);
+            Object compileToBytecode=m_parameters.get("DLClauseEvaluator.compileToBytecode");
+            if (Boolean.TRUE.equals(compileToBytecode) || "true".equals(compileToBytecode))
+                m_dlClauseBytecodeGenerator=new DLClauseBytecodeGenerator();
+            else
+                m_dlClauseBytecodeGenerator=null;
             m_extensionManager=new ExtensionManager(this);
             m_clashManager=new ClashManager(this);
-            m_permanentHyperresolutionManager=new HyperresolutionManager(this,m_permanentDLOntology.getDLClauses());
+            m_permanentHyperresolutionManager=new HyperresolutionManager(this,m_permanentDLOntology.getDLClauses(),m_costBasedJoinOrdering,null);
             if (m_additionalDLOntology!=null)
-                m_additionalHyperresolutionManager=new HyperresolutionManager(this,m_additionalDLOntology.getDLClauses());
-            else
+                m_additionalHyperresolutionManager=new HyperresolutionManager(this,m_additionalDLOntology.getDLClauses(),m_costBasedJoinOrdering,null);
+            else
                 m_additionalHyperresolutionManager=null;
+            m_compiledAdditionalDLOntologies=new LinkedHashMap<>(16,0.75f,true);
+            m_compiledAdditionalDLOntologiesCapacity=0;
             m_mergingManager=new MergingManager(this);
             m_existentialExpasionManager=new ExistentialExpansionManager(this);
             m_nominalIntroductionManager=new NominalIntroductionManager(this);
             m_descriptionGraphManager=new DescriptionGraphManager(this);
             m_datatypeManager=new DatatypeManager(this);
             m_existentialExpansionStrategy.initialize(this);
+            m_groundDisjunctionSchedulingStrategy.initialize(this);
             m_existentialConceptsBuffers=new ArrayList<>();
             m_useDisjunctionLearning=useDisjunctionLearning;
+            m_nogoodManager=(m_useDisjunctionLearning && NogoodManager.isEnabled(this) ? new NogoodManager(this) : null);
             m_hasDescriptionGraphs=!m_permanentDLOntology.getAllDescriptionGraphs().isEmpty();
+            Object cacheSaturatedABox=m_parameters.get("Tableau.cacheSaturatedABox");
+            m_cacheSaturatedABox=Boolean.TRUE.equals(cacheSaturatedABox) || "true".equals(cacheSaturatedABox);
+            Object disjunctOrderingStatistics=m_parameters.get("Tableau.disjunctOrderingStatistics");
+            if (disjunctOrderingStatistics instanceof DisjunctOrderingStatistics)
+                importDisjunctOrderingStatistics((DisjunctOrderingStatistics)disjunctOrderingStatistics);
             m_branchingPoints=new BranchingPoint[2];
             m_currentBranchingPoint=-1;
             m_nonbacktrackableBranchingPoint=-1;
@@ -154,6 +197,21 @@ public final class Tableau implements Serializable {
      */
     public DLOntology getPermanentDLOntology() {
         return m_permanentDLOntology;
+    }
+    /**
+     * Replaces the permanent DL ontology by one that differs from it only in its ABox. The DL clauses are compiled when
+     * the tableau is created, so the new ontology must share them with the current one; the facts are loaded afresh
+     * by each satisfiability test, so the tableau can be used for the new ABox without being recreated.
+     *
+     * @param permanentDLOntology permanentDLOntology
+     */
+    public void setPermanentABox(DLOntology permanentDLOntology) {
+        if (permanentDLOntology.getDLClauses()!=m_permanentDLOntology.getDLClauses() || permanentDLOntology.hasNominals()!=m_permanentDLOntology.hasNominals() || !permanentDLOntology.getAllDescriptionGraphs().equals(m_permanentDLOntology.getAllDescriptionGraphs()))
+            throw new IllegalArgumentException("Only the ABox of the permanent DL ontology can be replaced.");
+        m_permanentDLOntology=permanentDLOntology;
+        m_saturatedABoxTermsToNodes=null;
+        // the additional DL-ontologies are created for a particular permanent DL ontology, so they will not be set again
+        m_compiledAdditionalDLOntologies.clear();
     }
     /**
      * @return additional dl ontology
@@ -197,6 +255,57 @@ public final class Tableau implements Serializable {
     public ExtensionManager getExtensionManager() {
         return m_extensionManager;
     }
+    /**
+     * @return ground disjunction scheduling strategy
+     */
+    public GroundDisjunctionSchedulingStrategy getGroundDisjunctionSchedulingStrategy() {
+        return m_groundDisjunctionSchedulingStrategy;
+    }
+    /**
+     * @return ground disjunction guide, or null if no disjuncts are pinned
+     */
+    public GroundDisjunctionGuide getGroundDisjunctionGuide() {
+        return m_groundDisjunctionGuide;
+    }
+    /**
+     * @param groundDisjunctionGuide the guide that pins disjuncts in subsequent tests, or null
+     */
+    public void setGroundDisjunctionGuide(GroundDisjunctionGuide groundDisjunctionGuide) {
+        m_groundDisjunctionGuide=groundDisjunctionGuide;
+    }
+    /**
+     * @return the number of backtrackings of the disjuncts of the ground disjunctions of the permanent DL-ontology
+     */
+    public DisjunctOrderingStatistics exportDisjunctOrderingStatistics() {
+        DisjunctOrderingStatistics statistics=new DisjunctOrderingStatistics();
+        m_permanentHyperresolutionManager.exportDisjunctOrderingStatistics(statistics);
+        return statistics;
+    }
+    /**
+     * Orders the disjuncts of the ground disjunctions according to the given statistics, which have usually been
+     * exported from another tableau for the same ontology; the statistics are also applied to additional DL-ontologies
+     * that are set later.
+     *
+     * @param statistics statistics
+     */
+    public void importDisjunctOrderingStatistics(DisjunctOrderingStatistics statistics) {
+        m_importedDisjunctOrderingStatistics=statistics;
+        m_permanentHyperresolutionManager.importDisjunctOrderingStatistics(statistics);
+        if (m_additionalHyperresolutionManager!=null)
+            m_additionalHyperresolutionManager.importDisjunctOrderingStatistics(statistics);
+    }
+    /**
+     * @return nogood manager, or null if disjunction learning is not used
+     */
+    public NogoodManager getNogoodManager() {
+        return m_nogoodManager;
+    }
+    /**
+     * @return generator of the compiled DL clause bodies of this tableau, or null if the DL clauses are interpreted
+     */
+    public DLClauseBytecodeGenerator getDLClauseBytecodeGenerator() {
+        return m_dlClauseBytecodeGenerator;
+    }
     /**
      * @return permanent hyperresolution manager
      */
@@ -237,6 +346,7 @@ public final class Tableau implements Serializable {
      * Clear tableau.
      */
     public void clear() {
+        m_saturatedABoxTermsToNodes=null;
         m_allocatedNodes=0;
         m_numberOfNodesInTableau=0;
         m_numberOfMergedOrPrunedNodes=0;
@@ -253,6 +363,8 @@ public final class Tableau implements Serializable {
         m_dependencySetFactory.clear();
         m_extensionManager.clear();
         m_clashManager.clear();
+        if (m_nogoodManager!=null)
+            m_nogoodManager.clear();
         m_permanentHyperresolutionManager.clear();
         if (m_additionalHyperresolutionManager!=null)
             m_additionalHyperresolutionManager.clear();
@@ -291,11 +403,42 @@ public final class Tableau implements Serializable {
         if (!supportsAdditionalDLOntology(additionalDLOntology))
             throw new IllegalArgumentException("Additional DL-ontology contains features that are incompatible with this tableau.");
         m_additionalDLOntology=additionalDLOntology;
-        m_additionalHyperresolutionManager=new HyperresolutionManager(this,m_additionalDLOntology.getDLClauses());
+        m_additionalHyperresolutionManager=m_compiledAdditionalDLOntologies.get(m_additionalDLOntology);
+        if (m_additionalHyperresolutionManager==null) {
+            m_additionalHyperresolutionManager=new HyperresolutionManager(this,m_additionalDLOntology.getDLClauses(),m_costBasedJoinOrdering,null);
+            if (m_importedDisjunctOrderingStatistics!=null)
+                m_additionalHyperresolutionManager.importDisjunctOrderingStatistics(m_importedDisjunctOrderingStatistics);
+            cacheAdditionalHyperresolutionManager();
+        }
         m_existentialExpansionStrategy.additionalDLOntologySet(m_additionalDLOntology);
         m_datatypeManager.additionalDLOntologySet(m_additionalDLOntology);
         updateFlagsDependentOnAdditionalOntology();
     }
+    /**
+     * Sets the number of additional DL-ontologies whose compiled DL clauses are kept by the tableau. When an additional
+     * DL-ontology that is still kept is set again, its hyperresolution manager is reused rather than compiled afresh, so
+     * callers that cache their additional DL-ontologies can answer repeated queries without compiling their clauses.
+     * The least recently set DL-ontologies are dropped first; the value 0 disables the cache.
+     *
+     * @param capacity capacity
+     */
+    public void setCompiledAdditionalDLOntologiesCapacity(int capacity) {
+        m_compiledAdditionalDLOntologiesCapacity=capacity;
+        evictCompiledAdditionalDLOntologies();
+    }
+    protected void cacheAdditionalHyperresolutionManager() {
+        if (m_compiledAdditionalDLOntologiesCapacity>0) {
+            m_compiledAdditionalDLOntologies.put(m_additionalDLOntology,m_additionalHyperresolutionManager);
+            evictCompiledAdditionalDLOntologies();
+        }
+    }
+    protected void evictCompiledAdditionalDLOntologies() {
+        Iterator<DLOntology> iterator=m_compiledAdditionalDLOntologies.keySet().iterator();
+        while (m_compiledAdditionalDLOntologies.size()>m_compiledAdditionalDLOntologiesCapacity) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
     /**
      * Clear additional ontology.
      */
@@ -365,13 +508,15 @@ public final class Tableau implements Serializable {
     public boolean isSatisfiable(boolean loadPermanentABox,boolean loadAdditionalABox,Set<Atom> perTestPositiveFactsNoDependency,Set<Atom> perTestNegativeFactsNoDependency,Set<Atom> perTestPositiveFactsDummyDependency,Set<Atom> perTestNegativeFactsDummyDependency,Map<Term,Node> termsToNodes,Map<Individual,Node> nodesForIndividuals,ReasoningTaskDescription reasoningTaskDescription) {
         if (m_tableauMonitor!=null)
             m_tableauMonitor.isSatisfiableStarted(reasoningTaskDescription);
-        clear();
-        if (loadPermanentABox) {
-            for (Atom atom : m_permanentDLOntology.getPositiveFacts())
-                loadPositiveFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
-            for (Atom atom : m_permanentDLOntology.getNegativeFacts())
-                loadNegativeFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
+        if (loadPermanentABox && canCacheSaturatedABox() && termsToNodes.isEmpty())
+            loadSaturatedPermanentABox(termsToNodes);
+        else {
+            clear();
+            if (loadPermanentABox)
+                loadPermanentABox(termsToNodes);
         }
+        if (m_nogoodManager!=null)
+            m_nogoodManager.clear();
         if (loadAdditionalABox && m_additionalDLOntology!=null) {
             for (Atom atom : m_additionalDLOntology.getPositiveFacts())
                 loadPositiveFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
@@ -385,8 +530,9 @@ public final class Tableau implements Serializable {
             for (Atom atom : perTestNegativeFactsNoDependency)
                 loadNegativeFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
         if ((perTestPositiveFactsDummyDependency!=null && !perTestPositiveFactsDummyDependency.isEmpty()) || (perTestNegativeFactsDummyDependency!=null && !perTestNegativeFactsDummyDependency.isEmpty())) {
-            m_branchingPoints[0]=new BranchingPoint(this);
+            BranchingPoint branchingPoint=new BranchingPoint(this);
             m_currentBranchingPoint++;
+            m_branchingPoints[m_currentBranchingPoint]=branchingPoint;
             m_nonbacktrackableBranchingPoint=m_currentBranchingPoint;
             DependencySet dependencySet=m_dependencySetFactory.addBranchingPoint(m_dependencySetFactory.emptySet(),m_currentBranchingPoint);
             if (perTestPositiveFactsDummyDependency!=null && !perTestPositiveFactsDummyDependency.isEmpty())
@@ -407,11 +553,101 @@ public final class Tableau implements Serializable {
         // Ensure that at least one individual exists.
         if (m_firstTableauNode==null)
             createNewNINode(m_dependencySetFactory.emptySet());
+        updateJoinOrders();
         boolean result=runCalculus();
+        updateJoinOrders();
         if (m_tableauMonitor!=null)
             m_tableauMonitor.isSatisfiableFinished(reasoningTaskDescription,result);
         return result;
     }
+    /**
+     * If cost-based join ordering is used and the extension tables have grown considerably since the DL clauses were
+     * compiled, compiles them again so that their body atoms are ordered for the current numbers of tuples. This is
+     * done once the ABox of a test has been loaded and again once the test has been decided, so that the predicates
+     * whose tuples are derived rather than loaded are taken into account for the subsequent tests.
+     */
+    protected void updateJoinOrders() {
+        if (m_costBasedJoinOrdering) {
+            if (m_permanentHyperresolutionManager.isJoinOrderOutdated())
+                m_permanentHyperresolutionManager=new HyperresolutionManager(this,m_permanentDLOntology.getDLClauses(),true,m_permanentHyperresolutionManager);
+            if (m_additionalHyperresolutionManager!=null && m_additionalHyperresolutionManager.isJoinOrderOutdated()) {
+                m_additionalHyperresolutionManager=new HyperresolutionManager(this,m_additionalDLOntology.getDLClauses(),true,m_additionalHyperresolutionManager);
+                if (m_compiledAdditionalDLOntologies.containsKey(m_additionalDLOntology))
+                    cacheAdditionalHyperresolutionManager();
+            }
+        }
+    }
+    protected void loadPermanentABox(Map<Term,Node> termsToNodes) {
+        for (Atom atom : m_permanentDLOntology.getPositiveFacts())
+            loadPositiveFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
+        for (Atom atom : m_permanentDLOntology.getNegativeFacts())
+            loadNegativeFact(termsToNodes,atom,m_dependencySetFactory.emptySet());
+    }
+    /**
+     * The saturated ABox can be cached if the "Tableau.cacheSaturatedABox" parameter is set, no additional DL ontology
+     * is used, and neither nominals nor the existential expansion strategy can introduce a branching point before the
+     * first disjunction is processed.
+     *
+     * @return true if the saturated permanent ABox can be cached
+     */
+    protected boolean canCacheSaturatedABox() {
+        return m_cacheSaturatedABox && m_additionalDLOntology==null && !m_permanentDLOntology.hasNominals() && m_existentialExpansionStrategy.isDeterministic();
+    }
+    /**
+     * Loads the permanent ABox together with all of its consequences that can be derived before the first disjunction
+     * is processed. These consequences are derived only by the first test; the state after them is saved as a
+     * branching point, and subsequent tests backtrack to that branching point instead of clearing the tableau, loading
+     * the ABox and deriving the same consequences again. The branching point cannot be backtracked over, so facts that
+     * are loaded after it without a dependency are still treated as deterministic.
+     *
+     * @param termsToNodes receives the nodes of the individuals and constants in the permanent ABox
+     */
+    protected void loadSaturatedPermanentABox(Map<Term,Node> termsToNodes) {
+        if (m_saturatedABoxTermsToNodes==null) {
+            clear();
+            loadPermanentABox(termsToNodes);
+            saturateDeterministically();
+            if (!m_extensionManager.containsClash()) {
+                pushBranchingPoint(new BranchingPoint(this));
+                m_nonbacktrackableBranchingPoint=m_currentBranchingPoint;
+                m_isCurrentModelDeterministic=true;
+                m_saturatedABoxTermsToNodes=new HashMap<>(termsToNodes);
+            }
+        }
+        else {
+            backtrackTo(0);
+            m_dependencySetFactory.removeUnusedSets();
+            m_nonbacktrackableBranchingPoint=0;
+            m_isCurrentModelDeterministic=true;
+            termsToNodes.putAll(m_saturatedABoxTermsToNodes);
+            m_numberOfSaturatedABoxReuses++;
+        }
+    }
+    /**
+     * Applies the DL clauses and expands the existentials until the first disjunction would have to be processed.
+     */
+    protected void saturateDeterministically() {
+        m_interruptFlag.startTask();
+        try {
+            boolean hasMoreWork=true;
+            while (hasMoreWork && !m_extensionManager.containsClash()) {
+                while (m_extensionManager.propagateDeltaNew() && !m_extensionManager.containsClash()) {
+                    if (m_hasDescriptionGraphs && !m_extensionManager.containsClash())
+                        m_descriptionGraphManager.checkGraphConstraints();
+                    if (!m_extensionManager.containsClash())
+                        m_permanentHyperresolutionManager.applyDLClauses();
+                    if (m_checkUnknownDatatypeRestrictions && !m_extensionManager.containsClash())
+                        m_datatypeManager.applyUnknownDatatypeRestrictionSemantics();
+                    if (m_checkDatatypes && !m_extensionManager.containsClash())
+                        m_datatypeManager.checkDatatypeConstraints();
+                }
+                hasMoreWork=!m_extensionManager.containsClash() && m_existentialExpansionStrategy.expandExistentials(false);
+            }
+        }
+        finally {
+            m_interruptFlag.endTask();
+        }
+    }
     protected void loadPositiveFact(Map<Term,Node> termsToNodes,Atom atom,DependencySet dependencySet) {
         DLPredicate dlPredicate=atom.getDLPredicate();
         if (dlPredicate instanceof LiteralConcept)
@@ -535,22 +771,41 @@ public final class Tableau implements Serializable {
         if (!m_extensionManager.containsClash()) {
             while (m_firstUnprocessedGroundDisjunction!=null) {
                 GroundDisjunction groundDisjunction=m_firstUnprocessedGroundDisjunction;
+                boolean isOpen=!groundDisjunction.isPruned() && !groundDisjunction.isSatisfied(this);
+                if (isOpen)
+                    groundDisjunction=m_groundDisjunctionSchedulingStrategy.selectGroundDisjunction(groundDisjunction);
                 if (m_tableauMonitor!=null)
                     m_tableauMonitor.processGroundDisjunctionStarted(groundDisjunction);
-                m_firstUnprocessedGroundDisjunction=groundDisjunction.m_previousGroundDisjunction;
-                if (!groundDisjunction.isPruned() && !groundDisjunction.isSatisfied(this)) {
+                // A ground disjunction selected ahead of the derivation order stays unprocessed and is skipped as satisfied later.
+                if (groundDisjunction==m_firstUnprocessedGroundDisjunction)
+                    m_firstUnprocessedGroundDisjunction=groundDisjunction.m_previousGroundDisjunction;
+                if (isOpen) {
                     int[] sortedDisjunctIndexes=groundDisjunction.getGroundDisjunctionHeader().getSortedDisjunctIndexes();
+                    int disjunctIndex=sortedDisjunctIndexes[0];
                     DependencySet dependencySet=groundDisjunction.getDependencySet();
                     if (groundDisjunction.getNumberOfDisjuncts()>1) {
-                        BranchingPoint branchingPoint=new DisjunctionBranchingPoint(this,groundDisjunction,sortedDisjunctIndexes);
+                        int pinnedDisjunctIndex=-1;
+                        if (m_groundDisjunctionGuide!=null && m_currentBranchingPoint==m_nonbacktrackableBranchingPoint)
+                            pinnedDisjunctIndex=m_groundDisjunctionGuide.getPinnedDisjunct(groundDisjunction,m_currentBranchingPoint+1);
+                        BranchingPoint branchingPoint;
+                        if (pinnedDisjunctIndex>=0) {
+                            branchingPoint=new BranchingPoint(this);
+                            disjunctIndex=pinnedDisjunctIndex;
+                        }
+                        else
+                            branchingPoint=new DisjunctionBranchingPoint(this,groundDisjunction,sortedDisjunctIndexes);
                         pushBranchingPoint(branchingPoint);
+                        if (pinnedDisjunctIndex>=0)
+                            m_nonbacktrackableBranchingPoint=m_currentBranchingPoint;
                         dependencySet=m_dependencySetFactory.addBranchingPoint(dependencySet,branchingPoint.getLevel());
                     }
                     if (m_tableauMonitor!=null)
-                        m_tableauMonitor.disjunctProcessingStarted(groundDisjunction,sortedDisjunctIndexes[0]);
-                    groundDisjunction.addDisjunctToTableau(this,sortedDisjunctIndexes[0],dependencySet);
+                        m_tableauMonitor.disjunctProcessingStarted(groundDisjunction,disjunctIndex);
+                    groundDisjunction.addDisjunctToTableau(this,disjunctIndex,dependencySet);
+                    if (m_nogoodManager!=null)
+                        m_nogoodManager.checkNogoods(groundDisjunction,disjunctIndex);
                     if (m_tableauMonitor!=null) {
-                        m_tableauMonitor.disjunctProcessingFinished(groundDisjunction,sortedDisjunctIndexes[0]);
+                        m_tableauMonitor.disjunctProcessingFinished(groundDisjunction,disjunctIndex);
                         m_tableauMonitor.processGroundDisjunctionFinished(groundDisjunction);
                     }
                     return true;
@@ -567,6 +822,9 @@ public final class Tableau implements Serializable {
             int newCurrentBranchingPoint=clashDependencySet.getMaximumBranchingPoint();
             if (newCurrentBranchingPoint<=m_nonbacktrackableBranchingPoint)
                 return false;
+            if (m_nogoodManager!=null)
+                m_nogoodManager.learnNogood(clashDependencySet);
+            m_groundDisjunctionSchedulingStrategy.clashDetected(clashDependencySet);
             backtrackTo(newCurrentBranchingPoint);
             BranchingPoint branchingPoint=getCurrentBranchingPoint();
             if (m_tableauMonitor!=null)
@@ -894,6 +1152,12 @@ public final class Tableau implements Serializable {
     public int getNumberOfMergedOrPrunedNodes() {
         return m_numberOfMergedOrPrunedNodes;
     }
+    /**
+     * @return number of tests that started from the cached saturated permanent ABox instead of loading and saturating it
+     */
+    public int getNumberOfSaturatedABoxReuses() {
+        return m_numberOfSaturatedABoxReuses;
+    }
     /**
      * @param nodeID nodeID
      * @return node
@@ -18,6 +18,7 @@
 package org.semanticweb.HermiT.tableau;
 
 import java.io.Serializable;
+import java.nio.IntBuffer;
 
 final class TupleIndex implements Serializable {
     private static final long serialVersionUID=-4284072092430590904L;
@@ -26,6 +27,7 @@ final class TupleIndex implements Serializable {
     protected static final int BUCKET_OFFSET=1;
 
     protected final int[] m_indexingSequence;
+    protected final TupleObjectEncoder m_encoder;
     protected final TrieNodeManager m_trieNodeManager;
     protected int m_root;
     protected int[] m_buckets;
@@ -34,8 +36,19 @@ final class TupleIndex implements Serializable {
     protected int m_numberOfNodes;
 
     public TupleIndex(int[] indexingSequence) {
+        this(indexingSequence,null,null);
+    }
+    public TupleIndex(int[] indexingSequence,TupleObjectEncoder encoder) {
+        this(indexingSequence,encoder,null);
+    }
+    /**
+     * If an encoder is given, the trie nodes are keyed on the IDs of the objects rather than on the objects themselves;
+     * such trie nodes can be placed outside of the heap by an OffHeapStorage.
+     */
+    public TupleIndex(int[] indexingSequence,TupleObjectEncoder encoder,OffHeapStorage offHeapStorage) {
         m_indexingSequence=indexingSequence;
-        m_trieNodeManager=new TrieNodeManager();
+        m_encoder=encoder;
+        m_trieNodeManager=new TrieNodeManager(m_encoder==null,offHeapStorage);
         clear();
     }
     public int sizeInMemoy() {
@@ -47,7 +60,7 @@ final class TupleIndex implements Serializable {
     public void clear() {
         m_trieNodeManager.clear();
         m_root=m_trieNodeManager.newTrieNode();
-        m_trieNodeManager.initializeTrieNode(m_root,-1,-1,-1,-1,-1,null);
+        m_trieNodeManager.initializeTrieNode(m_root,-1,-1,-1,-1,-1,null,TupleObjectEncoder.NO_OBJECT);
         m_buckets=new int[16];
         m_bucketsLengthMinusOne=m_buckets.length-1;
         m_resizeThreshold=(int)(m_buckets.length*LOAD_FACTOR);
@@ -95,9 +108,8 @@ final class TupleIndex implements Serializable {
         return tupleIndex;
     }
     protected void removeTrieNode(int trieNode) {
-        Object object=m_trieNodeManager.getTrieNodeObject(trieNode);
         int parent=m_trieNodeManager.getTrieNodeComponent(trieNode,TRIE_NODE_PARENT);
-        int bucketIndex=getIndexFor(object.hashCode()+parent,m_bucketsLengthMinusOne);
+        int bucketIndex=getIndexFor(getTrieNodeHashCode(trieNode),m_bucketsLengthMinusOne);
         int child=m_buckets[bucketIndex]-BUCKET_OFFSET;
         int previousChild=-1;
         while (child!=-1) {
@@ -124,7 +136,16 @@ final class TupleIndex implements Serializable {
         }
         throw new IllegalStateException("Internal error: should be able to remove the child node.");
     }
+    protected int getTrieNodeHashCode(int trieNode) {
+        int parent=m_trieNodeManager.getTrieNodeComponent(trieNode,TRIE_NODE_PARENT);
+        if (m_encoder==null)
+            return m_trieNodeManager.getTrieNodeObject(trieNode).hashCode()+parent;
+        else
+            return m_trieNodeManager.getTrieNodeComponent(trieNode,TRIE_NODE_OBJECT_ID)+parent;
+    }
     protected int getChildNode(int parent,Object object) {
+        if (m_encoder!=null)
+            return getChildNodeForID(parent,m_encoder.getID(object));
         int bucketIndex=getIndexFor(object.hashCode()+parent,m_bucketsLengthMinusOne);
         int child=m_buckets[bucketIndex]-BUCKET_OFFSET;
         while (child!=-1) {
@@ -134,7 +155,19 @@ final class TupleIndex implements Serializable {
         }
         return -1;
     }
+    protected int getChildNodeForID(int parent,int objectID) {
+        int bucketIndex=getIndexFor(objectID+parent,m_bucketsLengthMinusOne);
+        int child=m_buckets[bucketIndex]-BUCKET_OFFSET;
+        while (child!=-1) {
+            if (parent==m_trieNodeManager.getTrieNodeComponent(child,TRIE_NODE_PARENT) && objectID==m_trieNodeManager.getTrieNodeComponent(child,TRIE_NODE_OBJECT_ID))
+                return child;
+            child=m_trieNodeManager.getTrieNodeComponent(child,TRIE_NODE_NEXT_ENTRY);
+        }
+        return -1;
+    }
     protected int getChildNodeAddIfNecessary(int parent,Object object) {
+        if (m_encoder!=null)
+            return getChildNodeForIDAddIfNecessary(parent,m_encoder.encode(object));
         int hashCode=object.hashCode()+parent;
         int bucketIndex=getIndexFor(hashCode,m_bucketsLengthMinusOne);
         int child=m_buckets[bucketIndex]-BUCKET_OFFSET;
@@ -152,7 +185,30 @@ final class TupleIndex implements Serializable {
         if (nextSibling!=-1)
             m_trieNodeManager.setTrieNodeComponent(nextSibling,TRIE_NODE_PREVIOUS_SIBLING,child);
         m_trieNodeManager.setTrieNodeComponent(parent,TRIE_NODE_FIRST_CHILD,child);
-        m_trieNodeManager.initializeTrieNode(child,parent,-1,-1,nextSibling,m_buckets[bucketIndex]-BUCKET_OFFSET,object);
+        m_trieNodeManager.initializeTrieNode(child,parent,-1,-1,nextSibling,m_buckets[bucketIndex]-BUCKET_OFFSET,object,TupleObjectEncoder.NO_OBJECT);
+        m_buckets[bucketIndex]=child+BUCKET_OFFSET;
+        m_numberOfNodes++;
+        return child;
+    }
+    protected int getChildNodeForIDAddIfNecessary(int parent,int objectID) {
+        int hashCode=objectID+parent;
+        int bucketIndex=getIndexFor(hashCode,m_bucketsLengthMinusOne);
+        int child=m_buckets[bucketIndex]-BUCKET_OFFSET;
+        while (child!=-1) {
+            if (parent==m_trieNodeManager.getTrieNodeComponent(child,TRIE_NODE_PARENT) && objectID==m_trieNodeManager.getTrieNodeComponent(child,TRIE_NODE_OBJECT_ID))
+                return child;
+            child=m_trieNodeManager.getTrieNodeComponent(child,TRIE_NODE_NEXT_ENTRY);
+        }
+        if (m_numberOfNodes>=m_resizeThreshold) {
+            resizeBuckets();
+            bucketIndex=getIndexFor(hashCode,m_bucketsLengthMinusOne);
+        }
+        child=m_trieNodeManager.newTrieNode();
+        int nextSibling=m_trieNodeManager.getTrieNodeComponent(parent,TRIE_NODE_FIRST_CHILD);
+        if (nextSibling!=-1)
+            m_trieNodeManager.setTrieNodeComponent(nextSibling,TRIE_NODE_PREVIOUS_SIBLING,child);
+        m_trieNodeManager.setTrieNodeComponent(parent,TRIE_NODE_FIRST_CHILD,child);
+        m_trieNodeManager.initializeTrieNode(child,parent,-1,-1,nextSibling,m_buckets[bucketIndex]-BUCKET_OFFSET,null,objectID);
         m_buckets[bucketIndex]=child+BUCKET_OFFSET;
         m_numberOfNodes++;
         return child;
@@ -167,7 +223,7 @@ final class TupleIndex implements Serializable {
                 int trieNode=m_buckets[bucketIndex]-BUCKET_OFFSET;
                 while (trieNode!=-1) {
                     int nextTrieNode=m_trieNodeManager.getTrieNodeComponent(trieNode,TRIE_NODE_NEXT_ENTRY);
-                    int hashCode=m_trieNodeManager.getTrieNodeObject(trieNode).hashCode()+m_trieNodeManager.getTrieNodeComponent(trieNode,TRIE_NODE_PARENT);
+                    int hashCode=getTrieNodeHashCode(trieNode);
                     int newBucketIndex=getIndexFor(hashCode,newBucketsLengthMinusOne);
                     m_trieNodeManager.setTrieNodeComponent(trieNode,TRIE_NODE_NEXT_ENTRY,newBuckets[newBucketIndex]-BUCKET_OFFSET);
                     newBuckets[newBucketIndex]=trieNode+BUCKET_OFFSET;
@@ -194,44 +250,80 @@ final class TupleIndex implements Serializable {
     protected static final int TRIE_NODE_PREVIOUS_SIBLING=2;
     protected static final int TRIE_NODE_NEXT_SIBLING=3;
     protected static final int TRIE_NODE_NEXT_ENTRY=4;
+    protected static final int TRIE_NODE_OBJECT_ID=5;
     protected static final int TRIE_NODE_SIZE=5;
+    protected static final int TRIE_NODE_SIZE_WITH_OBJECT_ID=6;
     protected static final int TRIE_NODE_PAGE_SIZE=1024;
 
     protected static final class TrieNodeManager implements Serializable {
         private static final long serialVersionUID=-1978070096232682717L;
 
+        protected final boolean m_storesObjects;
+        protected final int m_trieNodeSize;
+        protected final OffHeapStorage m_offHeapStorage;
         protected int[][] m_indexPages;
+        protected IntBuffer[] m_offHeapIndexPages;
         protected Object[][] m_objectPages;
         protected int m_firstFreeTrieNode;
         protected int m_numberOfPages;
 
-        public TrieNodeManager() {
-           clear();
+        public TrieNodeManager(boolean storesObjects,OffHeapStorage offHeapStorage) {
+            if (storesObjects && offHeapStorage!=null)
+                throw new IllegalArgumentException("Only tuple indexes keyed on object IDs can be stored outside of the heap.");
+            m_storesObjects=storesObjects;
+            m_trieNodeSize=(m_storesObjects ? TRIE_NODE_SIZE : TRIE_NODE_SIZE_WITH_OBJECT_ID);
+            m_offHeapStorage=offHeapStorage;
+            clear();
         }
         public int size() {
-            int size=m_indexPages.length*4+m_objectPages.length*4;
-            for (int i=m_indexPages.length-1;i>=0;--i)
-                if (m_indexPages[i]!=null)
-                    size+=m_indexPages[i].length*4;
-            for (int i=m_objectPages.length-1;i>=0;--i)
-                if (m_objectPages[i]!=null)
-                    size+=m_objectPages[i].length*4;
+            int size=0;
+            if (m_offHeapStorage==null) {
+                size+=m_indexPages.length*4;
+                for (int i=m_indexPages.length-1;i>=0;--i)
+                    if (m_indexPages[i]!=null)
+                        size+=m_indexPages[i].length*4;
+            }
+            else
+                size+=m_offHeapIndexPages.length*4;
+            if (m_storesObjects) {
+                size+=m_objectPages.length*4;
+                for (int i=m_objectPages.length-1;i>=0;--i)
+                    if (m_objectPages[i]!=null)
+                        size+=m_objectPages[i].length*4;
+            }
             return size;
         }
         public void clear() {
-            m_indexPages=new int[10][];
-            m_indexPages[0]=new int[TRIE_NODE_SIZE*TRIE_NODE_PAGE_SIZE];
-            m_objectPages=new Object[10][];
-            m_objectPages[0]=new Object[TRIE_NODE_PAGE_SIZE];
+            if (m_offHeapStorage==null) {
+                m_indexPages=new int[10][];
+                m_indexPages[0]=new int[m_trieNodeSize*TRIE_NODE_PAGE_SIZE];
+            }
+            else {
+                if (m_offHeapIndexPages!=null)
+                    for (int index=0;index<m_numberOfPages;index++)
+                        m_offHeapStorage.releasePage(m_offHeapIndexPages[index]);
+                m_offHeapIndexPages=new IntBuffer[10];
+                m_offHeapIndexPages[0]=m_offHeapStorage.allocatePage(m_trieNodeSize*TRIE_NODE_PAGE_SIZE);
+            }
+            if (m_storesObjects) {
+                m_objectPages=new Object[10][];
+                m_objectPages[0]=new Object[TRIE_NODE_PAGE_SIZE];
+            }
             m_numberOfPages=1;
             m_firstFreeTrieNode=0;
             setTrieNodeComponent(m_firstFreeTrieNode,TRIE_NODE_NEXT_SIBLING,-1);
         }
         public int getTrieNodeComponent(int trieNode,int component) {
-            return m_indexPages[trieNode / TRIE_NODE_PAGE_SIZE][(trieNode % TRIE_NODE_PAGE_SIZE)*TRIE_NODE_SIZE+component];
+            if (m_indexPages!=null)
+                return m_indexPages[trieNode / TRIE_NODE_PAGE_SIZE][(trieNode % TRIE_NODE_PAGE_SIZE)*m_trieNodeSize+component];
+            else
+                return m_offHeapIndexPages[trieNode / TRIE_NODE_PAGE_SIZE].get((trieNode % TRIE_NODE_PAGE_SIZE)*m_trieNodeSize+component);
         }
         public void setTrieNodeComponent(int trieNode,int component,int value) {
-            m_indexPages[trieNode / TRIE_NODE_PAGE_SIZE][(trieNode % TRIE_NODE_PAGE_SIZE)*TRIE_NODE_SIZE+component]=value;
+            if (m_indexPages!=null)
+                m_indexPages[trieNode / TRIE_NODE_PAGE_SIZE][(trieNode % TRIE_NODE_PAGE_SIZE)*m_trieNodeSize+component]=value;
+            else
+                m_offHeapIndexPages[trieNode / TRIE_NODE_PAGE_SIZE].put((trieNode % TRIE_NODE_PAGE_SIZE)*m_trieNodeSize+component,value);
         }
         public Object getTrieNodeObject(int trieNode) {
             return m_objectPages[trieNode / TRIE_NODE_PAGE_SIZE][trieNode % TRIE_NODE_PAGE_SIZE];
@@ -239,17 +331,31 @@ final class TupleIndex implements Serializable {
         public void setTrieNodeObject(int trieNode,Object object) {
             m_objectPages[trieNode / TRIE_NODE_PAGE_SIZE][trieNode % TRIE_NODE_PAGE_SIZE]=object;
         }
-        public void initializeTrieNode(int trieNode,int parent,int firstChild,int previousSibling,int nextSibling,int nextEntry,Object object) {
+        public void initializeTrieNode(int trieNode,int parent,int firstChild,int previousSibling,int nextSibling,int nextEntry,Object object,int objectID) {
             int pageIndex=trieNode / TRIE_NODE_PAGE_SIZE;
             int indexInPage=trieNode % TRIE_NODE_PAGE_SIZE;
-            int[] indexPage=m_indexPages[pageIndex];
-            int start=indexInPage*TRIE_NODE_SIZE;
-            indexPage[start+TRIE_NODE_PARENT]=parent;
-            indexPage[start+TRIE_NODE_FIRST_CHILD]=firstChild;
-            indexPage[start+TRIE_NODE_PREVIOUS_SIBLING]=previousSibling;
-            indexPage[start+TRIE_NODE_NEXT_SIBLING]=nextSibling;
-            indexPage[start+TRIE_NODE_NEXT_ENTRY]=nextEntry;
-            m_objectPages[pageIndex][indexInPage]=object;
+            int start=indexInPage*m_trieNodeSize;
+            if (m_indexPages!=null) {
+                int[] indexPage=m_indexPages[pageIndex];
+                indexPage[start+TRIE_NODE_PARENT]=parent;
+                indexPage[start+TRIE_NODE_FIRST_CHILD]=firstChild;
+                indexPage[start+TRIE_NODE_PREVIOUS_SIBLING]=previousSibling;
+                indexPage[start+TRIE_NODE_NEXT_SIBLING]=nextSibling;
+                indexPage[start+TRIE_NODE_NEXT_ENTRY]=nextEntry;
+                if (!m_storesObjects)
+                    indexPage[start+TRIE_NODE_OBJECT_ID]=objectID;
+            }
+            else {
+                IntBuffer indexPage=m_offHeapIndexPages[pageIndex];
+                indexPage.put(start+TRIE_NODE_PARENT,parent);
+                indexPage.put(start+TRIE_NODE_FIRST_CHILD,firstChild);
+                indexPage.put(start+TRIE_NODE_PREVIOUS_SIBLING,previousSibling);
+                indexPage.put(start+TRIE_NODE_NEXT_SIBLING,nextSibling);
+                indexPage.put(start+TRIE_NODE_NEXT_ENTRY,nextEntry);
+                indexPage.put(start+TRIE_NODE_OBJECT_ID,objectID);
+            }
+            if (m_storesObjects)
+                m_objectPages[pageIndex][indexInPage]=object;
         }
         public int newTrieNode() {
             int newTrieNode=m_firstFreeTrieNode;
@@ -262,16 +368,30 @@ final class TupleIndex implements Serializable {
                     throw new OutOfMemoryError("The space of nodes in TupleIndex was exhausted: the ontology is just too large.");
                 int pageIndex=m_firstFreeTrieNode / TRIE_NODE_PAGE_SIZE;
                 if (pageIndex>=m_numberOfPages) {
-                    if (pageIndex>=m_indexPages.length) {
-                        int[][] newIndexPages=new int[m_indexPages.length*3/2][];
-                        System.arraycopy(m_indexPages,0,newIndexPages,0,m_indexPages.length);
-                        m_indexPages=newIndexPages;
-                        Object[][] newObjectPages=new Object[m_objectPages.length*3/2][];
-                        System.arraycopy(m_objectPages,0,newObjectPages,0,m_objectPages.length);
-                        m_objectPages=newObjectPages;
+                    if (m_indexPages!=null) {
+                        if (pageIndex>=m_indexPages.length) {
+                            int[][] newIndexPages=new int[m_indexPages.length*3/2][];
+                            System.arraycopy(m_indexPages,0,newIndexPages,0,m_indexPages.length);
+                            m_indexPages=newIndexPages;
+                        }
+                        m_indexPages[pageIndex]=new int[m_trieNodeSize*TRIE_NODE_PAGE_SIZE];
+                    }
+                    else {
+                        if (pageIndex>=m_offHeapIndexPages.length) {
+                            IntBuffer[] newOffHeapIndexPages=new IntBuffer[m_offHeapIndexPages.length*3/2];
+                            System.arraycopy(m_offHeapIndexPages,0,newOffHeapIndexPages,0,m_offHeapIndexPages.length);
+                            m_offHeapIndexPages=newOffHeapIndexPages;
+                        }
+                        m_offHeapIndexPages[pageIndex]=m_offHeapStorage.allocatePage(m_trieNodeSize*TRIE_NODE_PAGE_SIZE);
+                    }
+                    if (m_storesObjects) {
+                        if (pageIndex>=m_objectPages.length) {
+                            Object[][] newObjectPages=new Object[m_objectPages.length*3/2][];
+                            System.arraycopy(m_objectPages,0,newObjectPages,0,m_objectPages.length);
+                            m_objectPages=newObjectPages;
+                        }
+                        m_objectPages[pageIndex]=new Object[TRIE_NODE_PAGE_SIZE];
                     }
-                    m_indexPages[pageIndex]=new int[TRIE_NODE_SIZE*TRIE_NODE_PAGE_SIZE];
-                    m_objectPages[pageIndex]=new Object[TRIE_NODE_PAGE_SIZE];
                     m_numberOfPages++;
                 }
                 setTrieNodeComponent(m_firstFreeTrieNode,TRIE_NODE_NEXT_SIBLING,-1);
@@ -280,7 +400,8 @@ final class TupleIndex implements Serializable {
         }
         public void deleteTrieNode(int trieNode) {
             setTrieNodeComponent(trieNode,TRIE_NODE_NEXT_SIBLING,m_firstFreeTrieNode);
-            setTrieNodeObject(trieNode,null);
+            if (m_storesObjects)
+                setTrieNodeObject(trieNode,null);
             m_firstFreeTrieNode=trieNode;
         }
     }
@@ -0,0 +1,135 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.io.Serializable;
+
+import gnu.trove.impl.Constants;
+import gnu.trove.map.hash.TObjectIntHashMap;
+
+/**
+ * Maps the objects stored in int-encoded tuple tables and tuple indexes to dense integer IDs and back. A node is
+ * encoded by its node ID, which is positive and unique among the nodes of the tableau that have not been destroyed;
+ * all other objects (that is, the DL predicates) receive negative IDs. The ID 0 never occurs in a stored tuple, so
+ * it is used for null and for objects that have not been encoded yet. The IDs of the DL predicates are kept in a
+ * primitive map, so looking them up neither boxes the IDs nor, since the DL predicates are interned, calls equals().
+ */
+public final class TupleObjectEncoder implements Serializable {
+    private static final long serialVersionUID=-2953316452208453301L;
+
+    /**The ID of null and of objects that do not occur in any tuple.*/
+    public static final int NO_OBJECT=0;
+
+    protected final TObjectIntHashMap<Object> m_objectIDs;
+    protected Object[] m_objectsByID;
+    protected int m_numberOfObjects;
+    protected Node[] m_nodesByID;
+    protected int m_maxNodeID;
+
+    /**Creates an empty encoder.*/
+    public TupleObjectEncoder() {
+        m_objectIDs=new TObjectIntHashMap<>(Constants.DEFAULT_CAPACITY,Constants.DEFAULT_LOAD_FACTOR,NO_OBJECT);
+        m_objectsByID=new Object[128];
+        m_numberOfObjects=0;
+        m_nodesByID=new Node[1024];
+        m_maxNodeID=0;
+    }
+    /**
+     * Returns the ID of the given object and registers the object so that the ID can be decoded.
+     *
+     * @param object object
+     * @return ID of the object
+     */
+    public int encode(Object object) {
+        if (object instanceof Node) {
+            Node node=(Node)object;
+            int nodeID=node.m_nodeID;
+            if (nodeID<=0)
+                throw new IllegalArgumentException("Internal error: only nodes of the tableau can be encoded.");
+            if (nodeID>=m_nodesByID.length) {
+                int newLength=m_nodesByID.length*3/2;
+                while (nodeID>=newLength)
+                    newLength=newLength*3/2;
+                Node[] newNodesByID=new Node[newLength];
+                System.arraycopy(m_nodesByID,0,newNodesByID,0,m_nodesByID.length);
+                m_nodesByID=newNodesByID;
+            }
+            m_nodesByID[nodeID]=node;
+            if (nodeID>m_maxNodeID)
+                m_maxNodeID=nodeID;
+            return nodeID;
+        }
+        else if (object==null)
+            return NO_OBJECT;
+        int objectID=m_objectIDs.get(object);
+        if (objectID==NO_OBJECT) {
+            m_numberOfObjects++;
+            if (m_numberOfObjects>=m_objectsByID.length) {
+                Object[] newObjectsByID=new Object[m_objectsByID.length*3/2];
+                System.arraycopy(m_objectsByID,0,newObjectsByID,0,m_objectsByID.length);
+                m_objectsByID=newObjectsByID;
+            }
+            m_objectsByID[m_numberOfObjects]=object;
+            objectID=-m_numberOfObjects;
+            m_objectIDs.put(object,objectID);
+        }
+        return objectID;
+    }
+    /**
+     * Returns the ID of the given object without registering it; the result is NO_OBJECT if the object cannot occur
+     * in any tuple.
+     *
+     * @param object object
+     * @return ID of the object
+     */
+    public int getID(Object object) {
+        if (object instanceof Node) {
+            int nodeID=((Node)object).m_nodeID;
+            return nodeID<=0 ? NO_OBJECT : nodeID;
+        }
+        else if (object==null)
+            return NO_OBJECT;
+        return m_objectIDs.get(object);
+    }
+    /**
+     * @param objectID objectID
+     * @return the object with the given ID
+     */
+    public Object decode(int objectID) {
+        if (objectID>0)
+            return m_nodesByID[objectID];
+        else if (objectID<0)
+            return m_objectsByID[-objectID];
+        else
+            return null;
+    }
+    /**
+     * Forgets the registered nodes; the IDs of all other objects are kept since they do not change between tableau runs.
+     */
+    public void clear() {
+        for (int nodeID=m_maxNodeID;nodeID>0;--nodeID)
+            m_nodesByID[nodeID]=null;
+        m_maxNodeID=0;
+    }
+    /**
+     * @return size in memory
+     */
+    public int sizeInMemory() {
+        return m_nodesByID.length*4+m_objectsByID.length*4+m_objectIDs.capacity()*8;
+    }
+}
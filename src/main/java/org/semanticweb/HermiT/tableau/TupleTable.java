@@ -18,10 +18,15 @@
 package org.semanticweb.HermiT.tableau;
 
 import java.io.Serializable;
+import java.nio.IntBuffer;
 
 /**
  * The actual implementation of the tuple tables used in the ExtensionTable
- * class.
+ * class. If an encoder is given, the objects at the first positions of each
+ * tuple are stored as integer IDs in int[] pages, which saves the garbage
+ * collector from tracing these references; the remaining positions (such as
+ * dependency sets) are always stored as objects. The int pages can further be
+ * placed outside of the Java heap by an OffHeapStorage.
  */
 public final class TupleTable implements Serializable {
     private static final long serialVersionUID=-7712458276004062803L;
@@ -29,6 +34,9 @@ public final class TupleTable implements Serializable {
     protected static final int PAGE_SIZE=512;   // Must be a power of two!
 
     protected final int m_arity;
+    protected final int m_encodedArity;
+    protected final TupleObjectEncoder m_encoder;
+    protected final OffHeapStorage m_offHeapStorage;
     protected Page[] m_pages;
     protected int m_numberOfPages;
     protected int m_tupleCapacity;
@@ -38,7 +46,21 @@ public final class TupleTable implements Serializable {
      * @param arity arity
      */
     public TupleTable(int arity) {
+        this(arity,0,null,null);
+    }
+    /**
+     * @param arity arity
+     * @param encodedArity the number of leading positions that are stored as IDs of the encoder
+     * @param encoder encoder, or null if encodedArity is 0
+     * @param offHeapStorage the storage for the pages with the IDs, or null if they should be kept on the heap
+     */
+    public TupleTable(int arity,int encodedArity,TupleObjectEncoder encoder,OffHeapStorage offHeapStorage) {
+        if (encodedArity<0 || encodedArity>arity || (encodedArity>0 && encoder==null))
+            throw new IllegalArgumentException("Invalid number of encoded positions.");
         m_arity=arity;
+        m_encodedArity=encodedArity;
+        m_encoder=encoder;
+        m_offHeapStorage=(m_encodedArity==0 ? null : offHeapStorage);
         clear();
     }
     /**
@@ -69,10 +91,10 @@ public final class TupleTable implements Serializable {
                 System.arraycopy(m_pages,0,newPages,0,m_numberOfPages);
                 m_pages=newPages;
             }
-            m_pages[m_numberOfPages++]=new Page(m_arity);
+            m_pages[m_numberOfPages++]=new Page(m_arity,m_encodedArity,m_encoder,m_offHeapStorage);
             m_tupleCapacity+=PAGE_SIZE;
         }
-        m_pages[newTupleIndex / PAGE_SIZE].storeTuple((newTupleIndex % PAGE_SIZE)*m_arity,tupleBuffer);
+        m_pages[newTupleIndex / PAGE_SIZE].storeTuple(newTupleIndex % PAGE_SIZE,tupleBuffer);
         m_firstFreeTupleIndex++;
         return newTupleIndex;
     }
@@ -83,7 +105,7 @@ public final class TupleTable implements Serializable {
      * @return true if equal
      */
     public boolean tupleEquals(Object[] tupleBuffer,int tupleIndex,int compareLength) {
-        return m_pages[tupleIndex / PAGE_SIZE].tupleEquals(tupleBuffer,(tupleIndex % PAGE_SIZE)*m_arity,compareLength);
+        return m_pages[tupleIndex / PAGE_SIZE].tupleEquals(tupleBuffer,tupleIndex % PAGE_SIZE,compareLength);
     }
     /**
      * @param tupleBuffer tupleBuffer
@@ -93,14 +115,14 @@ public final class TupleTable implements Serializable {
      * @return true if equals
      */
     public boolean tupleEquals(Object[] tupleBuffer,int[] positionIndexes,int tupleIndex,int compareLength) {
-        return m_pages[tupleIndex / PAGE_SIZE].tupleEquals(tupleBuffer,positionIndexes,(tupleIndex % PAGE_SIZE)*m_arity,compareLength);
+        return m_pages[tupleIndex / PAGE_SIZE].tupleEquals(tupleBuffer,positionIndexes,tupleIndex % PAGE_SIZE,compareLength);
     }
     /**
      * @param tupleBuffer tupleBuffer
      * @param tupleIndex tupleIndex
      */
     public void retrieveTuple(Object[] tupleBuffer,int tupleIndex) {
-        m_pages[tupleIndex / PAGE_SIZE].retrieveTuple((tupleIndex % PAGE_SIZE)*m_arity,tupleBuffer);
+        m_pages[tupleIndex / PAGE_SIZE].retrieveTuple(tupleIndex % PAGE_SIZE,tupleBuffer);
     }
     /**
      * @param tupleIndex tupleIndex
@@ -109,7 +131,7 @@ public final class TupleTable implements Serializable {
      */
     public Object getTupleObject(int tupleIndex,int objectIndex) {
         assert objectIndex < m_arity;
-        return m_pages[tupleIndex / PAGE_SIZE].m_objects[(tupleIndex % PAGE_SIZE)*m_arity+objectIndex];
+        return m_pages[tupleIndex / PAGE_SIZE].getObject(tupleIndex % PAGE_SIZE,objectIndex);
     }
     /**
      * @param tupleIndex tupleIndex
@@ -117,7 +139,7 @@ public final class TupleTable implements Serializable {
      * @param object object
      */
     public void setTupleObject(int tupleIndex,int objectIndex,Object object) {
-        m_pages[tupleIndex / PAGE_SIZE].m_objects[(tupleIndex % PAGE_SIZE)*m_arity+objectIndex]=object;
+        m_pages[tupleIndex / PAGE_SIZE].setObject(tupleIndex % PAGE_SIZE,objectIndex,object);
     }
     /**
      * @param newFirstFreeTupleIndex newFirstFreeTupleIndex
@@ -129,13 +151,16 @@ public final class TupleTable implements Serializable {
      * @param tupleIndex tupleIndex
      */
     public void nullifyTuple(int tupleIndex) {
-        m_pages[tupleIndex / PAGE_SIZE].nullifyTuple((tupleIndex % PAGE_SIZE)*m_arity);
+        m_pages[tupleIndex / PAGE_SIZE].nullifyTuple(tupleIndex % PAGE_SIZE);
     }
     /**Clear.*/
     public void clear() {
+        if (m_offHeapStorage!=null && m_pages!=null)
+            for (int index=0;index<m_numberOfPages;index++)
+                m_offHeapStorage.releasePage(m_pages[index].m_objectIDBuffer);
         m_pages=new Page[10];
         m_numberOfPages=1;
-        m_pages[0]=new Page(m_arity);
+        m_pages[0]=new Page(m_arity,m_encodedArity,m_encoder,m_offHeapStorage);
         m_tupleCapacity=m_numberOfPages*PAGE_SIZE;
         m_firstFreeTupleIndex=0;
     }
@@ -144,46 +169,98 @@ public final class TupleTable implements Serializable {
         private static final long serialVersionUID=2239482172592108644L;
 
         public final int m_arity;
+        public final int m_encodedArity;
+        public final int m_objectArity;
+        public final TupleObjectEncoder m_encoder;
+        public final int[] m_objectIDs;
+        public final IntBuffer m_objectIDBuffer;
         public final Object[] m_objects;
 
-        public Page(int arity) {
+        public Page(int arity,int encodedArity,TupleObjectEncoder encoder,OffHeapStorage offHeapStorage) {
             m_arity=arity;
-            m_objects=new Object[m_arity*PAGE_SIZE];
+            m_encodedArity=encodedArity;
+            m_objectArity=m_arity-m_encodedArity;
+            m_encoder=encoder;
+            if (m_encodedArity==0) {
+                m_objectIDs=null;
+                m_objectIDBuffer=null;
+            }
+            else if (offHeapStorage==null) {
+                m_objectIDs=new int[m_encodedArity*PAGE_SIZE];
+                m_objectIDBuffer=null;
+            }
+            else {
+                m_objectIDs=null;
+                m_objectIDBuffer=offHeapStorage.allocatePage(m_encodedArity*PAGE_SIZE);
+            }
+            m_objects=(m_objectArity==0 ? null : new Object[m_objectArity*PAGE_SIZE]);
         }
         public int sizeInMemory() {
-            return m_objects.length*4;
+            return (m_objectIDs==null ? 0 : m_objectIDs.length*4)+(m_objects==null ? 0 : m_objects.length*4);
+        }
+        protected int getObjectID(int index) {
+            if (m_objectIDs!=null)
+                return m_objectIDs[index];
+            else
+                return m_objectIDBuffer.get(index);
         }
-        public void storeTuple(int tupleStartIndex,Object[] tupleBuffer) {
-            System.arraycopy(tupleBuffer,0,m_objects,tupleStartIndex,tupleBuffer.length);
+        protected void setObjectID(int index,int objectID) {
+            if (m_objectIDs!=null)
+                m_objectIDs[index]=objectID;
+            else
+                m_objectIDBuffer.put(index,objectID);
         }
-        public void retrieveTuple(int tupleStartIndex,Object[] tupleBuffer) {
-            System.arraycopy(m_objects,tupleStartIndex,tupleBuffer,0,tupleBuffer.length);
+        public void storeTuple(int tupleIndexInPage,Object[] tupleBuffer) {
+            int idStartIndex=tupleIndexInPage*m_encodedArity;
+            for (int index=0;index<m_encodedArity;index++)
+                setObjectID(idStartIndex+index,m_encoder.encode(tupleBuffer[index]));
+            if (m_objectArity!=0)
+                System.arraycopy(tupleBuffer,m_encodedArity,m_objects,tupleIndexInPage*m_objectArity,tupleBuffer.length-m_encodedArity);
         }
-        public void nullifyTuple(int tupleStartIndex) {
-            for (int index=0;index<m_arity;index++)
-                m_objects[tupleStartIndex+index]=null;
+        public void retrieveTuple(int tupleIndexInPage,Object[] tupleBuffer) {
+            int idStartIndex=tupleIndexInPage*m_encodedArity;
+            for (int index=0;index<m_encodedArity;index++)
+                tupleBuffer[index]=m_encoder.decode(getObjectID(idStartIndex+index));
+            if (m_objectArity!=0)
+                System.arraycopy(m_objects,tupleIndexInPage*m_objectArity,tupleBuffer,m_encodedArity,tupleBuffer.length-m_encodedArity);
         }
-        public boolean tupleEquals(Object[] tupleBuffer,int tupleStartIndex,int compareLength) {
-            int sourceIndex=compareLength-1;
-            int targetIndex=tupleStartIndex+sourceIndex;
-            while (sourceIndex>=0) {
-                if (!tupleBuffer[sourceIndex].equals(m_objects[targetIndex]))
+        public Object getObject(int tupleIndexInPage,int objectIndex) {
+            if (objectIndex<m_encodedArity)
+                return m_encoder.decode(getObjectID(tupleIndexInPage*m_encodedArity+objectIndex));
+            else
+                return m_objects[tupleIndexInPage*m_objectArity+objectIndex-m_encodedArity];
+        }
+        public void setObject(int tupleIndexInPage,int objectIndex,Object object) {
+            if (objectIndex<m_encodedArity)
+                setObjectID(tupleIndexInPage*m_encodedArity+objectIndex,m_encoder.encode(object));
+            else
+                m_objects[tupleIndexInPage*m_objectArity+objectIndex-m_encodedArity]=object;
+        }
+        public void nullifyTuple(int tupleIndexInPage) {
+            int idStartIndex=tupleIndexInPage*m_encodedArity;
+            for (int index=0;index<m_encodedArity;index++)
+                setObjectID(idStartIndex+index,TupleObjectEncoder.NO_OBJECT);
+            int objectStartIndex=tupleIndexInPage*m_objectArity;
+            for (int index=0;index<m_objectArity;index++)
+                m_objects[objectStartIndex+index]=null;
+        }
+        public boolean tupleEquals(Object[] tupleBuffer,int tupleIndexInPage,int compareLength) {
+            for (int index=compareLength-1;index>=0;--index)
+                if (!positionEquals(tupleBuffer[index],tupleIndexInPage,index))
                     return false;
-                sourceIndex--;
-                targetIndex--;
-            }
             return true;
         }
-        public boolean tupleEquals(Object[] tupleBuffer,int[] positionIndexes,int tupleStartIndex,int compareLength) {
-            int sourceIndex=compareLength-1;
-            int targetIndex=tupleStartIndex+sourceIndex;
-            while (sourceIndex>=0) {
-                if (!tupleBuffer[positionIndexes[sourceIndex]].equals(m_objects[targetIndex]))
+        public boolean tupleEquals(Object[] tupleBuffer,int[] positionIndexes,int tupleIndexInPage,int compareLength) {
+            for (int index=compareLength-1;index>=0;--index)
+                if (!positionEquals(tupleBuffer[positionIndexes[index]],tupleIndexInPage,index))
                     return false;
-                sourceIndex--;
-                targetIndex--;
-            }
             return true;
         }
+        protected boolean positionEquals(Object object,int tupleIndexInPage,int objectIndex) {
+            if (objectIndex<m_encodedArity)
+                return m_encoder.getID(object)==getObjectID(tupleIndexInPage*m_encodedArity+objectIndex);
+            else
+                return object.equals(m_objects[tupleIndexInPage*m_objectArity+objectIndex-m_encodedArity]);
+        }
     }
 }
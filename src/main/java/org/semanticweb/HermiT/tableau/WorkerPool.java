@@ -0,0 +1,214 @@
+/* Copyright 2008, 2009, 2010 by the Oxford University Computing Laboratory
+
+   This file is part of HermiT.
+
+   HermiT is free software: you can redistribute it and/or modify
+   it under the terms of the GNU Lesser General Public License as published by
+   the Free Software Foundation, either version 3 of the License, or
+   (at your option) any later version.
+
+   HermiT is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public License
+   along with HermiT.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package org.semanticweb.HermiT.tableau;
+
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
+
+/**
+ * A fixed pool of daemon threads that run tasks on several tableaux, each of which is used by one task at a time. The
+ * tableaux do not react to thread interrupts, so shutdown() stops the running tasks by cancelling them through the
+ * interrupt flags of the tableaux and afterwards clears only these cancellations. While waiting for a result, the
+ * calling thread watches the interrupt flag of the pool by its number of interrupts rather than by its state: the
+ * interrupt flag of the reasoner is usually also the flag of the first tableau, and every test that starts on that
+ * tableau resets it.
+ */
+public class WorkerPool {
+    protected static final long INTERRUPT_CHECK_INTERVAL=100;
+
+    protected final InterruptFlag m_interruptFlag;
+    protected final int m_numberOfInterruptsAtStart;
+    protected final Tableau[] m_tableaux;
+    protected final int[] m_numberOfTableauInterruptsAtStart;
+    protected final BlockingQueue<Tableau> m_idleTableaux;
+    protected final ExecutorService m_executor;
+
+    /**
+     * @param threadName the name of the worker threads
+     * @param interruptFlag the interrupt flag through which the caller of the pool is interrupted
+     * @param tableaux the tableaux for the tasks, which must not be used by other threads until the pool has been shut down
+     */
+    public WorkerPool(String threadName,InterruptFlag interruptFlag,Tableau[] tableaux) {
+        m_interruptFlag=interruptFlag;
+        m_numberOfInterruptsAtStart=interruptFlag.getNumberOfInterrupts();
+        m_tableaux=tableaux;
+        m_numberOfTableauInterruptsAtStart=new int[tableaux.length];
+        for (int index=0;index<tableaux.length;index++)
+            m_numberOfTableauInterruptsAtStart[index]=tableaux[index].getInterruptFlag().getNumberOfInterrupts();
+        m_idleTableaux=new ArrayBlockingQueue<>(tableaux.length);
+        Collections.addAll(m_idleTableaux,tableaux);
+        m_executor=Executors.newFixedThreadPool(tableaux.length,runnable -> {
+            Thread thread=new Thread(runnable,threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    /**
+     * @return the number of tableaux, which is also the number of worker threads
+     */
+    public int getNumberOfTableaux() {
+        return m_tableaux.length;
+    }
+    /**
+     * @return true if some tableau is not used by a task
+     */
+    public boolean hasIdleTableau() {
+        return !m_idleTableaux.isEmpty();
+    }
+    /**
+     * @param task the task, which runs as soon as a tableau is idle
+     * @return the result of the task
+     */
+    public <T> Future<T> submit(Task<T> task) {
+        return m_executor.submit(toCallable(task));
+    }
+    /**
+     * @return a completion service that runs its tasks on the threads of this pool
+     */
+    public <T> CompletionService<T> createCompletionService() {
+        return new ExecutorCompletionService<>(m_executor);
+    }
+    /**
+     * @param task the task, which runs as soon as a tableau is idle
+     * @param completionService a completion service created by this pool, which receives the result of the task
+     */
+    public <T> void submit(Task<T> task,CompletionService<T> completionService) {
+        completionService.submit(toCallable(task));
+    }
+    protected <T> Callable<T> toCallable(Task<T> task) {
+        return () -> {
+            Tableau tableau=m_idleTableaux.take();
+            try {
+                return task.run(tableau);
+            }
+            finally {
+                m_idleTableaux.add(tableau);
+            }
+        };
+    }
+    /**
+     * Throws a ReasonerInterruptedException if the interrupt flag of the pool has been interrupted since the pool was created.
+     */
+    public void checkInterrupt() {
+        if (m_interruptFlag.getNumberOfInterrupts()!=m_numberOfInterruptsAtStart)
+            throw new ReasonerInterruptedException();
+    }
+    /**
+     * Waits for the result of a task while checking for interrupts.
+     *
+     * @param future the result of a task of this pool
+     * @return the result
+     */
+    public <T> T takeResult(Future<T> future) {
+        try {
+            while (true) {
+                checkInterrupt();
+                try {
+                    return future.get(INTERRUPT_CHECK_INTERVAL,TimeUnit.MILLISECONDS);
+                }
+                catch (@SuppressWarnings("unused") TimeoutException e) {
+                    // check for interrupts again
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a worker.",e);
+        }
+        catch (ExecutionException e) {
+            throw rethrow(e);
+        }
+    }
+    /**
+     * Waits for the next result of a completion service of this pool while checking for interrupts.
+     *
+     * @param completionService a completion service created by this pool
+     * @return the next result
+     */
+    public <T> T takeResult(CompletionService<T> completionService) {
+        try {
+            while (true) {
+                checkInterrupt();
+                Future<T> future=completionService.poll(INTERRUPT_CHECK_INTERVAL,TimeUnit.MILLISECONDS);
+                if (future!=null)
+                    return future.get();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a worker.",e);
+        }
+        catch (ExecutionException e) {
+            throw rethrow(e);
+        }
+    }
+    protected static RuntimeException rethrow(ExecutionException e) {
+        Throwable cause=e.getCause();
+        if (cause instanceof RuntimeException)
+            throw (RuntimeException)cause;
+        else if (cause instanceof Error)
+            throw (Error)cause;
+        else
+            throw new IllegalStateException("A worker failed.",cause);
+    }
+    /**
+     * Stops all tasks and waits for the worker threads to terminate, since the tableaux may be used again afterwards.
+     */
+    public void shutdown() {
+        m_executor.shutdownNow();
+        boolean interrupted=false;
+        while (!m_executor.isTerminated()) {
+            for (Tableau tableau : m_tableaux)
+                tableau.getInterruptFlag().cancelTask();
+            try {
+                m_executor.awaitTermination(INTERRUPT_CHECK_INTERVAL,TimeUnit.MILLISECONDS);
+            }
+            catch (@SuppressWarnings("unused") InterruptedException e) {
+                interrupted=true;
+            }
+        }
+        for (int index=0;index<m_tableaux.length;index++)
+            m_tableaux[index].getInterruptFlag().clearCancellation(m_numberOfTableauInterruptsAtStart[index]);
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    /**
+     * A task that runs on one tableau of a pool.
+     */
+    public static interface Task<T> {
+        /**
+         * @param tableau the tableau, which no other task uses until this task has finished
+         * @return the result
+         * @throws InterruptedException if the task has been interrupted while waiting
+         */
+        T run(Tableau tableau) throws InterruptedException;
+    }
+}
@@ -24,6 +24,10 @@ public class AllQuickTests extends TestCase {
         suite.addTest(org.semanticweb.HermiT.tableau.AllTests.suite());
         // Tests the graph library.
         suite.addTest(org.semanticweb.HermiT.graph.AllTests.suite());
+        // Tests the model classes.
+        suite.addTest(org.semanticweb.HermiT.model.AllTests.suite());
+        // Tests the data structures of the hierarchies.
+        suite.addTest(org.semanticweb.HermiT.hierarchy.AllTests.suite());
         // Rungs the WG tests.
         suite.addTest(org.semanticweb.HermiT.owl_wg_tests.AllNonRejectedNonExtracreditWGTests.suite());
         // $JUnit-END$
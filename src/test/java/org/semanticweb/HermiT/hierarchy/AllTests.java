@@ -0,0 +1,16 @@
+package org.semanticweb.HermiT.hierarchy;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+@SuppressWarnings("javadoc")
+public class AllTests {
+
+    public static Test suite() {
+        TestSuite suite = new TestSuite("Unit tests for the hierarchy classes");
+        // $JUnit-BEGIN$
+        suite.addTestSuite(CompressedBitmapTest.class);
+        // $JUnit-END$
+        return suite;
+    }
+
+}
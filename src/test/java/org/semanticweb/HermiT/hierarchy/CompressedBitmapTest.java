@@ -0,0 +1,86 @@
+package org.semanticweb.HermiT.hierarchy;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+
+import junit.framework.TestCase;
+@SuppressWarnings("javadoc")
+public class CompressedBitmapTest extends TestCase {
+
+    public CompressedBitmapTest(String name) {
+        super(name);
+    }
+
+    public void testArrayAndBitmapContainers() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        // the first container becomes a bitmap, the second one stays an array
+        for (int value = 0; value < 10000; value++)
+            assertTrue(bitmap.add(2 * value));
+        for (int value = 0; value < 100; value++)
+            assertTrue(bitmap.add(200000 + value));
+        assertFalse(bitmap.add(2));
+        assertEquals(10100, bitmap.size());
+        assertTrue(bitmap.contains(19998));
+        assertFalse(bitmap.contains(19999));
+        assertTrue(bitmap.contains(200099));
+        assertEquals(0, bitmap.first());
+        for (int value = 0; value < 9000; value++)
+            assertTrue(bitmap.remove(2 * value));
+        assertFalse(bitmap.remove(0));
+        assertEquals(1100, bitmap.size());
+        assertEquals(18000, bitmap.first());
+        CompressedBitmap copy = new CompressedBitmap(bitmap);
+        assertEquals(bitmap, copy);
+        assertEquals(bitmap.hashCode(), copy.hashCode());
+        copy.add(5);
+        assertFalse(bitmap.contains(5));
+    }
+
+    public void testSetOperations() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            TreeSet<Integer> set1 = new TreeSet<>();
+            TreeSet<Integer> set2 = new TreeSet<>();
+            CompressedBitmap bitmap1 = new CompressedBitmap();
+            CompressedBitmap bitmap2 = new CompressedBitmap();
+            // dense and sparse sets over a few containers
+            int range = (round % 2 == 0 ? 20000 : 300000);
+            for (int index = 0; index < 15000; index++) {
+                int value1 = random.nextInt(range);
+                set1.add(value1);
+                bitmap1.add(value1);
+                int value2 = random.nextInt(range);
+                set2.add(value2);
+                bitmap2.add(value2);
+            }
+            assertSameElements(set1, bitmap1);
+            TreeSet<Integer> expected = new TreeSet<>(set1);
+            CompressedBitmap result = new CompressedBitmap(bitmap1);
+            expected.addAll(set2);
+            result.addAll(bitmap2);
+            assertSameElements(expected, result);
+            expected = new TreeSet<>(set1);
+            result = new CompressedBitmap(bitmap1);
+            expected.retainAll(set2);
+            result.retainAll(bitmap2);
+            assertSameElements(expected, result);
+            assertEquals(!expected.isEmpty(), bitmap1.intersects(bitmap2));
+            expected = new TreeSet<>(set1);
+            result = new CompressedBitmap(bitmap1);
+            expected.removeAll(set2);
+            result.removeAll(bitmap2);
+            assertSameElements(expected, result);
+            assertFalse(result.intersects(bitmap2));
+        }
+    }
+
+    protected static void assertSameElements(TreeSet<Integer> expected, CompressedBitmap bitmap) {
+        int[] expectedArray = new int[expected.size()];
+        int position = 0;
+        for (Integer value : expected)
+            expectedArray[position++] = value.intValue();
+        assertEquals(expected.size(), bitmap.size());
+        assertTrue(Arrays.equals(expectedArray, bitmap.toArray()));
+    }
+}
@@ -0,0 +1,16 @@
+package org.semanticweb.HermiT.model;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+@SuppressWarnings("javadoc")
+public class AllTests {
+
+    public static Test suite() {
+        TestSuite suite = new TestSuite("Unit tests for the model classes");
+        // $JUnit-BEGIN$
+        suite.addTestSuite(InterningManagerTest.class);
+        // $JUnit-END$
+        return suite;
+    }
+
+}
@@ -0,0 +1,66 @@
+package org.semanticweb.HermiT.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+@SuppressWarnings("javadoc")
+public class InterningManagerTest extends TestCase {
+    protected static final String NS = "http://www.example.org/interning#";
+
+    public InterningManagerTest(String name) {
+        super(name);
+    }
+
+    public void testInterningAcrossResizes() {
+        List<AtomicConcept> concepts = new ArrayList<>();
+        for (int index = 0; index < 10000; index++)
+            concepts.add(AtomicConcept.create(NS + "C" + index));
+        for (int index = 0; index < 10000; index++)
+            assertSame(concepts.get(index), AtomicConcept.create(NS + "C" + index));
+    }
+
+    public void testConcurrentInterning() throws Exception {
+        final int numberOfThreads = 8;
+        final int numberOfObjects = 5000;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+        try {
+            List<Future<Object[]>> results = new ArrayList<>();
+            for (int thread = 0; thread < numberOfThreads; thread++) {
+                final int offset = thread;
+                results.add(executor.submit(new Callable<Object[]>() {
+                    @Override
+                    public Object[] call() throws Exception {
+                        start.await();
+                        Object[] objects = new Object[2 * numberOfObjects];
+                        // the threads intern the same objects in different orders
+                        for (int step = 0; step < numberOfObjects; step++) {
+                            int index = (step + offset * numberOfObjects / numberOfThreads) % numberOfObjects;
+                            AtomicRole role = AtomicRole.create(NS + "concurrentR" + index);
+                            Individual individual = Individual.create(NS + "concurrentI" + index);
+                            objects[2 * index] = Atom.create(role, individual, individual);
+                            objects[2 * index + 1] = role;
+                        }
+                        return objects;
+                    }
+                }));
+            }
+            start.countDown();
+            Object[] first = results.get(0).get();
+            for (int thread = 1; thread < numberOfThreads; thread++) {
+                Object[] objects = results.get(thread).get();
+                for (int index = 0; index < objects.length; index++)
+                    assertSame(first[index], objects[index]);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -27,6 +27,24 @@ public class AllQuickTests extends TestCase {
         suite.addTestSuite(RulesTest.class);
         suite.addTestSuite(OWLReasonerTest.class);
         suite.addTestSuite(DatalogEngineTest.class);
+        suite.addTestSuite(ReasonerSnapshotTest.class);
+        suite.addTestSuite(IncrementalClassificationTest.class);
+        suite.addTestSuite(IncrementalABoxTest.class);
+        suite.addTestSuite(SaturatedABoxCacheTest.class);
+        suite.addTestSuite(ParallelClassificationTest.class);
+        suite.addTestSuite(RealisationWorkerThreadsTest.class);
+        suite.addTestSuite(OffHeapStorageTest.class);
+        suite.addTestSuite(BlockingSignatureCacheTest.class);
+        suite.addTestSuite(NogoodLearningTest.class);
+        suite.addTestSuite(GroundDisjunctionSchedulingTest.class);
+        suite.addTestSuite(OrParallelSatisfiabilityTest.class);
+        suite.addTestSuite(DisjunctOrderingStatisticsTest.class);
+        suite.addTestSuite(DLClauseBytecodeTest.class);
+        suite.addTestSuite(CostBasedJoinOrderingTest.class);
+        suite.addTestSuite(ConcurrentReasonerTest.class);
+        suite.addTestSuite(QueryCompilationCacheTest.class);
+        suite.addTestSuite(QueryResultCacheTest.class);
+        suite.addTestSuite(BatchQueryTest.class);
         // $JUnit-END$
         return suite;
     }
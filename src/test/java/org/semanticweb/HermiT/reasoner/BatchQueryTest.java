@@ -0,0 +1,86 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.reasoner.Node;
+import org.semanticweb.owlapi.reasoner.NodeSet;
+
+@SuppressWarnings("javadoc")
+public class BatchQueryTest extends AbstractReasonerTest {
+
+    public BatchQueryTest(String name) {
+        super(name);
+    }
+
+    public void testSmallBatch() throws Exception {
+        loadOntologyWithAxioms("SubClassOf(:a :b) SubClassOf(:c :b) DisjointClasses(:a :c) SubClassOf(:d ObjectSomeValuesFrom(:r :a)) "
+                + "EquivalentClasses(:e ObjectSomeValuesFrom(:r :b))");
+        createReasoner(getConfiguration(1), null);
+        OWLClassExpression a_and_b = m_dataFactory.getOWLObjectIntersectionOf(NS_C("a"), NS_C("b"));
+        OWLClassExpression a_and_c = m_dataFactory.getOWLObjectIntersectionOf(NS_C("a"), NS_C("c"));
+        OWLClassExpression some_r_a = m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("a"));
+        OWLClassExpression a_or_c = m_dataFactory.getOWLObjectUnionOf(NS_C("a"), NS_C("c"));
+        Map<OWLClassExpression, Node<OWLClass>> equivalentClasses = m_reasoner.getEquivalentClasses(Arrays.asList(a_and_b, a_and_c, some_r_a, a_or_c, NS_C("d"), a_and_b));
+        assertEquals(5, equivalentClasses.size());
+        assertTrue(equivalentClasses.get(a_and_b).contains(NS_C("a")));
+        assertTrue(equivalentClasses.get(a_and_c).isBottomNode());
+        assertEquals(0, equivalentClasses.get(some_r_a).getSize());
+        assertTrue(equivalentClasses.get(NS_C("d")).contains(NS_C("d")));
+        Map<OWLClassExpression, NodeSet<OWLClass>> superClasses = m_reasoner.getSuperClasses(Arrays.asList(some_r_a, a_or_c), true);
+        assertTrue(superClasses.get(some_r_a).containsEntity(NS_C("e")));
+        assertTrue(superClasses.get(a_or_c).containsEntity(NS_C("b")));
+        Map<OWLClassExpression, NodeSet<OWLClass>> subClasses = m_reasoner.getSubClasses(Arrays.asList(some_r_a, a_or_c), true);
+        assertTrue(subClasses.get(some_r_a).containsEntity(NS_C("d")));
+        assertTrue(subClasses.get(a_or_c).containsEntity(NS_C("a")));
+        assertTrue(subClasses.get(a_or_c).containsEntity(NS_C("c")));
+    }
+
+    public void testBatchAgreesWithSingleQueries() throws Exception {
+        loadOntologyFromResource("res/pizza.xml");
+        createReasoner(getConfiguration(1), null);
+        assertBatchAgreesWithSingleQueries();
+    }
+
+    public void testParallelBatchAgreesWithSingleQueries() throws Exception {
+        loadOntologyFromResource("res/pizza.xml");
+        createReasoner(getConfiguration(4), null);
+        assertBatchAgreesWithSingleQueries();
+    }
+
+    protected void assertBatchAgreesWithSingleQueries() {
+        List<OWLClassExpression> queries = new ArrayList<>();
+        OWLObjectProperty property = m_ontology.objectPropertiesInSignature().findFirst().get();
+        List<OWLClass> classes = new ArrayList<>();
+        m_ontology.classesInSignature().limit(6).forEach(classes::add);
+        for (int index = 0; index < classes.size(); index++) {
+            OWLClass owlClass = classes.get(index);
+            queries.add(m_dataFactory.getOWLObjectComplementOf(owlClass));
+            queries.add(m_dataFactory.getOWLObjectSomeValuesFrom(property, owlClass));
+            queries.add(m_dataFactory.getOWLObjectIntersectionOf(owlClass, classes.get((index + 1) % classes.size())));
+            queries.add(owlClass);
+        }
+        Map<OWLClassExpression, NodeSet<OWLClass>> superClasses = m_reasoner.getSuperClasses(queries, true);
+        Map<OWLClassExpression, NodeSet<OWLClass>> subClasses = m_reasoner.getSubClasses(queries, false);
+        Map<OWLClassExpression, Node<OWLClass>> equivalentClasses = m_reasoner.getEquivalentClasses(queries);
+        for (OWLClassExpression query : queries) {
+            assertEquals(query.toString(), m_reasoner.getSuperClasses(query, true), superClasses.get(query));
+            assertEquals(query.toString(), m_reasoner.getSubClasses(query, false), subClasses.get(query));
+            assertEquals(query.toString(), m_reasoner.getEquivalentClasses(query), equivalentClasses.get(query));
+        }
+    }
+
+    protected Configuration getConfiguration(int numberOfWorkerThreads) {
+        Configuration configuration = getConfiguration();
+        // the single queries must not be answered from the results of the batch
+        configuration.queryResultCacheCapacity = 0;
+        configuration.numberOfWorkerThreads = numberOfWorkerThreads;
+        return configuration;
+    }
+}
@@ -0,0 +1,94 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.HermiT.blocking.BlockingSignatureCache;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+@SuppressWarnings("javadoc")
+public class BlockingSignatureCacheTest extends AbstractReasonerTest {
+    protected static final String AXIOMS = "SubClassOf(:A ObjectSomeValuesFrom(:r :B)) " + "SubClassOf(:B ObjectSomeValuesFrom(:r :A)) "
+            + "SubClassOf(:B ObjectUnionOf(:C :D)) " + "SubClassOf(:C ObjectSomeValuesFrom(:s :A)) " + "SubClassOf(:D ObjectSomeValuesFrom(:s :B)) "
+            + "SubClassOf(ObjectSomeValuesFrom(:s :A) :E) " + "SubClassOf(ObjectSomeValuesFrom(:s :B) :E) "
+            + "SubClassOf(:F ObjectIntersectionOf(:A ObjectAllValuesFrom(:r :G))) " + "DisjointClasses(:G :B) "
+            + "SubClassOf(:H ObjectUnionOf(:A :C)) ";
+
+    public BlockingSignatureCacheTest(String name) {
+        super(name);
+    }
+
+    public void testSmallCache() throws Exception {
+        Configuration configuration = getConfiguration();
+        configuration.blockingSignatureCacheCapacity = 16;
+        loadOntologyWithAxioms(AXIOMS);
+        createReasoner(configuration, null);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        BlockingSignatureCache cache = m_reasoner.getBlockingSignatureCache();
+        assertTrue(cache.size() <= 16);
+        assertSameHierarchyAsWithoutCache("A", "B", "C", "D", "E", "F", "G", "H");
+        assertTrue(m_reasoner.getSuperClasses(NS_C("B"), false).containsEntity(NS_C("E")));
+        assertTrue(m_reasoner.getUnsatisfiableClasses().contains(NS_C("F")));
+    }
+
+    public void testEvictedSignaturesAreReleased() throws Exception {
+        // each class of the r-cycle has a model with different labels, so the signatures do not fit into the cache
+        StringBuilder axioms = new StringBuilder();
+        String[] classes = new String[40];
+        for (int index = 0; index < classes.length; index++) {
+            classes[index] = "C" + index;
+            axioms.append("SubClassOf(:C" + index + " ObjectSomeValuesFrom(:r :C" + ((index + 1) % classes.length) + ")) ");
+            axioms.append("SubClassOf(:C" + index + " ObjectUnionOf(:D" + index + " :E)) ");
+        }
+        Configuration configuration = getConfiguration();
+        configuration.blockingSignatureCacheCapacity = 16;
+        loadOntologyWithAxioms(axioms.toString());
+        createReasoner(configuration, null);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        BlockingSignatureCache cache = m_reasoner.getBlockingSignatureCache();
+        assertTrue(cache.getNumberOfEvictions() > 0);
+        assertTrue(cache.size() <= 16);
+        // the signatures that are still cached must not be affected by the sets released for the evicted ones
+        assertSameHierarchyAsWithoutCache(classes);
+    }
+
+    public void testCacheSurvivesSatisfiabilityTests() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        // the signatures of the models of earlier tests block nodes in later tests
+        BlockingSignatureCache cache = m_reasoner.getBlockingSignatureCache();
+        assertFalse(cache.isEmpty());
+        assertTrue(cache.getNumberOfHits() > 0);
+        assertEquals(0, cache.getNumberOfEvictions());
+    }
+
+    public void testSharedByWorkerTableaux() throws Exception {
+        Configuration configuration = getConfiguration();
+        configuration.numberOfWorkerThreads = 4;
+        loadOntologyWithAxioms(AXIOMS);
+        createReasoner(configuration, null);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertSameHierarchyAsWithoutCache("A", "B", "C", "D", "E", "F", "G", "H");
+        assertTrue(m_reasoner.getBlockingSignatureCache().getNumberOfHits() > 0);
+    }
+
+    public void testNoCacheWithNominals() throws Exception {
+        loadReasonerWithAxioms(AXIOMS + "SubClassOf(:G ObjectOneOf(:a)) ");
+        assertNull(m_reasoner.getBlockingSignatureCache());
+    }
+
+    protected void assertSameHierarchyAsWithoutCache(String... classes) {
+        Configuration configuration = getConfiguration();
+        configuration.blockingSignatureCacheType = Configuration.BlockingSignatureCacheType.NOT_CACHED;
+        Reasoner reasonerWithoutCache = new Reasoner(configuration, m_ontology);
+        try {
+            for (String className : classes) {
+                OWLClass owlClass = NS_C(className);
+                assertEquals(reasonerWithoutCache.getSuperClasses(owlClass, false), m_reasoner.getSuperClasses(owlClass, false));
+                assertEquals(reasonerWithoutCache.getEquivalentClasses(owlClass), m_reasoner.getEquivalentClasses(owlClass));
+            }
+        } finally {
+            reasonerWithoutCache.dispose();
+        }
+    }
+}
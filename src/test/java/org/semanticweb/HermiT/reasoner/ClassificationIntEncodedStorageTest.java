@@ -0,0 +1,27 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+@SuppressWarnings("javadoc")
+public class ClassificationIntEncodedStorageTest extends AbstractReasonerTest {
+
+    public ClassificationIntEncodedStorageTest(String name) {
+        super(name);
+    }
+
+    public void testPizza() throws Exception {
+        loadReasonerFromResource("res/pizza.xml");
+        assertHierarchies("res/pizza.xml.txt");
+    }
+
+    public void testPropreo() throws Exception {
+        loadReasonerFromResource("res/propreo.xml");
+        assertHierarchies("res/propreo.xml.txt");
+    }
+
+    @Override
+    protected Configuration getConfiguration() {
+        Configuration configuration = super.getConfiguration();
+        configuration.extensionTableStorageType = Configuration.ExtensionTableStorageType.INTS;
+        return configuration;
+    }
+}
@@ -0,0 +1,27 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+@SuppressWarnings("javadoc")
+public class ClassificationWorkerThreadsTest extends AbstractReasonerTest {
+
+    public ClassificationWorkerThreadsTest(String name) {
+        super(name);
+    }
+
+    public void testPizza() throws Exception {
+        loadReasonerFromResource("res/pizza.xml");
+        assertHierarchies("res/pizza.xml.txt");
+    }
+
+    public void testWine() throws Exception {
+        loadReasonerFromResource("res/wine.xml");
+        assertHierarchies("res/wine.xml.txt");
+    }
+
+    @Override
+    protected Configuration getConfiguration() {
+        Configuration configuration = super.getConfiguration();
+        configuration.numberOfWorkerThreads = 4;
+        return configuration;
+    }
+}
@@ -0,0 +1,96 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.semanticweb.HermiT.ConcurrentReasoner;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.reasoner.NodeSet;
+
+@SuppressWarnings("javadoc")
+public class ConcurrentReasonerTest extends AbstractReasonerTest {
+
+    public ConcurrentReasonerTest(String name) {
+        super(name);
+    }
+
+    public void testNamedClassQueries() throws Exception {
+        loadReasonerFromResource("res/pizza.xml");
+        ConcurrentReasoner concurrentReasoner = new ConcurrentReasoner(m_reasoner, 2);
+        try {
+            m_reasoner.getRootOntology().classesInSignature().forEach(owlClass -> {
+                assertEquals(m_reasoner.getSuperClasses(owlClass, true), concurrentReasoner.getSuperClasses(owlClass, true));
+                assertEquals(m_reasoner.getSuperClasses(owlClass, false), concurrentReasoner.getSuperClasses(owlClass, false));
+                assertEquals(m_reasoner.getSubClasses(owlClass, true), concurrentReasoner.getSubClasses(owlClass, true));
+                assertEquals(m_reasoner.getEquivalentClasses(owlClass), concurrentReasoner.getEquivalentClasses(owlClass));
+            });
+        } finally {
+            concurrentReasoner.dispose();
+        }
+    }
+
+    public void testInstances() throws Exception {
+        String axioms = "SubClassOf(:a :b) " + "SubClassOf(:c :b) " + "SubClassOf(:d ObjectUnionOf(:a :c)) "
+                + "EquivalentClasses(:e ObjectSomeValuesFrom(:r :a)) " + "ClassAssertion(:a :i1) "
+                + "ClassAssertion(:d :i2) " + "ClassAssertion(:c :i3) " + "ObjectPropertyAssertion(:r :i4 :i1) "
+                + "SameIndividual(:i3 :i5) " + "ClassAssertion(ObjectUnionOf(:a :c) :i6) ";
+        loadReasonerWithAxioms(axioms);
+        ConcurrentReasoner concurrentReasoner = new ConcurrentReasoner(m_reasoner, 2);
+        try {
+            for (String name : new String[] { "a", "b", "c", "d", "e" })
+                for (boolean direct : new boolean[] { true, false })
+                    assertEquals(m_reasoner.getInstances(NS_C(name), direct), concurrentReasoner.getInstances(NS_C(name), direct));
+            OWLClassExpression some_r_b = m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("b"));
+            assertEquals(m_reasoner.getInstances(some_r_b, false), concurrentReasoner.getInstances(some_r_b, false));
+            OWLClassExpression a_or_c = m_dataFactory.getOWLObjectUnionOf(NS_C("a"), NS_C("c"));
+            assertEquals(5, concurrentReasoner.getInstances(a_or_c, false).entities().count());
+            assertEquals(1, concurrentReasoner.getInstances(a_or_c, true).entities().count());
+            assertTrue(concurrentReasoner.getInstances(a_or_c, true).containsEntity(NS_NI("i6")));
+        } finally {
+            concurrentReasoner.dispose();
+        }
+    }
+
+    public void testConcurrentComplexQueries() throws Exception {
+        loadReasonerFromResource("res/pizza.xml");
+        final ConcurrentReasoner concurrentReasoner = new ConcurrentReasoner(m_reasoner, 4);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<OWLClassExpression> queries = new ArrayList<>();
+            final OWLObjectProperty property = m_reasoner.getRootOntology().objectPropertiesInSignature().findFirst().get();
+            m_reasoner.getRootOntology().classesInSignature().limit(8).forEach(owlClass -> {
+                queries.add(m_dataFactory.getOWLObjectComplementOf(owlClass));
+                queries.add(m_dataFactory.getOWLObjectSomeValuesFrom(property, owlClass));
+            });
+            // the expected answers are computed sequentially by the reasoner
+            final Map<OWLClassExpression, NodeSet<OWLClass>> superClasses = new HashMap<>();
+            final Map<OWLClassExpression, Boolean> satisfiable = new HashMap<>();
+            for (OWLClassExpression query : queries) {
+                superClasses.put(query, m_reasoner.getSuperClasses(query, true));
+                satisfiable.put(query, Boolean.valueOf(m_reasoner.isSatisfiable(query)));
+            }
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int round = 0; round < 3; round++)
+                for (final OWLClassExpression query : queries)
+                    results.add(executor.submit(new Callable<Boolean>() {
+                        @Override
+                        public Boolean call() throws Exception {
+                            return Boolean.valueOf(concurrentReasoner.getSuperClasses(query, true).equals(superClasses.get(query)) && concurrentReasoner.isSatisfiable(query) == satisfiable.get(query).booleanValue());
+                        }
+                    }));
+            for (Future<Boolean> result : results)
+                assertTrue(result.get().booleanValue());
+        } finally {
+            executor.shutdownNow();
+            concurrentReasoner.dispose();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.HermiT.model.AtomicConcept;
+
+@SuppressWarnings("javadoc")
+public class CostBasedJoinOrderingTest extends AbstractReasonerTest {
+    protected static final int NUMBER_OF_INDIVIDUALS = 600;
+
+    public CostBasedJoinOrderingTest(String name) {
+        super(name);
+    }
+
+    @Override
+    protected Configuration getConfiguration() {
+        Configuration configuration = super.getConfiguration();
+        configuration.costBasedJoinOrdering = true;
+        return configuration;
+    }
+
+    protected static String getAxioms() {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append("SubObjectPropertyOf(ObjectPropertyChain(:r :s) :t) ");
+        buffer.append("SubClassOf(ObjectIntersectionOf(:C ObjectSomeValuesFrom(:t :D)) :E) ");
+        buffer.append("SubClassOf(ObjectIntersectionOf(:E ObjectSomeValuesFrom(:r :D)) ObjectUnionOf(:F :G)) ");
+        buffer.append("SubClassOf(ObjectIntersectionOf(:F ObjectSomeValuesFrom(:s :C)) :H) ");
+        for (int index = 0; index < NUMBER_OF_INDIVIDUALS; index++) {
+            buffer.append("ClassAssertion(:C :i" + index + ") ");
+            if (index % 97 == 0)
+                buffer.append("ClassAssertion(:D :i" + index + ") ");
+            for (int successor = 1; successor <= 3; successor++) {
+                buffer.append("ObjectPropertyAssertion(:r :i" + index + " :i" + ((index * 7 + successor * 13) % NUMBER_OF_INDIVIDUALS) + ") ");
+                buffer.append("ObjectPropertyAssertion(:s :i" + index + " :i" + ((index * 11 + successor * 31) % NUMBER_OF_INDIVIDUALS) + ") ");
+            }
+        }
+        return buffer.toString();
+    }
+
+    public void testSameResultsAsClauseOrder() throws Exception {
+        loadReasonerWithAxioms(getAxioms());
+        Reasoner clauseOrderReasoner = new Reasoner(super.getConfiguration(), m_ontology);
+        try {
+            assertEquals(clauseOrderReasoner.isConsistent(), m_reasoner.isConsistent());
+            for (String className : new String[] { "E", "F", "G", "H" })
+                assertEquals(clauseOrderReasoner.getInstances(NS_C(className), false), m_reasoner.getInstances(NS_C(className), false));
+            assertEquals(clauseOrderReasoner.getObjectPropertyValues(NS_NI("i0"), NS_OP("t")), m_reasoner.getObjectPropertyValues(NS_NI("i0"), NS_OP("t")));
+        } finally {
+            clauseOrderReasoner.dispose();
+        }
+    }
+
+    public void testTuplesAreCountedOnlyForCostBasedJoinOrdering() throws Exception {
+        loadReasonerWithAxioms(getAxioms());
+        Reasoner clauseOrderReasoner = new Reasoner(super.getConfiguration(), m_ontology);
+        try {
+            assertTrue(m_reasoner.isConsistent());
+            assertTrue(clauseOrderReasoner.isConsistent());
+            AtomicConcept c = AtomicConcept.create(NS + "C");
+            assertEquals(NUMBER_OF_INDIVIDUALS, m_reasoner.getTableau().getExtensionManager().getBinaryExtensionTable().getNumberOfTuples(c));
+            assertEquals(0, clauseOrderReasoner.getTableau().getExtensionManager().getBinaryExtensionTable().getNumberOfTuples(c));
+        } finally {
+            clauseOrderReasoner.dispose();
+        }
+    }
+
+    public void testClassification() throws Exception {
+        loadReasonerFromResource("res/wine.xml");
+        assertHierarchies("res/wine.xml.txt");
+    }
+}
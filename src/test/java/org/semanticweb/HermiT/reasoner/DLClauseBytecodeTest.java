@@ -0,0 +1,52 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+
+@SuppressWarnings("javadoc")
+public class DLClauseBytecodeTest extends AbstractReasonerTest {
+    protected static final String AXIOMS = "SubClassOf(:A ObjectUnionOf(:B :C :D)) " + "SubClassOf(:E ObjectUnionOf(:F :G)) "
+            + "SubClassOf(ObjectIntersectionOf(:B :F) owl:Nothing) " + "SubClassOf(ObjectIntersectionOf(:C :G) owl:Nothing) "
+            + "SubClassOf(:D ObjectAllValuesFrom(:r :N)) " + "SubClassOf(:G ObjectAllValuesFrom(:r :M)) " + "DisjointClasses(:M :N) "
+            + "SubObjectPropertyOf(ObjectPropertyChain(:r :r) :s) " + "SubClassOf(ObjectSomeValuesFrom(:s :M) :K) "
+            + "ClassAssertion(:A :a) " + "ClassAssertion(:E :a) " + "ObjectPropertyAssertion(:r :a :b) " + "ClassAssertion(:A :b) "
+            + "ClassAssertion(:E :b) " + "ObjectPropertyAssertion(:r :b :c) " + "ClassAssertion(:A :c) " + "ObjectPropertyAssertion(:r :c :a) ";
+
+    public DLClauseBytecodeTest(String name) {
+        super(name);
+    }
+
+    @Override
+    protected Configuration getConfiguration() {
+        Configuration configuration = super.getConfiguration();
+        configuration.compileToBytecode = true;
+        return configuration;
+    }
+
+    public void testPizza() throws Exception {
+        loadReasonerFromResource("res/pizza.xml");
+        assertHierarchies("res/pizza.xml.txt");
+        assertTrue(m_reasoner.getTableau().getDLClauseBytecodeGenerator().getNumberOfGeneratedClasses() > 0);
+    }
+
+    public void testWine() throws Exception {
+        loadReasonerFromResource("res/wine.xml");
+        assertHierarchies("res/wine.xml.txt");
+    }
+
+    public void testSameResultsAsInterpreted() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        Reasoner interpretedReasoner = new Reasoner(super.getConfiguration(), m_ontology);
+        try {
+            assertNull(interpretedReasoner.getTableau().getDLClauseBytecodeGenerator());
+            assertEquals(interpretedReasoner.isConsistent(), m_reasoner.isConsistent());
+            assertTrue(m_reasoner.getTableau().getDLClauseBytecodeGenerator().getNumberOfGeneratedClasses() > 0);
+            for (String className : new String[] { "A", "B", "C", "D", "E", "F", "G", "K", "M", "N" }) {
+                assertEquals(interpretedReasoner.getInstances(NS_C(className), false), m_reasoner.getInstances(NS_C(className), false));
+                assertEquals(interpretedReasoner.getSuperClasses(NS_C(className), false), m_reasoner.getSuperClasses(NS_C(className), false));
+            }
+        } finally {
+            interpretedReasoner.dispose();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package org.semanticweb.HermiT.reasoner;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -97,6 +99,141 @@ public class DatalogEngineTest extends AbstractReasonerTest {
         queryChecker.assertEquals();
     }
 
+    public void testSemiNaiveEvaluationAgreesWithTableau() throws Exception {
+        loadOntologyWithAxioms("TransitiveObjectProperty( :R )\n" + "SubObjectPropertyOf( :S :R )\n"
+                + "InverseObjectProperties( :S :T )\n" + "SubClassOf( ObjectSomeValuesFrom( :R :A ) :B )\n"
+                + "SubClassOf( ObjectIntersectionOf( :B :C ) :D )\n" + "SubClassOf( :D ObjectSomeValuesFrom( :R :E ) )\n"
+                + "SubClassOf( :E ObjectAllValuesFrom( :T :C ) )\n" +
+
+        "ClassAssertion( :A :a )\n" + "ObjectPropertyAssertion( :R :b :a )\n" + "ObjectPropertyAssertion( :S :c :b )\n"
+                + "ObjectPropertyAssertion( :R :d :c )\n" + "ClassAssertion( :C :c )\n" + "ClassAssertion( :C :d )\n"
+                + "ClassAssertion( :E :e )\n" + "ObjectPropertyAssertion( :S :f :e )");
+        createReasoner();
+        DatalogEngine tableauEngine = new DatalogEngine(m_reasoner.getDLOntology(), false, 1);
+        DatalogEngine semiNaiveEngine = new DatalogEngine(m_reasoner.getDLOntology());
+        DatalogEngine parallelEngine = new DatalogEngine(m_reasoner.getDLOntology(), true, 4);
+        assertTrue(tableauEngine.materialize());
+        assertTrue(semiNaiveEngine.materialize());
+        assertTrue(parallelEngine.materialize());
+        Atom[][] queries = { AS(A(CN("B"), V("X"))), AS(A(CN("D"), V("X"))), AS(A(CN("C"), V("X"))),
+                AS(A(R("R"), V("X"), V("Y"))), AS(A(R("T"), V("X"), V("Y"))),
+                AS(A(R("R"), V("X"), V("Y")), A(CN("C"), V("Y"))), AS(A(R("R"), V("X"), I("a")), A(CN("D"), V("X"))) };
+        for (Atom[] query : queries) {
+            Term[] answerTerms = query[0].getArity() == 2 && query.length == 1 ? TS(V("X"), V("Y")) : TS(V("X"));
+            Set<AnswerTuple> expected = getAnswers(tableauEngine, query, answerTerms);
+            assertEquals(expected, getAnswers(semiNaiveEngine, query, answerTerms));
+            assertEquals(expected, getAnswers(parallelEngine, query, answerTerms));
+        }
+        QueryChecker queryChecker = new QueryChecker();
+        new ConjunctiveQuery(semiNaiveEngine, AS(A(CN("D"), V("X"))), TS(V("X"))).evaluate(queryChecker);
+        queryChecker.add(I("c")).add(I("d")).assertEquals();
+        // the worker threads are kept for updates, and they are created again after they have been stopped
+        Set<Atom> noFacts = Collections.emptySet();
+        Atom[] query = AS(A(CN("D"), V("X")));
+        for (Atom fact : new Atom[] { A(CN("A"), I("e")), A(CN("B"), I("f")) }) {
+            assertTrue(semiNaiveEngine.updateFacts(Arrays.asList(fact), noFacts));
+            assertTrue(parallelEngine.updateFacts(Arrays.asList(fact), noFacts));
+            assertEquals(getAnswers(semiNaiveEngine, query, TS(V("X"))), getAnswers(parallelEngine, query, TS(V("X"))));
+            parallelEngine.dispose();
+        }
+    }
+
+    public void testSemiNaiveEvaluationWithEquality() throws Exception {
+        loadOntologyWithAxioms("FunctionalObjectProperty( :R )\n" + "SubClassOf( ObjectSomeValuesFrom( :R :A ) :B )\n"
+                + "SubClassOf( :B :C )\n" +
+
+        "ObjectPropertyAssertion( :R :b :a )\n" + "ObjectPropertyAssertion( :R :b :c )\n"
+                + "ObjectPropertyAssertion( :R :d :c )\n" + "ObjectPropertyAssertion( :R :d :e )\n"
+                + "ClassAssertion( :A :e )\n" + "SameIndividual( :f :g )\n" + "ObjectPropertyAssertion( :R :g :h )");
+        createReasoner();
+        DatalogEngine tableauEngine = new DatalogEngine(m_reasoner.getDLOntology(), false, 1);
+        DatalogEngine semiNaiveEngine = new DatalogEngine(m_reasoner.getDLOntology());
+        assertTrue(tableauEngine.materialize());
+        assertTrue(semiNaiveEngine.materialize());
+        for (String individual : new String[] { "a", "b", "c", "d", "e", "f", "g", "h" })
+            assertEquals(tableauEngine.getEquivalenceClass(I(individual)), semiNaiveEngine.getEquivalenceClass(I(individual)));
+        assertContainsAll(semiNaiveEngine.getEquivalenceClass(I("a")), TS(I("a"), I("c"), I("e")));
+        QueryChecker queryChecker = new QueryChecker();
+        new ConjunctiveQuery(semiNaiveEngine, AS(A(CN("C"), V("X"))), TS(V("X"))).evaluate(queryChecker);
+        queryChecker.add(I("b")).add(I("d")).assertEquals();
+        new ConjunctiveQuery(semiNaiveEngine, AS(A(R("R"), V("X"), I("f"))), TS(V("X"))).evaluate(queryChecker);
+        queryChecker.assertEquals();
+        new ConjunctiveQuery(semiNaiveEngine, AS(A(R("R"), I("f"), V("Y"))), TS(V("Y"))).evaluate(queryChecker);
+        queryChecker.add(I("h")).assertEquals();
+    }
+
+    public void testSemiNaiveEvaluationDetectsClashes() throws Exception {
+        loadOntologyWithAxioms("SubClassOf( ObjectSomeValuesFrom( :R :A ) :B )\n" + "DisjointClasses( :B :C )\n" +
+
+        "ClassAssertion( :A :a )\n" + "ObjectPropertyAssertion( :R :b :a )\n" + "ClassAssertion( :C :b )");
+        createReasoner();
+        assertFalse(new DatalogEngine(m_reasoner.getDLOntology(), false, 1).materialize());
+        assertFalse(new DatalogEngine(m_reasoner.getDLOntology()).materialize());
+        assertFalse(new DatalogEngine(m_reasoner.getDLOntology(), true, 4).materialize());
+    }
+
+    public void testIncrementalUpdates() throws Exception {
+        loadOntologyWithAxioms("SubClassOf( ObjectSomeValuesFrom( :R :A ) :A )\n" + "SubClassOf( :D :A )\n" +
+
+        "ClassAssertion( :A :a )\n" + "ClassAssertion( :D :a )\n" + "ObjectPropertyAssertion( :R :b :a )\n"
+                + "ObjectPropertyAssertion( :R :c :b )");
+        createReasoner();
+        DatalogEngine datalogEngine = new DatalogEngine(m_reasoner.getDLOntology());
+        ConjunctiveQuery query = new ConjunctiveQuery(datalogEngine, AS(A(CN("A"), V("X"))), TS(V("X")));
+        QueryChecker queryChecker = new QueryChecker();
+        query.evaluate(queryChecker);
+        queryChecker.add(I("a")).add(I("b")).add(I("c")).assertEquals();
+
+        Set<Atom> noFacts = Collections.emptySet();
+        assertTrue(datalogEngine.updateFacts(Arrays.asList(A(R("R"), I("d"), I("c"))), noFacts));
+        query.evaluate(queryChecker);
+        queryChecker.add(I("a")).add(I("b")).add(I("c")).add(I("d")).assertEquals();
+        assertContainsAll(datalogEngine.getEquivalenceClass(I("d")), TS(I("d")));
+
+        // A(a) is still derived from D(a).
+        assertTrue(datalogEngine.updateFacts(noFacts, Arrays.asList(A(CN("A"), I("a")))));
+        query.evaluate(queryChecker);
+        queryChecker.add(I("a")).add(I("b")).add(I("c")).add(I("d")).assertEquals();
+
+        assertTrue(datalogEngine.updateFacts(noFacts, Arrays.asList(A(CN("D"), I("a")))));
+        query.evaluate(queryChecker);
+        queryChecker.assertEquals();
+
+        assertTrue(datalogEngine.updateFacts(Arrays.asList(A(CN("A"), I("c"))), Arrays.asList(A(R("R"), I("b"), I("a")))));
+        query.evaluate(queryChecker);
+        queryChecker.add(I("c")).add(I("d")).assertEquals();
+        assertNull(datalogEngine.getEquivalenceClass(I("a")));
+        assertContainsAll(datalogEngine.getEquivalenceClass(I("b")), TS(I("b")));
+    }
+
+    public void testIncrementalUpdatesWithEquality() throws Exception {
+        loadOntologyWithAxioms("FunctionalObjectProperty( :R )\n" + "SubClassOf( :A :B )\n" +
+
+        "ObjectPropertyAssertion( :R :b :a )\n" + "ClassAssertion( :A :a )");
+        createReasoner();
+        DatalogEngine datalogEngine = new DatalogEngine(m_reasoner.getDLOntology());
+        ConjunctiveQuery query = new ConjunctiveQuery(datalogEngine, AS(A(CN("B"), V("X"))), TS(V("X")));
+        Set<Atom> noFacts = Collections.emptySet();
+        assertTrue(datalogEngine.updateFacts(Arrays.asList(A(R("R"), I("b"), I("c"))), noFacts));
+        assertContainsAll(datalogEngine.getEquivalenceClass(I("c")), TS(I("a"), I("c")));
+        assertEquals(I("a"), datalogEngine.getRepresentative(I("c")));
+
+        // Merged terms cannot be separated, so the facts are materialized anew.
+        assertTrue(datalogEngine.updateFacts(noFacts, Arrays.asList(A(R("R"), I("b"), I("c")))));
+        assertNull(datalogEngine.getEquivalenceClass(I("c")));
+        assertContainsAll(datalogEngine.getEquivalenceClass(I("a")), TS(I("a")));
+        QueryChecker queryChecker = new QueryChecker();
+        query.evaluate(queryChecker);
+        queryChecker.add(I("a")).assertEquals();
+    }
+
+    protected static Set<AnswerTuple> getAnswers(DatalogEngine datalogEngine, Atom[] queryAtoms, Term[] answerTerms) {
+        Set<AnswerTuple> answers = new HashSet<>();
+        new ConjunctiveQuery(datalogEngine, queryAtoms, answerTerms)
+                .evaluate((conjunctiveQuery, result) -> answers.add(new AnswerTuple(result.clone())));
+        return answers;
+    }
+
     protected static class AnswerTuple {
         protected final Term[] m_terms;
         protected final int m_hashCode;
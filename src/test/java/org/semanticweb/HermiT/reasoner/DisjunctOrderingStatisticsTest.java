@@ -0,0 +1,126 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.HermiT.monitor.TableauMonitorAdapter;
+import org.semanticweb.HermiT.tableau.DisjunctOrderingStatistics;
+import org.semanticweb.HermiT.tableau.GroundDisjunction;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+@SuppressWarnings("javadoc")
+public class DisjunctOrderingStatisticsTest extends AbstractReasonerTest {
+    protected static final String AXIOMS = "SubClassOf(:A ObjectUnionOf(:B :C :D)) " + "SubClassOf(:E ObjectUnionOf(:F :G)) "
+            + "SubClassOf(ObjectIntersectionOf(:B :F) owl:Nothing) " + "SubClassOf(ObjectIntersectionOf(:C :G) owl:Nothing) "
+            + "SubClassOf(:D ObjectAllValuesFrom(:r :N)) " + "SubClassOf(:G ObjectAllValuesFrom(:r :M)) " + "DisjointClasses(:M :N) "
+            + "ClassAssertion(:A :a) " + "ClassAssertion(:E :a) " + "ObjectPropertyAssertion(:r :a :b) " + "ClassAssertion(:A :b) "
+            + "ClassAssertion(:E :b) " + "ObjectPropertyAssertion(:r :b :c) " + "ClassAssertion(:A :c) " + "ObjectPropertyAssertion(:r :c :a) ";
+
+    protected File m_statisticsFile;
+
+    public DisjunctOrderingStatisticsTest(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() {
+        super.setUp();
+        try {
+            m_statisticsFile = File.createTempFile("hermit", ".statistics");
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    protected void tearDown() {
+        m_statisticsFile.delete();
+        super.tearDown();
+    }
+
+    public void testStatisticsAreRecorded() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        assertTrue(m_reasoner.isConsistent());
+        assertFalse(m_reasoner.getDisjunctOrderingStatistics().isEmpty());
+    }
+
+    public void testSaveAndLoad() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY, InferenceType.CLASS_ASSERTIONS);
+        DisjunctOrderingStatistics statistics = m_reasoner.getDisjunctOrderingStatistics();
+        statistics.save(m_statisticsFile);
+        assertSameStatistics(statistics, DisjunctOrderingStatistics.load(m_statisticsFile));
+        Configuration configuration = getConfiguration();
+        configuration.loadDisjunctOrderingStatistics(m_statisticsFile);
+        Reasoner warmReasoner = new Reasoner(configuration, m_ontology);
+        try {
+            assertSameStatistics(statistics, warmReasoner.getDisjunctOrderingStatistics());
+            for (String className : new String[] { "A", "B", "C", "D", "E", "F", "G", "M", "N" }) {
+                assertEquals(m_reasoner.getInstances(NS_C(className), false), warmReasoner.getInstances(NS_C(className), false));
+                assertEquals(m_reasoner.getSuperClasses(NS_C(className), false), warmReasoner.getSuperClasses(NS_C(className), false));
+            }
+        } finally {
+            warmReasoner.dispose();
+        }
+    }
+
+    public void testLoadedStatisticsChangeDisjunctOrder() throws Exception {
+        loadOntologyWithAxioms(AXIOMS);
+        Configuration configuration = getConfiguration();
+        List<String> coldChoices = getDisjunctChoices(configuration);
+        m_reasoner.getDisjunctOrderingStatistics().save(m_statisticsFile);
+        configuration = getConfiguration();
+        configuration.loadDisjunctOrderingStatistics(m_statisticsFile);
+        List<String> warmChoices = getDisjunctChoices(configuration);
+        assertFalse(coldChoices.isEmpty());
+        assertFalse(coldChoices.equals(warmChoices));
+    }
+
+    public void testStatisticsAreKeptOnReload() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+        DisjunctOrderingStatistics statistics = m_reasoner.getDisjunctOrderingStatistics();
+        m_ontologyManager.addAxiom(m_ontology, m_dataFactory.getOWLSubClassOfAxiom(NS_C("K"), NS_C("M")));
+        m_reasoner.flush();
+        DisjunctOrderingStatistics reloadedStatistics = m_reasoner.getDisjunctOrderingStatistics();
+        for (String signature : statistics.getSignatures())
+            assertTrue(Arrays.equals(statistics.getNumberOfBacktrackings(signature), reloadedStatistics.getNumberOfBacktrackings(signature)));
+    }
+
+    public void testSnapshot() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        DisjunctOrderingStatistics statistics = m_reasoner.getDisjunctOrderingStatistics();
+        m_reasoner.saveSnapshot(m_statisticsFile);
+        m_reasoner.dispose();
+        m_reasoner = Reasoner.loadSnapshot(getConfiguration(), m_ontology, m_statisticsFile);
+        assertSameStatistics(statistics, m_reasoner.getDisjunctOrderingStatistics());
+    }
+
+    protected static void assertSameStatistics(DisjunctOrderingStatistics expected, DisjunctOrderingStatistics actual) {
+        assertEquals(expected.getSignatures(), actual.getSignatures());
+        for (String signature : expected.getSignatures())
+            assertTrue(Arrays.equals(expected.getNumberOfBacktrackings(signature), actual.getNumberOfBacktrackings(signature)));
+    }
+
+    protected List<String> getDisjunctChoices(Configuration configuration) {
+        final List<String> disjunctChoices = new ArrayList<>();
+        configuration.monitor = new TableauMonitorAdapter() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void disjunctProcessingStarted(GroundDisjunction groundDisjunction, int disjunct) {
+                disjunctChoices.add(groundDisjunction.getDLPredicate(disjunct) + "(" + groundDisjunction.getArgument(disjunct, 0).getNodeID() + ")");
+            }
+        };
+        if (m_reasoner != null)
+            m_reasoner.dispose();
+        m_reasoner = new Reasoner(configuration, m_ontology);
+        assertTrue(m_reasoner.isConsistent());
+        return disjunctChoices;
+    }
+}
@@ -0,0 +1,127 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Configuration.GroundDisjunctionSchedulingType;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.HermiT.monitor.TableauMonitorAdapter;
+import org.semanticweb.HermiT.tableau.GroundDisjunction;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+@SuppressWarnings("javadoc")
+public class GroundDisjunctionSchedulingTest extends AbstractReasonerTest {
+    protected static final String AXIOMS = "SubClassOf(:A ObjectUnionOf(:B :C :D)) " + "SubClassOf(:E ObjectUnionOf(:F :G)) "
+            + "SubClassOf(ObjectIntersectionOf(:B :F) owl:Nothing) " + "SubClassOf(ObjectIntersectionOf(:C :G) owl:Nothing) "
+            + "SubClassOf(:D ObjectAllValuesFrom(:r :N)) " + "SubClassOf(:G ObjectAllValuesFrom(:r :M)) " + "DisjointClasses(:M :N) "
+            + "SubClassOf(:N ObjectUnionOf(:B :K)) " + "SubClassOf(:H ObjectIntersectionOf(:A :E ObjectSomeValuesFrom(:r :H))) "
+            + "ClassAssertion(:A :a) " + "ClassAssertion(:E :a) " + "ObjectPropertyAssertion(:r :a :b) " + "ClassAssertion(:A :b) "
+            + "ClassAssertion(:E :b) " + "ObjectPropertyAssertion(:r :b :c) " + "ClassAssertion(:H :c) " + "ObjectPropertyAssertion(:r :c :a) ";
+    // The ground disjunctions are derived for b, a, and c in this order. F(b) clashes at once, which makes the
+    // disjunction for c the most active and the most constrained one, and it has fewer disjuncts than the one for a.
+    protected static final String ORDER_AXIOMS = "SubClassOf(:A ObjectUnionOf(:B :C :D)) " + "SubClassOf(:E ObjectUnionOf(:F :G)) "
+            + "ClassAssertion(:E :b) " + "ClassAssertion(ObjectComplementOf(:F) :b) " + "ClassAssertion(:A0 :a) " + "SubClassOf(:A0 :A) "
+            + "ClassAssertion(:E0 :c) " + "SubClassOf(:E0 :E1) " + "SubClassOf(:E1 :E) ";
+    protected static final String[] CLASSES = { "A", "B", "C", "D", "E", "F", "G", "H", "K", "M", "N" };
+
+    protected GroundDisjunctionSchedulingType m_schedulingType;
+
+    public GroundDisjunctionSchedulingTest(String name) {
+        super(name);
+    }
+
+    @Override
+    protected Configuration getConfiguration() {
+        Configuration configuration = super.getConfiguration();
+        if (m_schedulingType != null)
+            configuration.groundDisjunctionSchedulingType = m_schedulingType;
+        return configuration;
+    }
+
+    public void testFewestDisjuncts() throws Exception {
+        assertSameResultsAsInsertionOrder(GroundDisjunctionSchedulingType.FEWEST_DISJUNCTS);
+    }
+
+    public void testFewestDisjunctsChangesDisjunctionOrder() throws Exception {
+        assertChangesDisjunctionOrder(GroundDisjunctionSchedulingType.FEWEST_DISJUNCTS);
+    }
+
+    public void testMostConstrained() throws Exception {
+        assertSameResultsAsInsertionOrder(GroundDisjunctionSchedulingType.MOST_CONSTRAINED);
+    }
+
+    public void testMostConstrainedChangesDisjunctionOrder() throws Exception {
+        assertChangesDisjunctionOrder(GroundDisjunctionSchedulingType.MOST_CONSTRAINED);
+    }
+
+    public void testActivity() throws Exception {
+        assertSameResultsAsInsertionOrder(GroundDisjunctionSchedulingType.ACTIVITY);
+    }
+
+    public void testActivityChangesDisjunctionOrder() throws Exception {
+        assertChangesDisjunctionOrder(GroundDisjunctionSchedulingType.ACTIVITY);
+    }
+
+    public void testInconsistentABox() throws Exception {
+        loadOntologyWithAxioms(AXIOMS + "ClassAssertion(ObjectComplementOf(:B) :a) " + "ClassAssertion(ObjectComplementOf(:C) :a) "
+                + "ClassAssertion(ObjectComplementOf(:D) :a) ");
+        for (GroundDisjunctionSchedulingType schedulingType : GroundDisjunctionSchedulingType.values()) {
+            m_schedulingType = schedulingType;
+            createReasoner();
+            try {
+                assertFalse(m_reasoner.isConsistent());
+            } finally {
+                m_reasoner.dispose();
+            }
+        }
+    }
+
+    protected void assertSameResultsAsInsertionOrder(GroundDisjunctionSchedulingType schedulingType) throws Exception {
+        m_schedulingType = schedulingType;
+        loadReasonerWithAxioms(AXIOMS);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY, InferenceType.CLASS_ASSERTIONS);
+        Reasoner reasonerWithInsertionOrder = new Reasoner(super.getConfiguration(), m_ontology);
+        try {
+            for (String className : CLASSES) {
+                OWLClass owlClass = NS_C(className);
+                assertEquals(reasonerWithInsertionOrder.getSuperClasses(owlClass, false), m_reasoner.getSuperClasses(owlClass, false));
+                assertEquals(reasonerWithInsertionOrder.getEquivalentClasses(owlClass), m_reasoner.getEquivalentClasses(owlClass));
+                assertEquals(reasonerWithInsertionOrder.getInstances(owlClass, false), m_reasoner.getInstances(owlClass, false));
+                assertEquals(reasonerWithInsertionOrder.getInstances(owlClass, true), m_reasoner.getInstances(owlClass, true));
+            }
+        } finally {
+            reasonerWithInsertionOrder.dispose();
+        }
+    }
+
+    protected void assertChangesDisjunctionOrder(GroundDisjunctionSchedulingType schedulingType) throws Exception {
+        loadOntologyWithAxioms(ORDER_AXIOMS);
+        List<String> orderWithInsertionOrder = getDisjunctionOrder(GroundDisjunctionSchedulingType.INSERTION_ORDER);
+        List<String> orderWithSchedulingType = getDisjunctionOrder(schedulingType);
+        assertFalse(orderWithInsertionOrder.isEmpty());
+        assertFalse(orderWithInsertionOrder.equals(orderWithSchedulingType));
+    }
+
+    protected List<String> getDisjunctionOrder(GroundDisjunctionSchedulingType schedulingType) {
+        final List<String> disjunctionOrder = new ArrayList<>();
+        Configuration configuration = super.getConfiguration();
+        configuration.groundDisjunctionSchedulingType = schedulingType;
+        configuration.monitor = new TableauMonitorAdapter() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void disjunctProcessingStarted(GroundDisjunction groundDisjunction, int disjunct) {
+                disjunctionOrder.add(groundDisjunction.toString());
+            }
+        };
+        Reasoner reasoner = new Reasoner(configuration, m_ontology);
+        try {
+            assertTrue(reasoner.isConsistent());
+        } finally {
+            reasoner.dispose();
+        }
+        return disjunctionOrder;
+    }
+}
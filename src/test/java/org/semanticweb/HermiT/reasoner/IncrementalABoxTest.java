@@ -0,0 +1,118 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.HermiT.tableau.Tableau;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+@SuppressWarnings("javadoc")
+public class IncrementalABoxTest extends AbstractReasonerTest {
+    protected static final String AXIOMS = "Declaration(NamedIndividual(:a)) Declaration(NamedIndividual(:b)) Declaration(NamedIndividual(:c)) "
+            + "Declaration(NamedIndividual(:d)) Declaration(NamedIndividual(:e)) Declaration(Class(:D)) "
+            + "EquivalentClasses(:A ObjectSomeValuesFrom(:r :B)) " + "SubClassOf(:B :C) " + "SubClassOf(:E ObjectUnionOf(:B :F)) "
+            + "SubClassOf(:F :C) " + "DisjointClasses(:B :D) " + "ObjectPropertyAssertion(:r :a :c) " + "ClassAssertion(:B :b) "
+            + "ClassAssertion(:A :d) " + "ClassAssertion(:E :e) ";
+
+    public IncrementalABoxTest(String name) {
+        super(name);
+    }
+
+    public void testAddedAssertion() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+        assertInstancesOf(NS_C("A"), false, IRIs("d"));
+        Tableau tableau = m_reasoner.getTableau();
+        m_ontologyManager.addAxiom(m_ontology, m_dataFactory.getOWLClassAssertionAxiom(NS_C("B"), NS_NI("c")));
+        assertTrue(m_reasoner.canProcessPendingChangesIncrementally());
+        m_reasoner.flush();
+        assertSame(tableau, m_reasoner.getTableau());
+        assertInstancesOf(NS_C("A"), false, IRIs("a", "d"));
+        assertInstancesOf(NS_C("B"), false, IRIs("b", "c"));
+        assertSameInstancesAsFreshReasoner("A", "B", "C", "D", "E", "F");
+    }
+
+    public void testRemovedAssertion() throws Exception {
+        loadReasonerWithAxioms(AXIOMS + "ClassAssertion(:B :c) ");
+        m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+        assertInstancesOf(NS_C("A"), false, IRIs("a", "d"));
+        Tableau tableau = m_reasoner.getTableau();
+        m_ontologyManager.removeAxiom(m_ontology, m_dataFactory.getOWLObjectPropertyAssertionAxiom(NS_OP("r"), NS_NI("a"), NS_NI("c")));
+        m_reasoner.flush();
+        assertSame(tableau, m_reasoner.getTableau());
+        assertInstancesOf(NS_C("A"), false, IRIs("d"));
+        assertSameInstancesAsFreshReasoner("A", "B", "C", "D", "E", "F");
+    }
+
+    public void testPossibleInstancesOfUnaffectedIndividualsAreKept() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+        m_ontologyManager.addAxiom(m_ontology, m_dataFactory.getOWLClassAssertionAxiom(NS_C("E"), NS_NI("b")));
+        m_reasoner.flush();
+        assertInstancesOf(NS_C("C"), false, IRIs("b", "e"));
+        assertInstancesOf(NS_C("E"), false, IRIs("b", "e"));
+        assertSameInstancesAsFreshReasoner("A", "B", "C", "D", "E", "F");
+    }
+
+    public void testSeveralFlushes() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+        Tableau tableau = m_reasoner.getTableau();
+        m_ontologyManager.addAxiom(m_ontology, m_dataFactory.getOWLObjectPropertyAssertionAxiom(NS_OP("r"), NS_NI("e"), NS_NI("b")));
+        m_reasoner.flush();
+        assertSame(tableau, m_reasoner.getTableau());
+        assertInstancesOf(NS_C("A"), false, IRIs("d", "e"));
+        m_ontologyManager.removeAxiom(m_ontology, m_dataFactory.getOWLClassAssertionAxiom(NS_C("B"), NS_NI("b")));
+        m_reasoner.flush();
+        assertSame(tableau, m_reasoner.getTableau());
+        assertInstancesOf(NS_C("A"), false, IRIs("d"));
+        assertSameInstancesAsFreshReasoner("A", "B", "C", "D", "E", "F");
+    }
+
+    public void testAddedAssertionMakesABoxInconsistent() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+        m_ontologyManager.addAxiom(m_ontology, m_dataFactory.getOWLClassAssertionAxiom(NS_C("D"), NS_NI("b")));
+        m_reasoner.flush();
+        assertFalse(m_reasoner.isConsistent());
+        m_ontologyManager.removeAxiom(m_ontology, m_dataFactory.getOWLClassAssertionAxiom(NS_C("D"), NS_NI("b")));
+        m_reasoner.flush();
+        assertTrue(m_reasoner.isConsistent());
+        assertSameInstancesAsFreshReasoner("A", "B", "C", "D", "E", "F");
+    }
+
+    public void testKeysConnectDifferentComponents() throws Exception {
+        loadReasonerWithAxioms(AXIOMS + "Declaration(DataProperty(:dp)) HasKey(:C () (:dp)) DataPropertyAssertion(:dp :b \"1\") ");
+        m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+        m_ontologyManager.addAxiom(m_ontology, m_dataFactory.getOWLDataPropertyAssertionAxiom(NS_DP("dp"), NS_NI("e"), m_dataFactory.getOWLLiteral("1")));
+        m_reasoner.flush();
+        // b and e have the same key, so e is the same individual as b and an instance of B
+        assertInstancesOf(NS_C("B"), false, IRIs("b", "e"));
+        assertSameInstancesAsFreshReasoner("A", "B", "C", "D", "E", "F");
+    }
+
+    public void testTBoxChangeReloads() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+        Tableau tableau = m_reasoner.getTableau();
+        m_ontologyManager.addAxiom(m_ontology, m_dataFactory.getOWLSubClassOfAxiom(NS_C("C"), NS_C("D")));
+        assertFalse(m_reasoner.canProcessPendingChangesIncrementally());
+        m_reasoner.flush();
+        assertNotSame(tableau, m_reasoner.getTableau());
+        assertSameInstancesAsFreshReasoner("A", "B", "C", "D", "E", "F");
+    }
+
+    protected void assertSameInstancesAsFreshReasoner(String... classes) {
+        Reasoner incrementalReasoner = m_reasoner;
+        Reasoner freshReasoner = new Reasoner(getConfiguration(), m_ontology);
+        try {
+            assertEquals(freshReasoner.isConsistent(), incrementalReasoner.isConsistent());
+            for (String className : classes) {
+                OWLClass owlClass = NS_C(className);
+                assertEquals(freshReasoner.getInstances(owlClass, false), incrementalReasoner.getInstances(owlClass, false));
+                assertEquals(freshReasoner.getInstances(owlClass, true), incrementalReasoner.getInstances(owlClass, true));
+            }
+        } finally {
+            freshReasoner.dispose();
+        }
+    }
+}
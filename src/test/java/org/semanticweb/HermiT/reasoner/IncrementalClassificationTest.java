@@ -0,0 +1,111 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.HermiT.model.AtomicConcept;
+import org.semanticweb.HermiT.structural.ClassificationChangeAnalysis;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+@SuppressWarnings("javadoc")
+public class IncrementalClassificationTest extends AbstractReasonerTest {
+    protected static final String PIZZA_NS = "http://www.co-ode.org/ontologies/pizza/2005/05/16/pizza.owl#";
+
+    public IncrementalClassificationTest(String name) {
+        super(name);
+    }
+
+    @Override
+    protected Configuration getConfiguration() {
+        Configuration configuration = super.getConfiguration();
+        configuration.incrementalClassification = true;
+        return configuration;
+    }
+
+    public void testAdditionOnPizza() throws Exception {
+        loadReasonerFromResource("res/pizza.xml");
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        // mushrooms become meat, which makes them unsatisfiable, and so are all pizzas with mushrooms
+        m_ontologyManager.addAxiom(m_ontology, m_dataFactory.getOWLSubClassOfAxiom(C(PIZZA_NS + "MushroomTopping"), C(PIZZA_NS + "HotSpicedBeefTopping")));
+        m_reasoner.flush();
+        assertSatisfiable(C(PIZZA_NS + "MushroomTopping"), false);
+        assertSameHierarchiesAsFreshReasoner();
+    }
+
+    public void testRemovalOnPizza() throws Exception {
+        loadReasonerFromResource("res/pizza.xml");
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        List<OWLAxiom> removedAxioms = new ArrayList<>();
+        m_ontology.subClassAxiomsForSubClass(C(PIZZA_NS + "MozzarellaTopping")).forEach(removedAxioms::add);
+        assertFalse(removedAxioms.isEmpty());
+        m_ontologyManager.removeAxioms(m_ontology, new HashSet<>(removedAxioms));
+        m_reasoner.flush();
+        assertSameHierarchiesAsFreshReasoner();
+    }
+
+    public void testChangesOfSeveralFlushesAreAccumulated() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:a :b) SubClassOf(:b :c) SubClassOf(:d :e) SubClassOf(:e ObjectSomeValuesFrom(:r :f)) ");
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        m_ontologyManager.addAxiom(m_ontology, m_dataFactory.getOWLSubClassOfAxiom(NS_C("c"), NS_C("g")));
+        m_reasoner.flush();
+        m_ontologyManager.removeAxiom(m_ontology, m_dataFactory.getOWLSubClassOfAxiom(NS_C("a"), NS_C("b")));
+        m_reasoner.flush();
+        assertSubsumedBy("b", "g", true);
+        assertSubsumedBy("a", "g", false);
+        assertSubsumedBy("d", "e", true);
+        assertSameHierarchiesAsFreshReasoner();
+    }
+
+    public void testUnsatisfiableClassBecomesSatisfiable() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:a :b) SubClassOf(:a :c) DisjointClasses(:b :c) SubClassOf(:d :a) SubClassOf(:e :b) ");
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertSatisfiable("d", false);
+        m_ontologyManager.removeAxiom(m_ontology, m_dataFactory.getOWLDisjointClassesAxiom(NS_C("b"), NS_C("c")));
+        m_reasoner.flush();
+        assertSatisfiable("d", true);
+        assertSubsumedBy("d", "c", true);
+        assertSameHierarchiesAsFreshReasoner();
+    }
+
+    public void testAffectedClasses() throws Exception {
+        loadOntologyWithAxioms("SubClassOf(:a :b) SubClassOf(:b ObjectSomeValuesFrom(:r :c)) SubClassOf(:c :d) SubClassOf(:e :f) SubClassOf(ObjectSomeValuesFrom(:s :c) :g) ");
+        OWLAxiom addedAxiom = m_dataFactory.getOWLSubClassOfAxiom(NS_C("c"), NS_C("h"));
+        Set<OWLAxiom> axioms = new HashSet<>();
+        m_ontology.logicalAxioms().forEach(axioms::add);
+        axioms.add(addedAxiom);
+        ClassificationChangeAnalysis analysis = new ClassificationChangeAnalysis(axioms, false);
+        Set<AtomicConcept> affected = analysis.getAffectedAtomicConcepts(Collections.singleton(addedAxiom));
+        assertEquals(new HashSet<>(atomicConcepts(NS_C("a"), NS_C("b"), NS_C("c"))), affected);
+        // an axiom with a universal restriction on the left-hand side is relevant for every class
+        OWLAxiom globalAxiom = m_dataFactory.getOWLSubClassOfAxiom(AVF(NS_OP("r"), NS_C("c")), NS_C("h"));
+        axioms.add(globalAxiom);
+        analysis = new ClassificationChangeAnalysis(axioms, false);
+        assertNull(analysis.getAffectedAtomicConcepts(Collections.singleton(globalAxiom)));
+    }
+
+    protected static List<AtomicConcept> atomicConcepts(OWLClass... classes) {
+        List<AtomicConcept> atomicConcepts = new ArrayList<>();
+        for (OWLClass owlClass : classes)
+            atomicConcepts.add(AtomicConcept.create(owlClass.getIRI().toString()));
+        return atomicConcepts;
+    }
+
+    protected void assertSameHierarchiesAsFreshReasoner() {
+        String incrementalHierarchies = getHierarchiesAsText();
+        Reasoner incrementalReasoner = m_reasoner;
+        m_reasoner = new Reasoner(super.getConfiguration(), m_ontology);
+        try {
+            assertEquals(getHierarchiesAsText(), incrementalHierarchies);
+        } finally {
+            m_reasoner.dispose();
+            m_reasoner = incrementalReasoner;
+        }
+    }
+}
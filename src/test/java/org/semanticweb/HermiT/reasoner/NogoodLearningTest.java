@@ -0,0 +1,110 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.HermiT.monitor.CountingMonitor;
+import org.semanticweb.HermiT.tableau.NogoodManager;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+@SuppressWarnings("javadoc")
+public class NogoodLearningTest extends AbstractReasonerTest {
+    // The chains of subclasses make the disjunctions on y, a, b, and again y be derived and chosen in this order.
+    // B(a) and F(b) clash; this is learned while P1(y) is chosen, which fails independently of a and b. After
+    // backtracking to P2(y), G(b) is tried first because F(b) has been punished, and G(b) clashes with P2(y), so F(b)
+    // is chosen again and the nogood {B(a), F(b)} raises the clash before the DL clauses are applied.
+    protected static final String AXIOMS = "ClassAssertion(:Y :y) " + "SubClassOf(:Y ObjectUnionOf(:P1 :P2)) " + "ClassAssertion(:A0 :a) "
+            + "SubClassOf(:A0 :A1) " + "SubClassOf(:A1 ObjectUnionOf(:B :C)) " + "ClassAssertion(:B0 :b) " + "SubClassOf(:B0 :B1) "
+            + "SubClassOf(:B1 :B2) " + "SubClassOf(:B2 ObjectUnionOf(:F :G)) " + "ClassAssertion(:W0 :y) " + "SubClassOf(:W0 :W1) "
+            + "SubClassOf(:W1 :W2) " + "SubClassOf(:W2 :W3) " + "SubClassOf(:W3 ObjectUnionOf(:Q1 :Q2)) " + "ObjectPropertyAssertion(:r :a :b) "
+            + "SubClassOf(:B ObjectAllValuesFrom(:r ObjectComplementOf(:F))) " + "ObjectPropertyAssertion(:s :y :b) "
+            + "SubClassOf(:P2 ObjectAllValuesFrom(:s ObjectComplementOf(:G))) " + "DisjointClasses(:P1 :Q1) " + "DisjointClasses(:P1 :Q2) ";
+    // B(a) and F(b) clash only after both disjuncts of Z1 or Z2 have been tried; this is learned while P1(y) is chosen.
+    // C(a) and G(b) fail under both P1(y) and P2(y), so after backtracking to P2(y) the choices B(a) and F(b) are made
+    // again, and the nogood {B(a), F(b)} prunes the second exploration of Z1 or Z2.
+    protected static final String PRUNING_AXIOMS = "ClassAssertion(:Y :y) " + "SubClassOf(:Y ObjectUnionOf(:P1 :P2)) " + "ClassAssertion(:A0 :a) "
+            + "SubClassOf(:A0 :A1) " + "SubClassOf(:A1 ObjectUnionOf(:B :C)) " + "ClassAssertion(:B0 :b) " + "SubClassOf(:B0 :B1) "
+            + "SubClassOf(:B1 :B2) " + "SubClassOf(:B2 ObjectUnionOf(:F :G)) " + "ObjectPropertyAssertion(:r :a :b) "
+            + "SubClassOf(:B ObjectAllValuesFrom(:r :X)) " + "SubClassOf(ObjectIntersectionOf(:X :F) ObjectUnionOf(:Z1 :Z2)) "
+            + "DisjointClasses(:F :Z1) " + "DisjointClasses(:F :Z2) " + "ObjectPropertyAssertion(:u :y :a) " + "ObjectPropertyAssertion(:s :y :b) "
+            + "SubClassOf(:P1 ObjectAllValuesFrom(:u ObjectComplementOf(:C))) " + "SubClassOf(:P2 ObjectAllValuesFrom(:u ObjectComplementOf(:C))) "
+            + "SubClassOf(:P1 ObjectAllValuesFrom(:s ObjectComplementOf(:G))) " + "SubClassOf(:P2 ObjectAllValuesFrom(:s ObjectComplementOf(:G))) ";
+
+    public NogoodLearningTest(String name) {
+        super(name);
+    }
+
+    @Override
+    protected Configuration getConfiguration() {
+        Configuration configuration = super.getConfiguration();
+        configuration.maximumNumberOfNogoods = 16;
+        configuration.maximumNogoodSize = 4;
+        return configuration;
+    }
+
+    public void testNogoodsRaiseClashes() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        assertTrue(m_reasoner.isConsistent());
+        NogoodManager nogoodManager = m_reasoner.getTableau().getNogoodManager();
+        assertTrue(nogoodManager.getNumberOfLearnedNogoods() > 0);
+        assertTrue(nogoodManager.getNumberOfNogoodClashes() > 0);
+        assertSameResultsAsWithoutLearning("B", "C", "F", "G", "P1", "P2", "Q1", "Q2");
+    }
+
+    public void testNogoodsPruneBranches() throws Exception {
+        loadOntologyWithAxioms(PRUNING_AXIOMS);
+        Configuration configuration = getConfiguration();
+        CountingMonitor monitorWithLearning = new CountingMonitor();
+        configuration.monitor = monitorWithLearning;
+        createReasoner(configuration, null);
+        assertFalse(m_reasoner.isConsistent());
+        assertTrue(m_reasoner.getTableau().getNogoodManager().getNumberOfNogoodClashes() > 0);
+        Configuration configurationWithoutLearning = super.getConfiguration();
+        CountingMonitor monitorWithoutLearning = new CountingMonitor();
+        configurationWithoutLearning.monitor = monitorWithoutLearning;
+        createReasoner(configurationWithoutLearning, null);
+        assertFalse(m_reasoner.isConsistent());
+        assertTrue(monitorWithoutLearning.getNumberOfBacktrackings() > monitorWithLearning.getNumberOfBacktrackings());
+    }
+
+    public void testRealisation() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY, InferenceType.CLASS_ASSERTIONS);
+        assertInstancesOf(NS_C("C"), true, IRIs("a"));
+        assertInstancesOf(NS_C("F"), true, IRIs("b"));
+        assertInstancesOf(NS_C("P2"), true, IRIs("y"));
+        assertSameResultsAsWithoutLearning("B", "C", "F", "G", "P1", "P2", "Q1", "Q2");
+    }
+
+    public void testInconsistentABox() throws Exception {
+        loadReasonerWithAxioms(AXIOMS + "ClassAssertion(ObjectComplementOf(:C) :a) ");
+        assertFalse(m_reasoner.isConsistent());
+    }
+
+    public void testDisabledByDefault() throws Exception {
+        loadOntologyWithAxioms(AXIOMS);
+        createReasoner(super.getConfiguration(), null);
+        assertTrue(m_reasoner.isConsistent());
+        assertNull(m_reasoner.getTableau().getNogoodManager());
+    }
+
+    protected void assertSameResultsAsWithoutLearning(String... classes) {
+        Configuration configuration = super.getConfiguration();
+        configuration.maximumNumberOfNogoods = 0;
+        Reasoner reasonerWithoutLearning = new Reasoner(configuration, m_ontology);
+        try {
+            Reasoner reasoner = m_reasoner;
+            m_reasoner = reasonerWithoutLearning;
+            String hierarchiesWithoutLearning = getHierarchiesAsText();
+            m_reasoner = reasoner;
+            assertEquals(hierarchiesWithoutLearning, getHierarchiesAsText());
+            for (String className : classes) {
+                OWLClass owlClass = NS_C(className);
+                assertEquals(reasonerWithoutLearning.getInstances(owlClass, false), m_reasoner.getInstances(owlClass, false));
+                assertEquals(reasonerWithoutLearning.getInstances(owlClass, true), m_reasoner.getInstances(owlClass, true));
+            }
+        } finally {
+            reasonerWithoutLearning.dispose();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Configuration.ExtensionTableStorageType;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.HermiT.tableau.Tableau;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+@SuppressWarnings("javadoc")
+public class OffHeapStorageTest extends AbstractReasonerTest {
+    protected static final String AXIOMS = "SubClassOf(:A ObjectUnionOf(:B :C)) " + "SubClassOf(:B :D) " + "SubClassOf(:C :D) "
+            + "SubClassOf(ObjectSomeValuesFrom(:r :D) :E) " + "SubObjectPropertyOf(:s :r) " + "DisjointClasses(:F :D) "
+            + "SubClassOf(:G ObjectSomeValuesFrom(:r ObjectIntersectionOf(:A :F))) "
+            + "ClassAssertion(:A :a) " + "ObjectPropertyAssertion(:s :b :a) " + "ClassAssertion(ObjectUnionOf(:B :F) :c) "
+            + "ClassAssertion(:D :c) " + "ObjectPropertyAssertion(:r :d :c) " + "ClassAssertion(ObjectUnionOf(:C :F) :e) ";
+
+    public OffHeapStorageTest(String name) {
+        super(name);
+    }
+
+    public void testPizzaOffHeap() throws Exception {
+        loadOntologyFromResource("res/pizza.xml");
+        createReasoner(getConfiguration(ExtensionTableStorageType.OFF_HEAP), null);
+        assertHierarchies("res/pizza.xml.txt");
+    }
+
+    public void testPizzaMapped() throws Exception {
+        loadOntologyFromResource("res/pizza.xml");
+        createReasoner(getConfiguration(ExtensionTableStorageType.MAPPED), null);
+        assertHierarchies("res/pizza.xml.txt");
+    }
+
+    public void testRealisationOffHeap() throws Exception {
+        assertSameResultsAsOnHeap(ExtensionTableStorageType.OFF_HEAP);
+    }
+
+    public void testRealisationMapped() throws Exception {
+        assertSameResultsAsOnHeap(ExtensionTableStorageType.MAPPED);
+    }
+
+    public void testRealisationWithWorkerThreadsMapped() throws Exception {
+        loadOntologyWithAxioms(AXIOMS);
+        Configuration configuration = getConfiguration(ExtensionTableStorageType.MAPPED);
+        configuration.numberOfWorkerThreads = 4;
+        createReasoner(configuration, null);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY, InferenceType.CLASS_ASSERTIONS);
+        assertSameResultsAs(new Reasoner(getConfiguration(), m_ontology));
+    }
+
+    public void testFreshTableauxAreReleased() throws Exception {
+        loadOntologyWithAxioms(AXIOMS);
+        TableauRecordingReasoner reasoner = new TableauRecordingReasoner(getConfiguration(ExtensionTableStorageType.MAPPED));
+        m_reasoner = reasoner;
+        // nominals do not occur in the ontology, so the queries with nominals need fresh tableaux
+        OWLClassExpression hasValueA = m_dataFactory.getOWLObjectHasValue(NS_OP("r"), NS_NI("a"));
+        OWLClassExpression hasValueC = m_dataFactory.getOWLObjectHasValue(NS_OP("r"), NS_NI("c"));
+        assertInstancesOf(hasValueA, false, IRIs("b"));
+        assertInstancesOf(hasValueC, false, IRIs("d"));
+        assertSatisfiable(m_dataFactory.getOWLObjectIntersectionOf(NS_C("G"), hasValueA), false);
+        assertSubsumedBy(hasValueC, NS_C("E"), true);
+        assertEntails(m_dataFactory.getOWLClassAssertionAxiom(m_dataFactory.getOWLObjectOneOf(NS_NI("a"), NS_NI("c")), NS_NI("a")), true);
+        assertFalse(reasoner.m_freshTableaux.isEmpty());
+        assertTrue(reasoner.m_releasedTableaux.containsAll(reasoner.m_freshTableaux));
+    }
+
+    protected void assertSameResultsAsOnHeap(ExtensionTableStorageType storage) throws Exception {
+        loadOntologyWithAxioms(AXIOMS);
+        createReasoner(getConfiguration(storage), null);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY, InferenceType.CLASS_ASSERTIONS, InferenceType.OBJECT_PROPERTY_ASSERTIONS);
+        assertInstancesOf(NS_C("D"), false, IRIs("a", "c"));
+        assertInstancesOf(NS_C("E"), false, IRIs("b", "d"));
+        assertSameResultsAs(new Reasoner(getConfiguration(), m_ontology));
+    }
+
+    protected void assertSameResultsAs(Reasoner onHeapReasoner) {
+        try {
+            Reasoner reasoner = m_reasoner;
+            m_reasoner = onHeapReasoner;
+            String onHeapHierarchies = getHierarchiesAsText();
+            m_reasoner = reasoner;
+            assertEquals(onHeapHierarchies, getHierarchiesAsText());
+            for (String className : new String[] { "A", "B", "C", "D", "E", "F", "G" }) {
+                OWLClass owlClass = NS_C(className);
+                assertEquals(onHeapReasoner.getInstances(owlClass, false), m_reasoner.getInstances(owlClass, false));
+                assertEquals(onHeapReasoner.getInstances(owlClass, true), m_reasoner.getInstances(owlClass, true));
+            }
+            OWLClassExpression someR = m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("D"));
+            assertEquals(onHeapReasoner.getInstances(someR, false), m_reasoner.getInstances(someR, false));
+            assertEquals(onHeapReasoner.getObjectPropertyValues(NS_NI("b"), NS_OP("r")), m_reasoner.getObjectPropertyValues(NS_NI("b"), NS_OP("r")));
+        } finally {
+            onHeapReasoner.dispose();
+        }
+    }
+
+    protected Configuration getConfiguration(ExtensionTableStorageType storage) {
+        Configuration configuration = getConfiguration();
+        configuration.extensionTableStorageType = storage;
+        return configuration;
+    }
+
+    /**
+     * Records the tableaux that are created for queries and the tableaux that are released afterwards.
+     */
+    protected class TableauRecordingReasoner extends Reasoner {
+        protected final Set<Tableau> m_freshTableaux = new HashSet<>();
+        protected final Set<Tableau> m_releasedTableaux = new HashSet<>();
+
+        public TableauRecordingReasoner(Configuration configuration) {
+            super(configuration, m_ontology);
+        }
+
+        @Override
+        public Tableau getTableau(OWLAxiom... additionalAxioms) {
+            Tableau tableau = super.getTableau(additionalAxioms);
+            if (tableau != m_tableau)
+                m_freshTableaux.add(tableau);
+            return tableau;
+        }
+
+        @Override
+        public void releaseTableau(Tableau tableau) {
+            if (tableau != m_tableau)
+                m_releasedTableaux.add(tableau);
+            super.releaseTableau(tableau);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+
+@SuppressWarnings("javadoc")
+public class OrParallelSatisfiabilityTest extends AbstractReasonerTest {
+    protected static final String AXIOMS = "SubClassOf(:A ObjectUnionOf(:B :C :D)) " + "SubClassOf(:E ObjectUnionOf(:F :G)) "
+            + "SubClassOf(ObjectIntersectionOf(:B :F) owl:Nothing) " + "SubClassOf(ObjectIntersectionOf(:C :G) owl:Nothing) "
+            + "SubClassOf(:D ObjectAllValuesFrom(:r :N)) " + "SubClassOf(:G ObjectAllValuesFrom(:r :M)) " + "DisjointClasses(:M :N) "
+            + "SubClassOf(:N ObjectUnionOf(:B :K)) " + "ClassAssertion(:A :a) " + "ClassAssertion(:E :a) " + "ObjectPropertyAssertion(:r :a :b) "
+            + "ClassAssertion(:A :b) " + "ClassAssertion(:E :b) " + "ObjectPropertyAssertion(:r :b :c) " + "ClassAssertion(:A :c) "
+            + "ObjectPropertyAssertion(:r :c :a) ";
+
+    public OrParallelSatisfiabilityTest(String name) {
+        super(name);
+    }
+
+    @Override
+    protected Configuration getConfiguration() {
+        Configuration configuration = super.getConfiguration();
+        configuration.numberOfWorkerThreads = 4;
+        configuration.orParallelSatisfiabilityTests = true;
+        return configuration;
+    }
+
+    public void testSatisfiable() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        assertSatisfiable(m_dataFactory.getOWLObjectIntersectionOf(NS_C("A"), NS_C("E"),
+                m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), m_dataFactory.getOWLObjectOneOf(NS_NI("a")))), true);
+        assertSatisfiable(m_dataFactory.getOWLObjectIntersectionOf(NS_C("D"), NS_C("G")), true);
+    }
+
+    public void testUnsatisfiable() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        assertSatisfiable(m_dataFactory.getOWLObjectIntersectionOf(NS_C("A"), m_dataFactory.getOWLObjectComplementOf(NS_C("B")),
+                m_dataFactory.getOWLObjectComplementOf(NS_C("C")), m_dataFactory.getOWLObjectComplementOf(NS_C("D"))), false);
+        assertSatisfiable(m_dataFactory.getOWLObjectIntersectionOf(NS_C("D"), NS_C("G"),
+                m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), m_dataFactory.getOWLObjectOneOf(NS_NI("a")))), false);
+    }
+
+    public void testSubsumption() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        assertSubsumedBy(m_dataFactory.getOWLObjectIntersectionOf(NS_C("A"), m_dataFactory.getOWLObjectComplementOf(NS_C("B"))),
+                m_dataFactory.getOWLObjectUnionOf(NS_C("C"), NS_C("D")), true);
+        assertSubsumedBy(m_dataFactory.getOWLObjectIntersectionOf(NS_C("A"), NS_C("E")), NS_C("D"), false);
+    }
+
+    public void testDisjunctionsAreSplit() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        assertEquals(0, m_reasoner.getNumberOfOrParallelSplits());
+        assertSatisfiable(m_dataFactory.getOWLObjectIntersectionOf(NS_C("A"), NS_C("E"),
+                m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), m_dataFactory.getOWLObjectOneOf(NS_NI("a")))), true);
+        assertTrue(m_reasoner.getNumberOfOrParallelSplits() > 0);
+    }
+
+    public void testSameResultsAsSequential() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        OWLClassExpression[] classExpressions = {
+                m_dataFactory.getOWLObjectIntersectionOf(NS_C("A"), NS_C("E"), NS_C("N")),
+                m_dataFactory.getOWLObjectIntersectionOf(NS_C("E"), m_dataFactory.getOWLObjectComplementOf(NS_C("F")),
+                        m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("N"))),
+                m_dataFactory.getOWLObjectIntersectionOf(NS_C("A"), NS_C("E"),
+                        m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), m_dataFactory.getOWLObjectOneOf(NS_NI("b")))),
+                m_dataFactory.getOWLObjectIntersectionOf(NS_C("D"),
+                        m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), m_dataFactory.getOWLObjectIntersectionOf(NS_C("M"), NS_C("A")))) };
+        Reasoner sequentialReasoner = new Reasoner(super.getConfiguration(), m_ontology);
+        try {
+            for (OWLClassExpression classExpression : classExpressions)
+                assertEquals(sequentialReasoner.isSatisfiable(classExpression), m_reasoner.isSatisfiable(classExpression));
+            assertEquals(0, sequentialReasoner.getNumberOfOrParallelSplits());
+            assertTrue(m_reasoner.getNumberOfOrParallelSplits() > 0);
+        } finally {
+            sequentialReasoner.dispose();
+        }
+    }
+}
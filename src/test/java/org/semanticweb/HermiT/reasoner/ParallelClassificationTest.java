@@ -0,0 +1,104 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
+import org.semanticweb.owlapi.reasoner.ReasonerProgressMonitor;
+
+@SuppressWarnings("javadoc")
+public class ParallelClassificationTest extends AbstractReasonerTest {
+
+    public ParallelClassificationTest(String name) {
+        super(name);
+    }
+
+    public void testSmallOntology() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:A ObjectUnionOf(:B :C)) SubClassOf(:B :D) SubClassOf(:C :D) SubClassOf(:E ObjectIntersectionOf(:A :F)) "
+                + "DisjointClasses(:F :C) SubClassOf(:G ObjectSomeValuesFrom(:r :E)) SubClassOf(ObjectSomeValuesFrom(:r :B) :H) "
+                + "EquivalentClasses(:I ObjectUnionOf(:B :C)) SubClassOf(:J ObjectIntersectionOf(:C :F))");
+        m_reasoner.classifyClasses();
+        assertSubsumedBy("A", "D", true);
+        assertSubsumedBy("E", "B", true);
+        assertSubsumedBy("G", "H", true);
+        assertSubsumedBy("A", "I", true);
+        assertSatisfiable("J", false);
+        Reasoner singleThreadedReasoner = new Reasoner(super.getConfiguration(), m_ontology);
+        try {
+            assertEquals(getHierarchiesAsText(singleThreadedReasoner), getHierarchiesAsText());
+        } finally {
+            singleThreadedReasoner.dispose();
+        }
+    }
+
+    public void testInterruptedClassification() throws Exception {
+        loadOntologyFromResource("res/pizza.xml");
+        InterruptingProgressMonitor progressMonitor = new InterruptingProgressMonitor("class hierarchy", 10);
+        Configuration configuration = getConfiguration();
+        configuration.reasonerProgressMonitor = progressMonitor;
+        createReasoner(configuration, null);
+        progressMonitor.m_reasoner = m_reasoner;
+        try {
+            m_reasoner.classifyClasses();
+            fail("The classification should have been interrupted.");
+        } catch (ReasonerInterruptedException expected) {
+            // the reasoner is interrupted by the progress monitor
+        }
+        // the reasoner can be used after the interrupt
+        progressMonitor.m_reasoner = null;
+        m_reasoner.classifyClasses();
+        assertHierarchies("res/pizza.xml.txt");
+    }
+
+    protected String getHierarchiesAsText(Reasoner reasoner) {
+        Reasoner reasoner0 = m_reasoner;
+        m_reasoner = reasoner;
+        try {
+            return getHierarchiesAsText();
+        } finally {
+            m_reasoner = reasoner0;
+        }
+    }
+
+    @Override
+    protected Configuration getConfiguration() {
+        Configuration configuration = super.getConfiguration();
+        configuration.numberOfWorkerThreads = 4;
+        return configuration;
+    }
+
+    /**
+     * Interrupts the reasoner after the given number of steps of the task with the given name.
+     */
+    protected static class InterruptingProgressMonitor implements ReasonerProgressMonitor {
+        protected final String m_taskName;
+        protected final int m_interruptAfter;
+        protected Reasoner m_reasoner;
+        protected boolean m_inTask;
+
+        public InterruptingProgressMonitor(String taskName, int interruptAfter) {
+            m_taskName = taskName;
+            m_interruptAfter = interruptAfter;
+        }
+
+        @Override
+        public void reasonerTaskStarted(String taskName) {
+            m_inTask = taskName.contains(m_taskName);
+        }
+
+        @Override
+        public void reasonerTaskStopped() {
+            m_inTask = false;
+        }
+
+        @Override
+        public void reasonerTaskProgressChanged(int value, int max) {
+            if (m_inTask && value == m_interruptAfter && m_reasoner != null)
+                m_reasoner.interrupt();
+        }
+
+        @Override
+        public void reasonerTaskBusy() {
+            // nothing to do
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.semanticweb.HermiT.reasoner;
+
+import static org.semanticweb.owlapi.util.OWLAPIStreamUtils.asSet;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.model.DLOntology;
+import org.semanticweb.HermiT.tableau.HyperresolutionManager;
+import org.semanticweb.HermiT.tableau.Tableau;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+
+@SuppressWarnings("javadoc")
+public class QueryCompilationCacheTest extends AbstractReasonerTest {
+
+    public QueryCompilationCacheTest(String name) {
+        super(name);
+    }
+
+    @Override
+    protected Configuration getConfiguration() {
+        Configuration configuration = super.getConfiguration();
+        configuration.queryCompilationCacheCapacity = 1000;
+        return configuration;
+    }
+
+    public void testRepeatedQueryReusesCompilation() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:a ObjectSomeValuesFrom(:r :b)) SubClassOf(:b ObjectUnionOf(:c :d)) ClassAssertion(:a :i)");
+        OWLAxiom query = m_dataFactory.getOWLSubClassOfAxiom(NS_C("q"), m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("c")));
+        Tableau tableau = m_reasoner.getTableau(query);
+        DLOntology deltaDLOntology = tableau.getAdditionalDLOntology();
+        HyperresolutionManager hyperresolutionManager = tableau.getAdditionalHyperresolutionManager();
+        tableau.clearAdditionalDLOntology();
+        m_reasoner.getTableau(m_dataFactory.getOWLSubClassOfAxiom(NS_C("q"), NS_C("c")));
+        // the annotations of the query axioms are irrelevant
+        OWLAnnotation annotation = m_dataFactory.getRDFSComment("repeated query");
+        tableau = m_reasoner.getTableau(query.getAnnotatedAxiom(Collections.singleton(annotation)));
+        assertSame(deltaDLOntology, tableau.getAdditionalDLOntology());
+        assertSame(hyperresolutionManager, tableau.getAdditionalHyperresolutionManager());
+    }
+
+    public void testRepeatedQueriesAnswers() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:a ObjectSomeValuesFrom(:r :b)) SubClassOf(:b ObjectUnionOf(:c :d)) SubClassOf(:c :e) SubClassOf(:d :e) "
+                + "DisjointClasses(:c :f) ClassAssertion(:a :i) ObjectPropertyAssertion(:r :j :k) ClassAssertion(:c :k)");
+        OWLClassExpression some_r_e = m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("e"));
+        OWLClassExpression some_r_c = m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("c"));
+        OWLClassExpression c_and_f = m_dataFactory.getOWLObjectIntersectionOf(NS_C("c"), NS_C("f"));
+        for (int round = 0; round < 3; round++) {
+            assertSubsumedBy(NS_C("a"), some_r_e, true);
+            assertSubsumedBy(NS_C("a"), some_r_c, false);
+            assertSatisfiable(c_and_f, false);
+            assertInstances(some_r_e, "i", "j");
+            assertInstances(some_r_c, "j");
+        }
+    }
+
+    public void testCacheClearedByChanges() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:a ObjectSomeValuesFrom(:r :b)) ClassAssertion(:a :i)");
+        OWLAxiom query = m_dataFactory.getOWLSubClassOfAxiom(NS_C("q"), m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("b")));
+        DLOntology deltaDLOntology = m_reasoner.getTableau(query).getAdditionalDLOntology();
+        assertInstances(m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("b")), "i");
+        m_ontology.add(m_dataFactory.getOWLClassAssertionAxiom(NS_C("a"), NS_NI("j")));
+        m_reasoner.flush();
+        assertNotSame(deltaDLOntology, m_reasoner.getTableau(query).getAdditionalDLOntology());
+        assertInstances(m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("b")), "i", "j");
+        m_ontology.add(m_dataFactory.getOWLSubClassOfAxiom(NS_C("b"), NS_C("c")));
+        m_reasoner.flush();
+        assertInstances(m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("c")), "i", "j");
+    }
+
+    public void testDisabledByDefault() throws Exception {
+        loadOntologyWithAxioms("SubClassOf(:a ObjectSomeValuesFrom(:r :b))");
+        createReasoner(super.getConfiguration(), null);
+        OWLAxiom query = m_dataFactory.getOWLSubClassOfAxiom(NS_C("q"), m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("b")));
+        DLOntology deltaDLOntology = m_reasoner.getTableau(query).getAdditionalDLOntology();
+        assertNotSame(deltaDLOntology, m_reasoner.getTableau(query).getAdditionalDLOntology());
+        assertSubsumedBy(NS_C("a"), m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("b")), true);
+    }
+
+    protected void assertInstances(OWLClassExpression classExpression, String... individuals) {
+        Set<OWLNamedIndividual> expected = new HashSet<>();
+        for (String individual : individuals)
+            expected.add(NS_NI(individual));
+        assertEquals(expected, asSet(m_reasoner.getInstances(classExpression, false).entities()));
+    }
+}
@@ -0,0 +1,127 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.util.Collections;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.QueryResultCache;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.reasoner.NodeSet;
+import org.semanticweb.owlapi.reasoner.impl.OWLNamedIndividualNode;
+import org.semanticweb.owlapi.reasoner.impl.OWLNamedIndividualNodeSet;
+
+@SuppressWarnings("javadoc")
+public class QueryResultCacheTest extends AbstractReasonerTest {
+
+    public QueryResultCacheTest(String name) {
+        super(name);
+    }
+
+    @Override
+    protected Configuration getConfiguration() {
+        Configuration configuration = super.getConfiguration();
+        configuration.queryResultCacheCapacity = 1000;
+        return configuration;
+    }
+
+    public void testRepeatedQueries() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:a ObjectSomeValuesFrom(:r :b)) SubClassOf(:b :c) ClassAssertion(:a :i) ObjectPropertyAssertion(:r :j :k) ClassAssertion(:c :k)");
+        QueryResultCache cache = m_reasoner.getQueryResultCache();
+        OWLClassExpression some_r_c = m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("c"));
+        NodeSet<OWLNamedIndividual> instances = m_reasoner.getInstances(some_r_c, false);
+        assertEquals(2, instances.entities().count());
+        assertEquals(0, cache.getNumberOfHits());
+        // a structurally equal class expression is answered from the cache
+        NodeSet<OWLNamedIndividual> cachedInstances = m_reasoner.getInstances(m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("c")), false);
+        assertEquals(instances, cachedInstances);
+        assertNotSame(instances, cachedInstances);
+        assertEquals(1, cache.getNumberOfHits());
+        assertTrue(m_reasoner.getSubClasses(some_r_c, true).containsEntity(NS_C("a")));
+        assertTrue(m_reasoner.getSubClasses(some_r_c, true).containsEntity(NS_C("a")));
+        OWLAxiom axiom = m_dataFactory.getOWLSubClassOfAxiom(NS_C("a"), some_r_c);
+        assertTrue(m_reasoner.isEntailed(axiom));
+        // the annotations of an axiom are irrelevant for its entailment
+        OWLAxiom annotatedAxiom = axiom.getAnnotatedAxiom(Collections.singleton(m_dataFactory.getRDFSComment("cached")));
+        assertTrue(m_reasoner.isEntailed(annotatedAxiom));
+        assertTrue(cache.getNumberOfHits() >= 3);
+        assertTrue(cache.getHitRate() > 0.0);
+    }
+
+    public void testModifiedAnswersAreNotCached() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:a ObjectSomeValuesFrom(:r :b)) ClassAssertion(:a :i) ClassAssertion(:c :j)");
+        OWLClassExpression some_r_b = m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("b"));
+        NodeSet<OWLNamedIndividual> instances = m_reasoner.getInstances(some_r_b, false);
+        assertEquals(1, instances.entities().count());
+        ((OWLNamedIndividualNodeSet) instances).addEntity(NS_NI("j"));
+        ((OWLNamedIndividualNode) instances.nodes().findFirst().get()).add(NS_NI("k"));
+        assertInstancesOf(some_r_b, false, IRIs("i"));
+        assertEquals(1, m_reasoner.getQueryResultCache().getNumberOfHits());
+    }
+
+    public void testClassesAreNotCached() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:a :b) ClassAssertion(:a :i)");
+        QueryResultCache cache = m_reasoner.getQueryResultCache();
+        assertInstancesOf(NS_C("b"), false, IRIs("i"));
+        assertInstancesOf(NS_C("b"), true, new String[0]);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getNumberOfMisses());
+    }
+
+    public void testInvalidationByFlush() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:a ObjectSomeValuesFrom(:r :b)) ClassAssertion(:a :i)");
+        QueryResultCache cache = m_reasoner.getQueryResultCache();
+        OWLClassExpression some_r_c = m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("c"));
+        OWLAxiom axiom = m_dataFactory.getOWLSubClassOfAxiom(NS_C("a"), some_r_c);
+        assertFalse(m_reasoner.isEntailed(axiom));
+        assertEquals(0, m_reasoner.getInstances(some_r_c, false).entities().count());
+        m_ontology.add(m_dataFactory.getOWLSubClassOfAxiom(NS_C("b"), NS_C("c")));
+        // the changes are buffered, so the answers are still those for the ontology before the change
+        assertFalse(m_reasoner.isEntailed(axiom));
+        assertEquals(0, m_reasoner.getInstances(some_r_c, false).entities().count());
+        m_reasoner.flush();
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getNumberOfInvalidations());
+        assertTrue(m_reasoner.isEntailed(axiom));
+        assertEquals(1, m_reasoner.getInstances(some_r_c, false).entities().count());
+    }
+
+    public void testInvalidationWithoutBuffering() throws Exception {
+        loadOntologyWithAxioms("SubClassOf(:a ObjectSomeValuesFrom(:r :b)) ClassAssertion(:a :i)");
+        Configuration configuration = getConfiguration();
+        configuration.bufferChanges = false;
+        createReasoner(configuration, null);
+        OWLClassExpression some_r_c = m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("c"));
+        assertEquals(0, m_reasoner.getInstances(some_r_c, false).entities().count());
+        m_ontology.add(m_dataFactory.getOWLSubClassOfAxiom(NS_C("b"), NS_C("c")));
+        assertEquals(0, m_reasoner.getQueryResultCache().size());
+        assertEquals(1, m_reasoner.getInstances(some_r_c, false).entities().count());
+    }
+
+    public void testDisabledByDefault() throws Exception {
+        loadOntologyWithAxioms("SubClassOf(:a ObjectSomeValuesFrom(:r :b)) ClassAssertion(:a :i)");
+        createReasoner(super.getConfiguration(), null);
+        OWLClassExpression some_r_b = m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("b"));
+        assertEquals(1, m_reasoner.getInstances(some_r_b, false).entities().count());
+        assertEquals(1, m_reasoner.getInstances(some_r_b, false).entities().count());
+        assertTrue(m_reasoner.getSubClasses(some_r_b, true).containsEntity(NS_C("a")));
+        assertEquals(0, m_reasoner.getQueryResultCache().size());
+        assertEquals(0, m_reasoner.getQueryResultCache().getNumberOfHits());
+    }
+
+    public void testEviction() throws Exception {
+        loadOntologyWithAxioms("SubClassOf(:a ObjectSomeValuesFrom(:r :b)) SubClassOf(:b :c)");
+        Configuration configuration = getConfiguration();
+        configuration.queryResultCacheCapacity = 1;
+        createReasoner(configuration, null);
+        QueryResultCache cache = m_reasoner.getQueryResultCache();
+        OWLAxiom axiom1 = m_dataFactory.getOWLSubClassOfAxiom(NS_C("a"), m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("c")));
+        OWLAxiom axiom2 = m_dataFactory.getOWLSubClassOfAxiom(NS_C("a"), m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("b")));
+        assertTrue(m_reasoner.isEntailed(axiom1));
+        assertTrue(m_reasoner.isEntailed(axiom2));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getNumberOfEvictions());
+        assertTrue(m_reasoner.isEntailed(axiom1));
+        assertEquals(0, cache.getNumberOfHits());
+    }
+}
@@ -0,0 +1,93 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
+
+@SuppressWarnings("javadoc")
+public class RealisationWorkerThreadsTest extends AbstractReasonerTest {
+    protected static final String AXIOMS = "SubClassOf(:A ObjectUnionOf(:B :C)) " + "SubClassOf(:B :D) " + "SubClassOf(:C :D) "
+            + "SubClassOf(:E ObjectUnionOf(:B :F)) " + "DisjointClasses(:F :G) " + "SubClassOf(ObjectSomeValuesFrom(:r :D) :K) "
+            + "ClassAssertion(:A :a1) " + "ClassAssertion(:A :a2) " + "ClassAssertion(:E :e1) " + "ClassAssertion(:E :e2) "
+            + "ClassAssertion(:G :e2) " + "ClassAssertion(:E :e3) " + "ClassAssertion(ObjectUnionOf(:C :F) :e3) "
+            + "ObjectPropertyAssertion(:r :b1 :a1) " + "ObjectPropertyAssertion(:r :b2 :e1) " + "ObjectPropertyAssertion(:r :b3 :e2) ";
+
+    public RealisationWorkerThreadsTest(String name) {
+        super(name);
+    }
+
+    @Override
+    protected Configuration getConfiguration() {
+        Configuration configuration = super.getConfiguration();
+        configuration.numberOfWorkerThreads = 4;
+        return configuration;
+    }
+
+    public void testRealisation() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+        assertInstancesOf(NS_C("D"), false, IRIs("a1", "a2", "e2"));
+        assertInstancesOf(NS_C("B"), false, IRIs("e2"));
+        assertInstancesOf(NS_C("K"), false, IRIs("b1", "b3"));
+        assertSameInstancesAsWithOneThread("A", "B", "C", "D", "E", "F", "G", "K");
+    }
+
+    public void testInconsistentABox() throws Exception {
+        loadReasonerWithAxioms(AXIOMS + "ClassAssertion(:F :e2) ");
+        assertFalse(m_reasoner.isConsistent());
+    }
+
+    public void testInterruptedRealisation() throws Exception {
+        // every class has possible instances, which the workers check while the progress monitor interrupts the reasoner
+        StringBuilder axioms = new StringBuilder();
+        for (int classIndex = 0; classIndex < 20; classIndex++) {
+            axioms.append("SubClassOf(:B" + classIndex + " :D" + classIndex + ") SubClassOf(:E" + classIndex + " :D" + classIndex + ") ");
+            axioms.append("DisjointClasses(:B" + classIndex + " :F" + classIndex + ") ");
+            for (int individualIndex = 0; individualIndex < 10; individualIndex++) {
+                String individual = ":i" + classIndex + "_" + individualIndex;
+                axioms.append("ClassAssertion(ObjectUnionOf(:B" + classIndex + " :E" + classIndex + ") " + individual + ") ");
+                if (individualIndex % 2 == 0)
+                    axioms.append("ClassAssertion(:F" + classIndex + " " + individual + ") ");
+            }
+        }
+        loadOntologyWithAxioms(axioms.toString());
+        ParallelClassificationTest.InterruptingProgressMonitor progressMonitor = new ParallelClassificationTest.InterruptingProgressMonitor("Computing instances for all classes", 5);
+        Configuration configuration = getConfiguration();
+        configuration.reasonerProgressMonitor = progressMonitor;
+        createReasoner(configuration, null);
+        m_reasoner.classifyClasses();
+        progressMonitor.m_reasoner = m_reasoner;
+        try {
+            m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+            fail("The realisation should have been interrupted.");
+        } catch (ReasonerInterruptedException expected) {
+            // the reasoner is interrupted by the progress monitor
+        }
+        // the reasoner can be used after the interrupt
+        progressMonitor.m_reasoner = null;
+        m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+        assertSameInstancesAsWithOneThread(m_ontology.classesInSignature().toArray(OWLClass[]::new));
+    }
+
+    protected void assertSameInstancesAsWithOneThread(String... classes) {
+        OWLClass[] owlClasses = new OWLClass[classes.length];
+        for (int index = 0; index < classes.length; index++)
+            owlClasses[index] = NS_C(classes[index]);
+        assertSameInstancesAsWithOneThread(owlClasses);
+    }
+
+    protected void assertSameInstancesAsWithOneThread(OWLClass... classes) {
+        Reasoner singleThreadedReasoner = new Reasoner(super.getConfiguration(), m_ontology);
+        try {
+            singleThreadedReasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+            for (OWLClass owlClass : classes) {
+                assertEquals(singleThreadedReasoner.getInstances(owlClass, false), m_reasoner.getInstances(owlClass, false));
+                assertEquals(singleThreadedReasoner.getInstances(owlClass, true), m_reasoner.getInstances(owlClass, true));
+            }
+        } finally {
+            singleThreadedReasoner.dispose();
+        }
+    }
+}
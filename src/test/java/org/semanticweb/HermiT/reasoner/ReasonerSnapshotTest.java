@@ -0,0 +1,125 @@
+package org.semanticweb.HermiT.reasoner;
+
+import java.io.File;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+@SuppressWarnings("javadoc")
+public class ReasonerSnapshotTest extends AbstractReasonerTest {
+    protected File m_snapshotFile;
+
+    public ReasonerSnapshotTest(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() {
+        super.setUp();
+        try {
+            m_snapshotFile = File.createTempFile("hermit", ".snapshot");
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    protected void tearDown() {
+        m_snapshotFile.delete();
+        super.tearDown();
+    }
+
+    public void testPizzaHierarchies() throws Exception {
+        loadReasonerFromResource("res/pizza.xml");
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY, InferenceType.OBJECT_PROPERTY_HIERARCHY, InferenceType.DATA_PROPERTY_HIERARCHY);
+        restoreFromSnapshot();
+        assertTrue(m_reasoner.isPrecomputed(InferenceType.CLASS_HIERARCHY));
+        assertTrue(m_reasoner.isPrecomputed(InferenceType.OBJECT_PROPERTY_HIERARCHY));
+        assertHierarchies("res/pizza.xml.txt");
+    }
+
+    public void testWineHierarchies() throws Exception {
+        loadReasonerFromResource("res/wine.xml");
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY, InferenceType.OBJECT_PROPERTY_HIERARCHY, InferenceType.DATA_PROPERTY_HIERARCHY);
+        restoreFromSnapshot();
+        assertHierarchies("res/wine.xml.txt");
+    }
+
+    public void testKnownAndPossibleInstances() throws Exception {
+        String axioms = "EquivalentClasses(:a ObjectSomeValuesFrom(:r :b)) "
+                + "EquivalentClasses(:c ObjectSomeValuesFrom(:r :d)) " + "SubClassOf(:b :e) " + "SubClassOf(:d :e) "
+                + "SubClassOf(:f ObjectUnionOf(:b :d)) " + "ClassAssertion(:a :i1) " + "ClassAssertion(:c :i2) "
+                + "ObjectPropertyAssertion(:r :i3 :i4) " + "ClassAssertion(:e :i4) " + "ClassAssertion(:f :i5) "
+                + "SubObjectPropertyOf(:r :s) " + "SameIndividual(:i4 :i6) ";
+        loadReasonerWithAxioms(axioms);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY, InferenceType.CLASS_ASSERTIONS, InferenceType.OBJECT_PROPERTY_ASSERTIONS);
+        restoreFromSnapshot();
+        assertTrue(m_reasoner.isPrecomputed(InferenceType.CLASS_ASSERTIONS));
+        assertTrue(m_reasoner.isPrecomputed(InferenceType.OBJECT_PROPERTY_ASSERTIONS));
+        assertInstancesOf(NS_C("a"), false, IRIs("i1"));
+        assertInstancesOf(NS_C("e"), false, IRIs("i4", "i5", "i6"));
+        assertEquals(2, m_reasoner.getSameIndividuals(NS_NI("i4")).getSize());
+        assertTrue(m_reasoner.getObjectPropertyValues(NS_NI("i3"), NS_OP("s")).containsEntity(NS_NI("i4")));
+        OWLClassExpression some_r_e = m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("e"));
+        assertInstancesOf(some_r_e, false, IRIs("i1", "i2", "i3"));
+    }
+
+    public void testEntailmentsWithComplexProperties() throws Exception {
+        String axioms = "TransitiveObjectProperty(:r) " + "SubObjectPropertyOf(ObjectPropertyChain(:s :r) :r) "
+                + "SubClassOf(:a ObjectSomeValuesFrom(:s ObjectSomeValuesFrom(:r :b))) ";
+        loadReasonerWithAxioms(axioms);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        restoreFromSnapshot();
+        // the automata of the complex properties are recreated when they are needed
+        assertSubsumedBy(NS_C("a"), m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("b")), true);
+        assertSubsumedBy(m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("b"))), m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("r"), NS_C("b")), true);
+        assertSubsumedBy(NS_C("a"), m_dataFactory.getOWLObjectSomeValuesFrom(NS_OP("s"), NS_C("b")), false);
+    }
+
+    public void testStaleSnapshotIsRejected() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:a :b) ");
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        m_reasoner.saveSnapshot(m_snapshotFile);
+        m_reasoner.dispose();
+        m_ontologyManager.addAxiom(m_ontology, m_dataFactory.getOWLSubClassOfAxiom(NS_C("b"), NS_C("c")));
+        try {
+            Reasoner.loadSnapshot(getConfiguration(), m_ontology, m_snapshotFile);
+            fail("A snapshot of a different version of the ontology has been restored.");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testIncompatibleConfigurationIsRejected() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:a :b) ");
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        m_reasoner.saveSnapshot(m_snapshotFile);
+        m_reasoner.dispose();
+        Configuration configuration = getConfiguration();
+        configuration.ignoreUnsupportedDatatypes = !configuration.ignoreUnsupportedDatatypes;
+        try {
+            Reasoner.loadSnapshot(configuration, m_ontology, m_snapshotFile);
+            fail("A snapshot has been restored with a configuration that clausifies the ontology differently.");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testAnnotationsDoNotMakeSnapshotStale() throws Exception {
+        loadReasonerWithAxioms("SubClassOf(:a :b) ");
+        m_reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        m_reasoner.saveSnapshot(m_snapshotFile);
+        m_reasoner.dispose();
+        m_ontologyManager.addAxiom(m_ontology, m_dataFactory.getOWLAnnotationAssertionAxiom(m_dataFactory.getRDFSLabel(), NS_C("a").getIRI(), m_dataFactory.getOWLLiteral("a")));
+        m_reasoner = Reasoner.loadSnapshot(getConfiguration(), m_ontology, m_snapshotFile);
+        assertSubsumedBy("a", "b", true);
+    }
+
+    protected void restoreFromSnapshot() throws Exception {
+        m_reasoner.saveSnapshot(m_snapshotFile);
+        m_reasoner.dispose();
+        m_reasoner = Reasoner.loadSnapshot(getConfiguration(), m_ontology, m_snapshotFile);
+    }
+}
@@ -0,0 +1,78 @@
+package org.semanticweb.HermiT.reasoner;
+
+import org.semanticweb.HermiT.Configuration;
+import org.semanticweb.HermiT.Reasoner;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+@SuppressWarnings("javadoc")
+public class SaturatedABoxCacheTest extends AbstractReasonerTest {
+    protected static final String AXIOMS = "SubClassOf(:A ObjectUnionOf(:B :C)) " + "SubClassOf(:B :D) " + "SubClassOf(:C :D) "
+            + "SubClassOf(ObjectSomeValuesFrom(:r :D) :K) " + "SubClassOf(:E ObjectSomeValuesFrom(:r :F)) " + "SubClassOf(:F :B) "
+            + "DisjointClasses(:K :N) " + "ClassAssertion(:A :a) " + "ObjectPropertyAssertion(:r :b :a) " + "ClassAssertion(:E :c) "
+            + "ClassAssertion(:D :d) " + "ClassAssertion(ObjectUnionOf(:B :N) :e) " + "ObjectPropertyAssertion(:r :e :d) ";
+
+    public SaturatedABoxCacheTest(String name) {
+        super(name);
+    }
+
+    @Override
+    protected Configuration getConfiguration() {
+        Configuration configuration = super.getConfiguration();
+        configuration.cacheSaturatedABox = true;
+        return configuration;
+    }
+
+    public void testRealisation() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+        assertInstancesOf(NS_C("D"), false, IRIs("a", "d", "e"));
+        assertInstancesOf(NS_C("K"), false, IRIs("b", "c", "e"));
+        assertInstancesOf(NS_C("B"), false, IRIs("e"));
+        assertTrue(m_reasoner.getTableau().getNumberOfSaturatedABoxReuses() > 0);
+        assertSameInstancesAsWithoutCache("A", "B", "C", "D", "E", "F", "K", "N");
+    }
+
+    public void testEntailmentsAfterRealisation() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+        assertTrue(m_reasoner.hasType(NS_NI("e"), m_dataFactory.getOWLObjectComplementOf(NS_C("N")), false));
+        assertFalse(m_reasoner.hasType(NS_NI("a"), NS_C("B"), false));
+        assertTrue(m_reasoner.hasType(NS_NI("b"), NS_C("K"), false));
+        assertTrue(m_reasoner.isSatisfiable(m_dataFactory.getOWLObjectIntersectionOf(NS_C("A"), NS_C("N"))));
+    }
+
+    public void testSaturationIsReused() throws Exception {
+        loadReasonerWithAxioms(AXIOMS);
+        assertTrue(m_reasoner.isConsistent());
+        int numberOfReuses = m_reasoner.getTableau().getNumberOfSaturatedABoxReuses();
+        assertTrue(m_reasoner.hasType(NS_NI("b"), NS_C("K"), false));
+        assertFalse(m_reasoner.hasType(NS_NI("a"), NS_C("B"), false));
+        assertTrue(m_reasoner.getTableau().getNumberOfSaturatedABoxReuses() > numberOfReuses);
+    }
+
+    public void testNotCachedByDefault() throws Exception {
+        loadOntologyWithAxioms(AXIOMS);
+        createReasoner(super.getConfiguration(), null);
+        m_reasoner.precomputeInferences(InferenceType.CLASS_ASSERTIONS);
+        assertEquals(0, m_reasoner.getTableau().getNumberOfSaturatedABoxReuses());
+    }
+
+    public void testInconsistentABox() throws Exception {
+        loadReasonerWithAxioms(AXIOMS + "ClassAssertion(:N :b) ");
+        assertFalse(m_reasoner.isConsistent());
+    }
+
+    protected void assertSameInstancesAsWithoutCache(String... classes) {
+        Reasoner reasonerWithoutCache = new Reasoner(super.getConfiguration(), m_ontology);
+        try {
+            for (String className : classes) {
+                OWLClass owlClass = NS_C(className);
+                assertEquals(reasonerWithoutCache.getInstances(owlClass, false), m_reasoner.getInstances(owlClass, false));
+                assertEquals(reasonerWithoutCache.getInstances(owlClass, true), m_reasoner.getInstances(owlClass, true));
+            }
+        } finally {
+            reasonerWithoutCache.dispose();
+        }
+    }
+}
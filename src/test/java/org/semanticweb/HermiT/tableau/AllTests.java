@@ -8,7 +8,9 @@ public class AllTests {
     public static Test suite() {
         TestSuite suite = new TestSuite("Test for the HermiT internals (tableau)");
         // $JUnit-BEGIN$
-        suite.addTestSuite(TupleIndexTest.class);
+        suite.addTestSuite(TupleIndexTest.class);
+        suite.addTestSuite(EncodedTupleIndexTest.class);
+        suite.addTestSuite(OffHeapTupleIndexTest.class);
         suite.addTestSuite(TupleTableFullIndexTest.class);
         suite.addTestSuite(DLClauseEvaluationTest.class);
         suite.addTestSuite(DependencySetTest.class);
@@ -11,10 +11,13 @@ import org.semanticweb.HermiT.blocking.PairWiseDirectBlockingChecker;
 import org.semanticweb.HermiT.existentials.CreationOrderStrategy;
 import org.semanticweb.HermiT.existentials.ExistentialExpansionStrategy;
 import org.semanticweb.HermiT.model.Atom;
+import org.semanticweb.HermiT.model.AtomicConcept;
 import org.semanticweb.HermiT.model.AtomicRole;
 import org.semanticweb.HermiT.model.DLClause;
 import org.semanticweb.HermiT.model.DLOntology;
 import org.semanticweb.HermiT.model.Variable;
+import org.semanticweb.HermiT.monitor.TableauMonitor;
+import org.semanticweb.HermiT.monitor.TableauMonitorAdapter;
 @SuppressWarnings("javadoc")
 public class DLClauseEvaluationTest extends AbstractReasonerInternalsTest {
 
@@ -22,8 +25,13 @@ public class DLClauseEvaluationTest extends AbstractReasonerInternalsTest {
     protected static final AtomicRole S = AtomicRole.create("S");
     protected static final AtomicRole T = AtomicRole.create("T");
     protected static final AtomicRole U = AtomicRole.create("U");
+    protected static final AtomicConcept A = AtomicConcept.create("A");
+    protected static final AtomicConcept B = AtomicConcept.create("B");
+    protected static final AtomicConcept C = AtomicConcept.create("C");
     protected static final DLClause CL_1;
+    protected static final DLClause CL_2;
     protected static final DLOntology TEST_DL_ONTOLOGY;
+    protected static final DLOntology EXISTENTIAL_DL_ONTOLOGY;
 
     static {
         Variable X = Variable.create("X");
@@ -35,6 +43,11 @@ public class DLClauseEvaluationTest extends AbstractReasonerInternalsTest {
                 new Atom[] { Atom.create(R, X, Y), Atom.create(S, Y, Z), Atom.create(T, W, W) });
         Set<DLClause> dlClauses = Collections.singleton(CL_1);
         TEST_DL_ONTOLOGY = getTestDLOntology(dlClauses);
+
+        // Y and Z do not occur in the head, so the atoms from R(X,Y) on need to be matched only once for each X.
+        CL_2 = DLClause.create(new Atom[] { Atom.create(C, X) },
+                new Atom[] { Atom.create(A, X), Atom.create(R, X, Y), Atom.create(S, Y, Z), Atom.create(B, Z) });
+        EXISTENTIAL_DL_ONTOLOGY = getTestDLOntology(Collections.singleton(CL_2));
     }
 
     protected Tableau m_tableau;
@@ -46,13 +59,17 @@ public class DLClauseEvaluationTest extends AbstractReasonerInternalsTest {
 
     @Override
     protected void setUp() {
+        m_tableau = createTableau(TEST_DL_ONTOLOGY, null);
+        m_extensionManager = m_tableau.getExtensionManager();
+    }
+
+    protected static Tableau createTableau(DLOntology dlOntology, TableauMonitor tableauMonitor) {
         PairWiseDirectBlockingChecker directChecker = new PairWiseDirectBlockingChecker();
         BlockingSignatureCache blockingSignatureCache = new BlockingSignatureCache(directChecker);
         BlockingStrategy blockingStrategy = new AnywhereBlocking(directChecker, blockingSignatureCache);
         ExistentialExpansionStrategy ExpansionStrategy = new CreationOrderStrategy(blockingStrategy);
-        m_tableau = new Tableau(new InterruptFlag(-1), null, ExpansionStrategy, false, TEST_DL_ONTOLOGY, null,
+        return new Tableau(new InterruptFlag(-1), tableauMonitor, ExpansionStrategy, false, dlOntology, null,
                 new HashMap<String, Object>());
-        m_extensionManager = m_tableau.getExtensionManager();
     }
 
     public void testEvaluator() {
@@ -77,4 +94,51 @@ public class DLClauseEvaluationTest extends AbstractReasonerInternalsTest {
         assertRetrieval(m_extensionManager.getTernaryExtensionTable(), T(U, null, null),
                 ExtensionTable.View.EXTENSION_THIS, new Object[][] { T(U, d, e) });
     }
+
+    public void testExistentialBodyAtoms() {
+        MatchCounter matchCounter = new MatchCounter();
+        m_tableau = createTableau(EXISTENTIAL_DL_ONTOLOGY, matchCounter);
+        m_extensionManager = m_tableau.getExtensionManager();
+        DependencySet emptySet = m_tableau.getDependencySetFactory().emptySet();
+
+        Node a = m_tableau.createNewNINode(emptySet);
+        Node b = m_tableau.createNewNINode(emptySet);
+        Node c = m_tableau.createNewNINode(emptySet);
+        Node d = m_tableau.createNewNINode(emptySet);
+        Node e = m_tableau.createNewNINode(emptySet);
+        Node f = m_tableau.createNewNINode(emptySet);
+
+        m_extensionManager.addRoleAssertion(R, a, b, emptySet, false);
+        m_extensionManager.addRoleAssertion(R, a, c, emptySet, false);
+        m_extensionManager.addRoleAssertion(R, f, c, emptySet, false);
+        m_extensionManager.addRoleAssertion(S, b, d, emptySet, false);
+        m_extensionManager.addRoleAssertion(S, b, e, emptySet, false);
+        m_extensionManager.addRoleAssertion(S, c, e, emptySet, false);
+        m_extensionManager.addRoleAssertion(S, c, a, emptySet, false);
+        m_extensionManager.addConceptAssertion(B, d, emptySet, false);
+        m_extensionManager.addConceptAssertion(B, e, emptySet, false);
+        assertTrue(m_tableau.runCalculus());
+        assertEquals(0, matchCounter.m_numberOfMatches);
+
+        // only the A atoms are new, so the body is matched starting from A(X); a has three matches and f has one,
+        // but the evaluation stops after the first match of each
+        m_extensionManager.addConceptAssertion(A, a, emptySet, false);
+        m_extensionManager.addConceptAssertion(A, f, emptySet, false);
+        assertTrue(m_tableau.runCalculus());
+        assertEquals(2, matchCounter.m_numberOfMatches);
+
+        assertRetrieval(m_extensionManager.getBinaryExtensionTable(), T(C, null),
+                ExtensionTable.View.EXTENSION_THIS, new Object[][] { T(C, a), T(C, f) });
+    }
+
+    protected static class MatchCounter extends TableauMonitorAdapter {
+        private static final long serialVersionUID = 1L;
+
+        protected int m_numberOfMatches;
+
+        @Override
+        public void dlClauseMatchedStarted(DLClauseEvaluator dlClauseEvaluator, int dlClauseIndex) {
+            m_numberOfMatches++;
+        }
+    }
 }
@@ -0,0 +1,13 @@
+package org.semanticweb.HermiT.tableau;
+@SuppressWarnings("javadoc")
+public class EncodedTupleIndexTest extends TupleIndexTest {
+
+    public EncodedTupleIndexTest(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() {
+        m_tupleIndex = new TupleIndex(new int[] { 0, 1, 2 }, new TupleObjectEncoder());
+    }
+}
@@ -0,0 +1,13 @@
+package org.semanticweb.HermiT.tableau;
+@SuppressWarnings("javadoc")
+public class OffHeapTupleIndexTest extends TupleIndexTest {
+
+    public OffHeapTupleIndexTest(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() {
+        m_tupleIndex = new TupleIndex(new int[] { 0, 1, 2 }, new TupleObjectEncoder(), new OffHeapStorage(null));
+    }
+}